@@ -0,0 +1,86 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.BusinessAccount;
+import com.bankingsystem.models.Customer;
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.utils.MockDatabaseUtil;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * Seeds the in-memory store for a benchmark trial. Accounts start with large balances and the seeded
+ * history is mostly deposits, so benchmarked withdrawals stay clear of the funds and daily limits
+ * for the whole run.
+ */
+final class BenchmarkData {
+    static final int ACCOUNT_COUNT = 1024;
+    static final BigDecimal OPENING_BALANCE = new BigDecimal("10000000.00");
+    static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    final String[] accountNumbers = new String[ACCOUNT_COUNT];
+    final Integer[] accountIds = new Integer[ACCOUNT_COUNT];
+    final Integer userId;
+
+    private BenchmarkData(int transactionCount, int withdrawalEvery) {
+        // Service calls log every operation; console I/O would dominate the measurement
+        LogManager.getLogManager().reset();
+        Logger.getLogger("").setLevel(Level.OFF);
+
+        MockDatabaseUtil.startEmpty();
+        userId = MockDatabaseUtil.findUserByUsername("admin").getUserId();
+
+        Customer customer = new Customer("Bench", "Mark", "bench@bank.com", "555-555-5555",
+                                         "1 Benchmark Way", LocalDate.of(1980, 1, 1), "123-45-6789");
+        customer = MockDatabaseUtil.saveCustomer(customer);
+
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            AbstractAccount account = new BusinessAccount(String.format("9%09d", i), customer.getCustomerId(), 3);
+            account.setBalance(OPENING_BALANCE);
+            account = MockDatabaseUtil.saveAccount(account);
+            accountNumbers[i] = account.getAccountNumber();
+            accountIds[i] = account.getAccountId();
+        }
+
+        Integer depositTypeId = MockDatabaseUtil.getTransactionTypeId("Deposit");
+        Integer withdrawalTypeId = MockDatabaseUtil.getTransactionTypeId("Withdrawal");
+        for (int i = 0; i < transactionCount; i++) {
+            boolean withdrawal = withdrawalEvery > 0 && i % withdrawalEvery == 0;
+            BigDecimal amount = withdrawal ? AMOUNT.negate() : AMOUNT;
+            Transaction transaction = new Transaction(accountIds[i % ACCOUNT_COUNT],
+                withdrawal ? withdrawalTypeId : depositTypeId, amount, OPENING_BALANCE, OPENING_BALANCE.add(amount),
+                "Seed", "SEED" + i, userId);
+            transaction.setTransactionTypeName(withdrawal ? "Withdrawal" : "Deposit");
+            MockDatabaseUtil.saveTransaction(transaction);
+        }
+    }
+
+    /**
+     * Deposit-only history, for benchmarks that write.
+     */
+    static BenchmarkData forWrites(int transactionCount) {
+        return new BenchmarkData(transactionCount, 0);
+    }
+
+    /**
+     * History with one withdrawal in every four rows, for benchmarks that read.
+     */
+    static BenchmarkData forReads(int transactionCount) {
+        return new BenchmarkData(transactionCount, 4);
+    }
+
+    int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT);
+    }
+
+    /**
+     * An index other than {@code index}, for picking a transfer destination.
+     */
+    int otherIndex(int index) {
+        return (index + 1 + ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT - 1)) % ACCOUNT_COUNT;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bankingsystem.benchmarks;
+
+import java.io.File;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per thread count and writes one JSON result file per run.
+ *
+ * Usage: BenchmarkRunner [threads, e.g. 1,4,16] [include regex] [output directory]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String threadCounts = args.length > 0 ? args[0] : "1,4,16";
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        File outputDirectory = new File(args.length > 2 ? args[2] : "target/jmh");
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + outputDirectory);
+        }
+
+        for (String threadCount : threadCounts.split(",")) {
+            int threads = Integer.parseInt(threadCount.trim());
+            File result = new File(outputDirectory, "results-" + threads + "-threads.json");
+            Options options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.getPath())
+                .build();
+            new Runner(options).run();
+            System.out.println("Results written to " + result.getPath());
+        }
+    }
+}
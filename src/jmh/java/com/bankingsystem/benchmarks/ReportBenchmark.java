@@ -0,0 +1,50 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.dao.ReportDAO;
+import com.bankingsystem.models.AccountSummaryReport;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Account summary report over the whole seeded history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactionCount;
+
+    private ReportDAO reportDAO;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.forReads(transactionCount);
+        reportDAO = new ReportDAO();
+        endDate = LocalDate.now();
+        startDate = endDate.minusDays(30);
+    }
+
+    @Benchmark
+    public List<AccountSummaryReport> generateAccountSummaryReport() throws Exception {
+        return reportDAO.generateAccountSummaryReport(startDate, endDate);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.utils.MockDatabaseUtil;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-account history and daily withdrawal lookups on the in-memory store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreQueryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactionCount;
+
+    private BenchmarkData data;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.forReads(transactionCount);
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByAccountId() {
+        return MockDatabaseUtil.getTransactionsByAccountId(data.accountIds[data.randomIndex()]);
+    }
+
+    @Benchmark
+    public BigDecimal getDailyWithdrawalTotal() {
+        return MockDatabaseUtil.getDailyWithdrawalTotal(data.accountIds[data.randomIndex()], today);
+    }
+}
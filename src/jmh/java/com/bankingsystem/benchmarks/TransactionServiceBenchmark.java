@@ -0,0 +1,58 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.services.TransactionService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deposit, withdrawal and transfer through TransactionService against the in-memory store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactionCount;
+
+    private BenchmarkData data;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.forWrites(transactionCount);
+        transactionService = new TransactionService();
+    }
+
+    @Benchmark
+    public Transaction deposit() throws Exception {
+        return transactionService.deposit(data.accountNumbers[data.randomIndex()], BenchmarkData.AMOUNT, null, data.userId);
+    }
+
+    @Benchmark
+    public Transaction withdraw() throws Exception {
+        return transactionService.withdraw(data.accountNumbers[data.randomIndex()], BenchmarkData.AMOUNT, null, data.userId);
+    }
+
+    @Benchmark
+    public List<Transaction> transfer() throws Exception {
+        int from = data.randomIndex();
+        return transactionService.transfer(data.accountNumbers[from], data.accountNumbers[data.otherIndex(from)],
+                                           BenchmarkData.AMOUNT, null, data.userId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.bankingsystem.benchmarks;
+
+import com.bankingsystem.models.TransferRequest;
+import com.bankingsystem.models.TransferResult;
+import com.bankingsystem.services.AccountService;
+import com.bankingsystem.services.TransactionService;
+import com.bankingsystem.services.TransferService;
+import com.bankingsystem.services.UserService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TransferService.performTransfer, including its permission and daily-limit checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactionCount;
+
+    private BenchmarkData data;
+    private TransferService transferService;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.forWrites(transactionCount);
+        transferService = new TransferService(new AccountService(), new TransactionService(), new UserService());
+    }
+
+    @Benchmark
+    public TransferResult performTransfer() throws Exception {
+        int from = data.randomIndex();
+        TransferRequest request = new TransferRequest(data.accountNumbers[from], data.accountNumbers[data.otherIndex(from)],
+                                                      BenchmarkData.AMOUNT, null, data.userId);
+        return transferService.performTransfer(request);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankingsystem.config;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class AppConfig {
     public static final String APPLICATION_NAME = "Banking Management System";
@@ -23,6 +24,9 @@ public class AppConfig {
     public static final int LOGIN_ATTEMPT_RESET_MINUTES = 60;
     public static final int CAPTCHA_REQUIRED_AFTER_ATTEMPTS = 3;
     public static final int MAX_PROGRESSIVE_DELAY_SECONDS = 30;
+    // Login attempt tracking keeps at most this many usernames per cache and sweeps expired ones periodically
+    public static final int LOGIN_TRACKER_MAX_ENTRIES = 100_000;
+    public static final long LOGIN_TRACKER_SWEEP_SECONDS = 60;
     public static final int PASSWORD_EXPIRY_DAYS = 90;
     public static final int PASSWORD_EXPIRY_WARNING_DAYS = 14;
     public static final int PASSWORD_HISTORY_COUNT = 5;
@@ -61,8 +65,45 @@ public class AppConfig {
     public static final String EXPORT_DIRECTORY = "exports";
     public static final String IMPORT_DIRECTORY = "imports";
     public static final String REPORTS_DIRECTORY = "reports";
+    public static final String DATA_DIRECTORY = "data";
+
+    // Durable in-memory store (write-ahead log + snapshots)
+    public static final String DEFAULT_FSYNC_POLICY = "always";
+    public static final long WAL_FLUSH_INTERVAL_MILLIS = 50;
+    public static final int SNAPSHOT_INTERVAL_MINUTES = 15;
+    public static final long WAL_SNAPSHOT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+    // Memory-mapped transaction ledger kept alongside the durable store
+    public static final String LEDGER_DIRECTORY = "ledger";
+    public static final int LEDGER_SEGMENT_RECORDS = 1 << 20;
+    public static final int LEDGER_HEAP_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    // Metrics export
+    public static final long DEFAULT_METRICS_INTERVAL_SECONDS = 15;
 
     public static final String CSV_DELIMITER = ",";
+    public static final int EXPORT_CHUNK_SIZE = 5000;
+    public static final int EXPORT_BUFFER_BYTES = 64 * 1024;
+
+    // Shared pool for GUI background work; sized for blocking database calls rather than CPU
+    public static final int BACKGROUND_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    // Approval windows batch approval events and apply them once publishing pauses this long
+    public static final int APPROVAL_EVENT_DEBOUNCE_MS = 200;
+
+    // Approval SLAs: overdue requests escalate one role per interval, stale ones expire, decided ones are archived
+    public static final long APPROVAL_ESCALATION_MINUTES = 240;
+    public static final long APPROVAL_EXPIRY_HOURS = 72;
+    public static final long APPROVAL_ARCHIVE_HOURS = 24;
+    // Overdue requests climb this ladder from the requester's role; roles below the one reached no longer see them
+    public static final List<String> APPROVAL_ESCALATION_LADDER = List.of(ROLE_TELLER, ROLE_MANAGER, ROLE_ADMIN);
+
+    // Lazily paged transaction tables; the page size comes from the max transaction history setting
+    public static final int HISTORY_CACHED_PAGES = 8;
+
+    // Fork/join aggregation of report figures when no rollups cover the range
+    public static final int REPORT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    public static final int REPORT_SPLIT_THRESHOLD = 16384;
     public static final String PDF_FONT = "Helvetica";
     public static final int PDF_FONT_SIZE = 12;
 
@@ -72,6 +113,19 @@ public class AppConfig {
 
     public static final String LOG_FILE_NAME = "banking_system.log";
     public static final String ERROR_LOG_FILE_NAME = "banking_system_errors.log";
+    public static final String AUDIT_LOG_FILE_NAME = "audit.log";
+
+    // Asynchronous audit and error log writers
+    public static final int LOG_BUFFER_CAPACITY = 16384;
+    public static final long LOG_BATCH_INTERVAL_MILLIS = 10;
+    public static final long LOG_FORCE_INTERVAL_MILLIS = 1000;
+    public static final long LOG_ROTATE_BYTES = 32L * 1024 * 1024;
+    public static final int LOG_WRITE_ATTEMPTS = 3;
+
+    // Binary audit trail of DAO mutations
+    public static final String AUDIT_DIRECTORY = "audit";
+    public static final long AUDIT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final long AUDIT_FLUSH_INTERVAL_MILLIS = 200;
 
     public static final int MIN_PASSWORD_LENGTH = 8;
     public static final int MAX_PASSWORD_LENGTH = 50;
@@ -9,6 +9,17 @@ public class DatabaseConfig {
     public static final long IDLE_TIMEOUT = 600000;
     public static final long MAX_LIFETIME = 1800000;
 
+    // Storage backend, chosen once at startup
+    public static final String BACKEND_MEMORY = "memory";
+    public static final String BACKEND_SQLITE = "sqlite";
+
+    // SQLite connection pragmas: WAL lets readers run alongside the single writer
+    public static final String SQLITE_JOURNAL_MODE = "WAL";
+    public static final String SQLITE_SYNCHRONOUS = "NORMAL";
+    public static final int SQLITE_CACHE_SIZE_KB = 32768;
+    public static final int SQLITE_BUSY_TIMEOUT_MS = 5000;
+    public static final int STATEMENT_CACHE_SIZE = 64;
+
     public static final String CREATE_CUSTOMERS_TABLE = """
         CREATE TABLE IF NOT EXISTS customers (
             customer_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -68,7 +79,8 @@ public class DatabaseConfig {
             balance_before DECIMAL(15,2) NOT NULL,
             balance_after DECIMAL(15,2) NOT NULL,
             description TEXT,
-            reference_number TEXT UNIQUE NOT NULL,
+            reference_number TEXT NOT NULL,
+            status TEXT NOT NULL DEFAULT 'Completed',
             created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
             created_by INTEGER,
             FOREIGN KEY (account_id) REFERENCES accounts(account_id),
@@ -89,7 +101,13 @@ public class DatabaseConfig {
             is_active BOOLEAN DEFAULT 1,
             last_login TIMESTAMP,
             created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-            updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+            password_expiry_date TIMESTAMP,
+            last_password_change TIMESTAMP,
+            failed_login_attempts INTEGER DEFAULT 0,
+            locked_until TIMESTAMP,
+            mfa_enabled BOOLEAN DEFAULT 0,
+            password_history TEXT
         )
     """;
 
@@ -106,4 +124,35 @@ public class DatabaseConfig {
             FOREIGN KEY (user_id) REFERENCES users(user_id)
         )
     """;
+
+    public static final String CREATE_TRANSACTIONS_ACCOUNT_DATE_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_transactions_account_created ON transactions(account_id, created_date)";
+
+    // Serves the newest-first keyset scans used by streaming exports
+    public static final String CREATE_TRANSACTIONS_CREATED_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_transactions_created ON transactions(created_date, transaction_id)";
+
+    // Not unique: both legs of a transfer share one reference number
+    public static final String CREATE_TRANSACTIONS_REFERENCE_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_transactions_reference ON transactions(reference_number)";
+
+    public static final String CREATE_ACCOUNTS_CUSTOMER_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_accounts_customer ON accounts(customer_id)";
+
+    public static final String SEED_ACCOUNT_TYPES = """
+        INSERT OR IGNORE INTO account_types (type_id, type_name, minimum_balance, interest_rate, overdraft_limit, overdraft_fee, daily_withdrawal_limit)
+        VALUES (1, 'Savings', 100.00, 0.0250, 0, 0, 2000.00),
+               (2, 'Checking', 0, 0, 500.00, 25.00, 2000.00),
+               (3, 'Business', 1000.00, 0.0150, 0, 0, 5000.00)
+    """;
+
+    public static final String SEED_TRANSACTION_TYPES = """
+        INSERT OR IGNORE INTO transaction_types (type_id, type_name, description)
+        VALUES (1, 'Deposit', 'Cash or check deposit'),
+               (2, 'Withdrawal', 'Cash withdrawal'),
+               (3, 'Transfer', 'Transfer between accounts'),
+               (4, 'Fee', 'Account fee'),
+               (5, 'Interest', 'Interest payment'),
+               (6, 'Reversal', 'Transaction reversal')
+    """;
 }
@@ -1,9 +1,18 @@
 package com.bankingsystem.dao;
 
 import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.AuditRecord;
+import com.bankingsystem.models.BusinessAccount;
+import com.bankingsystem.models.CheckingAccount;
+import com.bankingsystem.models.SavingsAccount;
+import com.bankingsystem.utils.AuditTrail;
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
 import java.math.BigDecimal;
-import java.sql.SQLException;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -11,7 +20,53 @@ import java.util.logging.Level;
 public class AccountDAO {
     private static final Logger LOGGER = Logger.getLogger(AccountDAO.class.getName());
 
+    private static final MetricsRegistry.Timer FIND_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "findById");
+    private static final MetricsRegistry.Timer FIND_BY_ACCOUNT_NUMBER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "findByAccountNumber");
+    private static final MetricsRegistry.Timer FIND_BY_CUSTOMER_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "findByCustomerId");
+    private static final MetricsRegistry.Timer FIND_ALL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "findAll");
+    private static final MetricsRegistry.Timer SAVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "save");
+    private static final MetricsRegistry.Timer UPDATE_BALANCE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "updateBalance");
+    private static final MetricsRegistry.Timer COMPARE_AND_SET_BALANCE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "compareAndSetBalance");
+    private static final MetricsRegistry.Timer ADJUST_BALANCE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "adjustBalance");
+    private static final MetricsRegistry.Timer DELETE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "delete");
+    private static final MetricsRegistry.Timer DELETE_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "deletePermanently");
+    private static final MetricsRegistry.Timer CAN_DELETE_ACCOUNT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "canDeleteAccount");
+    private static final MetricsRegistry.Timer HAS_TRANSACTIONS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, AccountDAO.class, "hasTransactions");
+
+    // Compare in whole cents; the stored value is floating point
+    private static final String COMPARE_AND_SET_BALANCE =
+        "UPDATE accounts SET balance = ?, updated_date = ? WHERE account_id = ? AND CAST(ROUND(balance * 100) AS INTEGER) = ?";
+
+    private static final String UPDATE_ACCOUNT = """
+        UPDATE accounts SET account_number = ?, customer_id = ?, account_type_id = ?, status = ?, updated_date = ?
+        WHERE account_id = ?
+    """;
+
+    private static final String DELETE_ACCOUNT_TRANSACTIONS = "DELETE FROM transactions WHERE account_id = ?";
+    private static final String DELETE_ACCOUNT = "DELETE FROM accounts WHERE account_id = ?";
+
     public AbstractAccount findById(Integer accountId) throws SQLException {
+        return FIND_BY_ID_TIMER.time(this, accountId, AccountDAO::doFindById);
+    }
+
+    private AbstractAccount doFindById(Integer accountId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            List<AbstractAccount> accounts = query("SELECT * FROM accounts WHERE account_id = ?", accountId,
+                                                   "Failed to find account by ID: " + accountId);
+            return accounts.isEmpty() ? null : accounts.get(0);
+        }
         try {
             return MockDatabaseUtil.findAccountById(accountId);
         } catch (Exception e) {
@@ -21,6 +76,15 @@ public class AccountDAO {
     }
 
     public AbstractAccount findByAccountNumber(String accountNumber) throws SQLException {
+        return FIND_BY_ACCOUNT_NUMBER_TIMER.time(this, accountNumber, AccountDAO::doFindByAccountNumber);
+    }
+
+    private AbstractAccount doFindByAccountNumber(String accountNumber) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            List<AbstractAccount> accounts = query("SELECT * FROM accounts WHERE account_number = ?", accountNumber,
+                                                   "Failed to find account by number: " + accountNumber);
+            return accounts.isEmpty() ? null : accounts.get(0);
+        }
         try {
             return MockDatabaseUtil.findAccountByNumber(accountNumber);
         } catch (Exception e) {
@@ -30,6 +94,14 @@ public class AccountDAO {
     }
 
     public List<AbstractAccount> findByCustomerId(Integer customerId) throws SQLException {
+        return FIND_BY_CUSTOMER_ID_TIMER.time(this, customerId, AccountDAO::doFindByCustomerId);
+    }
+
+    private List<AbstractAccount> doFindByCustomerId(Integer customerId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return query("SELECT * FROM accounts WHERE customer_id = ? ORDER BY account_id", customerId,
+                         "Failed to find accounts by customer ID: " + customerId);
+        }
         try {
             return MockDatabaseUtil.getAccountsByCustomerId(customerId);
         } catch (Exception e) {
@@ -39,6 +111,13 @@ public class AccountDAO {
     }
 
     public List<AbstractAccount> findAll() throws SQLException {
+        return FIND_ALL_TIMER.time(this, AccountDAO::doFindAll);
+    }
+
+    private List<AbstractAccount> doFindAll() throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return query("SELECT * FROM accounts ORDER BY account_id", null, "Failed to retrieve all accounts");
+        }
         try {
             return MockDatabaseUtil.getAllAccounts();
         } catch (Exception e) {
@@ -48,8 +127,19 @@ public class AccountDAO {
     }
 
     public AbstractAccount save(AbstractAccount account) throws SQLException {
+        return SAVE_TIMER.time(this, account, AccountDAO::doSave);
+    }
+
+    private AbstractAccount doSave(AbstractAccount account) throws SQLException {
+        AuditRecord.Operation operation = account.getAccountId() == null
+            ? AuditRecord.Operation.INSERT : AuditRecord.Operation.UPDATE;
+        String oldValues = operation == AuditRecord.Operation.UPDATE ? valuesBeforeSave(account) : null;
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return audited(operation, oldValues,
+                           operation == AuditRecord.Operation.INSERT ? insert(account) : update(account));
+        }
         try {
-            return MockDatabaseUtil.saveAccount(account);
+            return audited(operation, oldValues, MockDatabaseUtil.saveAccount(account));
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to save account", e);
             throw new SQLException("Database error", e);
@@ -57,20 +147,115 @@ public class AccountDAO {
     }
 
     public boolean updateBalance(Integer accountId, BigDecimal newBalance) throws SQLException {
+        return UPDATE_BALANCE_TIMER.time(this, accountId, newBalance, AccountDAO::doUpdateBalance);
+    }
+
+    private boolean doUpdateBalance(Integer accountId, BigDecimal newBalance) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            String sql = "UPDATE accounts SET balance = ?, updated_date = ? WHERE account_id = ?";
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+                statement.setBigDecimal(1, newBalance);
+                statement.setTimestamp(2, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+                statement.setInt(3, accountId);
+                return auditBalance(accountId, null, newBalance, statement.executeUpdate() > 0);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to update account balance: " + accountId, e);
+                throw e;
+            }
+        }
         try {
-            return MockDatabaseUtil.updateAccountBalance(accountId, newBalance);
+            return auditBalance(accountId, null, newBalance, MockDatabaseUtil.updateAccountBalance(accountId, newBalance));
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to update account balance: " + accountId, e);
             throw new SQLException("Database error", e);
         }
     }
 
+    public boolean compareAndSetBalance(Integer accountId, BigDecimal expectedBalance, BigDecimal newBalance) throws SQLException {
+        return COMPARE_AND_SET_BALANCE_TIMER.time(this, accountId, expectedBalance, newBalance,
+                                                  AccountDAO::doCompareAndSetBalance);
+    }
+
+    private boolean doCompareAndSetBalance(Integer accountId, BigDecimal expectedBalance, BigDecimal newBalance) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, COMPARE_AND_SET_BALANCE)) {
+                bindCompareAndSet(statement, accountId, expectedBalance, newBalance);
+                return auditBalance(accountId, expectedBalance, newBalance, statement.executeUpdate() > 0);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to compare-and-set account balance: " + accountId, e);
+                throw e;
+            }
+        }
+        try {
+            return auditBalance(accountId, expectedBalance, newBalance,
+                                MockDatabaseUtil.compareAndSetAccountBalance(accountId, expectedBalance, newBalance));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to compare-and-set account balance: " + accountId, e);
+            throw new SQLException("Database error", e);
+        }
+    }
+
+    /**
+     * Queues a compare-and-set for the SQLite backend; if the balance has moved by the time the unit
+     * commits, the whole unit rolls back.
+     */
+    public void compareAndSetBalance(UnitOfWork work, Integer accountId, BigDecimal expectedBalance, BigDecimal newBalance) {
+        work.addGuarded(COMPARE_AND_SET_BALANCE, 1,
+                        statement -> bindCompareAndSet(statement, accountId, expectedBalance, newBalance));
+        work.afterCommit(() -> auditBalance(accountId, expectedBalance, newBalance, true));
+    }
+
+    public BigDecimal adjustBalance(Integer accountId, BigDecimal delta) throws SQLException {
+        return ADJUST_BALANCE_TIMER.time(this, accountId, delta, AccountDAO::doAdjustBalance);
+    }
+
+    private BigDecimal doAdjustBalance(Integer accountId, BigDecimal delta) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            String sql = "UPDATE accounts SET balance = ROUND(balance + ?, 2), updated_date = ? WHERE account_id = ? RETURNING balance";
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+                statement.setBigDecimal(1, delta);
+                statement.setTimestamp(2, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+                statement.setInt(3, accountId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return auditAdjustment(accountId, delta,
+                                           resultSet.next() ? DatabaseUtil.getMoney(resultSet, "balance") : null);
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to adjust account balance: " + accountId, e);
+                throw e;
+            }
+        }
+        try {
+            return auditAdjustment(accountId, delta, MockDatabaseUtil.adjustAccountBalance(accountId, delta));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to adjust account balance: " + accountId, e);
+            throw new SQLException("Database error", e);
+        }
+    }
+
     public boolean delete(Integer accountId) throws SQLException {
+        return DELETE_TIMER.time(this, accountId, AccountDAO::doDelete);
+    }
+
+    private boolean doDelete(Integer accountId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            if (updateStatus(accountId, "Closed")) {
+                auditClosed(accountId, null);
+                LOGGER.info("Account closed successfully: " + accountId);
+                return true;
+            }
+            return false;
+        }
         try {
             AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
             if (account != null) {
+                String previousStatus = account.getStatus();
                 account.setStatus("Closed");
                 MockDatabaseUtil.saveAccount(account);
+                auditClosed(accountId, previousStatus);
                 LOGGER.info("Account closed successfully: " + accountId);
                 return true;
             }
@@ -82,12 +267,20 @@ public class AccountDAO {
     }
 
     public boolean deletePermanently(Integer accountId) throws SQLException {
+        return DELETE_PERMANENTLY_TIMER.time(this, accountId, AccountDAO::doDeletePermanently);
+    }
+
+    private boolean doDeletePermanently(Integer accountId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return deletePermanentlyFromDatabase(accountId);
+        }
         try {
             AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
             if (account != null) {
                 String accountNumber = account.getAccountNumber();
                 boolean success = MockDatabaseUtil.deleteAccountPermanently(accountId);
                 if (success) {
+                    auditDeleted(accountId, describe(account));
                     LOGGER.warning("Account permanently deleted: " + accountNumber + " (ID: " + accountId + ")");
                     return true;
                 }
@@ -99,9 +292,47 @@ public class AccountDAO {
         }
     }
 
+    /**
+     * Queues an update of an existing account (balance excluded); the in-memory store saves immediately.
+     */
+    public void save(UnitOfWork work, AbstractAccount account) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            save(account);
+            return;
+        }
+        if (account.getAccountId() == null) {
+            throw new IllegalArgumentException("Only existing accounts can be saved in a unit of work");
+        }
+        String oldValues = valuesBeforeSave(account);
+        account.setUpdatedDate(LocalDateTime.now());
+        work.addGuarded(UPDATE_ACCOUNT, 1, statement -> bindUpdate(statement, account));
+        work.afterCommit(() -> audited(AuditRecord.Operation.UPDATE, oldValues, account));
+    }
+
+    /**
+     * Queues removal of the account and its transactions; the in-memory store deletes immediately.
+     */
+    public void deletePermanently(UnitOfWork work, Integer accountId) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            deletePermanently(accountId);
+            return;
+        }
+        work.add(DELETE_ACCOUNT_TRANSACTIONS, statement -> statement.setInt(1, accountId));
+        int deleted = work.add(DELETE_ACCOUNT, statement -> statement.setInt(1, accountId));
+        work.afterCommit(() -> {
+            if (work.getUpdateCount(deleted) != 0) {
+                auditDeleted(accountId, null);
+            }
+        });
+    }
+
     public boolean canDeleteAccount(Integer accountId) throws SQLException {
+        return CAN_DELETE_ACCOUNT_TIMER.time(this, accountId, AccountDAO::doCanDeleteAccount);
+    }
+
+    private boolean doCanDeleteAccount(Integer accountId) throws SQLException {
         try {
-            AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
+            AbstractAccount account = findById(accountId);
             if (account == null) {
                 LOGGER.warning("Cannot delete account - account not found: " + accountId);
                 return false;
@@ -121,6 +352,233 @@ public class AccountDAO {
     }
 
     public boolean hasTransactions(Integer accountId) throws SQLException {
-        return !MockDatabaseUtil.getTransactionsByAccountId(accountId).isEmpty();
+        return HAS_TRANSACTIONS_TIMER.time(this, accountId, AccountDAO::doHasTransactions);
+    }
+
+    private boolean doHasTransactions(Integer accountId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, "SELECT 1 FROM transactions WHERE account_id = ? LIMIT 1")) {
+                statement.setInt(1, accountId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next();
+                }
+            }
+        }
+        return MockDatabaseUtil.hasTransactions(accountId);
+    }
+
+    private AbstractAccount insert(AbstractAccount account) throws SQLException {
+        String sql = """
+            INSERT INTO accounts (account_number, customer_id, account_type_id, balance, status, created_date, updated_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            statement.setString(1, account.getAccountNumber());
+            statement.setInt(2, account.getCustomerId());
+            statement.setInt(3, account.getAccountTypeId());
+            statement.setBigDecimal(4, account.getBalance());
+            statement.setString(5, account.getStatus());
+            statement.setTimestamp(6, DatabaseUtil.toTimestamp(account.getCreatedDate()));
+            statement.setTimestamp(7, DatabaseUtil.toTimestamp(account.getUpdatedDate()));
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Creating account failed, no rows affected");
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    account.setAccountId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("Creating account failed, no ID obtained");
+                }
+            }
+            return account;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to create account: " + account.getAccountNumber(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Updates everything except the balance, which only moves through the balance methods so a stale
+     * account object cannot overwrite a concurrent deposit.
+     */
+    private AbstractAccount update(AbstractAccount account) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, UPDATE_ACCOUNT)) {
+
+            account.setUpdatedDate(LocalDateTime.now());
+            bindUpdate(statement, account);
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Updating account failed, no rows affected");
+            }
+            return account;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to update account: " + account.getAccountNumber(), e);
+            throw e;
+        }
+    }
+
+    private static void bindUpdate(PreparedStatement statement, AbstractAccount account) throws SQLException {
+        statement.setString(1, account.getAccountNumber());
+        statement.setInt(2, account.getCustomerId());
+        statement.setInt(3, account.getAccountTypeId());
+        statement.setString(4, account.getStatus());
+        statement.setTimestamp(5, DatabaseUtil.toTimestamp(account.getUpdatedDate()));
+        statement.setInt(6, account.getAccountId());
+    }
+
+    private static void bindCompareAndSet(PreparedStatement statement, Integer accountId,
+                                          BigDecimal expectedBalance, BigDecimal newBalance) throws SQLException {
+        statement.setBigDecimal(1, newBalance);
+        statement.setTimestamp(2, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+        statement.setInt(3, accountId);
+        statement.setLong(4, AbstractAccount.toCents(expectedBalance));
+    }
+
+    /**
+     * The stored account as it was before this save. The in-memory store hands out its live rows, so when the
+     * caller edited that very object the old values come from the audit trail instead.
+     */
+    private String valuesBeforeSave(AbstractAccount account) throws SQLException {
+        if (!AuditTrail.isEnabled()) {
+            return null;
+        }
+        AbstractAccount stored = findById(account.getAccountId());
+        if (stored != null && stored != account) {
+            return describe(stored);
+        }
+        return AuditTrail.previousValues(AuditRecord.ACCOUNTS, account.getAccountId(), describe(account));
+    }
+
+    private static AbstractAccount audited(AuditRecord.Operation operation, String oldValues, AbstractAccount account) {
+        if (AuditTrail.isEnabled() && account != null) {
+            AuditTrail.record(operation, AuditRecord.ACCOUNTS, account.getAccountId(), null, oldValues,
+                              describe(account));
+        }
+        return account;
+    }
+
+    private static boolean auditBalance(Integer accountId, BigDecimal oldBalance, BigDecimal newBalance, boolean changed) {
+        if (changed && AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.ACCOUNTS, accountId, null,
+                              oldBalance != null ? "balance=" + oldBalance : null, "balance=" + newBalance);
+        }
+        return changed;
+    }
+
+    private static BigDecimal auditAdjustment(Integer accountId, BigDecimal delta, BigDecimal newBalance) {
+        if (newBalance != null && AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.ACCOUNTS, accountId, null,
+                              "balance=" + newBalance.subtract(delta), "balance=" + newBalance);
+        }
+        return newBalance;
+    }
+
+    private static void auditClosed(Integer accountId, String previousStatus) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.ACCOUNTS, accountId, null,
+                              previousStatus != null ? "status=" + previousStatus : null, "status=Closed");
+        }
+    }
+
+    private static void auditDeleted(Integer accountId, String oldValues) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.DELETE, AuditRecord.ACCOUNTS, accountId, null, oldValues, null);
+        }
+    }
+
+    private static String describe(AbstractAccount account) {
+        return "account_number=" + account.getAccountNumber() + ";customer_id=" + account.getCustomerId()
+            + ";account_type_id=" + account.getAccountTypeId() + ";balance=" + account.getBalance()
+            + ";status=" + account.getStatus();
+    }
+
+    private boolean updateStatus(Integer accountId, String status) throws SQLException {
+        String sql = "UPDATE accounts SET status = ?, updated_date = ? WHERE account_id = ?";
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+            statement.setString(1, status);
+            statement.setTimestamp(2, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+            statement.setInt(3, accountId);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to update account status: " + accountId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the account and its transactions in one database transaction.
+     */
+    private boolean deletePermanentlyFromDatabase(Integer accountId) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement deleteTransactions = DatabaseUtil.prepareCached(connection, DELETE_ACCOUNT_TRANSACTIONS);
+                 PreparedStatement deleteAccount = DatabaseUtil.prepareCached(connection, DELETE_ACCOUNT)) {
+                deleteTransactions.setInt(1, accountId);
+                int transactionCount = deleteTransactions.executeUpdate();
+                deleteAccount.setInt(1, accountId);
+                boolean deleted = deleteAccount.executeUpdate() > 0;
+                connection.commit();
+                if (deleted) {
+                    auditDeleted(accountId, "transactions_deleted=" + transactionCount);
+                    LOGGER.warning("Account and " + transactionCount + " related transactions permanently deleted (ID: " + accountId + ")");
+                }
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to permanently delete account: " + accountId, e);
+            throw e;
+        }
+    }
+
+    private List<AbstractAccount> query(String sql, Object key, String failureMessage) throws SQLException {
+        List<AbstractAccount> accounts = new ArrayList<>();
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
+            if (key != null) {
+                statement.setObject(1, key);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    accounts.add(mapResultSetToAccount(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, failureMessage, e);
+            throw e;
+        }
+        return accounts;
+    }
+
+    private AbstractAccount mapResultSetToAccount(ResultSet resultSet) throws SQLException {
+        int accountTypeId = resultSet.getInt("account_type_id");
+        AbstractAccount account;
+        switch (accountTypeId) {
+            case 1: account = new SavingsAccount(); break;
+            case 2: account = new CheckingAccount(); break;
+            case 3: account = new BusinessAccount(); break;
+            default: throw new SQLException("Unknown account type ID: " + accountTypeId);
+        }
+        account.setAccountId(resultSet.getInt("account_id"));
+        account.setAccountNumber(resultSet.getString("account_number"));
+        account.setCustomerId(resultSet.getInt("customer_id"));
+        account.setAccountTypeId(accountTypeId);
+        account.setBalance(DatabaseUtil.getMoney(resultSet, "balance"));
+        account.setStatus(resultSet.getString("status"));
+        account.setCreatedDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("created_date")));
+        account.setUpdatedDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("updated_date")));
+        return account;
     }
 }
@@ -1,28 +1,56 @@
 package com.bankingsystem.dao;
 
+import com.bankingsystem.models.AuditRecord;
 import com.bankingsystem.models.Customer;
+import com.bankingsystem.utils.AuditTrail;
 import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.EncryptionUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class CustomerDAO {
     private static final Logger LOGGER = Logger.getLogger(CustomerDAO.class.getName());
+
+    private static final MetricsRegistry.Timer FIND_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "findById");
+    private static final MetricsRegistry.Timer FIND_BY_EMAIL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "findByEmail");
+    private static final MetricsRegistry.Timer FIND_BY_SSN_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "findBySSN");
+    private static final MetricsRegistry.Timer FIND_ALL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "findAll");
+    private static final MetricsRegistry.Timer SEARCH_BY_NAME_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "searchByName");
+    private static final MetricsRegistry.Timer SAVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "save");
+    private static final MetricsRegistry.Timer DELETE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, CustomerDAO.class, "delete");
+    private static final Comparator<Customer> BY_NAME = Comparator
+        .comparing(Customer::getLastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(Customer::getFirstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
     
     public Customer findById(Integer customerId) throws SQLException {
-        if (!DatabaseUtil.isSQLiteDriverAvailable()) {
-            LOGGER.info("SQLite driver not available, using mock database for customer lookup");
+        return FIND_BY_ID_TIMER.time(this, customerId, CustomerDAO::doFindById);
+    }
+
+    private Customer doFindById(Integer customerId) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
             return MockDatabaseUtil.findCustomerById(customerId);
         }
 
         String sql = "SELECT * FROM customers WHERE customer_id = ?";
 
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
 
             statement.setInt(1, customerId);
 
@@ -32,21 +60,32 @@ public class CustomerDAO {
                 }
             }
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Database connection failed, falling back to mock database for customer ID: " + customerId, e);
-            return MockDatabaseUtil.findCustomerById(customerId);
+            LOGGER.log(Level.SEVERE, "Failed to find customer by ID: " + customerId, e);
+            throw e;
         }
 
         return null;
     }
     
     public Customer findByEmail(String email) throws SQLException {
+        return FIND_BY_EMAIL_TIMER.time(this, email, CustomerDAO::doFindByEmail);
+    }
+
+    private Customer doFindByEmail(String email) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            return MockDatabaseUtil.getAllCustomers().stream()
+                .filter(customer -> email != null && email.equalsIgnoreCase(customer.getEmail()))
+                .findFirst()
+                .orElse(null);
+        }
+
         String sql = "SELECT * FROM customers WHERE email = ?";
-        
+
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
             statement.setString(1, email);
-            
+
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     return mapResultSetToCustomer(resultSet);
@@ -56,18 +95,29 @@ public class CustomerDAO {
             LOGGER.log(Level.SEVERE, "Failed to find customer by email: " + email, e);
             throw e;
         }
-        
+
         return null;
     }
     
     public Customer findBySSN(String ssn) throws SQLException {
+        return FIND_BY_SSN_TIMER.time(this, ssn, CustomerDAO::doFindBySSN);
+    }
+
+    private Customer doFindBySSN(String ssn) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            return MockDatabaseUtil.getAllCustomers().stream()
+                .filter(customer -> ssn != null && ssn.equals(customer.getSsn()))
+                .findFirst()
+                .orElse(null);
+        }
+
         String sql = "SELECT * FROM customers WHERE ssn = ?";
-        
+
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
             statement.setString(1, ssn);
-            
+
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     return mapResultSetToCustomer(resultSet);
@@ -77,18 +127,28 @@ public class CustomerDAO {
             LOGGER.log(Level.SEVERE, "Failed to find customer by SSN", e);
             throw e;
         }
-        
+
         return null;
     }
     
     public List<Customer> findAll() throws SQLException {
+        return FIND_ALL_TIMER.time(this, CustomerDAO::doFindAll);
+    }
+
+    private List<Customer> doFindAll() throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            return MockDatabaseUtil.getAllCustomers().stream()
+                .sorted(BY_NAME)
+                .collect(Collectors.toList());
+        }
+
         String sql = "SELECT * FROM customers ORDER BY last_name, first_name";
         List<Customer> customers = new ArrayList<>();
-        
+
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql);
              ResultSet resultSet = statement.executeQuery()) {
-            
+
             while (resultSet.next()) {
                 customers.add(mapResultSetToCustomer(resultSet));
             }
@@ -96,25 +156,38 @@ public class CustomerDAO {
             LOGGER.log(Level.SEVERE, "Failed to retrieve all customers", e);
             throw e;
         }
-        
+
         return customers;
     }
     
     public List<Customer> searchByName(String searchTerm) throws SQLException {
+        return SEARCH_BY_NAME_TIMER.time(this, searchTerm, CustomerDAO::doSearchByName);
+    }
+
+    private List<Customer> doSearchByName(String searchTerm) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            String term = searchTerm.toLowerCase();
+            return MockDatabaseUtil.getAllCustomers().stream()
+                .filter(customer -> (customer.getFirstName() != null && customer.getFirstName().toLowerCase().contains(term))
+                                 || (customer.getLastName() != null && customer.getLastName().toLowerCase().contains(term)))
+                .sorted(BY_NAME)
+                .collect(Collectors.toList());
+        }
+
         String sql = """
             SELECT * FROM customers 
             WHERE LOWER(first_name) LIKE LOWER(?) OR LOWER(last_name) LIKE LOWER(?) 
             ORDER BY last_name, first_name
         """;
         List<Customer> customers = new ArrayList<>();
-        
+
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
             String searchPattern = "%" + searchTerm + "%";
             statement.setString(1, searchPattern);
             statement.setString(2, searchPattern);
-            
+
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
                     customers.add(mapResultSetToCustomer(resultSet));
@@ -124,36 +197,75 @@ public class CustomerDAO {
             LOGGER.log(Level.SEVERE, "Failed to search customers by name: " + searchTerm, e);
             throw e;
         }
-        
+
         return customers;
     }
     
     public Customer save(Customer customer) throws SQLException {
-        if (!DatabaseUtil.isSQLiteDriverAvailable()) {
-            LOGGER.info("SQLite driver not available, using mock database for customer save");
-            return MockDatabaseUtil.saveCustomer(customer);
+        return SAVE_TIMER.time(this, customer, CustomerDAO::doSave);
+    }
+
+    private Customer doSave(Customer customer) throws SQLException {
+        AuditRecord.Operation operation = customer.getCustomerId() == null
+            ? AuditRecord.Operation.INSERT : AuditRecord.Operation.UPDATE;
+        String oldValues = operation == AuditRecord.Operation.UPDATE ? valuesBeforeSave(customer) : null;
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            return audited(operation, oldValues, MockDatabaseUtil.saveCustomer(customer));
         }
 
-        try {
-            if (customer.getCustomerId() == null) {
-                return insert(customer);
-            } else {
-                return update(customer);
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Database operation failed, falling back to mock database for customer save", e);
-            return MockDatabaseUtil.saveCustomer(customer);
+        if (customer.getCustomerId() == null) {
+            return audited(operation, oldValues, insert(customer));
+        } else {
+            return audited(operation, oldValues, update(customer));
         }
     }
     
+    /**
+     * Records the customer's new state; the SSN is stored masked.
+     */
+    private static Customer audited(AuditRecord.Operation operation, String oldValues, Customer customer) {
+        if (AuditTrail.isEnabled() && customer != null) {
+            AuditTrail.record(operation, AuditRecord.CUSTOMERS, customer.getCustomerId(), null, oldValues,
+                              describe(customer));
+        }
+        return customer;
+    }
+
+    /**
+     * The stored customer as it was before this save; see {@link AccountDAO} for why the trail is the fallback.
+     */
+    private String valuesBeforeSave(Customer customer) throws SQLException {
+        if (!AuditTrail.isEnabled()) {
+            return null;
+        }
+        Customer stored = findById(customer.getCustomerId());
+        if (stored != null && stored != customer) {
+            return describe(stored);
+        }
+        return AuditTrail.previousValues(AuditRecord.CUSTOMERS, customer.getCustomerId(), describe(customer));
+    }
+
+    private static String describe(Customer customer) {
+        return "first_name=" + customer.getFirstName() + ";last_name=" + customer.getLastName()
+            + ";email=" + customer.getEmail() + ";phone=" + customer.getPhone()
+            + ";address=" + customer.getAddress() + ";date_of_birth=" + customer.getDateOfBirth()
+            + ";ssn=" + EncryptionUtil.maskSSN(customer.getSsn());
+    }
+
+    private static void auditDeleted(Integer customerId) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.DELETE, AuditRecord.CUSTOMERS, customerId, null, null, null);
+        }
+    }
+
     private Customer insert(Customer customer) throws SQLException {
         String sql = """
-            INSERT INTO customers (first_name, last_name, email, phone, address, date_of_birth, ssn) 
-            VALUES (?, ?, ?, ?, ?, ?, ?)
+            INSERT INTO customers (first_name, last_name, email, phone, address, date_of_birth, ssn, created_date, updated_date) 
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
         """;
         
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
             
             statement.setString(1, customer.getFirstName());
             statement.setString(2, customer.getLastName());
@@ -162,6 +274,9 @@ public class CustomerDAO {
             statement.setString(5, customer.getAddress());
             statement.setDate(6, Date.valueOf(customer.getDateOfBirth()));
             statement.setString(7, customer.getSsn());
+            Timestamp now = DatabaseUtil.toTimestamp(LocalDateTime.now());
+            statement.setTimestamp(8, customer.getCreatedDate() != null ? DatabaseUtil.toTimestamp(customer.getCreatedDate()) : now);
+            statement.setTimestamp(9, now);
             
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -187,12 +302,12 @@ public class CustomerDAO {
     private Customer update(Customer customer) throws SQLException {
         String sql = """
             UPDATE customers SET first_name = ?, last_name = ?, email = ?, phone = ?, 
-                               address = ?, date_of_birth = ?, ssn = ?, updated_date = CURRENT_TIMESTAMP 
+                               address = ?, date_of_birth = ?, ssn = ?, updated_date = ? 
             WHERE customer_id = ?
         """;
         
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
             
             statement.setString(1, customer.getFirstName());
             statement.setString(2, customer.getLastName());
@@ -201,7 +316,8 @@ public class CustomerDAO {
             statement.setString(5, customer.getAddress());
             statement.setDate(6, Date.valueOf(customer.getDateOfBirth()));
             statement.setString(7, customer.getSsn());
-            statement.setInt(8, customer.getCustomerId());
+            statement.setTimestamp(8, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+            statement.setInt(9, customer.getCustomerId());
             
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -217,15 +333,29 @@ public class CustomerDAO {
     }
     
     public boolean delete(Integer customerId) throws SQLException {
+        return DELETE_TIMER.time(this, customerId, CustomerDAO::doDelete);
+    }
+
+    private boolean doDelete(Integer customerId) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            boolean deleted = MockDatabaseUtil.deleteCustomerPermanently(customerId);
+            if (deleted) {
+                auditDeleted(customerId);
+                LOGGER.info("Customer deleted successfully: " + customerId);
+            }
+            return deleted;
+        }
+
         String sql = "DELETE FROM customers WHERE customer_id = ?";
-        
+
         try (Connection connection = DatabaseUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
             statement.setInt(1, customerId);
             int affectedRows = statement.executeUpdate();
-            
+
             if (affectedRows > 0) {
+                auditDeleted(customerId);
                 LOGGER.info("Customer deleted successfully: " + customerId);
                 return true;
             }
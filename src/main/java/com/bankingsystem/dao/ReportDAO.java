@@ -1,23 +1,72 @@
 package com.bankingsystem.dao;
 
 import com.bankingsystem.models.*;
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.ReportRollups;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 public class ReportDAO {
     private static final Logger LOGGER = Logger.getLogger(ReportDAO.class.getName());
 
+    private static final MetricsRegistry.Timer GENERATE_USER_ACTIVITY_REPORT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "generateUserActivityReport");
+    private static final MetricsRegistry.Timer GENERATE_ACCOUNT_SUMMARY_REPORT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "generateAccountSummaryReport");
+    private static final MetricsRegistry.Timer GENERATE_TRANSACTION_ANALYSIS_REPORT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "generateTransactionAnalysisReport");
+    private static final MetricsRegistry.Timer DELETE_USER_ACTIVITY_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "deleteUserActivityReportData");
+    private static final MetricsRegistry.Timer DELETE_ACCOUNT_SUMMARY_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "deleteAccountSummaryReportData");
+    private static final MetricsRegistry.Timer DELETE_TRANSACTION_ANALYSIS_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "deleteTransactionAnalysisReportData");
+    private static final MetricsRegistry.Timer RESTORE_USER_ACTIVITY_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "restoreUserActivityReportData");
+    private static final MetricsRegistry.Timer RESTORE_ACCOUNT_SUMMARY_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "restoreAccountSummaryReportData");
+    private static final MetricsRegistry.Timer RESTORE_TRANSACTION_ANALYSIS_REPORT_DATA_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "restoreTransactionAnalysisReportData");
+    private static final MetricsRegistry.Timer DELETE_ACCOUNT_FROM_REPORTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "deleteAccountFromReports");
+    private static final MetricsRegistry.Timer DELETE_ACCOUNT_BY_NUMBER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "deleteAccountByNumber");
+    private static final MetricsRegistry.Timer HAS_ACTIVE_TRANSACTIONS_IN_REPORTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "hasActiveTransactionsInReports");
+    private static final MetricsRegistry.Timer IS_ACCOUNT_IN_ACTIVE_REPORTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "isAccountInActiveReports");
+    private static final MetricsRegistry.Timer RESTORE_ACCOUNT_FROM_REPORTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, ReportDAO.class, "restoreAccountFromReports");
+
+    private final UserDAO userDAO = new UserDAO();
+    private final CustomerDAO customerDAO = new CustomerDAO();
+    private final AccountDAO accountDAO = new AccountDAO();
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+
     public List<UserActivityReport> generateUserActivityReport(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return GENERATE_USER_ACTIVITY_REPORT_TIMER.time(this, startDate, endDate,
+                                                        ReportDAO::doGenerateUserActivityReport);
+    }
+
+    private List<UserActivityReport> doGenerateUserActivityReport(LocalDate startDate, LocalDate endDate) throws SQLException {
         try {
             List<UserActivityReport> reports = new ArrayList<>();
-            List<User> users = MockDatabaseUtil.getAllUsers();
+            List<User> users = userDAO.findAll();
+            ReportRollups.Totals totals = loadTotals(startDate, endDate);
+
+            // Accounts opened in the period; the same figure applies to every user
+            long accountsOpened = accountDAO.findAll().stream()
+                .filter(a -> a.getCreatedDate() != null &&
+                           !a.getCreatedDate().toLocalDate().isBefore(startDate) &&
+                           !a.getCreatedDate().toLocalDate().isAfter(endDate))
+                .count();
 
             for (User user : users) {
                 UserActivityReport report = new UserActivityReport(user.getUserId(), user.getUsername(), user.getRole());
@@ -30,21 +79,8 @@ public class ReportDAO {
                     }
                 }
 
-                List<Transaction> userTransactions = MockDatabaseUtil.getAllTransactions().stream()
-                    .filter(t -> user.getUserId().equals(t.getCreatedBy()))
-                    .filter(t -> !t.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                               !t.getCreatedDate().toLocalDate().isAfter(endDate))
-                    .collect(Collectors.toList());
-
-                report.setTransactionCount(userTransactions.size());
-
-                List<AbstractAccount> userAccounts = MockDatabaseUtil.getAllAccounts().stream()
-                    .filter(a -> a.getCreatedDate() != null &&
-                               !a.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                               !a.getCreatedDate().toLocalDate().isAfter(endDate))
-                    .collect(Collectors.toList());
-
-                report.setAccountsManaged(userAccounts.size());
+                report.setTransactionCount(totals.getUserTransactionCount(user.getUserId()));
+                report.setAccountsManaged((int) accountsOpened);
 
                 String activitySummary = String.format("Processed %d transactions, managed %d accounts",
                                                      report.getTransactionCount(), report.getAccountsManaged());
@@ -63,9 +99,15 @@ public class ReportDAO {
     }
 
     public List<AccountSummaryReport> generateAccountSummaryReport(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return GENERATE_ACCOUNT_SUMMARY_REPORT_TIMER.time(this, startDate, endDate,
+                                                          ReportDAO::doGenerateAccountSummaryReport);
+    }
+
+    private List<AccountSummaryReport> doGenerateAccountSummaryReport(LocalDate startDate, LocalDate endDate) throws SQLException {
         try {
             List<AccountSummaryReport> reports = new ArrayList<>();
-            List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            List<AbstractAccount> accounts = accountDAO.findAll();
+            ReportRollups.Totals totals = loadTotals(startDate, endDate);
 
             LOGGER.info(String.format("Generating account summary report for %d accounts between %s and %s",
                 accounts.size(), startDate, endDate));
@@ -82,37 +124,19 @@ public class ReportDAO {
                 report.setStatus(account.getStatus());
                 report.setCreatedDate(account.getCreatedDate());
 
-                List<Transaction> accountTransactions = MockDatabaseUtil.getTransactionsByAccountId(account.getAccountId())
-                    .stream()
-                    .filter(t -> !t.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                               !t.getCreatedDate().toLocalDate().isAfter(endDate))
-                    .collect(Collectors.toList());
-
-                BigDecimal totalDeposits = BigDecimal.ZERO;
-                BigDecimal totalWithdrawals = BigDecimal.ZERO;
-                LocalDateTime lastActivity = null;
-
-                // Calculate transaction totals based on transaction type, not amount sign
-                for (Transaction transaction : accountTransactions) {
-                    String transactionType = transaction.getTransactionType();
-                    BigDecimal amount = transaction.getAmount().abs(); // Always use absolute value
-
-                    if ("Deposit".equals(transactionType) || "Transfer In".equals(transactionType)) {
-                        totalDeposits = totalDeposits.add(amount);
-                    } else if ("Withdrawal".equals(transactionType) || "Transfer Out".equals(transactionType)) {
-                        totalWithdrawals = totalWithdrawals.add(amount);
-                    }
-
-                    if (lastActivity == null || transaction.getCreatedDate().isAfter(lastActivity)) {
-                        lastActivity = transaction.getCreatedDate();
-                    }
+                // Totals are classified by transaction type, not amount sign, using absolute amounts
+                ReportRollups.AccountTotals activity = totals.getAccount(account.getAccountId());
+                if (activity != null) {
+                    report.setTotalDeposits(activity.getTotalDeposits());
+                    report.setTotalWithdrawals(activity.getTotalWithdrawals());
+                    report.setTransactionCount(activity.getTransactionCount());
+                    report.setLastActivityDate(activity.getLastActivity());
+                } else {
+                    report.setTotalDeposits(BigDecimal.ZERO);
+                    report.setTotalWithdrawals(BigDecimal.ZERO);
+                    report.setTransactionCount(0);
                 }
 
-                report.setTotalDeposits(totalDeposits);
-                report.setTotalWithdrawals(totalWithdrawals);
-                report.setTransactionCount(accountTransactions.size());
-                report.setLastActivityDate(lastActivity);
-
                 reports.add(report);
             }
 
@@ -126,39 +150,34 @@ public class ReportDAO {
     }
 
     public List<TransactionAnalysisReport> generateTransactionAnalysisReport(LocalDate startDate, LocalDate endDate) throws SQLException {
-        try {
-            Map<String, TransactionAnalysisReport> reportMap = new HashMap<>();
-            List<Transaction> transactions = MockDatabaseUtil.getAllTransactions().stream()
-                .filter(t -> !t.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                           !t.getCreatedDate().toLocalDate().isAfter(endDate))
-                .collect(Collectors.toList());
-
-            for (Transaction transaction : transactions) {
-                String transactionType = transaction.getTransactionType();
-
-                TransactionAnalysisReport report = reportMap.computeIfAbsent(transactionType,
-                    k -> new TransactionAnalysisReport(k));
-
-                report.addTransaction(transaction.getAmount().abs());
-
-                if ("Cancelled".equals(transaction.getStatus())) {
-                    report.incrementTransactionsCancelled();
-                } else if ("Completed".equals(transaction.getStatus())) {
-                    report.incrementApprovalsCompleted();
-                } else {
-                    report.incrementApprovalsPending();
-                }
-            }
+        return GENERATE_TRANSACTION_ANALYSIS_REPORT_TIMER.time(this, startDate, endDate,
+                                                               ReportDAO::doGenerateTransactionAnalysisReport);
+    }
 
-            List<TransactionAnalysisReport> reports = new ArrayList<>(reportMap.values());
+    private List<TransactionAnalysisReport> doGenerateTransactionAnalysisReport(LocalDate startDate, LocalDate endDate) throws SQLException {
+        try {
+            List<TransactionAnalysisReport> reports = new ArrayList<>();
+
+            for (ReportRollups.TypeTotals type : loadTotals(startDate, endDate).getTypes()) {
+                TransactionAnalysisReport report = new TransactionAnalysisReport(type.getTransactionType());
+                report.setTransactionCount(type.getTransactionCount());
+                report.setTotalAmount(type.getTotalAmount());
+                report.setAverageAmount(type.getTotalAmount().divide(
+                    BigDecimal.valueOf(type.getTransactionCount()), 2, RoundingMode.HALF_UP));
+                report.setMinimumAmount(type.getMinimumAmount());
+                report.setMaximumAmount(type.getMaximumAmount());
+                report.setApprovalsCompleted(type.getCompletedCount());
+                report.setApprovalsPending(type.getPendingCount());
+                report.setTransactionsCancelled(type.getCancelledCount());
 
-            for (TransactionAnalysisReport report : reports) {
                 String periodDesc = String.format("Period: %s to %s", startDate, endDate);
                 report.setPeriodDescription(periodDesc);
 
                 String processingStats = String.format("Completed: %d, Pending: %d, Cancelled: %d",
                     report.getApprovalsCompleted(), report.getApprovalsPending(), report.getTransactionsCancelled());
                 report.setProcessingStatistics(processingStats);
+
+                reports.add(report);
             }
 
             LOGGER.info("Generated transaction analysis report for " + reports.size() + " transaction types");
@@ -170,9 +189,20 @@ public class ReportDAO {
         }
     }
 
+    /**
+     * Report figures for the period. The in-memory store answers from its per-day rollups; other backends
+     * aggregate one pass over the transaction list.
+     */
+    private ReportRollups.Totals loadTotals(LocalDate startDate, LocalDate endDate) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return ReportRollups.totalsOf(transactionDAO.findAll(), startDate, endDate);
+        }
+        return MockDatabaseUtil.getReportTotals(startDate, endDate);
+    }
+
     private String getCustomerName(Integer customerId) {
         try {
-            Customer customer = MockDatabaseUtil.findCustomerById(customerId);
+            Customer customer = customerDAO.findById(customerId);
             if (customer != null) {
                 return customer.getFirstName() + " " + customer.getLastName();
             }
@@ -183,8 +213,14 @@ public class ReportDAO {
     }
 
     public boolean deleteUserActivityReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
+        return DELETE_USER_ACTIVITY_REPORT_DATA_TIMER.time(this, startDate, endDate, permanent,
+                                                           ReportDAO::doDeleteUserActivityReportData);
+    }
+
+    private boolean doDeleteUserActivityReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
         try {
-            List<User> users = MockDatabaseUtil.getAllUsers();
+            List<User> users = userDAO.findAll();
+            UnitOfWork work = new UnitOfWork();
             int deletedCount = 0;
 
             for (User user : users) {
@@ -193,15 +229,15 @@ public class ReportDAO {
                     if (!loginDate.isBefore(startDate) && !loginDate.isAfter(endDate)) {
                         if (permanent) {
                             user.setLastLogin(null);
-                            MockDatabaseUtil.saveUser(user);
                         } else {
                             user.setActive(false);
-                            MockDatabaseUtil.saveUser(user);
                         }
+                        userDAO.save(work, user);
                         deletedCount++;
                     }
                 }
             }
+            commitDeletion(work);
 
             LOGGER.warning(String.format("User activity report data deletion: %d users affected for period %s to %s",
                          deletedCount, startDate, endDate));
@@ -214,8 +250,14 @@ public class ReportDAO {
     }
 
     public boolean deleteAccountSummaryReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
+        return DELETE_ACCOUNT_SUMMARY_REPORT_DATA_TIMER.time(this, startDate, endDate, permanent,
+                                                             ReportDAO::doDeleteAccountSummaryReportData);
+    }
+
+    private boolean doDeleteAccountSummaryReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
         try {
-            List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            List<AbstractAccount> accounts = accountDAO.findAll();
+            UnitOfWork work = new UnitOfWork();
             int deletedCount = 0;
 
             for (AbstractAccount account : accounts) {
@@ -230,19 +272,16 @@ public class ReportDAO {
                         }
 
                         if (permanent) {
-                            List<Transaction> accountTransactions = MockDatabaseUtil.getTransactionsByAccountId(account.getAccountId());
-                            for (Transaction transaction : accountTransactions) {
-                                MockDatabaseUtil.deleteTransactionPermanently(transaction.getTransactionId());
-                            }
-                            MockDatabaseUtil.deleteAccountPermanently(account.getAccountId());
+                            accountDAO.deletePermanently(work, account.getAccountId());
                         } else {
                             account.setStatus("Deleted");
-                            MockDatabaseUtil.saveAccount(account);
+                            accountDAO.save(work, account);
                         }
                         deletedCount++;
                     }
                 }
             }
+            commitDeletion(work);
 
             LOGGER.warning(String.format("Account summary report data deletion: %d accounts affected for period %s to %s",
                          deletedCount, startDate, endDate));
@@ -255,8 +294,14 @@ public class ReportDAO {
     }
 
     public boolean deleteTransactionAnalysisReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
+        return DELETE_TRANSACTION_ANALYSIS_REPORT_DATA_TIMER.time(this, startDate, endDate, permanent,
+                                                                  ReportDAO::doDeleteTransactionAnalysisReportData);
+    }
+
+    private boolean doDeleteTransactionAnalysisReportData(LocalDate startDate, LocalDate endDate, boolean permanent) throws SQLException {
         try {
-            List<Transaction> transactions = MockDatabaseUtil.getAllTransactions();
+            List<Transaction> transactions = transactionDAO.findAll();
+            UnitOfWork work = new UnitOfWork();
             int deletedCount = 0;
 
             for (Transaction transaction : transactions) {
@@ -264,15 +309,16 @@ public class ReportDAO {
                     LocalDate transactionDate = transaction.getCreatedDate().toLocalDate();
                     if (!transactionDate.isBefore(startDate) && !transactionDate.isAfter(endDate)) {
                         if (permanent) {
-                            MockDatabaseUtil.deleteTransactionPermanently(transaction.getTransactionId());
+                            transactionDAO.deletePermanently(work, transaction.getTransactionId());
                         } else {
                             transaction.setStatus("Deleted");
-                            MockDatabaseUtil.saveTransaction(transaction);
+                            transactionDAO.save(work, transaction);
                         }
                         deletedCount++;
                     }
                 }
             }
+            commitDeletion(work);
 
             LOGGER.warning(String.format("Transaction analysis report data deletion: %d transactions affected for period %s to %s",
                          deletedCount, startDate, endDate));
@@ -284,9 +330,18 @@ public class ReportDAO {
         }
     }
 
+    /**
+     * Flushes the queued report deletions as one batch; nothing is applied if a row changed underneath.
+     */
+    private void commitDeletion(UnitOfWork work) throws SQLException {
+        if (!work.commit()) {
+            throw new SQLException("Report data changed during deletion; no changes were applied");
+        }
+    }
+
     private boolean hasActiveTransactions(Integer accountId) {
         try {
-            List<Transaction> transactions = MockDatabaseUtil.getTransactionsByAccountId(accountId);
+            List<Transaction> transactions = transactionDAO.findByAccountId(accountId);
             return transactions.stream()
                 .anyMatch(t -> "Completed".equals(t.getStatus()) || "Pending".equals(t.getStatus()));
         } catch (Exception e) {
@@ -295,8 +350,13 @@ public class ReportDAO {
     }
 
     public boolean restoreUserActivityReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return RESTORE_USER_ACTIVITY_REPORT_DATA_TIMER.time(this, startDate, endDate,
+                                                            ReportDAO::doRestoreUserActivityReportData);
+    }
+
+    private boolean doRestoreUserActivityReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
         try {
-            List<User> users = MockDatabaseUtil.getAllUsers();
+            List<User> users = userDAO.findAll();
             int restoredCount = 0;
 
             for (User user : users) {
@@ -304,7 +364,7 @@ public class ReportDAO {
                     LocalDate loginDate = user.getLastLogin().toLocalDate();
                     if (!loginDate.isBefore(startDate) && !loginDate.isAfter(endDate)) {
                         user.setActive(true);
-                        MockDatabaseUtil.saveUser(user);
+                        userDAO.save(user);
                         restoredCount++;
                     }
                 }
@@ -321,8 +381,13 @@ public class ReportDAO {
     }
 
     public boolean restoreAccountSummaryReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return RESTORE_ACCOUNT_SUMMARY_REPORT_DATA_TIMER.time(this, startDate, endDate,
+                                                              ReportDAO::doRestoreAccountSummaryReportData);
+    }
+
+    private boolean doRestoreAccountSummaryReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
         try {
-            List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            List<AbstractAccount> accounts = accountDAO.findAll();
             int restoredCount = 0;
 
             for (AbstractAccount account : accounts) {
@@ -330,7 +395,7 @@ public class ReportDAO {
                     LocalDate createdDate = account.getCreatedDate().toLocalDate();
                     if (!createdDate.isBefore(startDate) && !createdDate.isAfter(endDate)) {
                         account.setStatus("Active");
-                        MockDatabaseUtil.saveAccount(account);
+                        accountDAO.save(account);
                         restoredCount++;
                     }
                 }
@@ -347,8 +412,13 @@ public class ReportDAO {
     }
 
     public boolean restoreTransactionAnalysisReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return RESTORE_TRANSACTION_ANALYSIS_REPORT_DATA_TIMER.time(this, startDate, endDate,
+                                                                   ReportDAO::doRestoreTransactionAnalysisReportData);
+    }
+
+    private boolean doRestoreTransactionAnalysisReportData(LocalDate startDate, LocalDate endDate) throws SQLException {
         try {
-            List<Transaction> transactions = MockDatabaseUtil.getAllTransactions();
+            List<Transaction> transactions = transactionDAO.findAll();
             int restoredCount = 0;
 
             for (Transaction transaction : transactions) {
@@ -356,7 +426,7 @@ public class ReportDAO {
                     LocalDate transactionDate = transaction.getCreatedDate().toLocalDate();
                     if (!transactionDate.isBefore(startDate) && !transactionDate.isAfter(endDate)) {
                         transaction.setStatus("Completed");
-                        MockDatabaseUtil.saveTransaction(transaction);
+                        transactionDAO.save(transaction);
                         restoredCount++;
                     }
                 }
@@ -373,8 +443,13 @@ public class ReportDAO {
     }
 
     public boolean deleteAccountFromReports(Integer accountId, boolean permanent) throws SQLException {
+        return DELETE_ACCOUNT_FROM_REPORTS_TIMER.time(this, accountId, permanent,
+                                                      ReportDAO::doDeleteAccountFromReports);
+    }
+
+    private boolean doDeleteAccountFromReports(Integer accountId, boolean permanent) throws SQLException {
         try {
-            AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
+            AbstractAccount account = accountDAO.findById(accountId);
             if (account == null) {
                 return false;
             }
@@ -385,14 +460,14 @@ public class ReportDAO {
             }
 
             if (permanent) {
-                List<Transaction> accountTransactions = MockDatabaseUtil.getTransactionsByAccountId(accountId);
+                List<Transaction> accountTransactions = transactionDAO.findByAccountId(accountId);
                 for (Transaction transaction : accountTransactions) {
-                    MockDatabaseUtil.deleteTransactionPermanently(transaction.getTransactionId());
+                    transactionDAO.deletePermanently(transaction.getTransactionId());
                 }
-                MockDatabaseUtil.deleteAccountPermanently(accountId);
+                accountDAO.deletePermanently(accountId);
             } else {
                 account.setStatus("Deleted");
-                MockDatabaseUtil.saveAccount(account);
+                accountDAO.save(account);
             }
 
             LOGGER.warning(String.format("Account %d deleted from reports (permanent: %b)", accountId, permanent));
@@ -405,8 +480,12 @@ public class ReportDAO {
     }
 
     public boolean deleteAccountByNumber(String accountNumber, boolean permanent) throws SQLException {
+        return DELETE_ACCOUNT_BY_NUMBER_TIMER.time(this, accountNumber, permanent, ReportDAO::doDeleteAccountByNumber);
+    }
+
+    private boolean doDeleteAccountByNumber(String accountNumber, boolean permanent) throws SQLException {
         try {
-            AbstractAccount account = MockDatabaseUtil.findAccountByNumber(accountNumber);
+            AbstractAccount account = accountDAO.findByAccountNumber(accountNumber);
             if (account == null) {
                 return false;
             }
@@ -420,8 +499,13 @@ public class ReportDAO {
     }
 
     public boolean hasActiveTransactionsInReports(Integer accountId) throws SQLException {
+        return HAS_ACTIVE_TRANSACTIONS_IN_REPORTS_TIMER.time(this, accountId,
+                                                             ReportDAO::doHasActiveTransactionsInReports);
+    }
+
+    private boolean doHasActiveTransactionsInReports(Integer accountId) throws SQLException {
         try {
-            List<Transaction> transactions = MockDatabaseUtil.getTransactionsByAccountId(accountId);
+            List<Transaction> transactions = transactionDAO.findByAccountId(accountId);
             return transactions.stream()
                 .anyMatch(t -> "Completed".equals(t.getStatus()) || "Pending".equals(t.getStatus()));
         } catch (Exception e) {
@@ -431,8 +515,12 @@ public class ReportDAO {
     }
 
     public boolean isAccountInActiveReports(Integer accountId) throws SQLException {
+        return IS_ACCOUNT_IN_ACTIVE_REPORTS_TIMER.time(this, accountId, ReportDAO::doIsAccountInActiveReports);
+    }
+
+    private boolean doIsAccountInActiveReports(Integer accountId) throws SQLException {
         try {
-            AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
+            AbstractAccount account = accountDAO.findById(accountId);
             if (account == null) {
                 return false;
             }
@@ -446,11 +534,15 @@ public class ReportDAO {
     }
 
     public boolean restoreAccountFromReports(Integer accountId) throws SQLException {
+        return RESTORE_ACCOUNT_FROM_REPORTS_TIMER.time(this, accountId, ReportDAO::doRestoreAccountFromReports);
+    }
+
+    private boolean doRestoreAccountFromReports(Integer accountId) throws SQLException {
         try {
-            AbstractAccount account = MockDatabaseUtil.findAccountById(accountId);
+            AbstractAccount account = accountDAO.findById(accountId);
             if (account != null && "Deleted".equals(account.getStatus())) {
                 account.setStatus("Active");
-                MockDatabaseUtil.saveAccount(account);
+                accountDAO.save(account);
 
                 LOGGER.info(String.format("Account %d restored in reports", accountId));
                 return true;
@@ -0,0 +1,68 @@
+package com.bankingsystem.dao;
+
+import com.bankingsystem.models.Transaction;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Walks transactions newest first in fixed-size chunks, remembering only the key of the last row
+ * it returned. Callers hold one chunk at a time, so a full pass runs in constant memory however large the
+ * ledger is. Transactions saved during the walk may or may not be seen; none is returned twice.
+ */
+public class TransactionCursor {
+    /**
+     * Fetches up to {@code limit} transactions after the given key, or from the newest when it is null.
+     */
+    interface ChunkSource {
+        List<Transaction> fetch(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit) throws SQLException;
+    }
+
+    private final ChunkSource source;
+    private final int chunkSize;
+    private LocalDateTime lastCreatedDate;
+    private Integer lastTransactionId;
+    private boolean exhausted;
+    private long fetchedCount;
+
+    TransactionCursor(ChunkSource source, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.source = source;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the next chunk, or an empty list once every transaction has been returned.
+     */
+    public List<Transaction> nextChunk() throws SQLException {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        List<Transaction> chunk = source.fetch(lastCreatedDate, lastTransactionId, chunkSize);
+        if (chunk.size() < chunkSize) {
+            exhausted = true;
+        }
+        if (!chunk.isEmpty()) {
+            Transaction last = chunk.get(chunk.size() - 1);
+            lastCreatedDate = last.getCreatedDate();
+            lastTransactionId = last.getTransactionId();
+            fetchedCount += chunk.size();
+        }
+        return chunk;
+    }
+
+    public boolean hasMore() {
+        return !exhausted;
+    }
+
+    public long getFetchedCount() {
+        return fetchedCount;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -1,10 +1,16 @@
 package com.bankingsystem.dao;
 
+import com.bankingsystem.models.AuditRecord;
 import com.bankingsystem.models.Transaction;
+import com.bankingsystem.utils.AuditTrail;
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
 import java.math.BigDecimal;
-import java.sql.SQLException;
+import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -12,11 +18,80 @@ import java.util.logging.Level;
 public class TransactionDAO {
     private static final Logger LOGGER = Logger.getLogger(TransactionDAO.class.getName());
 
+    private static final MetricsRegistry.Timer FIND_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findById");
+    private static final MetricsRegistry.Timer FIND_BY_REFERENCE_NUMBER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findByReferenceNumber");
+    private static final MetricsRegistry.Timer FIND_BY_ACCOUNT_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findByAccountId");
+    private static final MetricsRegistry.Timer FIND_BY_ACCOUNT_ID_AND_DATE_RANGE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findByAccountIdAndDateRange");
+    private static final MetricsRegistry.Timer FIND_PAGE_BY_ACCOUNT_ID_AND_DATE_RANGE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findPageByAccountIdAndDateRange");
+    private static final MetricsRegistry.Timer GET_DAILY_WITHDRAWAL_TOTAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "getDailyWithdrawalTotal");
+    private static final MetricsRegistry.Timer FIND_ALL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findAll");
+    private static final MetricsRegistry.Timer FIND_CHUNK_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "findChunk");
+    private static final MetricsRegistry.Timer COUNT_ALL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "countAll");
+    private static final MetricsRegistry.Timer SAVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "save");
+    private static final MetricsRegistry.Timer GET_TRANSACTION_TYPE_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "getTransactionTypeId");
+    private static final MetricsRegistry.Timer DELETE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "delete");
+    private static final MetricsRegistry.Timer DELETE_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "deletePermanently");
+    private static final MetricsRegistry.Timer CAN_DELETE_TRANSACTION_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, TransactionDAO.class, "canDeleteTransaction");
+
+    private static final String SELECT_TRANSACTIONS = """
+        SELECT t.*, tt.type_name FROM transactions t
+        LEFT JOIN transaction_types tt ON tt.type_id = t.transaction_type_id
+    """;
+
+    private static final String INSERT_TRANSACTION = """
+        INSERT INTO transactions (account_id, transaction_type_id, amount, balance_before, balance_after,
+                                  description, reference_number, status, created_date, created_by)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private static final String UPDATE_TRANSACTION = """
+        UPDATE transactions SET account_id = ?, transaction_type_id = ?, amount = ?, balance_before = ?,
+                                balance_after = ?, description = ?, reference_number = ?, status = ?, created_by = ?
+        WHERE transaction_id = ?
+    """;
+
     public Transaction findById(Integer transactionId) throws SQLException {
-        return null;
+        return FIND_BY_ID_TIMER.time(this, transactionId, TransactionDAO::doFindById);
+    }
+
+    private Transaction doFindById(Integer transactionId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            List<Transaction> transactions = query(SELECT_TRANSACTIONS + " WHERE t.transaction_id = ?",
+                                                   "Failed to find transaction by ID: " + transactionId, transactionId);
+            return transactions.isEmpty() ? null : transactions.get(0);
+        }
+        try {
+            return MockDatabaseUtil.findTransactionById(transactionId);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to find transaction by ID: " + transactionId, e);
+            throw new SQLException("Database error", e);
+        }
     }
 
     public Transaction findByReferenceNumber(String referenceNumber) throws SQLException {
+        return FIND_BY_REFERENCE_NUMBER_TIMER.time(this, referenceNumber, TransactionDAO::doFindByReferenceNumber);
+    }
+
+    private Transaction doFindByReferenceNumber(String referenceNumber) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            List<Transaction> transactions = query(SELECT_TRANSACTIONS + " WHERE t.reference_number = ?",
+                                                   "Failed to find transaction by reference: " + referenceNumber, referenceNumber);
+            return transactions.isEmpty() ? null : transactions.get(0);
+        }
         try {
             return MockDatabaseUtil.findTransactionByReference(referenceNumber);
         } catch (Exception e) {
@@ -26,6 +101,14 @@ public class TransactionDAO {
     }
 
     public List<Transaction> findByAccountId(Integer accountId) throws SQLException {
+        return FIND_BY_ACCOUNT_ID_TIMER.time(this, accountId, TransactionDAO::doFindByAccountId);
+    }
+
+    private List<Transaction> doFindByAccountId(Integer accountId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return query(SELECT_TRANSACTIONS + " WHERE t.account_id = ? ORDER BY t.created_date DESC, t.transaction_id DESC",
+                         "Failed to find transactions by account ID: " + accountId, accountId);
+        }
         try {
             return MockDatabaseUtil.getTransactionsByAccountId(accountId);
         } catch (Exception e) {
@@ -35,15 +118,124 @@ public class TransactionDAO {
     }
 
     public List<Transaction> findByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        return FIND_BY_ACCOUNT_ID_AND_DATE_RANGE_TIMER.time(this, accountId, startDate, endDate,
+                                                            TransactionDAO::doFindByAccountIdAndDateRange);
+    }
+
+    private List<Transaction> doFindByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            String sql = SELECT_TRANSACTIONS + """
+                WHERE t.account_id = ? AND t.created_date >= ? AND t.created_date < ?
+                ORDER BY t.created_date DESC, t.transaction_id DESC
+            """;
+            return query(sql, "Failed to find transactions by date range", accountId,
+                         DatabaseUtil.toTimestamp(startDate.atStartOfDay()), DatabaseUtil.toTimestamp(endDate.plusDays(1).atStartOfDay()));
+        }
         try {
-            return MockDatabaseUtil.getTransactionsByAccountId(accountId);
+            return MockDatabaseUtil.getTransactionsByAccountIdAndDateRange(accountId, startDate, endDate);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to find transactions by date range", e);
             throw new SQLException("Database error", e);
         }
     }
 
+    /**
+     * Up to {@code limit} of the account's transactions created on or between the dates, newest first,
+     * after skipping the first {@code offset}.
+     */
+    public List<Transaction> findByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                                         int offset, int limit) throws SQLException {
+        return findPageByAccountIdAndDateRange(accountId, startDate, endDate, null, null, offset, limit);
+    }
+
+    /**
+     * Up to {@code limit} of the account's transactions created on or between the dates, newest first,
+     * starting just after the transaction identified by {@code afterCreatedDate} and {@code afterTransactionId},
+     * or from the newest when both are null. Unlike an offset, the position costs nothing to skip.
+     */
+    public List<Transaction> findByAccountIdAndDateRangeAfter(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                                              LocalDateTime afterCreatedDate, Integer afterTransactionId,
+                                                              int limit) throws SQLException {
+        return findPageByAccountIdAndDateRange(accountId, startDate, endDate, afterCreatedDate, afterTransactionId, 0, limit);
+    }
+
+    /**
+     * Up to {@code limit} of the account's transactions, newest first, starting just after the transaction
+     * identified by {@code afterCreatedDate} and {@code afterTransactionId}, or from the newest when both are null.
+     */
+    public List<Transaction> findByAccountIdAfter(Integer accountId, LocalDateTime afterCreatedDate,
+                                                  Integer afterTransactionId, int limit) throws SQLException {
+        return findPageByAccountIdAndDateRange(accountId, null, null, afterCreatedDate, afterTransactionId, 0, limit);
+    }
+
+    private List<Transaction> findPageByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                                              LocalDateTime afterCreatedDate, Integer afterTransactionId,
+                                                              int offset, int limit) throws SQLException {
+        return FIND_PAGE_BY_ACCOUNT_ID_AND_DATE_RANGE_TIMER.time(this, accountId, startDate, endDate, afterCreatedDate,
+                                                                 afterTransactionId, offset, limit,
+                                                                 TransactionDAO::doFindPageByAccountIdAndDateRange);
+    }
+
+    private List<Transaction> doFindPageByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                                                LocalDateTime afterCreatedDate, Integer afterTransactionId,
+                                                                int offset, int limit) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            StringBuilder sql = new StringBuilder(SELECT_TRANSACTIONS).append(" WHERE t.account_id = ?");
+            List<Object> parameters = new ArrayList<>();
+            parameters.add(accountId);
+            if (startDate != null) {
+                sql.append(" AND t.created_date >= ?");
+                parameters.add(DatabaseUtil.toTimestamp(startDate.atStartOfDay()));
+            }
+            if (endDate != null) {
+                sql.append(" AND t.created_date < ?");
+                parameters.add(DatabaseUtil.toTimestamp(endDate.plusDays(1).atStartOfDay()));
+            }
+            if (afterCreatedDate != null && afterTransactionId != null) {
+                sql.append(" AND (t.created_date, t.transaction_id) < (?, ?)");
+                parameters.add(DatabaseUtil.toTimestamp(afterCreatedDate));
+                parameters.add(afterTransactionId);
+            }
+            sql.append(" ORDER BY t.created_date DESC, t.transaction_id DESC LIMIT ? OFFSET ?");
+            parameters.add(limit);
+            parameters.add(offset);
+            return query(sql.toString(), "Failed to find transaction page", parameters.toArray());
+        }
+        try {
+            return MockDatabaseUtil.getTransactionsPage(accountId, startDate, endDate,
+                                                        afterCreatedDate, afterTransactionId, offset, limit);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to find transaction page", e);
+            throw new SQLException("Database error", e);
+        }
+    }
+
     public BigDecimal getDailyWithdrawalTotal(Integer accountId, LocalDate date) throws SQLException {
+        return GET_DAILY_WITHDRAWAL_TOTAL_TIMER.time(this, accountId, date, TransactionDAO::doGetDailyWithdrawalTotal);
+    }
+
+    private BigDecimal doGetDailyWithdrawalTotal(Integer accountId, LocalDate date) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            String sql = """
+                SELECT COALESCE(SUM(ABS(t.amount)), 0) AS total FROM transactions t
+                JOIN transaction_types tt ON tt.type_id = t.transaction_type_id
+                WHERE t.account_id = ? AND t.created_date >= ? AND t.created_date < ?
+                  AND t.status NOT IN ('Cancelled', 'Deleted')
+                  AND (tt.type_name = 'Withdrawal' OR (tt.type_name = 'Transfer' AND t.amount < 0))
+            """;
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+                statement.setInt(1, accountId);
+                statement.setTimestamp(2, DatabaseUtil.toTimestamp(date.atStartOfDay()));
+                statement.setTimestamp(3, DatabaseUtil.toTimestamp(date.plusDays(1).atStartOfDay()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? DatabaseUtil.getMoney(resultSet, "total") : BigDecimal.ZERO;
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to get daily withdrawal total", e);
+                throw e;
+            }
+        }
         try {
             return MockDatabaseUtil.getDailyWithdrawalTotal(accountId, date);
         } catch (Exception e) {
@@ -53,6 +245,14 @@ public class TransactionDAO {
     }
 
     public List<Transaction> findAll() throws SQLException {
+        return FIND_ALL_TIMER.time(this, TransactionDAO::doFindAll);
+    }
+
+    private List<Transaction> doFindAll() throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return query(SELECT_TRANSACTIONS + " ORDER BY t.created_date DESC, t.transaction_id DESC",
+                         "Failed to retrieve all transactions");
+        }
         try {
             return MockDatabaseUtil.getAllTransactions();
         } catch (Exception e) {
@@ -61,16 +261,205 @@ public class TransactionDAO {
         }
     }
 
+    /**
+     * Up to {@code limit} transactions in {@link #findAll()} order (newest first), starting just after the
+     * transaction identified by {@code afterCreatedDate} and {@code afterTransactionId}, or from the newest
+     * when both are null. Seeking by key keeps every chunk as cheap as the first.
+     */
+    public List<Transaction> findChunk(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit) throws SQLException {
+        return FIND_CHUNK_TIMER.time(this, afterCreatedDate, afterTransactionId, limit, TransactionDAO::doFindChunk);
+    }
+
+    private List<Transaction> doFindChunk(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            if (afterCreatedDate == null || afterTransactionId == null) {
+                return query(SELECT_TRANSACTIONS + " ORDER BY t.created_date DESC, t.transaction_id DESC LIMIT ?",
+                             "Failed to retrieve transaction chunk", limit);
+            }
+            String sql = SELECT_TRANSACTIONS + """
+                WHERE (t.created_date, t.transaction_id) < (?, ?)
+                ORDER BY t.created_date DESC, t.transaction_id DESC LIMIT ?
+            """;
+            return query(sql, "Failed to retrieve transaction chunk",
+                         DatabaseUtil.toTimestamp(afterCreatedDate), afterTransactionId, limit);
+        }
+        try {
+            return MockDatabaseUtil.getTransactionsChunk(afterCreatedDate, afterTransactionId, limit);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to retrieve transaction chunk", e);
+            throw new SQLException("Database error", e);
+        }
+    }
+
+    public long countAll() throws SQLException {
+        return COUNT_ALL_TIMER.time(this, TransactionDAO::doCountAll);
+    }
+
+    private long doCountAll() throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, "SELECT COUNT(*) FROM transactions");
+                 ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to count transactions", e);
+                throw e;
+            }
+        }
+        return MockDatabaseUtil.getTransactionCount();
+    }
+
+    /**
+     * Opens a cursor over every transaction, newest first, fetching {@code chunkSize} at a time.
+     */
+    public TransactionCursor openCursor(int chunkSize) {
+        return new TransactionCursor(this::findChunk, chunkSize);
+    }
+
+    /**
+     * Opens a cursor over the account's transactions created on or between the dates, newest first,
+     * fetching {@code chunkSize} at a time.
+     */
+    public TransactionCursor openCursor(Integer accountId, LocalDate startDate, LocalDate endDate, int chunkSize) {
+        return new TransactionCursor((afterCreatedDate, afterTransactionId, limit) ->
+            findByAccountIdAndDateRangeAfter(accountId, startDate, endDate, afterCreatedDate, afterTransactionId, limit),
+            chunkSize);
+    }
+
     public Transaction save(Transaction transaction) throws SQLException {
+        return SAVE_TIMER.time(this, transaction, TransactionDAO::doSave);
+    }
+
+    private Transaction doSave(Transaction transaction) throws SQLException {
+        AuditRecord.Operation operation = transaction.getTransactionId() == null
+            ? AuditRecord.Operation.INSERT : AuditRecord.Operation.UPDATE;
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return audited(operation, transaction.getTransactionId() == null ? insert(transaction) : update(transaction));
+        }
         try {
-            return MockDatabaseUtil.saveTransaction(transaction);
+            return audited(operation, MockDatabaseUtil.saveTransaction(transaction));
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to save transaction", e);
             throw new SQLException("Database error", e);
         }
     }
 
+    /**
+     * Queues the insert or update on the unit of work; the in-memory store saves immediately.
+     */
+    public void save(UnitOfWork work, Transaction transaction) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            save(transaction);
+            return;
+        }
+        Integer typeId = resolveTypeId(transaction);
+        AuditRecord.Operation operation;
+        if (transaction.getTransactionId() == null) {
+            operation = AuditRecord.Operation.INSERT;
+            transaction.setCreatedDate(LocalDateTime.now());
+            work.addInsert(INSERT_TRANSACTION, statement -> bindInsert(statement, transaction, typeId),
+                           transaction::setTransactionId);
+        } else {
+            operation = AuditRecord.Operation.UPDATE;
+            work.addGuarded(UPDATE_TRANSACTION, 1, statement -> bindUpdate(statement, transaction, typeId));
+        }
+        work.afterCommit(() -> audited(operation, transaction));
+    }
+
+    private Transaction insert(Transaction transaction) throws SQLException {
+        Integer typeId = resolveTypeId(transaction);
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, INSERT_TRANSACTION, Statement.RETURN_GENERATED_KEYS)) {
+
+            transaction.setCreatedDate(LocalDateTime.now());
+            bindInsert(statement, transaction, typeId);
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Creating transaction failed, no rows affected");
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    transaction.setTransactionId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("Creating transaction failed, no ID obtained");
+                }
+            }
+            return transaction;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to save transaction", e);
+            throw e;
+        }
+    }
+
+    private Transaction update(Transaction transaction) throws SQLException {
+        Integer typeId = resolveTypeId(transaction);
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, UPDATE_TRANSACTION)) {
+
+            bindUpdate(statement, transaction, typeId);
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Updating transaction failed, no rows affected");
+            }
+            return transaction;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to save transaction", e);
+            throw e;
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, Transaction transaction, Integer typeId) throws SQLException {
+        statement.setInt(1, transaction.getAccountId());
+        statement.setObject(2, typeId);
+        statement.setBigDecimal(3, transaction.getAmount());
+        statement.setBigDecimal(4, transaction.getBalanceBefore());
+        statement.setBigDecimal(5, transaction.getBalanceAfter());
+        statement.setString(6, transaction.getDescription());
+        statement.setString(7, transaction.getReferenceNumber());
+        statement.setString(8, transaction.getStatus());
+        statement.setTimestamp(9, DatabaseUtil.toTimestamp(transaction.getCreatedDate()));
+        statement.setObject(10, transaction.getCreatedBy());
+    }
+
+    private static void bindUpdate(PreparedStatement statement, Transaction transaction, Integer typeId) throws SQLException {
+        statement.setInt(1, transaction.getAccountId());
+        statement.setObject(2, typeId);
+        statement.setBigDecimal(3, transaction.getAmount());
+        statement.setBigDecimal(4, transaction.getBalanceBefore());
+        statement.setBigDecimal(5, transaction.getBalanceAfter());
+        statement.setString(6, transaction.getDescription());
+        statement.setString(7, transaction.getReferenceNumber());
+        statement.setString(8, transaction.getStatus());
+        statement.setObject(9, transaction.getCreatedBy());
+        statement.setInt(10, transaction.getTransactionId());
+    }
+
+    private Integer resolveTypeId(Transaction transaction) throws SQLException {
+        if (transaction.getTransactionTypeId() != null) {
+            return transaction.getTransactionTypeId();
+        }
+        return getTransactionTypeId(transaction.getTransactionType());
+    }
+
     public Integer getTransactionTypeId(String typeName) throws SQLException {
+        return GET_TRANSACTION_TYPE_ID_TIMER.time(this, typeName, TransactionDAO::doGetTransactionTypeId);
+    }
+
+    private Integer doGetTransactionTypeId(String typeName) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, "SELECT type_id FROM transaction_types WHERE type_name = ?")) {
+                statement.setString(1, typeName);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getInt("type_id") : null;
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to get transaction type ID: " + typeName, e);
+                throw e;
+            }
+        }
         try {
             return MockDatabaseUtil.getTransactionTypeId(typeName);
         } catch (Exception e) {
@@ -80,11 +469,26 @@ public class TransactionDAO {
     }
 
     public boolean delete(Integer transactionId) throws SQLException {
+        return DELETE_TIMER.time(this, transactionId, TransactionDAO::doDelete);
+    }
+
+    private boolean doDelete(Integer transactionId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            if (executeById("UPDATE transactions SET status = 'Cancelled' WHERE transaction_id = ?", transactionId,
+                            "Failed to cancel transaction: " + transactionId) > 0) {
+                auditStatus(transactionId, null, "Cancelled");
+                LOGGER.info("Transaction cancelled successfully: " + transactionId);
+                return true;
+            }
+            return false;
+        }
         try {
             Transaction transaction = MockDatabaseUtil.findTransactionById(transactionId);
             if (transaction != null) {
+                String previousStatus = transaction.getStatus();
                 transaction.setStatus("Cancelled");
                 MockDatabaseUtil.saveTransaction(transaction);
+                auditStatus(transactionId, previousStatus, "Cancelled");
                 LOGGER.info("Transaction cancelled successfully: " + transactionId);
                 return true;
             }
@@ -96,12 +500,26 @@ public class TransactionDAO {
     }
 
     public boolean deletePermanently(Integer transactionId) throws SQLException {
+        return DELETE_PERMANENTLY_TIMER.time(this, transactionId, TransactionDAO::doDeletePermanently);
+    }
+
+    private boolean doDeletePermanently(Integer transactionId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            if (executeById("DELETE FROM transactions WHERE transaction_id = ?", transactionId,
+                            "Failed to permanently delete transaction: " + transactionId) > 0) {
+                auditDeleted(transactionId, null);
+                LOGGER.warning("Transaction permanently deleted (ID: " + transactionId + ")");
+                return true;
+            }
+            return false;
+        }
         try {
             Transaction transaction = MockDatabaseUtil.findTransactionById(transactionId);
             if (transaction != null) {
                 String referenceNumber = transaction.getReferenceNumber();
                 boolean success = MockDatabaseUtil.deleteTransactionPermanently(transactionId);
                 if (success) {
+                    auditDeleted(transactionId, describe(transaction));
                     LOGGER.warning("Transaction permanently deleted: " + referenceNumber + " (ID: " + transactionId + ")");
                     return true;
                 }
@@ -113,8 +531,58 @@ public class TransactionDAO {
         }
     }
 
+    public void deletePermanently(UnitOfWork work, Integer transactionId) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            deletePermanently(transactionId);
+            return;
+        }
+        int deleted = work.add("DELETE FROM transactions WHERE transaction_id = ?", statement -> statement.setInt(1, transactionId));
+        work.afterCommit(() -> {
+            if (work.getUpdateCount(deleted) != 0) {
+                auditDeleted(transactionId, null);
+            }
+        });
+    }
+
+    /**
+     * Records the transaction's new state against the user who created it.
+     */
+    private static Transaction audited(AuditRecord.Operation operation, Transaction transaction) {
+        if (AuditTrail.isEnabled() && transaction != null) {
+            AuditTrail.record(operation, AuditRecord.TRANSACTIONS, transaction.getTransactionId(),
+                              transaction.getCreatedBy(), null, describe(transaction));
+        }
+        return transaction;
+    }
+
+    private static void auditStatus(Integer transactionId, String oldStatus, String newStatus) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.TRANSACTIONS, transactionId, null,
+                              oldStatus != null ? "status=" + oldStatus : null, "status=" + newStatus);
+        }
+    }
+
+    private static void auditDeleted(Integer transactionId, String oldValues) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.DELETE, AuditRecord.TRANSACTIONS, transactionId, null, oldValues, null);
+        }
+    }
+
+    private static String describe(Transaction transaction) {
+        return "account_id=" + transaction.getAccountId() + ";transaction_type_id=" + transaction.getTransactionTypeId()
+            + ";amount=" + transaction.getAmount() + ";balance_before=" + transaction.getBalanceBefore()
+            + ";balance_after=" + transaction.getBalanceAfter() + ";reference_number=" + transaction.getReferenceNumber()
+            + ";status=" + transaction.getStatus();
+    }
+
     public boolean canDeleteTransaction(Integer transactionId) throws SQLException {
-        Transaction transaction = MockDatabaseUtil.findTransactionById(transactionId);
+        return CAN_DELETE_TRANSACTION_TIMER.time(this, transactionId, TransactionDAO::doCanDeleteTransaction);
+    }
+
+    private boolean doCanDeleteTransaction(Integer transactionId) throws SQLException {
+        Transaction transaction = DatabaseUtil.isSQLiteBackend()
+            ? findById(transactionId)
+            : MockDatabaseUtil.findTransactionById(transactionId);
         if (transaction == null) {
             return false;
         }
@@ -122,4 +590,53 @@ public class TransactionDAO {
         return !"Completed".equals(transaction.getStatus()) ||
                java.time.LocalDateTime.now().minusHours(24).isBefore(transaction.getCreatedDate());
     }
+
+    private int executeById(String sql, Integer transactionId, String failureMessage) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+            statement.setInt(1, transactionId);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, failureMessage, e);
+            throw e;
+        }
+    }
+
+    private List<Transaction> query(String sql, String failureMessage, Object... parameters) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    transactions.add(mapResultSetToTransaction(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, failureMessage, e);
+            throw e;
+        }
+        return transactions;
+    }
+
+    private Transaction mapResultSetToTransaction(ResultSet resultSet) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(resultSet.getInt("transaction_id"));
+        transaction.setAccountId(resultSet.getInt("account_id"));
+        transaction.setTransactionTypeId(resultSet.getInt("transaction_type_id"));
+        transaction.setTransactionTypeName(resultSet.getString("type_name"));
+        transaction.setAmount(DatabaseUtil.getMoney(resultSet, "amount"));
+        transaction.setBalanceBefore(DatabaseUtil.getMoney(resultSet, "balance_before"));
+        transaction.setBalanceAfter(DatabaseUtil.getMoney(resultSet, "balance_after"));
+        transaction.setDescription(resultSet.getString("description"));
+        transaction.setReferenceNumber(resultSet.getString("reference_number"));
+        transaction.setStatus(resultSet.getString("status"));
+        transaction.setCreatedDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("created_date")));
+        int createdBy = resultSet.getInt("created_by");
+        transaction.setCreatedBy(resultSet.wasNull() ? null : createdBy);
+        return transaction;
+    }
 }
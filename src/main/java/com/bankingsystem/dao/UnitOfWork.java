@@ -0,0 +1,263 @@
+package com.bankingsystem.dao;
+
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects DAO writes and flushes them as JDBC batches inside one transaction with a single commit.
+ * Statements are grouped by SQL text and the groups run in the order each SQL first appeared, so callers
+ * must queue dependent writes (such as child rows before their parent) in that order.
+ *
+ * Only the SQLite backend defers work here; on the in-memory store the DAOs apply each write immediately.
+ */
+public class UnitOfWork {
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+
+    private static final MetricsRegistry.Timer COMMIT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UnitOfWork.class, "commit");
+
+    private static final AtomicLong commitCount = new AtomicLong();
+    private static final AtomicLong rowsCommitted = new AtomicLong();
+    private static final AtomicLong commitNanos = new AtomicLong();
+    private static final AtomicLong maxCommitNanos = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private static final class Entry {
+        final Binder binder;
+        final int expectedRows;
+        final IntConsumer keyConsumer;
+        int updateCount = Statement.SUCCESS_NO_INFO;
+
+        Entry(Binder binder, int expectedRows, IntConsumer keyConsumer) {
+            this.binder = binder;
+            this.expectedRows = expectedRows;
+            this.keyConsumer = keyConsumer;
+        }
+    }
+
+    private final Map<String, List<Entry>> batches = new LinkedHashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean committed;
+
+    /**
+     * Queues a statement and returns its index for {@link #getUpdateCount(int)}.
+     */
+    public int add(String sql, Binder binder) {
+        return enqueue(sql, new Entry(binder, -1, null));
+    }
+
+    /**
+     * Queues a statement that must touch exactly {@code expectedRows} rows, otherwise the whole unit is rolled back.
+     */
+    public int addGuarded(String sql, int expectedRows, Binder binder) {
+        return enqueue(sql, new Entry(binder, expectedRows, null));
+    }
+
+    /**
+     * Queues a single-row insert whose generated key is handed to {@code keyConsumer} once the batch has run.
+     */
+    public int addInsert(String sql, Binder binder, IntConsumer keyConsumer) {
+        return enqueue(sql, new Entry(binder, 1, keyConsumer));
+    }
+
+    /**
+     * Runs {@code action} once the unit has committed successfully; it is dropped if the unit rolls back.
+     */
+    public void afterCommit(Runnable action) {
+        if (committed) {
+            throw new IllegalStateException("Unit of work has already been committed");
+        }
+        afterCommit.add(action);
+    }
+
+    private int enqueue(String sql, Entry entry) {
+        if (committed) {
+            throw new IllegalStateException("Unit of work has already been committed");
+        }
+        batches.computeIfAbsent(sql, key -> new ArrayList<>()).add(entry);
+        entries.add(entry);
+        return entries.size() - 1;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Rows affected by the statement at {@code index}, available after commit.
+     */
+    public int getUpdateCount(int index) {
+        return entries.get(index).updateCount;
+    }
+
+    /**
+     * Runs every queued batch on one connection and commits. Returns false, having rolled back,
+     * when a guarded statement matched a different number of rows than expected.
+     */
+    public boolean commit() throws SQLException {
+        if (committed) {
+            throw new IllegalStateException("Unit of work has already been committed");
+        }
+        committed = true;
+        if (entries.isEmpty()) {
+            runAfterCommit();
+            return true;
+        }
+
+        long started = System.nanoTime();
+        long rows = 0;
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<Entry>> batch : batches.entrySet()) {
+                    long batchRows = executeBatch(connection, batch.getKey(), batch.getValue());
+                    if (batchRows < 0) {
+                        connection.rollback();
+                        COMMIT_TIMER.record(started);
+                        LOGGER.fine("Unit of work rolled back: guarded statement matched an unexpected row count");
+                        return false;
+                    }
+                    rows += batchRows;
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            COMMIT_TIMER.recordException();
+            COMMIT_TIMER.record(started);
+            LOGGER.log(Level.SEVERE, "Failed to commit unit of work", e);
+            throw e;
+        }
+
+        recordCommit(rows, System.nanoTime() - started);
+        runAfterCommit();
+        return true;
+    }
+
+    private void runAfterCommit() {
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "After-commit action failed", e);
+            }
+        }
+    }
+
+    /**
+     * Executes one batch and returns the rows it touched, or -1 if a guard failed.
+     */
+    private static long executeBatch(Connection connection, String sql, List<Entry> batch) throws SQLException {
+        boolean generatesKeys = batch.stream().anyMatch(entry -> entry.keyConsumer != null);
+        int[] counts;
+        try (PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+            for (Entry entry : batch) {
+                entry.binder.bind(statement);
+                statement.addBatch();
+            }
+            counts = statement.executeBatch();
+        }
+
+        long rows = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            entry.updateCount = counts[i];
+            if (entry.expectedRows >= 0 && counts[i] != Statement.SUCCESS_NO_INFO && counts[i] != entry.expectedRows) {
+                return -1;
+            }
+            rows += Math.max(counts[i], 0);
+        }
+
+        if (generatesKeys) {
+            assignGeneratedKeys(connection, batch);
+        }
+        return rows;
+    }
+
+    /**
+     * The batch ran inside one write transaction, so nothing else could insert in between and the rows
+     * received consecutive rowids ending at last_insert_rowid().
+     */
+    private static void assignGeneratedKeys(Connection connection, List<Entry> batch) throws SQLException {
+        long lastKey;
+        try (PreparedStatement statement = DatabaseUtil.prepareCached(connection, "SELECT last_insert_rowid()");
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new SQLException("Batch insert failed, no ID obtained");
+            }
+            lastKey = resultSet.getLong(1);
+        }
+        long key = lastKey - batch.size() + 1;
+        for (Entry entry : batch) {
+            if (entry.keyConsumer != null) {
+                entry.keyConsumer.accept(Math.toIntExact(key));
+            }
+            key++;
+        }
+    }
+
+    private void recordCommit(long rows, long elapsedNanos) {
+        COMMIT_TIMER.recordNanos(elapsedNanos);
+        commitCount.incrementAndGet();
+        rowsCommitted.addAndGet(rows);
+        commitNanos.addAndGet(elapsedNanos);
+        maxCommitNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Committed %d statements in %d batches, %d rows in %.2f ms",
+                entries.size(), batches.size(), rows, elapsedNanos / 1_000_000.0));
+        }
+    }
+
+    public static long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public static long getRowsCommitted() {
+        return rowsCommitted.get();
+    }
+
+    public static double getAverageRowsPerCommit() {
+        long commits = commitCount.get();
+        return commits == 0 ? 0.0 : (double) rowsCommitted.get() / commits;
+    }
+
+    public static double getAverageCommitMillis() {
+        long commits = commitCount.get();
+        return commits == 0 ? 0.0 : commitNanos.get() / 1_000_000.0 / commits;
+    }
+
+    public static double getMaxCommitMillis() {
+        return maxCommitNanos.get() / 1_000_000.0;
+    }
+
+    public static String getCommitStats() {
+        return String.format("Commits: %d, Rows: %d, Rows/commit: %.1f, Avg commit: %.2f ms, Max commit: %.2f ms",
+            getCommitCount(), getRowsCommitted(), getAverageRowsPerCommit(), getAverageCommitMillis(), getMaxCommitMillis());
+    }
+}
@@ -1,9 +1,14 @@
 package com.bankingsystem.dao;
 
+import com.bankingsystem.models.AuditRecord;
 import com.bankingsystem.models.User;
+import com.bankingsystem.utils.AuditTrail;
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
-import java.sql.SQLException;
+import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -11,7 +16,46 @@ import java.util.logging.Level;
 public class UserDAO {
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
 
+    private static final MetricsRegistry.Timer FIND_BY_USERNAME_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "findByUsername");
+    private static final MetricsRegistry.Timer FIND_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "findById");
+    private static final MetricsRegistry.Timer FIND_ALL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "findAll");
+    private static final MetricsRegistry.Timer SAVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "save");
+    private static final MetricsRegistry.Timer UPDATE_LAST_LOGIN_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "updateLastLogin");
+    private static final MetricsRegistry.Timer DELETE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "delete");
+    private static final MetricsRegistry.Timer DELETE_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "deletePermanently");
+    private static final MetricsRegistry.Timer CAN_DELETE_USER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.DAO, UserDAO.class, "canDeleteUser");
+
+    private static final String USER_COLUMNS = """
+        user_id, username, password_hash, role, first_name, last_name, email, is_active, last_login,
+        created_date, updated_date, password_expiry_date, last_password_change, failed_login_attempts,
+        locked_until, mfa_enabled, password_history
+    """;
+
+    private static final String UPDATE_USER = """
+        UPDATE users SET username = ?, password_hash = ?, role = ?, first_name = ?, last_name = ?, email = ?,
+                         is_active = ?, last_login = ?, updated_date = ?, password_expiry_date = ?,
+                         last_password_change = ?, failed_login_attempts = ?, locked_until = ?, mfa_enabled = ?,
+                         password_history = ?
+        WHERE user_id = ?
+    """;
+
     public User findByUsername(String username) throws SQLException {
+        return FIND_BY_USERNAME_TIMER.time(this, username, UserDAO::doFindByUsername);
+    }
+
+    private User doFindByUsername(String username) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return querySingle("SELECT " + USER_COLUMNS + " FROM users WHERE username = ? AND is_active = 1",
+                               username, "Failed to find user by username: " + username);
+        }
         try {
             return MockDatabaseUtil.findUserByUsername(username);
         } catch (Exception e) {
@@ -21,6 +65,14 @@ public class UserDAO {
     }
 
     public User findById(Integer userId) throws SQLException {
+        return FIND_BY_ID_TIMER.time(this, userId, UserDAO::doFindById);
+    }
+
+    private User doFindById(Integer userId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return querySingle("SELECT " + USER_COLUMNS + " FROM users WHERE user_id = ?",
+                               userId, "Failed to find user by ID: " + userId);
+        }
         try {
             return MockDatabaseUtil.findUserById(userId);
         } catch (Exception e) {
@@ -30,6 +82,24 @@ public class UserDAO {
     }
 
     public List<User> findAll() throws SQLException {
+        return FIND_ALL_TIMER.time(this, UserDAO::doFindAll);
+    }
+
+    private List<User> doFindAll() throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            List<User> users = new ArrayList<>();
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, "SELECT " + USER_COLUMNS + " FROM users ORDER BY user_id");
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    users.add(mapResultSetToUser(resultSet));
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to retrieve all users", e);
+                throw e;
+            }
+            return users;
+        }
         try {
             return MockDatabaseUtil.getAllUsers();
         } catch (Exception e) {
@@ -39,20 +109,139 @@ public class UserDAO {
     }
 
     public User save(User user) throws SQLException {
+        return SAVE_TIMER.time(this, user, UserDAO::doSave);
+    }
+
+    private User doSave(User user) throws SQLException {
+        AuditRecord.Operation operation = user.getUserId() == null
+            ? AuditRecord.Operation.INSERT : AuditRecord.Operation.UPDATE;
+        String oldValues = operation == AuditRecord.Operation.UPDATE ? valuesBeforeSave(user) : null;
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return audited(operation, oldValues, user.getUserId() == null ? insert(user) : update(user));
+        }
         try {
-            return MockDatabaseUtil.saveUser(user);
+            return audited(operation, oldValues, MockDatabaseUtil.saveUser(user));
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to save user", e);
             throw new SQLException("Database error", e);
         }
     }
 
+    /**
+     * Queues an update of an existing user; the in-memory store saves immediately.
+     */
+    public void save(UnitOfWork work, User user) throws SQLException {
+        if (!DatabaseUtil.isSQLiteBackend()) {
+            save(user);
+            return;
+        }
+        if (user.getUserId() == null) {
+            throw new IllegalArgumentException("Only existing users can be saved in a unit of work");
+        }
+        String oldValues = valuesBeforeSave(user);
+        work.addGuarded(UPDATE_USER, 1, statement -> bindUpdate(statement, user));
+        work.afterCommit(() -> audited(AuditRecord.Operation.UPDATE, oldValues, user));
+    }
+
+    private User insert(User user) throws SQLException {
+        String sql = """
+            INSERT INTO users (username, password_hash, role, first_name, last_name, email, is_active, last_login,
+                               updated_date, password_expiry_date, last_password_change, failed_login_attempts,
+                               locked_until, mfa_enabled, password_history, created_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            int index = bindUser(statement, user);
+            statement.setTimestamp(index, DatabaseUtil.toTimestamp(user.getCreatedDate() != null ? user.getCreatedDate() : LocalDateTime.now()));
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Creating user failed, no rows affected");
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    user.setUserId(generatedKeys.getInt(1));
+                } else {
+                    throw new SQLException("Creating user failed, no ID obtained");
+                }
+            }
+            return user;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to create user: " + user.getUsername(), e);
+            throw e;
+        }
+    }
+
+    private User update(User user) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, UPDATE_USER)) {
+
+            bindUpdate(statement, user);
+
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException("Updating user failed, no rows affected");
+            }
+            return user;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to update user: " + user.getUsername(), e);
+            throw e;
+        }
+    }
+
+    private void bindUpdate(PreparedStatement statement, User user) throws SQLException {
+        int index = bindUser(statement, user);
+        statement.setInt(index, user.getUserId());
+    }
+
+    /**
+     * Binds the columns shared by insert and update, in update order; returns the next parameter index.
+     * The insert statement places created_date last so both can share this.
+     */
+    private int bindUser(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getUsername());
+        statement.setString(2, user.getPasswordHash());
+        statement.setString(3, user.getRole());
+        statement.setString(4, user.getFirstName());
+        statement.setString(5, user.getLastName());
+        statement.setString(6, user.getEmail());
+        statement.setBoolean(7, user.isActive());
+        statement.setTimestamp(8, DatabaseUtil.toTimestamp(user.getLastLogin()));
+        statement.setTimestamp(9, DatabaseUtil.toTimestamp(user.getUpdatedDate() != null ? user.getUpdatedDate() : LocalDateTime.now()));
+        statement.setTimestamp(10, DatabaseUtil.toTimestamp(user.getPasswordExpiryDate()));
+        statement.setTimestamp(11, DatabaseUtil.toTimestamp(user.getLastPasswordChange()));
+        statement.setInt(12, user.getFailedLoginAttempts());
+        statement.setTimestamp(13, DatabaseUtil.toTimestamp(user.getLockedUntil()));
+        statement.setBoolean(14, user.isMfaEnabled());
+        statement.setString(15, user.getPasswordHistory());
+        return 16;
+    }
+
     public void updateLastLogin(Integer userId) throws SQLException {
+        UPDATE_LAST_LOGIN_TIMER.time(this, userId, UserDAO::doUpdateLastLogin);
+    }
+
+    private void doUpdateLastLogin(Integer userId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            try (Connection connection = DatabaseUtil.getConnection();
+                 PreparedStatement statement = DatabaseUtil.prepareCached(connection, "UPDATE users SET last_login = ? WHERE user_id = ?")) {
+                statement.setTimestamp(1, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+                statement.setInt(2, userId);
+                if (statement.executeUpdate() > 0) {
+                    auditChange(userId, null, "last_login=" + LocalDateTime.now());
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Failed to update last login for user ID: " + userId, e);
+            }
+            return;
+        }
         try {
             User user = MockDatabaseUtil.findUserById(userId);
             if (user != null) {
                 user.setLastLogin(LocalDateTime.now());
                 MockDatabaseUtil.saveUser(user);
+                auditChange(userId, null, "last_login=" + user.getLastLogin());
             }
         } catch (Exception e) {
             LOGGER.log(Level.WARNING, "Failed to update last login for user ID: " + userId, e);
@@ -60,11 +249,26 @@ public class UserDAO {
     }
 
     public boolean delete(Integer userId) throws SQLException {
+        return DELETE_TIMER.time(this, userId, UserDAO::doDelete);
+    }
+
+    private boolean doDelete(Integer userId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            if (executeUpdate("UPDATE users SET is_active = 0, updated_date = ? WHERE user_id = ?", userId, true,
+                              "Failed to deactivate user: " + userId) > 0) {
+                auditChange(userId, null, "is_active=false");
+                LOGGER.info("User deactivated successfully: " + userId);
+                return true;
+            }
+            return false;
+        }
         try {
             User user = MockDatabaseUtil.findUserById(userId);
             if (user != null) {
+                boolean wasActive = user.isActive();
                 user.setActive(false);
                 MockDatabaseUtil.saveUser(user);
+                auditChange(userId, "is_active=" + wasActive, "is_active=false");
                 LOGGER.info("User deactivated successfully: " + userId);
                 return true;
             }
@@ -76,12 +280,27 @@ public class UserDAO {
     }
 
     public boolean deletePermanently(Integer userId) throws SQLException {
+        return DELETE_PERMANENTLY_TIMER.time(this, userId, UserDAO::doDeletePermanently);
+    }
+
+    private boolean doDeletePermanently(Integer userId) throws SQLException {
+        if (DatabaseUtil.isSQLiteBackend()) {
+            User user = findById(userId);
+            if (user != null && executeUpdate("DELETE FROM users WHERE user_id = ?", userId, false,
+                                              "Failed to permanently delete user: " + userId) > 0) {
+                auditDeleted(userId, describe(user));
+                LOGGER.warning("User permanently deleted: " + user.getUsername() + " (ID: " + userId + ")");
+                return true;
+            }
+            return false;
+        }
         try {
             User user = MockDatabaseUtil.findUserById(userId);
             if (user != null) {
                 String username = user.getUsername();
                 boolean success = MockDatabaseUtil.deleteUserPermanently(userId);
                 if (success) {
+                    auditDeleted(userId, describe(user));
                     LOGGER.warning("User permanently deleted: " + username + " (ID: " + userId + ")");
                     return true;
                 }
@@ -93,16 +312,117 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Records the user's new state; the password hash and history are never written to the trail.
+     */
+    private static User audited(AuditRecord.Operation operation, String oldValues, User user) {
+        if (AuditTrail.isEnabled() && user != null) {
+            AuditTrail.record(operation, AuditRecord.USERS, user.getUserId(), null, oldValues, describe(user));
+        }
+        return user;
+    }
+
+    /**
+     * The stored user as it was before this save; see {@link AccountDAO} for why the trail is the fallback.
+     */
+    private String valuesBeforeSave(User user) throws SQLException {
+        if (!AuditTrail.isEnabled()) {
+            return null;
+        }
+        User stored = findById(user.getUserId());
+        if (stored != null && stored != user) {
+            return describe(stored);
+        }
+        return AuditTrail.previousValues(AuditRecord.USERS, user.getUserId(), describe(user));
+    }
+
+    private static void auditChange(Integer userId, String oldValues, String newValues) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.USERS, userId, null, oldValues, newValues);
+        }
+    }
+
+    private static void auditDeleted(Integer userId, String oldValues) {
+        if (AuditTrail.isEnabled()) {
+            AuditTrail.record(AuditRecord.Operation.DELETE, AuditRecord.USERS, userId, null, oldValues, null);
+        }
+    }
+
+    private static String describe(User user) {
+        return "username=" + user.getUsername() + ";role=" + user.getRole() + ";first_name=" + user.getFirstName()
+            + ";last_name=" + user.getLastName() + ";email=" + user.getEmail() + ";is_active=" + user.isActive()
+            + ";failed_login_attempts=" + user.getFailedLoginAttempts() + ";locked_until=" + user.getLockedUntil();
+    }
+
     public boolean canDeleteUser(Integer userId, Integer currentUserId) throws SQLException {
+        return CAN_DELETE_USER_TIMER.time(this, userId, currentUserId, UserDAO::doCanDeleteUser);
+    }
+
+    private boolean doCanDeleteUser(Integer userId, Integer currentUserId) throws SQLException {
         if (userId.equals(currentUserId)) {
             return false;
         }
 
-        User user = MockDatabaseUtil.findUserById(userId);
+        User user = findById(userId);
         if (user == null) {
             return false;
         }
 
         return true;
     }
+
+    private User querySingle(String sql, Object key, String failureMessage) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+
+            statement.setObject(1, key);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return mapResultSetToUser(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, failureMessage, e);
+            throw e;
+        }
+        return null;
+    }
+
+    private int executeUpdate(String sql, Integer userId, boolean stampUpdated, String failureMessage) throws SQLException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement statement = DatabaseUtil.prepareCached(connection, sql)) {
+            int index = 1;
+            if (stampUpdated) {
+                statement.setTimestamp(index++, DatabaseUtil.toTimestamp(LocalDateTime.now()));
+            }
+            statement.setInt(index, userId);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, failureMessage, e);
+            throw e;
+        }
+    }
+
+    private User mapResultSetToUser(ResultSet resultSet) throws SQLException {
+        User user = new User();
+        user.setUserId(resultSet.getInt("user_id"));
+        user.setUsername(resultSet.getString("username"));
+        user.setPasswordHash(resultSet.getString("password_hash"));
+        user.setRole(resultSet.getString("role"));
+        user.setFirstName(resultSet.getString("first_name"));
+        user.setLastName(resultSet.getString("last_name"));
+        user.setEmail(resultSet.getString("email"));
+        user.setActive(resultSet.getBoolean("is_active"));
+        user.setLastLogin(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("last_login")));
+        user.setCreatedDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("created_date")));
+        user.setUpdatedDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("updated_date")));
+        user.setPasswordExpiryDate(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("password_expiry_date")));
+        user.setLastPasswordChange(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("last_password_change")));
+        user.setFailedLoginAttempts(resultSet.getInt("failed_login_attempts"));
+        user.setLockedUntil(DatabaseUtil.toLocalDateTime(resultSet.getTimestamp("locked_until")));
+        user.setMfaEnabled(resultSet.getBoolean("mfa_enabled"));
+        user.setPasswordHistory(resultSet.getString("password_history"));
+        return user;
+    }
 }
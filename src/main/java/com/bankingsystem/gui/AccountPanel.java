@@ -3,6 +3,7 @@ package com.bankingsystem.gui;
 import com.bankingsystem.models.AbstractAccount;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -198,28 +199,19 @@ public class AccountPanel extends JPanel {
     }
 
     private void loadAccounts() {
-        SwingWorker<List<AbstractAccount>, Void> worker = new SwingWorker<List<AbstractAccount>, Void>() {
-            @Override
-            protected List<AbstractAccount> doInBackground() throws Exception {
-                return accountService.getAllAccounts();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<AbstractAccount> accounts = get();
-                    updateTable(accounts);
-                    statusLabel.setText(String.format("Loaded %d accounts", accounts.size()));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to load accounts", e);
-                    statusLabel.setText("Failed to load accounts: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
-        worker.execute();
+        // Loads and searches share a key, so whichever was asked for last fills the table
+        BackgroundExecutor.getInstance().submit(this, "loadAccounts",
+            accountService::getAllAccounts,
+            accounts -> {
+                updateTable(accounts);
+                statusLabel.setText(String.format("Loaded %d accounts", accounts.size()));
+                statusLabel.setForeground(Color.BLUE);
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to load accounts", e);
+                statusLabel.setText("Failed to load accounts: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void updateTable(List<AbstractAccount> accounts) {
@@ -251,9 +243,8 @@ public class AccountPanel extends JPanel {
             return;
         }
 
-        SwingWorker<List<AbstractAccount>, Void> worker = new SwingWorker<List<AbstractAccount>, Void>() {
-            @Override
-            protected List<AbstractAccount> doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().submit(this, "loadAccounts",
+            () -> {
                 List<AbstractAccount> allAccounts = accountService.getAllAccounts();
                 return allAccounts.stream()
                     .filter(account ->
@@ -261,24 +252,17 @@ public class AccountPanel extends JPanel {
                         account.getAccountId().toString().contains(searchTerm) ||
                         account.getCustomerId().toString().contains(searchTerm))
                     .toList();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<AbstractAccount> accounts = get();
-                    updateTable(accounts);
-                    statusLabel.setText(String.format("Found %d accounts matching '%s'", accounts.size(), searchTerm));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to search accounts", e);
-                    statusLabel.setText("Search failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
-        worker.execute();
+            },
+            accounts -> {
+                updateTable(accounts);
+                statusLabel.setText(String.format("Found %d accounts matching '%s'", accounts.size(), searchTerm));
+                statusLabel.setForeground(Color.BLUE);
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to search accounts", e);
+                statusLabel.setText("Search failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void showCreateAccountDialog() {
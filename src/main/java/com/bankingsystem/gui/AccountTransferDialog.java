@@ -6,6 +6,7 @@ import com.bankingsystem.models.TransferResult;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.TransferService;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -372,65 +373,56 @@ public class AccountTransferDialog extends JDialog {
         statusLabel.setText("Processing transfer...");
         statusLabel.setForeground(Color.BLUE);
 
-        SwingWorker<TransferResult, Void> worker = new SwingWorker<TransferResult, Void>() {
-            @Override
-            protected TransferResult doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().execute(this, "transfer",
+            () -> {
                 TransferRequest request = new TransferRequest(fromAccount, toAccount, amount, description,
                                                             userService.getCurrentUser().getUserId());
                 return transferService.performTransfer(request);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    TransferResult result = get();
-
-                    if (result.isSuccess()) {
-                        statusLabel.setText("Transfer completed successfully!");
-                        statusLabel.setForeground(Color.GREEN);
-                        transferCompleted = true;
-
-                        JOptionPane.showMessageDialog(AccountTransferDialog.this,
-                            String.format("Transfer Completed Successfully!\n\n" +
-                                         "Amount: $%.2f\n" +
-                                         "From: %s\n" +
-                                         "To: %s\n" +
-                                         "Reference: %s\n" +
-                                         "Description: %s",
-                                         amount, fromAccount, toAccount,
-                                         result.getReferenceNumber(), description),
-                            "Transfer Successful",
-                            JOptionPane.INFORMATION_MESSAGE);
-
-                        loadAccounts();
-                        clearForm();
+            },
+            result -> {
+                transferButton.setEnabled(true);
 
-                    } else {
-                        statusLabel.setText("Transfer failed: " + result.getMessage());
-                        statusLabel.setForeground(Color.RED);
+                if (result.isSuccess()) {
+                    statusLabel.setText("Transfer completed successfully!");
+                    statusLabel.setForeground(Color.GREEN);
+                    transferCompleted = true;
 
-                        JOptionPane.showMessageDialog(AccountTransferDialog.this,
-                            "Transfer Failed:\n" + result.getMessage(),
-                            "Transfer Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    }
+                    JOptionPane.showMessageDialog(AccountTransferDialog.this,
+                        String.format("Transfer Completed Successfully!\n\n" +
+                                     "Amount: $%.2f\n" +
+                                     "From: %s\n" +
+                                     "To: %s\n" +
+                                     "Reference: %s\n" +
+                                     "Description: %s",
+                                     amount, fromAccount, toAccount,
+                                     result.getReferenceNumber(), description),
+                        "Transfer Successful",
+                        JOptionPane.INFORMATION_MESSAGE);
+
+                    loadAccounts();
+                    clearForm();
 
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Transfer execution failed", e);
-                    statusLabel.setText("Transfer failed: " + e.getMessage());
+                } else {
+                    statusLabel.setText("Transfer failed: " + result.getMessage());
                     statusLabel.setForeground(Color.RED);
 
                     JOptionPane.showMessageDialog(AccountTransferDialog.this,
-                        "Transfer Failed:\n" + e.getMessage(),
+                        "Transfer Failed:\n" + result.getMessage(),
                         "Transfer Error",
                         JOptionPane.ERROR_MESSAGE);
-                } finally {
-                    transferButton.setEnabled(true);
                 }
-            }
-        };
+            },
+            e -> {
+                transferButton.setEnabled(true);
+                LOGGER.log(Level.SEVERE, "Transfer execution failed", e);
+                statusLabel.setText("Transfer failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
 
-        worker.execute();
+                JOptionPane.showMessageDialog(AccountTransferDialog.this,
+                    "Transfer Failed:\n" + e.getMessage(),
+                    "Transfer Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
     }
 
     private void clearForm() {
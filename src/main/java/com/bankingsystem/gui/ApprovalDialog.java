@@ -2,12 +2,17 @@ package com.bankingsystem.gui;
 
 import com.bankingsystem.models.TransactionApproval;
 import com.bankingsystem.services.ApprovalService;
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.utils.ApprovalEventBus;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -15,6 +20,12 @@ import java.util.logging.Level;
 public class ApprovalDialog extends JDialog {
     private static final Logger LOGGER = Logger.getLogger(ApprovalDialog.class.getName());
     
+    // Same order as the service's pending queue: largest amount first, then oldest
+    private static final Comparator<TransactionApproval> QUEUE_ORDER =
+        Comparator.comparing(TransactionApproval::getAmount, Comparator.reverseOrder())
+            .thenComparing(TransactionApproval::getRequestedDate)
+            .thenComparing(TransactionApproval::getApprovalId);
+    
     private ApprovalService approvalService;
     private Integer currentUserId;
     private JTable approvalsTable;
@@ -25,6 +36,8 @@ public class ApprovalDialog extends JDialog {
     private JButton closeButton;
     private JTextArea commentsArea;
     private JLabel statusLabel;
+    private final List<TransactionApproval> rows = new ArrayList<>();
+    private ApprovalEventBus.Subscription approvalEvents;
     
     public ApprovalDialog(Window parent, ApprovalService approvalService, Integer currentUserId) {
         super(parent, "Transaction Approvals", ModalityType.APPLICATION_MODAL);
@@ -36,6 +49,17 @@ public class ApprovalDialog extends JDialog {
         setupEventHandlers();
         setupDialog();
         loadPendingApprovals();
+        approvalEvents = ApprovalEventBus.getInstance()
+            .subscribeOnEdt(AppConfig.APPROVAL_EVENT_DEBOUNCE_MS, this::applyApprovalEvents);
+    }
+    
+    @Override
+    public void dispose() {
+        if (approvalEvents != null) {
+            approvalEvents.close();
+            approvalEvents = null;
+        }
+        super.dispose();
     }
     
     private void initializeComponents() {
@@ -143,22 +167,72 @@ public class ApprovalDialog extends JDialog {
     
     private void updateTable(List<TransactionApproval> approvals) {
         tableModel.setRowCount(0);
+        rows.clear();
         
         for (TransactionApproval approval : approvals) {
-            Object[] row = {
-                approval.getApprovalId(),
-                approval.getTransactionType(),
-                approval.getAccountNumber(),
-                String.format("$%.2f", approval.getAmount()),
-                approval.getRequestedByUserId(),
-                approval.getRequestedByUserRole(),
-                approval.getRequestedDate().toString(),
-                approval.getDescription()
-            };
-            tableModel.addRow(row);
+            tableModel.addRow(toRow(approval));
+            rows.add(approval);
+        }
+    }
+    
+    /**
+     * Applies approvals created or decided since the table was loaded, without reloading it
+     */
+    private void applyApprovalEvents(List<ApprovalEventBus.Event> events) {
+        int added = 0;
+        for (ApprovalEventBus.Event event : events) {
+            TransactionApproval approval = event.getApproval();
+            int row = indexOf(approval.getApprovalId());
+            if (event.isDecision()) {
+                if (row >= 0) {
+                    rows.remove(row);
+                    tableModel.removeRow(row);
+                }
+            } else if (row < 0 && canApprove(approval)) {
+                int position = Collections.binarySearch(rows, approval, QUEUE_ORDER);
+                position = position < 0 ? -position - 1 : position;
+                rows.add(position, approval);
+                tableModel.insertRow(position, toRow(approval));
+                added++;
+            }
+        }
+        if (added > 0) {
+            statusLabel.setText(String.format("%d new approval request(s), %d pending", added, rows.size()));
+            statusLabel.setForeground(Color.BLUE);
+        }
+    }
+    
+    private boolean canApprove(TransactionApproval approval) {
+        try {
+            return approvalService.canApprove(currentUserId, approval);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Failed to check approval authority", e);
+            return false;
         }
     }
     
+    private int indexOf(Integer approvalId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getApprovalId().equals(approvalId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static Object[] toRow(TransactionApproval approval) {
+        return new Object[] {
+            approval.getApprovalId(),
+            approval.getTransactionType(),
+            approval.getAccountNumber(),
+            String.format("$%.2f", approval.getAmount()),
+            approval.getRequestedByUserId(),
+            approval.getRequestedByUserRole(),
+            approval.getRequestedDate().toString(),
+            approval.getDescription()
+        };
+    }
+    
     private TransactionApproval getSelectedApproval() {
         int selectedRow = approvalsTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -196,7 +270,7 @@ public class ApprovalDialog extends JDialog {
             try {
                 approvalService.approveRequest(approval.getApprovalId(), currentUserId, comments);
                 showSuccess("Transaction approved successfully");
-                loadPendingApprovals(); // Refresh the list
+                // The approval event removes the row
                 commentsArea.setText(""); // Clear comments
             } catch (SQLException ex) {
                 LOGGER.log(Level.SEVERE, "Failed to approve transaction", ex);
@@ -223,7 +297,7 @@ public class ApprovalDialog extends JDialog {
             try {
                 approvalService.rejectRequest(approval.getApprovalId(), currentUserId, reason);
                 showSuccess("Transaction rejected");
-                loadPendingApprovals(); // Refresh the list
+                // The rejection event removes the row
                 commentsArea.setText(""); // Clear comments
             } catch (SQLException ex) {
                 LOGGER.log(Level.SEVERE, "Failed to reject transaction", ex);
@@ -3,6 +3,7 @@ package com.bankingsystem.gui;
 import com.bankingsystem.models.AbstractAccount;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -148,28 +149,18 @@ public class BulkDeleteAccountsDialog extends JDialog {
     }
 
     private void loadAccounts() {
-        SwingWorker<List<AbstractAccount>, Void> worker = new SwingWorker<List<AbstractAccount>, Void>() {
-            @Override
-            protected List<AbstractAccount> doInBackground() throws Exception {
-                return accountService.getAllAccounts();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<AbstractAccount> accounts = get();
-                    updateTable(accounts);
-                    statusLabel.setText(String.format("Loaded %d accounts available for deletion", accounts.size()));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to load accounts", e);
-                    statusLabel.setText("Failed to load accounts: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
-        worker.execute();
+        BackgroundExecutor.getInstance().submit(this, "loadAccounts",
+            accountService::getAllAccounts,
+            accounts -> {
+                updateTable(accounts);
+                statusLabel.setText(String.format("Loaded %d accounts available for deletion", accounts.size()));
+                statusLabel.setForeground(Color.BLUE);
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to load accounts", e);
+                statusLabel.setText("Failed to load accounts: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void updateTable(List<AbstractAccount> accounts) {
@@ -300,91 +291,66 @@ public class BulkDeleteAccountsDialog extends JDialog {
         deselectAllButton.setEnabled(false);
         deleteSelectedButton.setEnabled(false);
 
-        SwingWorker<Integer, String> worker = new SwingWorker<Integer, String>() {
-            @Override
-            protected Integer doInBackground() throws Exception {
-                int deletedCount = 0;
-                int currentIndex = 0;
-
-                for (Integer accountId : accountIds) {
-                    currentIndex++;
-
-                    try {
-                        AbstractAccount account = accountService.getAccountById(accountId);
-                        if (account != null) {
-                            publish(String.format("Deleting account %s (%d/%d)...",
-                                   account.getAccountNumber(), currentIndex, accountIds.size()));
-
-                            boolean success = accountService.deleteAccountPermanently(accountId, true);
-                            if (success) {
-                                deletedCount++;
-                                LOGGER.warning(String.format("Bulk deletion: Account %s permanently deleted by %s",
-                                             account.getAccountNumber(), userService.getCurrentUser().getUsername()));
-                            }
-                        }
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Failed to delete account ID: " + accountId, e);
-                    }
-
-                    final int index = currentIndex;
-                    SwingUtilities.invokeLater(() -> progressBar.setValue(index));
-
-                    Thread.sleep(100);
-                }
-
-                return deletedCount;
-            }
+        progressBar.setString(String.format("Deleting %d accounts...", accountIds.size()));
 
-            @Override
-            protected void process(List<String> chunks) {
-                if (!chunks.isEmpty()) {
-                    progressBar.setString(chunks.get(chunks.size() - 1));
-                }
-            }
-
-            @Override
-            protected void done() {
+        BackgroundExecutor.getInstance().execute(this, "deleteAccounts",
+            () -> {
+                // One unit of work: on SQLite every delete goes out in a single batched commit
+                List<AbstractAccount> deletedAccounts;
                 try {
-                    int deletedCount = get();
-
-                    progressBar.setString("Deletion completed");
-                    statusLabel.setText(String.format("Successfully deleted %d out of %d selected accounts",
-                                       deletedCount, accountIds.size()));
-                    statusLabel.setForeground(deletedCount > 0 ? Color.GREEN : Color.RED);
-
-                    accountsDeleted = deletedCount > 0;
-
-                    JOptionPane.showMessageDialog(BulkDeleteAccountsDialog.this,
-                        String.format("Bulk deletion completed.\n" +
-                                     "Successfully deleted: %d accounts\n" +
-                                     "Total selected: %d accounts",
-                                     deletedCount, accountIds.size()),
-                        "Bulk Deletion Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                    if (deletedCount > 0) {
-                        loadAccounts();
-                    }
-
+                    deletedAccounts = accountService.deleteAccountsPermanently(accountIds);
                 } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Bulk deletion failed", e);
-                    statusLabel.setText("Bulk deletion failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-
-                    JOptionPane.showMessageDialog(BulkDeleteAccountsDialog.this,
-                        "Bulk deletion failed:\n" + e.getMessage(),
-                        "Deletion Error",
-                        JOptionPane.ERROR_MESSAGE);
-                } finally {
-                    progressBar.setVisible(false);
-                    selectAllButton.setEnabled(true);
-                    deselectAllButton.setEnabled(true);
-                    deleteSelectedButton.setEnabled(true);
+                    LOGGER.log(Level.WARNING, "Failed to delete accounts: " + accountIds, e);
+                    return 0;
                 }
-            }
-        };
 
-        worker.execute();
+                for (AbstractAccount account : deletedAccounts) {
+                    LOGGER.warning(String.format("Bulk deletion: Account %s permanently deleted by %s",
+                                 account.getAccountNumber(), userService.getCurrentUser().getUsername()));
+                }
+                SwingUtilities.invokeLater(() -> progressBar.setValue(accountIds.size()));
+
+                return deletedAccounts.size();
+            },
+            deletedCount -> {
+                finishDeletion();
+                progressBar.setString("Deletion completed");
+                statusLabel.setText(String.format("Successfully deleted %d out of %d selected accounts",
+                                   deletedCount, accountIds.size()));
+                statusLabel.setForeground(deletedCount > 0 ? Color.GREEN : Color.RED);
+
+                accountsDeleted = deletedCount > 0;
+
+                JOptionPane.showMessageDialog(BulkDeleteAccountsDialog.this,
+                    String.format("Bulk deletion completed.\n" +
+                                 "Successfully deleted: %d accounts\n" +
+                                 "Total selected: %d accounts",
+                                 deletedCount, accountIds.size()),
+                    "Bulk Deletion Complete",
+                    JOptionPane.INFORMATION_MESSAGE);
+
+                if (deletedCount > 0) {
+                    loadAccounts();
+                }
+            },
+            e -> {
+                finishDeletion();
+                LOGGER.log(Level.SEVERE, "Bulk deletion failed", e);
+                statusLabel.setText("Bulk deletion failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+
+                JOptionPane.showMessageDialog(BulkDeleteAccountsDialog.this,
+                    "Bulk deletion failed:\n" + e.getMessage(),
+                    "Deletion Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
+    }
+
+    private void finishDeletion() {
+        progressBar.setVisible(false);
+        selectAllButton.setEnabled(true);
+        deselectAllButton.setEnabled(true);
+        deleteSelectedButton.setEnabled(true);
     }
 
     private void setupDialog() {
@@ -1,12 +1,13 @@
 package com.bankingsystem.gui;
 
 import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Customer;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.CustomerService;
 import com.bankingsystem.utils.ValidationUtil;
 import com.bankingsystem.utils.UserFriendlyValidation;
 import com.bankingsystem.utils.ErrorHandler;
-import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -68,7 +69,7 @@ public class CreateAccountDialog extends JDialog {
     }
 
     private void updateAvailableCustomersLabel() {
-        java.util.List<Integer> customerIds = MockDatabaseUtil.getAvailableCustomerIds();
+        java.util.List<Integer> customerIds = getAvailableCustomerIds();
         if (customerIds.isEmpty()) {
             availableCustomersLabel = new JLabel("<html><font color='red'>No customers available. Please create customers first.</font></html>");
         } else {
@@ -82,6 +83,17 @@ public class CreateAccountDialog extends JDialog {
         }
         availableCustomersLabel.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
     }
+
+    private java.util.List<Integer> getAvailableCustomerIds() {
+        try {
+            return customerService.getAllCustomers().stream()
+                .map(Customer::getCustomerId)
+                .collect(java.util.stream.Collectors.toList());
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Failed to load customer IDs", e);
+            return java.util.Collections.emptyList();
+        }
+    }
     
     private void setupLayout() {
         setLayout(new BorderLayout());
@@ -233,7 +245,7 @@ public class CreateAccountDialog extends JDialog {
             }
 
             // Check if any customers exist
-            if (MockDatabaseUtil.getAvailableCustomerIds().isEmpty()) {
+            if (getAvailableCustomerIds().isEmpty()) {
                 showError("No customers available. Please create customers first.");
                 return;
             }
@@ -248,8 +260,8 @@ public class CreateAccountDialog extends JDialog {
                 Integer customerId = Integer.parseInt(customerIdText);
 
                 // Check if customer exists before proceeding
-                if (!MockDatabaseUtil.customerExists(customerId)) {
-                    java.util.List<Integer> availableIds = MockDatabaseUtil.getAvailableCustomerIds();
+                java.util.List<Integer> availableIds = getAvailableCustomerIds();
+                if (!availableIds.contains(customerId)) {
                     String message = String.format(
                         "Customer ID %d not found.\n\n" +
                         "Available customer IDs: %s\n\n" +
@@ -272,36 +284,26 @@ public class CreateAccountDialog extends JDialog {
                 createButton.setEnabled(false);
                 createButton.setText("Creating...");
                 
-                SwingWorker<AbstractAccount, Void> worker = new SwingWorker<AbstractAccount, Void>() {
-                    @Override
-                    protected AbstractAccount doInBackground() throws Exception {
-                        return accountService.createAccount(customerId, accountType, initialDeposit);
-                    }
-                    
-                    @Override
-                    protected void done() {
-                        try {
-                            AbstractAccount account = get();
-                            showSuccess("Account created successfully: " + account.getAccountNumber());
-                            accountCreated = true;
-                            
-                            Timer timer = new Timer(2000, evt -> dispose());
-                            timer.setRepeats(false);
-                            timer.start();
-                            
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.SEVERE, "Failed to create account", ex);
-                            String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
-                            ErrorHandler.showAccountError(CreateAccountDialog.this,
-                                "Failed to create account.\n\n" + userMessage);
-                        } finally {
-                            createButton.setEnabled(true);
-                            createButton.setText("Create Account");
-                        }
-                    }
-                };
-                
-                worker.execute();
+                BackgroundExecutor.getInstance().execute(CreateAccountDialog.this, "createAccount",
+                    () -> accountService.createAccount(customerId, accountType, initialDeposit),
+                    account -> {
+                        createButton.setEnabled(true);
+                        createButton.setText("Create Account");
+                        showSuccess("Account created successfully: " + account.getAccountNumber());
+                        accountCreated = true;
+                        
+                        Timer timer = new Timer(2000, evt -> dispose());
+                        timer.setRepeats(false);
+                        timer.start();
+                    },
+                    ex -> {
+                        createButton.setEnabled(true);
+                        createButton.setText("Create Account");
+                        LOGGER.log(Level.SEVERE, "Failed to create account", ex);
+                        String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
+                        ErrorHandler.showAccountError(CreateAccountDialog.this,
+                            "Failed to create account.\n\n" + userMessage);
+                    });
                 
             } catch (NumberFormatException ex) {
                 String message = "Invalid input format.\n\n";
@@ -3,6 +3,7 @@ package com.bankingsystem.gui;
 import com.bankingsystem.models.Customer;
 import com.bankingsystem.services.CustomerService;
 import com.bankingsystem.utils.ValidationUtil;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -208,34 +209,24 @@ public class CreateCustomerDialog extends JDialog {
                 createButton.setEnabled(false);
                 createButton.setText("Creating...");
                 
-                SwingWorker<Customer, Void> worker = new SwingWorker<Customer, Void>() {
-                    @Override
-                    protected Customer doInBackground() throws Exception {
-                        return customerService.createCustomer(firstName, lastName, email, phone, address, dateOfBirth, ssn);
-                    }
-                    
-                    @Override
-                    protected void done() {
-                        try {
-                            Customer customer = get();
-                            showSuccess("Customer created successfully! ID: " + customer.getCustomerId());
-                            customerCreated = true;
-                            
-                            Timer timer = new Timer(2000, evt -> dispose());
-                            timer.setRepeats(false);
-                            timer.start();
-                            
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.SEVERE, "Failed to create customer", ex);
-                            showError("Failed to create customer: " + ex.getMessage());
-                        } finally {
-                            createButton.setEnabled(true);
-                            createButton.setText("Create Customer");
-                        }
-                    }
-                };
-                
-                worker.execute();
+                BackgroundExecutor.getInstance().execute(CreateCustomerDialog.this, "createCustomer",
+                    () -> customerService.createCustomer(firstName, lastName, email, phone, address, dateOfBirth, ssn),
+                    customer -> {
+                        createButton.setEnabled(true);
+                        createButton.setText("Create Customer");
+                        showSuccess("Customer created successfully! ID: " + customer.getCustomerId());
+                        customerCreated = true;
+                        
+                        Timer timer = new Timer(2000, evt -> dispose());
+                        timer.setRepeats(false);
+                        timer.start();
+                    },
+                    ex -> {
+                        createButton.setEnabled(true);
+                        createButton.setText("Create Customer");
+                        LOGGER.log(Level.SEVERE, "Failed to create customer", ex);
+                        showError("Failed to create customer: " + ex.getMessage());
+                    });
                 
             } catch (DateTimeParseException ex) {
                 showError("Invalid date format. Use YYYY-MM-DD (e.g., 1990-01-15)");
@@ -3,6 +3,7 @@ package com.bankingsystem.gui;
 import com.bankingsystem.models.AbstractAccount;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -180,36 +181,26 @@ public class CriteriaDeleteAccountsDialog extends JDialog {
     }
 
     private void previewMatchingAccounts() {
-        SwingWorker<List<AbstractAccount>, Void> worker = new SwingWorker<List<AbstractAccount>, Void>() {
-            @Override
-            protected List<AbstractAccount> doInBackground() throws Exception {
-                return getMatchingAccounts();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<AbstractAccount> matchingAccounts = get();
-                    updatePreviewTable(matchingAccounts);
-
-                    deleteButton.setEnabled(matchingAccounts.size() > 0);
-
-                    if (matchingAccounts.size() > 0) {
-                        statusLabel.setText(String.format("Found %d accounts matching criteria - Review and click Delete to proceed", matchingAccounts.size()));
-                        statusLabel.setForeground(Color.ORANGE);
-                    } else {
-                        statusLabel.setText("No accounts match the specified criteria");
-                        statusLabel.setForeground(Color.GRAY);
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to preview matching accounts", e);
-                    statusLabel.setText("Failed to preview accounts: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
+        BackgroundExecutor.getInstance().submit(this, "previewMatchingAccounts",
+            this::getMatchingAccounts,
+            matchingAccounts -> {
+                updatePreviewTable(matchingAccounts);
+
+                deleteButton.setEnabled(matchingAccounts.size() > 0);
+
+                if (matchingAccounts.size() > 0) {
+                    statusLabel.setText(String.format("Found %d accounts matching criteria - Review and click Delete to proceed", matchingAccounts.size()));
+                    statusLabel.setForeground(Color.ORANGE);
+                } else {
+                    statusLabel.setText("No accounts match the specified criteria");
+                    statusLabel.setForeground(Color.GRAY);
                 }
-            }
-        };
-
-        worker.execute();
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to preview matching accounts", e);
+                statusLabel.setText("Failed to preview accounts: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private List<AbstractAccount> getMatchingAccounts() throws SQLException {
@@ -371,9 +362,8 @@ public class CriteriaDeleteAccountsDialog extends JDialog {
         previewButton.setEnabled(false);
         deleteButton.setEnabled(false);
 
-        SwingWorker<Integer, String> worker = new SwingWorker<Integer, String>() {
-            @Override
-            protected Integer doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().execute(this, "deleteMatchingAccounts",
+            () -> {
                 int deletedCount = 0;
                 int currentIndex = 0;
 
@@ -383,8 +373,9 @@ public class CriteriaDeleteAccountsDialog extends JDialog {
                     try {
                         AbstractAccount account = accountService.getAccountById(accountId);
                         if (account != null) {
-                            publish(String.format("Deleting account %s (%d/%d)...",
-                                   account.getAccountNumber(), currentIndex, accountIds.size()));
+                            String progress = String.format("Deleting account %s (%d/%d)...",
+                                   account.getAccountNumber(), currentIndex, accountIds.size());
+                            SwingUtilities.invokeLater(() -> progressBar.setString(progress));
 
                             boolean success = accountService.deleteAccountPermanently(accountId, true);
                             if (success) {
@@ -404,58 +395,46 @@ public class CriteriaDeleteAccountsDialog extends JDialog {
                 }
 
                 return deletedCount;
-            }
-
-            @Override
-            protected void process(List<String> chunks) {
-                if (!chunks.isEmpty()) {
-                    progressBar.setString(chunks.get(chunks.size() - 1));
+            },
+            deletedCount -> {
+                finishDeletion();
+                progressBar.setString("Criteria-based deletion completed");
+                statusLabel.setText(String.format("Successfully deleted %d out of %d matching accounts",
+                                   deletedCount, accountIds.size()));
+                statusLabel.setForeground(deletedCount > 0 ? Color.GREEN : Color.RED);
+
+                accountsDeleted = deletedCount > 0;
+
+                JOptionPane.showMessageDialog(CriteriaDeleteAccountsDialog.this,
+                    String.format("Criteria-based deletion completed.\n\n" +
+                                 "Criteria: %s\n" +
+                                 "Successfully deleted: %d accounts\n" +
+                                 "Total matching: %d accounts",
+                                 criteriaDescription, deletedCount, accountIds.size()),
+                    "Criteria-Based Deletion Complete",
+                    JOptionPane.INFORMATION_MESSAGE);
+
+                if (deletedCount > 0) {
+                    previewMatchingAccounts();
                 }
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    int deletedCount = get();
-
-                    progressBar.setString("Criteria-based deletion completed");
-                    statusLabel.setText(String.format("Successfully deleted %d out of %d matching accounts",
-                                       deletedCount, accountIds.size()));
-                    statusLabel.setForeground(deletedCount > 0 ? Color.GREEN : Color.RED);
-
-                    accountsDeleted = deletedCount > 0;
-
-                    JOptionPane.showMessageDialog(CriteriaDeleteAccountsDialog.this,
-                        String.format("Criteria-based deletion completed.\n\n" +
-                                     "Criteria: %s\n" +
-                                     "Successfully deleted: %d accounts\n" +
-                                     "Total matching: %d accounts",
-                                     criteriaDescription, deletedCount, accountIds.size()),
-                        "Criteria-Based Deletion Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-
-                    if (deletedCount > 0) {
-                        previewMatchingAccounts();
-                    }
-
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Criteria-based deletion failed", e);
-                    statusLabel.setText("Criteria-based deletion failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-
-                    JOptionPane.showMessageDialog(CriteriaDeleteAccountsDialog.this,
-                        "Criteria-based deletion failed:\n" + e.getMessage(),
-                        "Deletion Error",
-                        JOptionPane.ERROR_MESSAGE);
-                } finally {
-                    progressBar.setVisible(false);
-                    previewButton.setEnabled(true);
-                    deleteButton.setEnabled(previewTableModel.getRowCount() > 0);
-                }
-            }
-        };
+            },
+            e -> {
+                finishDeletion();
+                LOGGER.log(Level.SEVERE, "Criteria-based deletion failed", e);
+                statusLabel.setText("Criteria-based deletion failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+
+                JOptionPane.showMessageDialog(CriteriaDeleteAccountsDialog.this,
+                    "Criteria-based deletion failed:\n" + e.getMessage(),
+                    "Deletion Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
+    }
 
-        worker.execute();
+    private void finishDeletion() {
+        progressBar.setVisible(false);
+        previewButton.setEnabled(true);
+        deleteButton.setEnabled(previewTableModel.getRowCount() > 0);
     }
 
     private void setupDialog() {
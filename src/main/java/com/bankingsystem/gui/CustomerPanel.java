@@ -2,6 +2,7 @@ package com.bankingsystem.gui;
 
 import com.bankingsystem.models.User;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -147,28 +148,18 @@ public class CustomerPanel extends JPanel {
     }
 
     private void loadUsers() {
-        SwingWorker<List<User>, Void> worker = new SwingWorker<List<User>, Void>() {
-            @Override
-            protected List<User> doInBackground() throws Exception {
-                return userService.getAllUsers();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<User> users = get();
-                    updateTable(users);
-                    statusLabel.setText(String.format("Loaded %d users", users.size()));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to load users", e);
-                    statusLabel.setText("Failed to load users: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
-        worker.execute();
+        BackgroundExecutor.getInstance().submit(this, "loadUsers",
+            userService::getAllUsers,
+            users -> {
+                updateTable(users);
+                statusLabel.setText(String.format("Loaded %d users", users.size()));
+                statusLabel.setForeground(Color.BLUE);
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to load users", e);
+                statusLabel.setText("Failed to load users: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void updateTable(List<User> users) {
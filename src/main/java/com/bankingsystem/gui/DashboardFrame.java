@@ -1,12 +1,18 @@
 package com.bankingsystem.gui;
 
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.TransactionApproval;
 import com.bankingsystem.models.User;
 import com.bankingsystem.services.UserService;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.TransactionService;
 import com.bankingsystem.services.ApprovalService;
+import com.bankingsystem.utils.ApprovalEventBus;
+import com.bankingsystem.utils.ApprovalWorkflowManager;
+import com.bankingsystem.utils.BackgroundExecutor;
 import com.bankingsystem.utils.MockDatabaseUtil;
 import com.bankingsystem.utils.DatabaseBackupUtil;
+import com.bankingsystem.utils.ErrorHandler;
 import com.bankingsystem.utils.SettingsManager;
 import com.bankingsystem.utils.ThemeManager;
 import javax.swing.*;
@@ -15,6 +21,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -31,6 +38,8 @@ public class DashboardFrame extends JFrame {
     private JLabel userInfoLabel;
     private JLabel sessionTimeLabel;
     private Timer sessionTimer;
+    private JButton approvalsButton;
+    private ApprovalEventBus.Subscription approvalEvents;
 
     private AccountPanel accountPanel;
     private TransactionPanel transactionPanel;
@@ -53,6 +62,7 @@ public class DashboardFrame extends JFrame {
         setupEventHandlers();
         setupFrame();
         startSessionTimer();
+        subscribeToApprovals();
     }
 
     private void initializeComponents() {
@@ -154,7 +164,7 @@ public class DashboardFrame extends JFrame {
 
         // Add Approvals button for managers and admins
         if (currentUser.hasPermission("APPROVE_TRANSACTIONS") || currentUser.isManager() || currentUser.isAdmin()) {
-            JButton approvalsButton = createApprovalsButton();
+            approvalsButton = createApprovalsButton();
             sidebarPanel.add(approvalsButton);
             sidebarPanel.add(Box.createVerticalStrut(5));
         }
@@ -360,6 +370,56 @@ public class DashboardFrame extends JFrame {
         sessionTimer.start();
     }
 
+    private void subscribeToApprovals() {
+        approvalEvents = ApprovalEventBus.getInstance()
+            .subscribeOnEdt(AppConfig.APPROVAL_EVENT_DEBOUNCE_MS, this::onApprovalEvents);
+        updatePendingApprovalCount();
+    }
+
+    /**
+     * Tells the user when someone else decides one of their requests or an overdue request is escalated to
+     * their role, and keeps the pending count current.
+     */
+    private void onApprovalEvents(List<ApprovalEventBus.Event> events) {
+        int escalatedToMe = 0;
+        for (ApprovalEventBus.Event event : events) {
+            TransactionApproval approval = event.getApproval();
+            boolean ownRequest = currentUser.getUserId().equals(approval.getRequestedByUserId());
+            if (event.getKind() == ApprovalEventBus.Kind.EXPIRED) {
+                if (ownRequest) {
+                    ErrorHandler.showWarning(this, "Approval Request Expired",
+                        String.format("Your %s request for $%.2f expired without a decision.\n\n%s",
+                                      approval.getTransactionType(), approval.getAmount(), approval.getRejectionReason()));
+                }
+            } else if (event.isDecision()) {
+                if (ownRequest && !currentUser.getUserId().equals(approval.getApprovedByUserId())) {
+                    ApprovalWorkflowManager.showApprovalNotification(this, approval,
+                        event.getKind() == ApprovalEventBus.Kind.APPROVED);
+                }
+            } else if (event.getKind() == ApprovalEventBus.Kind.ESCALATED
+                    && currentUser.getRole().equals(approval.getEscalatedToRole())) {
+                escalatedToMe++;
+            }
+        }
+        if (escalatedToMe > 0) {
+            ErrorHandler.showWarning(this, "Overdue Approvals",
+                String.format("%d overdue approval request(s) escalated to %s.\nOpen Approvals to review them.",
+                              escalatedToMe, currentUser.getRole()));
+        }
+        updatePendingApprovalCount();
+    }
+
+    private void updatePendingApprovalCount() {
+        if (approvalsButton == null) {
+            return;
+        }
+        Integer userId = currentUser.getUserId();
+        BackgroundExecutor.getInstance().submit(this, "pendingApprovalCount",
+            () -> new ApprovalService().getPendingApprovalsForUser(userId).size(),
+            count -> approvalsButton.setText(count > 0 ? "Approvals (" + count + ")" : "Approvals"),
+            e -> LOGGER.log(Level.WARNING, "Failed to count pending approvals", e));
+    }
+
     private void updateUserInfo() {
         if (currentUser != null) {
             userInfoLabel.setText(String.format("Welcome, %s (%s)",
@@ -376,6 +436,10 @@ public class DashboardFrame extends JFrame {
         if (sessionTimer != null) {
             sessionTimer.stop();
         }
+        if (approvalEvents != null) {
+            approvalEvents.close();
+            approvalEvents = null;
+        }
 
         userService.logout();
         LOGGER.info("User logged out from dashboard");
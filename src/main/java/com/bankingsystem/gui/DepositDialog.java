@@ -11,7 +11,7 @@ import com.bankingsystem.utils.ValidationUtil;
 import com.bankingsystem.utils.UserFriendlyValidation;
 import com.bankingsystem.utils.ErrorHandler;
 import com.bankingsystem.utils.ApprovalWorkflowManager;
-import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -165,7 +165,7 @@ public class DepositDialog extends JDialog {
         try {
             accountComboBox.removeAllItems();
 
-            java.util.List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            java.util.List<AbstractAccount> accounts = accountService.getAllAccounts();
 
             if (accounts.isEmpty()) {
                 accountComboBox.addItem(new AccountItem(null, "No accounts available"));
@@ -175,7 +175,7 @@ public class DepositDialog extends JDialog {
             }
 
             for (AbstractAccount account : accounts) {
-                Customer customer = MockDatabaseUtil.findCustomerById(account.getCustomerId());
+                Customer customer = customerService.getCustomerById(account.getCustomerId());
                 String customerName = customer != null ? customer.getFullName() : "Unknown Customer";
                 accountComboBox.addItem(new AccountItem(account, customerName));
             }
@@ -249,9 +249,8 @@ public class DepositDialog extends JDialog {
                 depositButton.setEnabled(false);
                 depositButton.setText("Processing...");
                 
-                SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-                    @Override
-                    protected Void doInBackground() throws Exception {
+                BackgroundExecutor.getInstance().execute(DepositDialog.this, "deposit",
+                    () -> {
                         // Use enhanced approval workflow
                         ApprovalWorkflowManager workflowManager = new ApprovalWorkflowManager();
                         ApprovalWorkflowManager.ApprovalResult approvalResult =
@@ -288,25 +287,19 @@ public class DepositDialog extends JDialog {
                         // If approval is required and cannot self-approve, the workflow manager already showed the notification
 
                         return null;
-                    }
-
-                    @Override
-                    protected void done() {
-                        try {
-                            get(); // Check for exceptions
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.SEVERE, "Deposit operation failed", ex);
-                            String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
-                            ErrorHandler.showTransactionError(DepositDialog.this,
-                                "Deposit failed.\n\n" + userMessage);
-                        } finally {
-                            depositButton.setEnabled(true);
-                            depositButton.setText("Deposit");
-                        }
-                    }
-                };
-                
-                worker.execute();
+                    },
+                    ignored -> {
+                        depositButton.setEnabled(true);
+                        depositButton.setText("Deposit");
+                    },
+                    ex -> {
+                        depositButton.setEnabled(true);
+                        depositButton.setText("Deposit");
+                        LOGGER.log(Level.SEVERE, "Deposit operation failed", ex);
+                        String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
+                        ErrorHandler.showTransactionError(DepositDialog.this,
+                            "Deposit failed.\n\n" + userMessage);
+                    });
                 
             } catch (NumberFormatException ex) {
                 ErrorHandler.showValidationError(DepositDialog.this,
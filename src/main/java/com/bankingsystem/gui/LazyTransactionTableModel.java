@@ -0,0 +1,229 @@
+package com.bankingsystem.gui;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.utils.BackgroundExecutor;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only table of transactions, newest first, fetched a page at a time as rows scroll into view.
+ * Pages are keyset pages: the model remembers the key of the last row before each page, so any later page can
+ * be fetched again after it has been evicted from the small LRU window of pages held in memory. The first page
+ * has no such key, and fetching it again would pick up transactions saved since, so it is held until the source
+ * changes and never evicted. Rows whose page is still loading show a placeholder, and one placeholder row
+ * stands at the end until the last page has been fetched.
+ *
+ * All methods must be called on the event dispatch thread; pages are fetched on a background thread.
+ */
+public class LazyTransactionTableModel extends AbstractTableModel {
+    private static final Logger LOGGER = Logger.getLogger(LazyTransactionTableModel.class.getName());
+    private static final String LOADING = "Loading...";
+
+    /**
+     * Fetches up to {@code limit} transactions after the given key, or from the newest when it is null.
+     */
+    public interface PageSource {
+        List<Transaction> fetch(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit) throws Exception;
+    }
+
+    /**
+     * Told on the event dispatch thread when a page arrives or fails.
+     */
+    public interface LoadListener {
+        void pageLoaded(int loadedRows, boolean complete);
+
+        void loadFailed(Exception e);
+    }
+
+    private final String[] columnNames;
+    private final Function<Transaction, Object[]> rowMapper;
+    private final int pageSize;
+    private final int cachedPages;
+
+    private PageSource source;
+    private LoadListener listener;
+    private int generation;
+
+    // Key of the last row before each page; pageStarts.get(frontier) starts the first page not yet fetched
+    private final List<Transaction> pageStarts = new ArrayList<>();
+    private Object[][] firstPage;
+    private final Map<Integer, Object[][]> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private int frontier;
+    private int knownRows;
+    private boolean complete = true;
+
+    public LazyTransactionTableModel(String[] columnNames, Function<Transaction, Object[]> rowMapper, int pageSize) {
+        this.columnNames = columnNames.clone();
+        this.rowMapper = rowMapper;
+        this.pageSize = Math.max(1, pageSize);
+        this.cachedPages = Math.max(2, AppConfig.HISTORY_CACHED_PAGES);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                return size() > cachedPages;
+            }
+        };
+    }
+
+    public void setLoadListener(LoadListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Discards every loaded row and starts over from the newest transaction of the given source.
+     */
+    public void setSource(PageSource source) {
+        this.source = source;
+        generation++;
+        pageStarts.clear();
+        pageStarts.add(null);
+        firstPage = null;
+        pages.clear();
+        loading.clear();
+        frontier = 0;
+        knownRows = 0;
+        complete = source == null;
+        fireTableDataChanged();
+        if (source != null) {
+            request(0);
+        }
+    }
+
+    /**
+     * Fetches the current source again from the newest transaction.
+     */
+    public void refresh() {
+        setSource(source);
+    }
+
+    public int getLoadedRowCount() {
+        return knownRows;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public int getRowCount() {
+        return knownRows + (complete ? 0 : 1);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (!complete && row >= knownRows - pageSize / 2) {
+            request(frontier);
+        }
+        int page = row / pageSize;
+        Object[][] rows = page == 0 ? firstPage : pages.get(page);
+        if (rows == null) {
+            request(page);
+            return column == 0 ? LOADING : "";
+        }
+        int offset = row - page * pageSize;
+        return offset < rows.length ? rows[offset][column] : "";
+    }
+
+    private void request(int page) {
+        if (source == null || page > frontier || (page == frontier && complete) || !loading.add(page)) {
+            return;
+        }
+        PageSource pageSource = source;
+        int requestGeneration = generation;
+        Transaction after = pageStarts.get(page);
+        BackgroundExecutor.getInstance().execute(this, "loadPage",
+            () -> pageSource.fetch(after != null ? after.getCreatedDate() : null,
+                                   after != null ? after.getTransactionId() : null,
+                                   pageSize),
+            transactions -> pageArrived(requestGeneration, page, transactions),
+            e -> pageFailed(requestGeneration, page, e));
+    }
+
+    private void pageArrived(int requestGeneration, int page, List<Transaction> transactions) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        loading.remove(page);
+        Object[][] rows = new Object[transactions.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = rowMapper.apply(transactions.get(i));
+        }
+
+        if (page < frontier) {
+            // A page fetched again after eviction keeps the row span it had
+            int span = Math.min(pageSize, knownRows - page * pageSize);
+            pages.put(page, rows);
+            fireTableRowsUpdated(page * pageSize, page * pageSize + span - 1);
+            return;
+        }
+
+        int oldRowCount = getRowCount();
+        if (page == 0) {
+            firstPage = rows;
+        } else {
+            pages.put(page, rows);
+        }
+        knownRows += rows.length;
+        frontier++;
+        if (rows.length == pageSize) {
+            pageStarts.add(transactions.get(rows.length - 1));
+        } else {
+            complete = true;
+        }
+        int newRowCount = getRowCount();
+        if (newRowCount >= oldRowCount) {
+            fireTableRowsUpdated(oldRowCount - 1, oldRowCount - 1);
+            if (newRowCount > oldRowCount) {
+                fireTableRowsInserted(oldRowCount, newRowCount - 1);
+            }
+        } else {
+            fireTableRowsDeleted(newRowCount, oldRowCount - 1);
+        }
+        if (listener != null) {
+            listener.pageLoaded(knownRows, complete);
+        }
+    }
+
+    private void pageFailed(int requestGeneration, int page, Exception e) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        loading.remove(page);
+        LOGGER.log(Level.WARNING, "Failed to load transaction page " + page, e);
+        if (page == frontier) {
+            // Stop asking for more rows until the model is refreshed
+            int oldRowCount = getRowCount();
+            complete = true;
+            fireTableRowsDeleted(oldRowCount - 1, oldRowCount - 1);
+        }
+        if (listener != null) {
+            listener.loadFailed(e);
+        }
+    }
+}
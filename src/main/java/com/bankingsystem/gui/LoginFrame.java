@@ -2,6 +2,7 @@ package com.bankingsystem.gui;
 
 import com.bankingsystem.models.User;
 import com.bankingsystem.services.UserService;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -207,39 +208,33 @@ public class LoginFrame extends JFrame {
             statusLabel.setText("Authenticating...");
             statusLabel.setForeground(Color.BLUE);
             
-            SwingWorker<User, Void> worker = new SwingWorker<User, Void>() {
-                @Override
-                protected User doInBackground() throws Exception {
-                    return userService.authenticate(username, password);
-                }
-                
-                @Override
-                protected void done() {
-                    try {
-                        User user = get();
-                        if (user != null) {
-                            LOGGER.info("Login successful for user: " + username);
-                            dispose();
-                            
-                            SwingUtilities.invokeLater(() -> {
-                                DashboardFrame dashboard = new DashboardFrame(userService);
-                                dashboard.setVisible(true);
-                            });
-                        } else {
-                            showError("Invalid username or password");
-                        }
-                    } catch (Exception ex) {
-                        LOGGER.log(Level.SEVERE, "Login failed", ex);
-                        showError("Login failed: " + ex.getMessage());
-                    } finally {
-                        loginButton.setEnabled(true);
-                        loginButton.setText("Login");
-                        passwordField.setText("");
+            BackgroundExecutor.getInstance().execute(LoginFrame.this, "login",
+                () -> userService.authenticate(username, password),
+                user -> {
+                    resetLoginButton();
+                    if (user != null) {
+                        LOGGER.info("Login successful for user: " + username);
+                        dispose();
+                        
+                        SwingUtilities.invokeLater(() -> {
+                            DashboardFrame dashboard = new DashboardFrame(userService);
+                            dashboard.setVisible(true);
+                        });
+                    } else {
+                        showError("Invalid username or password");
                     }
-                }
-            };
-            
-            worker.execute();
+                },
+                ex -> {
+                    resetLoginButton();
+                    LOGGER.log(Level.SEVERE, "Login failed", ex);
+                    showError("Login failed: " + ex.getMessage());
+                });
+        }
+        
+        private void resetLoginButton() {
+            loginButton.setEnabled(true);
+            loginButton.setText("Login");
+            passwordField.setText("");
         }
     }
 }
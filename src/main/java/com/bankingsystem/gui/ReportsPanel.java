@@ -5,6 +5,7 @@ import com.bankingsystem.services.ReportService;
 import com.bankingsystem.services.UserService;
 import com.bankingsystem.utils.ReportDataValidator;
 import com.bankingsystem.utils.ErrorHandler;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -308,9 +309,8 @@ public class ReportsPanel extends JPanel {
     }
 
     private void generateUserActivityReport() {
-        SwingWorker<List<UserActivityReport>, Void> worker = new SwingWorker<List<UserActivityReport>, Void>() {
-            @Override
-            protected List<UserActivityReport> doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().submit(this, "userActivityReport",
+            () -> {
                 // Validate date inputs
                 LocalDate startDate, endDate;
                 try {
@@ -336,41 +336,33 @@ public class ReportsPanel extends JPanel {
                 }
 
                 return reports;
-            }
+            },
+            reports -> {
+                updateUserActivityTable(reports);
 
-            @Override
-            protected void done() {
-                try {
-                    List<UserActivityReport> reports = get();
-                    updateUserActivityTable(reports);
-
-                    String dataStatus = ReportDataValidator.getDataFreshnessStatus();
-                    statusLabel.setText(String.format("Generated user activity report with %d entries. %s",
-                        reports.size(), dataStatus));
-                    statusLabel.setForeground(Color.BLUE);
-
-                    if (reports.isEmpty()) {
-                        statusLabel.setText("No user activity data found for the selected date range. " + dataStatus);
-                        statusLabel.setForeground(Color.ORANGE);
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to generate user activity report", e);
-                    String userMessage = ErrorHandler.getUserFriendlyMessage(e);
-                    ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
-                        "Failed to generate user activity report.\n\n" + userMessage);
-                    statusLabel.setText("Report generation failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
+                String dataStatus = ReportDataValidator.getDataFreshnessStatus();
+                statusLabel.setText(String.format("Generated user activity report with %d entries. %s",
+                    reports.size(), dataStatus));
+                statusLabel.setForeground(Color.BLUE);
 
-        worker.execute();
+                if (reports.isEmpty()) {
+                    statusLabel.setText("No user activity data found for the selected date range. " + dataStatus);
+                    statusLabel.setForeground(Color.ORANGE);
+                }
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to generate user activity report", e);
+                String userMessage = ErrorHandler.getUserFriendlyMessage(e);
+                ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
+                    "Failed to generate user activity report.\n\n" + userMessage);
+                statusLabel.setText("Report generation failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void generateAccountSummaryReport() {
-        SwingWorker<List<AccountSummaryReport>, Void> worker = new SwingWorker<List<AccountSummaryReport>, Void>() {
-            @Override
-            protected List<AccountSummaryReport> doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().submit(this, "accountSummaryReport",
+            () -> {
                 // Validate date inputs
                 LocalDate startDate, endDate;
                 try {
@@ -396,41 +388,33 @@ public class ReportsPanel extends JPanel {
                 }
 
                 return reports;
-            }
+            },
+            reports -> {
+                updateAccountSummaryTable(reports);
 
-            @Override
-            protected void done() {
-                try {
-                    List<AccountSummaryReport> reports = get();
-                    updateAccountSummaryTable(reports);
-
-                    String dataStatus = ReportDataValidator.getDataFreshnessStatus();
-                    statusLabel.setText(String.format("Generated account summary report with %d entries. %s",
-                        reports.size(), dataStatus));
-                    statusLabel.setForeground(Color.BLUE);
-
-                    if (reports.isEmpty()) {
-                        statusLabel.setText("No account data found for the selected date range. " + dataStatus);
-                        statusLabel.setForeground(Color.ORANGE);
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to generate account summary report", e);
-                    String userMessage = ErrorHandler.getUserFriendlyMessage(e);
-                    ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
-                        "Failed to generate account summary report.\n\n" + userMessage);
-                    statusLabel.setText("Report generation failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
+                String dataStatus = ReportDataValidator.getDataFreshnessStatus();
+                statusLabel.setText(String.format("Generated account summary report with %d entries. %s",
+                    reports.size(), dataStatus));
+                statusLabel.setForeground(Color.BLUE);
 
-        worker.execute();
+                if (reports.isEmpty()) {
+                    statusLabel.setText("No account data found for the selected date range. " + dataStatus);
+                    statusLabel.setForeground(Color.ORANGE);
+                }
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to generate account summary report", e);
+                String userMessage = ErrorHandler.getUserFriendlyMessage(e);
+                ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
+                    "Failed to generate account summary report.\n\n" + userMessage);
+                statusLabel.setText("Report generation failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void generateTransactionAnalysisReport() {
-        SwingWorker<List<TransactionAnalysisReport>, Void> worker = new SwingWorker<List<TransactionAnalysisReport>, Void>() {
-            @Override
-            protected List<TransactionAnalysisReport> doInBackground() throws Exception {
+        BackgroundExecutor.getInstance().submit(this, "transactionAnalysisReport",
+            () -> {
                 // Validate date inputs
                 LocalDate startDate, endDate;
                 try {
@@ -456,65 +440,50 @@ public class ReportsPanel extends JPanel {
                 }
 
                 return reports;
-            }
+            },
+            reports -> {
+                updateTransactionAnalysisTable(reports);
 
-            @Override
-            protected void done() {
-                try {
-                    List<TransactionAnalysisReport> reports = get();
-                    updateTransactionAnalysisTable(reports);
-
-                    String dataStatus = ReportDataValidator.getDataFreshnessStatus();
-                    statusLabel.setText(String.format("Generated transaction analysis report with %d entries. %s",
-                        reports.size(), dataStatus));
-                    statusLabel.setForeground(Color.BLUE);
-
-                    if (reports.isEmpty()) {
-                        statusLabel.setText("No transaction data found for the selected date range. " + dataStatus);
-                        statusLabel.setForeground(Color.ORANGE);
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to generate transaction analysis report", e);
-                    String userMessage = ErrorHandler.getUserFriendlyMessage(e);
-                    ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
-                        "Failed to generate transaction analysis report.\n\n" + userMessage);
-                    statusLabel.setText("Report generation failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
+                String dataStatus = ReportDataValidator.getDataFreshnessStatus();
+                statusLabel.setText(String.format("Generated transaction analysis report with %d entries. %s",
+                    reports.size(), dataStatus));
+                statusLabel.setForeground(Color.BLUE);
 
-        worker.execute();
+                if (reports.isEmpty()) {
+                    statusLabel.setText("No transaction data found for the selected date range. " + dataStatus);
+                    statusLabel.setForeground(Color.ORANGE);
+                }
+            },
+            e -> {
+                LOGGER.log(Level.SEVERE, "Failed to generate transaction analysis report", e);
+                String userMessage = ErrorHandler.getUserFriendlyMessage(e);
+                ErrorHandler.showError(ReportsPanel.this, "Report Generation Error",
+                    "Failed to generate transaction analysis report.\n\n" + userMessage);
+                statusLabel.setText("Report generation failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     /**
      * Refresh report data and check for recent changes
      */
     private void refreshReportData() {
-        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
-            @Override
-            protected String doInBackground() throws Exception {
-                ReportDataValidator.synchronizeReportData();
-                return ReportDataValidator.getDataFreshnessStatus();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    String dataStatus = get();
-                    statusLabel.setText("Data refreshed successfully. " + dataStatus);
-                    statusLabel.setForeground(Color.GREEN);
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to refresh report data", e);
-                    statusLabel.setText("Data refresh failed: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
         statusLabel.setText("Refreshing data...");
         statusLabel.setForeground(Color.BLUE);
-        worker.execute();
+        BackgroundExecutor.getInstance().submit(this, "refreshReportData",
+            () -> {
+                ReportDataValidator.synchronizeReportData();
+                return ReportDataValidator.getDataFreshnessStatus();
+            },
+            dataStatus -> {
+                statusLabel.setText("Data refreshed successfully. " + dataStatus);
+                statusLabel.setForeground(Color.GREEN);
+            },
+            e -> {
+                LOGGER.log(Level.WARNING, "Failed to refresh report data", e);
+                statusLabel.setText("Data refresh failed: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
+            });
     }
 
     private void updateUserActivityTable(List<UserActivityReport> reports) {
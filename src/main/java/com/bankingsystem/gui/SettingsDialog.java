@@ -187,7 +187,7 @@ public class SettingsDialog extends JDialog {
         gbc.anchor = GridBagConstraints.WEST;
         
         gbc.gridx = 0; gbc.gridy = 0;
-        panel.add(new JLabel("Max Transaction History:"), gbc);
+        panel.add(new JLabel("History Page Size:"), gbc);
         gbc.gridx = 1;
         panel.add(maxTransactionHistorySpinner, gbc);
         
@@ -2,10 +2,9 @@ package com.bankingsystem.gui;
 
 import com.bankingsystem.models.Transaction;
 import com.bankingsystem.services.TransactionService;
+import com.bankingsystem.utils.SettingsManager;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -16,7 +15,7 @@ public class TransactionHistoryDialog extends JDialog {
     private String accountNumber;
     
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private LazyTransactionTableModel tableModel;
     private JLabel statusLabel;
     
     public TransactionHistoryDialog(Window parent, TransactionService transactionService, String accountNumber) {
@@ -32,12 +31,8 @@ public class TransactionHistoryDialog extends JDialog {
     
     private void initializeComponents() {
         String[] columnNames = {"Date", "Type", "Amount", "Balance After", "Description", "Reference"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LazyTransactionTableModel(columnNames, TransactionHistoryDialog::toRow,
+                                                   SettingsManager.getInstance().getMaxTransactionHistory());
         
         transactionTable = new JTable(tableModel);
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -94,43 +89,33 @@ public class TransactionHistoryDialog extends JDialog {
     }
     
     private void loadTransactionHistory() {
-        SwingWorker<List<Transaction>, Void> worker = new SwingWorker<List<Transaction>, Void>() {
+        tableModel.setLoadListener(new LazyTransactionTableModel.LoadListener() {
             @Override
-            protected List<Transaction> doInBackground() throws Exception {
-                return transactionService.getTransactionHistory(accountNumber);
+            public void pageLoaded(int loadedRows, boolean complete) {
+                statusLabel.setText(complete ? String.format("Loaded %d transactions", loadedRows)
+                                             : String.format("Loaded %d transactions, scroll for more", loadedRows));
+                statusLabel.setForeground(Color.BLUE);
             }
-            
+
             @Override
-            protected void done() {
-                try {
-                    List<Transaction> transactions = get();
-                    updateTable(transactions);
-                    statusLabel.setText(String.format("Loaded %d transactions", transactions.size()));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to load transaction history", e);
-                    statusLabel.setText("Failed to load transaction history: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
+            public void loadFailed(Exception e) {
+                LOGGER.log(Level.SEVERE, "Failed to load transaction history", e);
+                statusLabel.setText("Failed to load transaction history: " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
             }
-        };
-        
-        worker.execute();
+        });
+        tableModel.setSource((afterCreatedDate, afterTransactionId, limit) ->
+            transactionService.getTransactionHistoryAfter(accountNumber, afterCreatedDate, afterTransactionId, limit));
     }
     
-    private void updateTable(List<Transaction> transactions) {
-        tableModel.setRowCount(0);
-        
-        for (Transaction transaction : transactions) {
-            Object[] row = {
-                transaction.getCreatedDate() != null ? transaction.getCreatedDate().toString() : "",
-                transaction.getTransactionType(),
-                String.format("$%.2f", transaction.getAmount()),
-                String.format("$%.2f", transaction.getBalanceAfter()),
-                transaction.getDescription(),
-                transaction.getReferenceNumber()
-            };
-            tableModel.addRow(row);
-        }
+    private static Object[] toRow(Transaction transaction) {
+        return new Object[] {
+            transaction.getCreatedDate() != null ? transaction.getCreatedDate().toString() : "",
+            transaction.getTransactionType(),
+            String.format("$%.2f", transaction.getAmount()),
+            String.format("$%.2f", transaction.getBalanceAfter()),
+            transaction.getDescription(),
+            transaction.getReferenceNumber()
+        };
     }
 }
@@ -6,14 +6,13 @@ import com.bankingsystem.models.Customer;
 import com.bankingsystem.services.TransactionService;
 import com.bankingsystem.services.AccountService;
 import com.bankingsystem.services.UserService;
-import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.services.CustomerService;
+import com.bankingsystem.utils.SettingsManager;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -23,9 +22,10 @@ public class TransactionPanel extends JPanel {
     private TransactionService transactionService;
     private AccountService accountService;
     private UserService userService;
+    private CustomerService customerService;
 
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private LazyTransactionTableModel tableModel;
     private JComboBox<AccountItem> accountFilterComboBox;
     private JButton depositButton;
     private JButton withdrawButton;
@@ -67,6 +67,7 @@ public class TransactionPanel extends JPanel {
         this.transactionService = transactionService;
         this.accountService = accountService;
         this.userService = userService;
+        this.customerService = new CustomerService();
 
         initializeComponents();
         setupLayout();
@@ -77,12 +78,8 @@ public class TransactionPanel extends JPanel {
 
     private void initializeComponents() {
         String[] columnNames = {"Transaction ID", "Account ID", "Type", "Amount", "Balance After", "Description", "Reference", "Date"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LazyTransactionTableModel(columnNames, TransactionPanel::toRow,
+                                                   SettingsManager.getInstance().getMaxTransactionHistory());
 
         transactionTable = new JTable(tableModel);
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -205,10 +202,10 @@ public class TransactionPanel extends JPanel {
             // Add "All Accounts" option
             accountFilterComboBox.addItem(new AccountItem(null, "All Accounts"));
 
-            java.util.List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            java.util.List<AbstractAccount> accounts = accountService.getAllAccounts();
 
             for (AbstractAccount account : accounts) {
-                Customer customer = MockDatabaseUtil.findCustomerById(account.getCustomerId());
+                Customer customer = customerService.getCustomerById(account.getCustomerId());
                 String customerName = customer != null ? customer.getFullName() : "Unknown Customer";
                 accountFilterComboBox.addItem(new AccountItem(account, customerName));
             }
@@ -226,29 +223,7 @@ public class TransactionPanel extends JPanel {
     }
 
     private void loadRecentTransactions() {
-        SwingWorker<List<Transaction>, Void> worker = new SwingWorker<List<Transaction>, Void>() {
-            @Override
-            protected List<Transaction> doInBackground() throws Exception {
-                List<Transaction> allTransactions = transactionService.getAllTransactions();
-                return allTransactions.stream().limit(100).toList();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Transaction> transactions = get();
-                    updateTable(transactions);
-                    statusLabel.setText(String.format("Loaded %d recent transactions", transactions.size()));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to load transactions", e);
-                    statusLabel.setText("Failed to load transactions: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
-            }
-        };
-
-        worker.execute();
+        showTransactions("recent transactions", transactionService::getTransactionsAfter);
     }
 
     private void loadAccountTransactions() {
@@ -261,47 +236,43 @@ public class TransactionPanel extends JPanel {
         }
 
         String accountNumber = selectedItem.getAccount().getAccountNumber();
+        showTransactions("transactions for account " + accountNumber, (afterCreatedDate, afterTransactionId, limit) ->
+            transactionService.getTransactionHistoryAfter(accountNumber, afterCreatedDate, afterTransactionId, limit));
+    }
 
-        SwingWorker<List<Transaction>, Void> worker = new SwingWorker<List<Transaction>, Void>() {
+    /**
+     * Points the table at a new newest-first source; rows are fetched page by page as they scroll into view.
+     */
+    private void showTransactions(String description, LazyTransactionTableModel.PageSource source) {
+        tableModel.setLoadListener(new LazyTransactionTableModel.LoadListener() {
             @Override
-            protected List<Transaction> doInBackground() throws Exception {
-                return transactionService.getTransactionHistory(accountNumber);
+            public void pageLoaded(int loadedRows, boolean complete) {
+                statusLabel.setText(complete ? String.format("Loaded %d %s", loadedRows, description)
+                                             : String.format("Loaded %d %s, scroll for more", loadedRows, description));
+                statusLabel.setForeground(Color.BLUE);
             }
 
             @Override
-            protected void done() {
-                try {
-                    List<Transaction> transactions = get();
-                    updateTable(transactions);
-                    statusLabel.setText(String.format("Loaded %d transactions for account %s", transactions.size(), accountNumber));
-                    statusLabel.setForeground(Color.BLUE);
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to load account transactions", e);
-                    statusLabel.setText("Failed to load account transactions: " + e.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
+            public void loadFailed(Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load " + description, e);
+                statusLabel.setText("Failed to load " + description + ": " + e.getMessage());
+                statusLabel.setForeground(Color.RED);
             }
-        };
-
-        worker.execute();
+        });
+        tableModel.setSource(source);
     }
 
-    private void updateTable(List<Transaction> transactions) {
-        tableModel.setRowCount(0);
-
-        for (Transaction transaction : transactions) {
-            Object[] row = {
-                transaction.getTransactionId(),
-                transaction.getAccountId(),
-                transaction.getTransactionType(),
-                String.format("$%.2f", transaction.getAmount()),
-                String.format("$%.2f", transaction.getBalanceAfter()),
-                transaction.getDescription(),
-                transaction.getReferenceNumber(),
-                transaction.getCreatedDate() != null ? transaction.getCreatedDate().toString() : ""
-            };
-            tableModel.addRow(row);
-        }
+    private static Object[] toRow(Transaction transaction) {
+        return new Object[] {
+            transaction.getTransactionId(),
+            transaction.getAccountId(),
+            transaction.getTransactionType(),
+            String.format("$%.2f", transaction.getAmount()),
+            String.format("$%.2f", transaction.getBalanceAfter()),
+            transaction.getDescription(),
+            transaction.getReferenceNumber(),
+            transaction.getCreatedDate() != null ? transaction.getCreatedDate().toString() : ""
+        };
     }
 
     private void showDepositDialog() {
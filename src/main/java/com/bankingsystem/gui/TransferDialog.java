@@ -10,7 +10,7 @@ import com.bankingsystem.utils.ValidationUtil;
 import com.bankingsystem.utils.UserFriendlyValidation;
 import com.bankingsystem.utils.ErrorHandler;
 import com.bankingsystem.utils.ApprovalWorkflowManager;
-import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -180,7 +180,7 @@ public class TransferDialog extends JDialog {
             fromAccountComboBox.removeAllItems();
             toAccountComboBox.removeAllItems();
 
-            java.util.List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            java.util.List<AbstractAccount> accounts = accountService.getAllAccounts();
 
             if (accounts.isEmpty()) {
                 fromAccountComboBox.addItem(new AccountItem(null, "No accounts available"));
@@ -191,7 +191,7 @@ public class TransferDialog extends JDialog {
             }
 
             for (AbstractAccount account : accounts) {
-                Customer customer = MockDatabaseUtil.findCustomerById(account.getCustomerId());
+                Customer customer = customerService.getCustomerById(account.getCustomerId());
                 String customerName = customer != null ? customer.getFullName() : "Unknown Customer";
                 AccountItem item = new AccountItem(account, customerName);
                 fromAccountComboBox.addItem(item);
@@ -285,9 +285,8 @@ public class TransferDialog extends JDialog {
                 transferButton.setEnabled(false);
                 transferButton.setText("Processing...");
                 
-                SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-                    @Override
-                    protected Void doInBackground() throws Exception {
+                BackgroundExecutor.getInstance().execute(TransferDialog.this, "transfer",
+                    () -> {
                         // Use enhanced approval workflow
                         ApprovalWorkflowManager workflowManager = new ApprovalWorkflowManager();
                         ApprovalWorkflowManager.ApprovalResult approvalResult =
@@ -311,7 +310,7 @@ public class TransferDialog extends JDialog {
 
                         } else if (approvalResult.canSelfApprove()) {
                             // Self-approved transaction - process transfer
-                            List<Transaction> transactions = transactionService.transfer(fromAccount, toAccount, amount, description, userId);
+                            List<Transaction> transactions = transactionService.processApprovedTransfer(approvalResult.getApprovalRequest());
 
                             SwingUtilities.invokeLater(() -> {
                                 if (!transactions.isEmpty()) {
@@ -328,38 +327,32 @@ public class TransferDialog extends JDialog {
                         // If approval is required and cannot self-approve, the workflow manager already showed the notification
 
                         return null;
-                    }
-
-                    @Override
-                    protected void done() {
-                        try {
-                            get(); // Check for exceptions
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.SEVERE, "Transfer operation failed", ex);
-
-                            // Handle specific transfer exceptions with user-friendly messages
-                            String userMessage;
-                            if (ex.getMessage() != null && ex.getMessage().contains("requires manager approval")) {
-                                // This should be handled by the approval workflow, but just in case
-                                userMessage = "This transfer requires manager approval due to the amount or your permission level.\n\n" +
-                                            "An approval request should have been created automatically.";
-                            } else if (ex.getMessage() != null && ex.getMessage().contains("Insufficient funds")) {
-                                userMessage = "Insufficient funds in the source account for this transfer.\n\n" +
-                                            "Please check the account balance and try again with a smaller amount.";
-                            } else {
-                                userMessage = ErrorHandler.getUserFriendlyMessage(ex);
-                            }
-
-                            ErrorHandler.showTransactionError(TransferDialog.this,
-                                "Transfer failed.\n\n" + userMessage);
-                        } finally {
-                            transferButton.setEnabled(true);
-                            transferButton.setText("Transfer");
+                    },
+                    ignored -> {
+                        transferButton.setEnabled(true);
+                        transferButton.setText("Transfer");
+                    },
+                    ex -> {
+                        transferButton.setEnabled(true);
+                        transferButton.setText("Transfer");
+                        LOGGER.log(Level.SEVERE, "Transfer operation failed", ex);
+
+                        // Handle specific transfer exceptions with user-friendly messages
+                        String userMessage;
+                        if (ex.getMessage() != null && ex.getMessage().contains("requires manager approval")) {
+                            // This should be handled by the approval workflow, but just in case
+                            userMessage = "This transfer requires manager approval due to the amount or your permission level.\n\n" +
+                                        "An approval request should have been created automatically.";
+                        } else if (ex.getMessage() != null && ex.getMessage().contains("Insufficient funds")) {
+                            userMessage = "Insufficient funds in the source account for this transfer.\n\n" +
+                                        "Please check the account balance and try again with a smaller amount.";
+                        } else {
+                            userMessage = ErrorHandler.getUserFriendlyMessage(ex);
                         }
-                    }
-                };
-                
-                worker.execute();
+
+                        ErrorHandler.showTransactionError(TransferDialog.this,
+                            "Transfer failed.\n\n" + userMessage);
+                    });
                 
             } catch (NumberFormatException ex) {
                 ErrorHandler.showValidationError(TransferDialog.this,
@@ -10,7 +10,7 @@ import com.bankingsystem.utils.ValidationUtil;
 import com.bankingsystem.utils.UserFriendlyValidation;
 import com.bankingsystem.utils.ErrorHandler;
 import com.bankingsystem.utils.ApprovalWorkflowManager;
-import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.BackgroundExecutor;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -167,7 +167,7 @@ public class WithdrawDialog extends JDialog {
         try {
             accountComboBox.removeAllItems();
 
-            java.util.List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
+            java.util.List<AbstractAccount> accounts = accountService.getAllAccounts();
 
             if (accounts.isEmpty()) {
                 accountComboBox.addItem(new AccountItem(null, "No accounts available"));
@@ -177,7 +177,7 @@ public class WithdrawDialog extends JDialog {
             }
 
             for (AbstractAccount account : accounts) {
-                Customer customer = MockDatabaseUtil.findCustomerById(account.getCustomerId());
+                Customer customer = customerService.getCustomerById(account.getCustomerId());
                 String customerName = customer != null ? customer.getFullName() : "Unknown Customer";
                 accountComboBox.addItem(new AccountItem(account, customerName));
             }
@@ -251,9 +251,8 @@ public class WithdrawDialog extends JDialog {
                 withdrawButton.setEnabled(false);
                 withdrawButton.setText("Processing...");
                 
-                SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-                    @Override
-                    protected Void doInBackground() throws Exception {
+                BackgroundExecutor.getInstance().execute(WithdrawDialog.this, "withdraw",
+                    () -> {
                         // Use enhanced approval workflow
                         ApprovalWorkflowManager workflowManager = new ApprovalWorkflowManager();
                         ApprovalWorkflowManager.ApprovalResult approvalResult =
@@ -275,7 +274,7 @@ public class WithdrawDialog extends JDialog {
 
                         } else if (approvalResult.canSelfApprove()) {
                             // Self-approved transaction - process withdrawal
-                            Transaction transaction = transactionService.withdraw(accountNumber, amount, description, userId);
+                            Transaction transaction = transactionService.processApprovedWithdrawal(approvalResult.getApprovalRequest());
 
                             SwingUtilities.invokeLater(() -> {
                                 ErrorHandler.showTransactionSuccess(WithdrawDialog.this, "Withdrawal (Self-Approved)",
@@ -290,25 +289,19 @@ public class WithdrawDialog extends JDialog {
                         // If approval is required and cannot self-approve, the workflow manager already showed the notification
 
                         return null;
-                    }
-
-                    @Override
-                    protected void done() {
-                        try {
-                            get(); // Check for exceptions
-                        } catch (Exception ex) {
-                            LOGGER.log(Level.SEVERE, "Withdrawal operation failed", ex);
-                            String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
-                            ErrorHandler.showTransactionError(WithdrawDialog.this,
-                                "Withdrawal failed.\n\n" + userMessage);
-                        } finally {
-                            withdrawButton.setEnabled(true);
-                            withdrawButton.setText("Withdraw");
-                        }
-                    }
-                };
-                
-                worker.execute();
+                    },
+                    ignored -> {
+                        withdrawButton.setEnabled(true);
+                        withdrawButton.setText("Withdraw");
+                    },
+                    ex -> {
+                        withdrawButton.setEnabled(true);
+                        withdrawButton.setText("Withdraw");
+                        LOGGER.log(Level.SEVERE, "Withdrawal operation failed", ex);
+                        String userMessage = ErrorHandler.getUserFriendlyMessage(ex);
+                        ErrorHandler.showTransactionError(WithdrawDialog.this,
+                            "Withdrawal failed.\n\n" + userMessage);
+                    });
                 
             } catch (NumberFormatException ex) {
                 ErrorHandler.showValidationError(WithdrawDialog.this,
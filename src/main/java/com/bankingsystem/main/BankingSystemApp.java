@@ -1,12 +1,23 @@
 package com.bankingsystem.main;
 
+import com.bankingsystem.config.AppConfig;
 import com.bankingsystem.config.DatabaseConfig;
+import com.bankingsystem.dao.UserDAO;
 import com.bankingsystem.gui.LoginFrame;
+import com.bankingsystem.models.User;
+import com.bankingsystem.utils.ApprovalScheduler;
+import com.bankingsystem.utils.AuditTrail;
 import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
+import com.bankingsystem.utils.ReportRollups;
+import com.bankingsystem.utils.StoreJournal;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -24,8 +35,50 @@ public class BankingSystemApp {
         boolean startEmpty = false;
         boolean resetData = false;
         boolean loadSampleData = false;
+        boolean durable = false;
+        String fsyncPolicy = AppConfig.DEFAULT_FSYNC_POLICY;
+        String backend = System.getProperty("bms.backend", DatabaseConfig.BACKEND_MEMORY);
+        String metricsFile = null;
+        String auditDirectory = AppConfig.AUDIT_DIRECTORY;
+        long metricsInterval = AppConfig.DEFAULT_METRICS_INTERVAL_SECONDS;
 
         for (String arg : args) {
+            if (arg.toLowerCase().startsWith("--fsync=")) {
+                fsyncPolicy = arg.substring("--fsync=".length());
+                continue;
+            }
+            if (arg.toLowerCase().startsWith("--backend=")) {
+                backend = arg.substring("--backend=".length());
+                continue;
+            }
+            if (arg.toLowerCase().startsWith("--metrics-file=")) {
+                metricsFile = arg.substring("--metrics-file=".length());
+                continue;
+            }
+            if (arg.toLowerCase().startsWith("--audit-dir=")) {
+                auditDirectory = arg.substring("--audit-dir=".length());
+                continue;
+            }
+            if (arg.toLowerCase().startsWith("--report-parallelism=")) {
+                try {
+                    ReportRollups.setParallelism(Integer.parseInt(arg.substring("--report-parallelism=".length())));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid report parallelism: " + arg);
+                    printUsage();
+                    System.exit(1);
+                }
+                continue;
+            }
+            if (arg.toLowerCase().startsWith("--metrics-interval=")) {
+                try {
+                    metricsInterval = Long.parseLong(arg.substring("--metrics-interval=".length()));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid metrics interval: " + arg);
+                    printUsage();
+                    System.exit(1);
+                }
+                continue;
+            }
             switch (arg.toLowerCase()) {
                 case "--empty":
                 case "-e":
@@ -39,6 +92,13 @@ public class BankingSystemApp {
                 case "-s":
                     loadSampleData = true;
                     break;
+                case "--durable":
+                case "-d":
+                    durable = true;
+                    break;
+                case "--no-audit":
+                    auditDirectory = null;
+                    break;
                 case "--help":
                 case "-h":
                     printUsage();
@@ -46,6 +106,41 @@ public class BankingSystemApp {
             }
         }
 
+        try {
+            DatabaseUtil.selectBackend(backend);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+        }
+
+        MetricsRegistry.getInstance().enableJmx();
+        if (metricsFile != null) {
+            MetricsRegistry.getInstance().startExporter(Paths.get(metricsFile), Math.max(1, metricsInterval));
+            Runtime.getRuntime().addShutdownHook(new Thread(MetricsRegistry.getInstance()::stopExporter, "bms-metrics-shutdown"));
+        }
+
+        if (auditDirectory != null) {
+            try {
+                AuditTrail.open(Paths.get(auditDirectory));
+                Runtime.getRuntime().addShutdownHook(new Thread(AuditTrail::closeActive, "bms-audit-shutdown"));
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to open audit trail in " + auditDirectory + "; changes will not be audited", e);
+            }
+        }
+
+        if (durable && DatabaseUtil.isSQLiteBackend()) {
+            LOGGER.warning("--durable applies to the memory backend only; SQLite data is already persistent");
+        } else if (durable) {
+            try {
+                MockDatabaseUtil.enableDurability(Paths.get(AppConfig.DATA_DIRECTORY), StoreJournal.FsyncPolicy.fromString(fsyncPolicy));
+                Runtime.getRuntime().addShutdownHook(new Thread(MockDatabaseUtil::shutdownDurability, "bms-store-shutdown"));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Failed to open durable data store", e);
+                System.exit(1);
+            }
+        }
+
         final boolean finalStartEmpty = startEmpty;
         final boolean finalResetData = resetData;
         final boolean finalLoadSampleData = loadSampleData;
@@ -55,7 +150,13 @@ public class BankingSystemApp {
                 DatabaseUtil.initializeDatabase();
 
                 // Handle data initialization based on command line arguments
-                if (finalResetData) {
+                if (DatabaseUtil.isSQLiteBackend()) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(DatabaseUtil::closeDataSource, "bms-pool-shutdown"));
+                    ensureSystemUsers();
+                    if (finalResetData || finalStartEmpty || finalLoadSampleData) {
+                        LOGGER.info("Data initialization options are ignored with the SQLite backend");
+                    }
+                } else if (finalResetData) {
                     MockDatabaseUtil.resetToSampleData();
                     LOGGER.info("Database reset to sample data");
                 } else if (finalStartEmpty) {
@@ -70,11 +171,16 @@ public class BankingSystemApp {
                     LOGGER.info("Database initialized with system users only (default)");
                 }
 
+                ApprovalScheduler.getInstance().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(ApprovalScheduler.getInstance()::stop, "bms-approval-sla-shutdown"));
+
                 LoginFrame loginFrame = new LoginFrame();
                 loginFrame.setVisible(true);
 
                 LOGGER.info("Banking System Application started successfully");
-                LOGGER.info("Database stats: " + MockDatabaseUtil.getDatabaseStats());
+                if (!DatabaseUtil.isSQLiteBackend()) {
+                    LOGGER.info("Database stats: " + MockDatabaseUtil.getDatabaseStats());
+                }
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Failed to start Banking System Application", e);
                 System.exit(1);
@@ -82,6 +188,20 @@ public class BankingSystemApp {
         });
     }
 
+    /**
+     * Seeds the admin, manager and teller accounts into a fresh SQLite database.
+     */
+    static void ensureSystemUsers() throws SQLException {
+        UserDAO userDAO = new UserDAO();
+        if (!userDAO.findAll().isEmpty()) {
+            return;
+        }
+        for (User user : MockDatabaseUtil.createSystemUsers()) {
+            userDAO.save(user);
+        }
+        LOGGER.info("System users created in SQLite database");
+    }
+
     private static void printUsage() {
         System.out.println("Banking Management System");
         System.out.println("Usage: java BankingSystemApp [options]");
@@ -90,6 +210,14 @@ public class BankingSystemApp {
         System.out.println("  --empty, -e    Start with empty database (no customers or accounts)");
         System.out.println("  --sample, -s   Load sample customers and accounts");
         System.out.println("  --reset, -r    Reset database to initial sample data");
+        System.out.println("  --durable, -d  Persist data to the '" + AppConfig.DATA_DIRECTORY + "' directory and recover it on startup");
+        System.out.println("  --fsync=MODE   With --durable: always (default), interval or none");
+        System.out.println("  --backend=NAME Storage backend: memory (default) or sqlite (" + DatabaseConfig.DATABASE_URL + ")");
+        System.out.println("  --audit-dir=PATH        Record every data change in the binary audit trail under PATH (default '" + AppConfig.AUDIT_DIRECTORY + "')");
+        System.out.println("  --no-audit              Do not record the audit trail");
+        System.out.println("  --metrics-file=PATH     Write service and DAO latency metrics to PATH in Prometheus text format");
+        System.out.println("  --metrics-interval=SEC  Seconds between metrics snapshots (default " + AppConfig.DEFAULT_METRICS_INTERVAL_SECONDS + ")");
+        System.out.println("  --report-parallelism=N  Threads used to aggregate reports on the sqlite backend (default " + AppConfig.REPORT_PARALLELISM + ")");
         System.out.println("  --help, -h     Show this help message");
         System.out.println();
         System.out.println("Default: Start with system users only (admin, manager, teller)");
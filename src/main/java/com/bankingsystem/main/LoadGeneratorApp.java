@@ -0,0 +1,149 @@
+package com.bankingsystem.main;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.config.DatabaseConfig;
+import com.bankingsystem.services.TransactionService;
+import com.bankingsystem.utils.AuditTrail;
+import com.bankingsystem.utils.DatabaseUtil;
+import com.bankingsystem.utils.LoadGenerator;
+import com.bankingsystem.utils.LoadWorkload;
+import com.bankingsystem.utils.MetricsRegistry;
+import com.bankingsystem.utils.MockDatabaseUtil;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load driver: generates or replays a teller workload and prints throughput, latency
+ * percentiles, rejections and balance invariants. Exits with status 2 if an invariant is violated.
+ */
+public class LoadGeneratorApp {
+    private static final Logger LOGGER = Logger.getLogger(LoadGeneratorApp.class.getName());
+
+    public static void main(String[] args) {
+        int customers = 100;
+        int accounts = 300;
+        int operations = 10_000;
+        double rate = 500;
+        int threads = 8;
+        long seed = 42;
+        String mix = "deposit:40,withdrawal:30,transfer:25,approval:5";
+        String backend = DatabaseConfig.BACKEND_MEMORY;
+        Path recordFile = null;
+        Path replayFile = null;
+        Path metricsFile = null;
+        Path auditDirectory = null;
+        Path exportFile = null;
+        boolean verbose = false;
+
+        try {
+            for (String arg : args) {
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+                switch (arg.contains("=") ? arg.substring(0, arg.indexOf('=')) : arg) {
+                    case "--customers": customers = Integer.parseInt(value); break;
+                    case "--accounts": accounts = Integer.parseInt(value); break;
+                    case "--operations": operations = Integer.parseInt(value); break;
+                    case "--rate": rate = Double.parseDouble(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--mix": mix = value; break;
+                    case "--backend": backend = value; break;
+                    case "--record": recordFile = Paths.get(value); break;
+                    case "--replay": replayFile = Paths.get(value); break;
+                    case "--metrics-file": metricsFile = Paths.get(value); break;
+                    case "--audit-dir": auditDirectory = Paths.get(value); break;
+                    case "--export": exportFile = Paths.get(value); break;
+                    case "--verbose": verbose = true; break;
+                    case "--help":
+                    case "-h":
+                        printUsage();
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+        }
+
+        if (!verbose) {
+            // Every service call logs; at load-test rates that would measure the console
+            Logger.getLogger("").setLevel(Level.WARNING);
+            Logger.getLogger("com.bankingsystem").setLevel(Level.OFF);
+        }
+
+        try {
+            LoadWorkload workload = replayFile != null
+                ? LoadWorkload.load(replayFile)
+                : LoadWorkload.generate(customers, accounts, operations, rate, LoadWorkload.parseMix(mix), seed);
+            if (recordFile != null) {
+                workload.save(recordFile);
+                System.out.println("Workload recorded to " + recordFile);
+            }
+
+            DatabaseUtil.selectBackend(backend);
+            DatabaseUtil.initializeDatabase();
+            if (DatabaseUtil.isSQLiteBackend()) {
+                BankingSystemApp.ensureSystemUsers();
+            } else {
+                MockDatabaseUtil.startEmpty();
+            }
+
+            System.out.printf("Running %d operations on %d accounts (%s backend, %d threads)%n",
+                workload.getOperations().size(), workload.getAccounts().size(), DatabaseUtil.getBackend(), threads);
+            MetricsRegistry.getInstance().enableJmx();
+            if (auditDirectory != null) {
+                AuditTrail.open(auditDirectory);
+            }
+            LoadGenerator.Result result = new LoadGenerator(workload, threads).run();
+            System.out.println(result.format());
+            if (exportFile != null) {
+                // Streams the ledger the run produced, as a check that exports stay flat in memory
+                long exportStarted = System.nanoTime();
+                long rows = new TransactionService().exportAllTransactions(exportFile,
+                    exportFile.getFileName().toString().endsWith(".gz"), (written, total) -> {
+                        if (written % 100_000 < AppConfig.EXPORT_CHUNK_SIZE || written == total) {
+                            System.out.printf("Exported %d of %d transactions%n", written, total);
+                        }
+                    });
+                System.out.printf("Exported %d transactions to %s in %.1f ms%n", rows, exportFile,
+                    (System.nanoTime() - exportStarted) / 1_000_000.0);
+            }
+            if (metricsFile != null) {
+                MetricsRegistry.getInstance().writePrometheusFile(metricsFile);
+                System.out.println("Metrics written to " + metricsFile);
+            }
+
+            AuditTrail.closeActive();
+            DatabaseUtil.closeDataSource();
+            System.exit(result.invariantsHold() ? 0 : 2);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Load run failed", e);
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Banking Management System - load generator");
+        System.out.println("Usage: java LoadGeneratorApp [options]");
+        System.out.println();
+        System.out.println("Options:");
+        System.out.println("  --customers=N     Customers to create (default 100)");
+        System.out.println("  --accounts=N      Accounts to open, mixed Savings/Checking/Business (default 300)");
+        System.out.println("  --operations=N    Operations to issue (default 10000)");
+        System.out.println("  --rate=R          Open-loop arrival rate in operations per second (default 500)");
+        System.out.println("  --threads=N       Worker threads (default 8)");
+        System.out.println("  --mix=SPEC        Relative weights (default deposit:40,withdrawal:30,transfer:25,approval:5)");
+        System.out.println("  --seed=N          Random seed for the generated workload (default 42)");
+        System.out.println("  --record=FILE     Save the workload so it can be replayed");
+        System.out.println("  --replay=FILE     Run a recorded workload instead of generating one");
+        System.out.println("  --metrics-file=FILE Write per-method service and DAO latencies in Prometheus text format");
+        System.out.println("  --export=FILE     Stream every transaction to FILE as CSV after the run (gzip if FILE ends in .gz)");
+        System.out.println("  --audit-dir=DIR   Record every data change in a binary audit trail under DIR");
+        System.out.println("  --backend=NAME    memory (default) or sqlite; sqlite writes to " + DatabaseConfig.DATABASE_URL);
+        System.out.println("  --verbose         Keep application logging enabled");
+    }
+}
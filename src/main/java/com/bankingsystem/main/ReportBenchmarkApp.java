@@ -0,0 +1,169 @@
+package com.bankingsystem.main;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.utils.ReportRollups;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless benchmark of report aggregation over an unindexed transaction list, the path taken when no
+ * rollups cover the range. Builds a synthetic ledger, then times a month-end and a full-period report at
+ * each requested parallelism and prints throughput and speedup against a single thread.
+ */
+public class ReportBenchmarkApp {
+    private static final String[] TYPES = {"Deposit", "Withdrawal", "Transfer", "Fee", "Interest"};
+    private static final String[] STATUSES = {"Completed", "Completed", "Completed", "Pending", "Cancelled"};
+
+    public static void main(String[] args) {
+        int transactions = 2_000_000;
+        int accounts = 5_000;
+        int users = 20;
+        int days = 365;
+        int iterations = 5;
+        long seed = 42;
+        int[] parallelism = defaultParallelism();
+
+        try {
+            for (String arg : args) {
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+                switch (arg.contains("=") ? arg.substring(0, arg.indexOf('=')) : arg) {
+                    case "--transactions": transactions = Integer.parseInt(value); break;
+                    case "--accounts": accounts = Integer.parseInt(value); break;
+                    case "--users": users = Integer.parseInt(value); break;
+                    case "--days": days = Integer.parseInt(value); break;
+                    case "--iterations": iterations = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--parallelism":
+                        parallelism = Arrays.stream(value.split(",")).mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+                        break;
+                    case "--help":
+                    case "-h":
+                        printUsage();
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(1);
+        }
+
+        LocalDate lastDay = LocalDate.now();
+        LocalDate firstDay = lastDay.minusDays(days - 1);
+        List<Transaction> ledger = generateLedger(transactions, accounts, users, firstDay, days, seed);
+        System.out.printf("Ledger: %d transactions, %d accounts, %d days, %d cores available%n",
+            ledger.size(), accounts, days, Runtime.getRuntime().availableProcessors());
+
+        int exitCode = 0;
+        exitCode |= run("Month-end", ledger, lastDay.withDayOfMonth(1), lastDay, accounts, parallelism, iterations);
+        exitCode |= run("Full period", ledger, firstDay, lastDay, accounts, parallelism, iterations);
+        ReportRollups.setParallelism(Math.max(1, AppConfig.REPORT_PARALLELISM));
+        System.exit(exitCode);
+    }
+
+    /**
+     * Times one report range at each parallelism level. Returns 2 if any level disagreed with a single thread.
+     */
+    private static int run(String label, List<Transaction> ledger, LocalDate startDate, LocalDate endDate,
+                           int accounts, int[] parallelism, int iterations) {
+        System.out.printf("%n%s report, %s to %s%n", label, startDate, endDate);
+        System.out.printf("%-8s %10s %14s %8s%n", "threads", "best ms", "rows/s", "speedup");
+
+        ReportRollups.setParallelism(1);
+        String expected = fingerprint(ReportRollups.totalsOf(ledger, startDate, endDate), accounts);
+        double baseline = 0;
+        int exitCode = 0;
+        for (int threads : parallelism) {
+            ReportRollups.setParallelism(threads);
+            ReportRollups.totalsOf(ledger, startDate, endDate);
+            long best = Long.MAX_VALUE;
+            String actual = null;
+            for (int i = 0; i < iterations; i++) {
+                long started = System.nanoTime();
+                ReportRollups.Totals totals = ReportRollups.totalsOf(ledger, startDate, endDate);
+                best = Math.min(best, System.nanoTime() - started);
+                actual = fingerprint(totals, accounts);
+            }
+            double millis = best / 1_000_000.0;
+            if (baseline == 0) {
+                baseline = millis;
+            }
+            System.out.printf("%-8d %10.1f %14.0f %7.2fx%s%n", threads, millis, ledger.size() / (millis / 1000.0),
+                baseline / millis, expected.equals(actual) ? "" : "  MISMATCH");
+            if (!expected.equals(actual)) {
+                exitCode = 2;
+            }
+        }
+        return exitCode;
+    }
+
+    private static List<Transaction> generateLedger(int count, int accounts, int users, LocalDate firstDay, int days, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> ledger = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(i);
+            transaction.setAccountId(1 + random.nextInt(accounts));
+            transaction.setCreatedBy(1 + random.nextInt(users));
+            transaction.setTransactionTypeName(TYPES[random.nextInt(TYPES.length)]);
+            transaction.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            transaction.setAmount(BigDecimal.valueOf(1 + random.nextInt(500_000), 2));
+            transaction.setCreatedDate(firstDay.plusDays(random.nextInt(days)).atTime(random.nextInt(24), random.nextInt(60)));
+            ledger.add(transaction);
+        }
+        return ledger;
+    }
+
+    /**
+     * A summary of every figure in the totals, used to check that all parallelism levels agree.
+     */
+    private static String fingerprint(ReportRollups.Totals totals, int accounts) {
+        StringBuilder summary = new StringBuilder();
+        totals.getTypes().stream()
+            .sorted((a, b) -> a.getTransactionType().compareTo(b.getTransactionType()))
+            .forEach(type -> summary.append(type.getTransactionType()).append(type.getTransactionCount())
+                .append(type.getTotalAmount()).append(type.getMinimumAmount()).append(type.getMaximumAmount())
+                .append(type.getCompletedCount()).append(type.getPendingCount()).append(type.getCancelledCount()));
+        long count = 0;
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        for (int id = 1; id <= accounts; id++) {
+            ReportRollups.AccountTotals account = totals.getAccount(id);
+            if (account != null) {
+                count += account.getTransactionCount();
+                deposits = deposits.add(account.getTotalDeposits());
+                withdrawals = withdrawals.add(account.getTotalWithdrawals());
+                summary.append(account.getLastActivity());
+            }
+        }
+        return summary.append(count).append(deposits).append(withdrawals).toString();
+    }
+
+    private static int[] defaultParallelism() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> levels = new ArrayList<>();
+        for (int level = 1; level < cores; level *= 2) {
+            levels.add(level);
+        }
+        levels.add(cores);
+        return levels.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java ReportBenchmarkApp [options]");
+        System.out.println("  --transactions=N   Ledger size (default 2000000)");
+        System.out.println("  --accounts=N       Accounts the ledger is spread over (default 5000)");
+        System.out.println("  --users=N          Users who created the transactions (default 20)");
+        System.out.println("  --days=N           Days the ledger covers, ending today (default 365)");
+        System.out.println("  --parallelism=LIST Comma-separated thread counts to measure (default 1,2,4,... up to the core count)");
+        System.out.println("  --iterations=N     Timed runs per thread count; the best is reported (default 5)");
+        System.out.println("  --seed=N           Random seed for the ledger (default 42)");
+    }
+}
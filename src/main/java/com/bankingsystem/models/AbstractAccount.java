@@ -1,20 +1,22 @@
 package com.bankingsystem.models;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractAccount {
     protected Integer accountId;
     protected String accountNumber;
     protected Integer customerId;
     protected Integer accountTypeId;
-    protected BigDecimal balance;
+    // Balance held as whole cents so it can be updated with compare-and-set instead of a lock
+    private final AtomicLong balanceCents = new AtomicLong();
     protected String status;
     protected LocalDateTime createdDate;
     protected LocalDateTime updatedDate;
     
     public AbstractAccount() {
-        this.balance = BigDecimal.ZERO;
         this.status = "Active";
         this.createdDate = LocalDateTime.now();
         this.updatedDate = LocalDateTime.now();
@@ -60,11 +62,54 @@ public abstract class AbstractAccount {
     }
     
     public BigDecimal getBalance() {
-        return balance;
+        return BigDecimal.valueOf(balanceCents.get(), 2);
     }
     
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        balanceCents.set(toCents(balance));
+    }
+    
+    public long getBalanceCents() {
+        return balanceCents.get();
+    }
+    
+    /**
+     * Atomically replaces the balance if it still equals the expected value.
+     */
+    public boolean compareAndSetBalance(BigDecimal expected, BigDecimal newBalance) {
+        return balanceCents.compareAndSet(toCents(expected), toCents(newBalance));
+    }
+    
+    /**
+     * Atomically replaces the balance and returns the previous value.
+     */
+    public BigDecimal getAndSetBalance(BigDecimal newBalance) {
+        return BigDecimal.valueOf(balanceCents.getAndSet(toCents(newBalance)), 2);
+    }
+
+    /**
+     * Atomically adds the delta to the balance, retrying if another thread moved it first.
+     * Returns the balance after the update.
+     */
+    public BigDecimal addToBalance(BigDecimal delta) {
+        long deltaCents = toCents(delta);
+        long current;
+        long updated;
+        do {
+            current = balanceCents.get();
+            updated = Math.addExact(current, deltaCents);
+        } while (!balanceCents.compareAndSet(current, updated));
+        return BigDecimal.valueOf(updated, 2);
+    }
+    
+    /**
+     * Whole cents of an amount, rounded half up. A null amount is rejected rather than read as zero.
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
     }
     
     public String getStatus() {
@@ -108,6 +153,6 @@ public abstract class AbstractAccount {
     @Override
     public String toString() {
         return String.format("Account{id=%d, number='%s', balance=$%.2f, status='%s'}", 
-                           accountId, accountNumber, balance, status);
+                           accountId, accountNumber, getBalance(), status);
     }
 }
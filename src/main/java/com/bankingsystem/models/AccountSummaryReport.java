@@ -161,6 +161,21 @@ public class AccountSummaryReport {
         this.lastActivityDate = LocalDateTime.now();
     }
     
+    /**
+     * Folds the activity of a partial report for the same account into this one. Associative, so partials
+     * over disjoint ranges can be combined in any grouping; balance and status are left as they are.
+     */
+    public AccountSummaryReport combine(AccountSummaryReport other) {
+        this.totalDeposits = this.totalDeposits.add(other.totalDeposits);
+        this.totalWithdrawals = this.totalWithdrawals.add(other.totalWithdrawals);
+        this.transactionCount += other.transactionCount;
+        if (lastActivityDate == null
+                || (other.lastActivityDate != null && other.lastActivityDate.isAfter(lastActivityDate))) {
+            this.lastActivityDate = other.lastActivityDate;
+        }
+        return this;
+    }
+    
     public BigDecimal getNetChange() {
         return totalDeposits.subtract(totalWithdrawals);
     }
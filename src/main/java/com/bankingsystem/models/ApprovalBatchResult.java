@@ -0,0 +1,88 @@
+package com.bankingsystem.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of approving and posting a batch of approval requests, one item per requested approval ID in the
+ * order they were given. An item that failed was returned to pending.
+ */
+public class ApprovalBatchResult {
+    private final Map<Integer, Item> items = new LinkedHashMap<>();
+
+    public ApprovalBatchResult(List<Integer> approvalIds) {
+        for (Integer approvalId : approvalIds) {
+            items.putIfAbsent(approvalId, new Item(approvalId));
+        }
+    }
+
+    public void succeeded(Integer approvalId, List<Transaction> transactions) {
+        Item item = items.get(approvalId);
+        item.success = true;
+        item.message = "Approved and processed";
+        item.transactions = transactions;
+    }
+
+    public void failed(Integer approvalId, String message) {
+        Item item = items.get(approvalId);
+        item.success = false;
+        item.message = message;
+        item.transactions = Collections.emptyList();
+    }
+
+    public List<Item> getItems() {
+        return new ArrayList<>(items.values());
+    }
+
+    public Item getItem(Integer approvalId) {
+        return items.get(approvalId);
+    }
+
+    public int getSuccessCount() {
+        return (int) items.values().stream().filter(Item::isSuccess).count();
+    }
+
+    public int getFailureCount() {
+        return items.size() - getSuccessCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ApprovalBatchResult{processed=%d, failed=%d}", getSuccessCount(), getFailureCount());
+    }
+
+    public static class Item {
+        private final Integer approvalId;
+        private boolean success;
+        private String message = "Not processed";
+        private List<Transaction> transactions = Collections.emptyList();
+
+        private Item(Integer approvalId) {
+            this.approvalId = approvalId;
+        }
+
+        public Integer getApprovalId() {
+            return approvalId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Item{approvalId=%d, success=%s, message='%s'}", approvalId, success, message);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bankingsystem.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the audit trail, shaped like the audit_log table: who changed which record of which
+ * table, how, and the values before and after. Values are "field=value" pairs separated by ';'.
+ */
+public class AuditRecord {
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    public static final String USERS = "users";
+    public static final String CUSTOMERS = "customers";
+    public static final String ACCOUNTS = "accounts";
+    public static final String TRANSACTIONS = "transactions";
+    public static final String TRANSACTION_APPROVALS = "transaction_approvals";
+
+    private final long logId;
+    private final Integer userId;
+    private final Operation operationType;
+    private final String tableName;
+    private final Integer recordId;
+    private final String oldValues;
+    private final String newValues;
+    private final LocalDateTime timestamp;
+
+    public AuditRecord(long logId, Integer userId, Operation operationType, String tableName, Integer recordId,
+                       String oldValues, String newValues, LocalDateTime timestamp) {
+        this.logId = logId;
+        this.userId = userId;
+        this.operationType = operationType;
+        this.tableName = tableName;
+        this.recordId = recordId;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+        this.timestamp = timestamp;
+    }
+
+    public long getLogId() {
+        return logId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Operation getOperationType() {
+        return operationType;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public String getOldValues() {
+        return oldValues;
+    }
+
+    public String getNewValues() {
+        return newValues;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AuditRecord{id=%d, %s %s #%s by %s at %s, old=[%s], new=[%s]}",
+                           logId, operationType, tableName, recordId, userId, timestamp,
+                           oldValues != null ? oldValues : "", newValues != null ? newValues : "");
+    }
+}
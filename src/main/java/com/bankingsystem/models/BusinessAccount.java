@@ -49,13 +49,13 @@ public class BusinessAccount extends AbstractAccount {
             return false;
         }
         
-        BigDecimal balanceAfterWithdrawal = balance.subtract(amount);
+        BigDecimal balanceAfterWithdrawal = getBalance().subtract(amount);
         return balanceAfterWithdrawal.compareTo(MINIMUM_BALANCE) >= 0;
     }
     
     @Override
     public BigDecimal calculateInterest() {
-        return balance.multiply(INTEREST_RATE).divide(new BigDecimal("12"), 2, BigDecimal.ROUND_HALF_UP);
+        return getBalance().multiply(INTEREST_RATE).divide(new BigDecimal("12"), 2, BigDecimal.ROUND_HALF_UP);
     }
     
     public String getAccountType() {
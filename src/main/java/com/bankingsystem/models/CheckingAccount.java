@@ -49,7 +49,7 @@ public class CheckingAccount extends AbstractAccount {
             return false;
         }
         
-        BigDecimal balanceAfterWithdrawal = balance.subtract(amount);
+        BigDecimal balanceAfterWithdrawal = getBalance().subtract(amount);
         BigDecimal minimumAllowedBalance = MINIMUM_BALANCE.subtract(OVERDRAFT_LIMIT);
         return balanceAfterWithdrawal.compareTo(minimumAllowedBalance) >= 0;
     }
@@ -60,12 +60,12 @@ public class CheckingAccount extends AbstractAccount {
     }
     
     public boolean isOverdrawn() {
-        return balance.compareTo(BigDecimal.ZERO) < 0;
+        return getBalance().compareTo(BigDecimal.ZERO) < 0;
     }
     
     public BigDecimal getOverdraftAmount() {
         if (isOverdrawn()) {
-            return balance.abs();
+            return getBalance().abs();
         }
         return BigDecimal.ZERO;
     }
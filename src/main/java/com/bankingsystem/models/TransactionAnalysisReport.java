@@ -1,6 +1,7 @@
 package com.bankingsystem.models;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 public class TransactionAnalysisReport {
@@ -159,6 +160,30 @@ public class TransactionAnalysisReport {
         this.averageAmount = this.totalAmount.divide(BigDecimal.valueOf(this.transactionCount), 2, BigDecimal.ROUND_HALF_UP);
     }
     
+    /**
+     * Folds a partial report for the same transaction type into this one, as if its transactions had
+     * been added here. Associative, so partials over disjoint ranges can be combined in any grouping.
+     */
+    public TransactionAnalysisReport combine(TransactionAnalysisReport other) {
+        if (other.transactionCount == 0) {
+            return this;
+        }
+        if (this.transactionCount == 0) {
+            this.minimumAmount = other.minimumAmount;
+            this.maximumAmount = other.maximumAmount;
+        } else {
+            this.minimumAmount = this.minimumAmount.min(other.minimumAmount);
+            this.maximumAmount = this.maximumAmount.max(other.maximumAmount);
+        }
+        this.transactionCount += other.transactionCount;
+        this.totalAmount = this.totalAmount.add(other.totalAmount);
+        this.averageAmount = this.totalAmount.divide(BigDecimal.valueOf(this.transactionCount), 2, RoundingMode.HALF_UP);
+        this.approvalsPending += other.approvalsPending;
+        this.approvalsCompleted += other.approvalsCompleted;
+        this.transactionsCancelled += other.transactionsCancelled;
+        return this;
+    }
+    
     public void incrementApprovalsPending() {
         this.approvalsPending++;
     }
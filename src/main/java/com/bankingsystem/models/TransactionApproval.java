@@ -1,9 +1,15 @@
 package com.bankingsystem.models;
 
+import com.bankingsystem.config.AppConfig;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class TransactionApproval {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_APPROVED = "APPROVED";
+    public static final String STATUS_REJECTED = "REJECTED";
+    public static final String STATUS_EXPIRED = "EXPIRED";
+    
     private Integer approvalId;
     private String transactionType;
     private String accountNumber;
@@ -12,16 +18,19 @@ public class TransactionApproval {
     private Integer requestedByUserId;
     private String requestedByUserRole;
     private Integer approvedByUserId;
-    private String approvalStatus; // PENDING, APPROVED, REJECTED
+    // PENDING, APPROVED, REJECTED or EXPIRED; written last by each transition so readers see the decision's details
+    private volatile String approvalStatus;
     private LocalDateTime requestedDate;
     private LocalDateTime approvedDate;
     private String approvalComments;
     private String rejectionReason;
+    // Role an overdue request was escalated to; not stored, since it follows from the request's age
+    private volatile String escalatedToRole;
     
     // Constructors
     public TransactionApproval() {
         this.requestedDate = LocalDateTime.now();
-        this.approvalStatus = "PENDING";
+        this.approvalStatus = STATUS_PENDING;
     }
     
     public TransactionApproval(String transactionType, String accountNumber, BigDecimal amount, 
@@ -140,31 +149,72 @@ public class TransactionApproval {
         this.rejectionReason = rejectionReason;
     }
     
+    public String getEscalatedToRole() {
+        return escalatedToRole;
+    }
+    
+    public void setEscalatedToRole(String escalatedToRole) {
+        this.escalatedToRole = escalatedToRole;
+    }
+    
     // Utility methods
     public boolean isPending() {
-        return "PENDING".equals(approvalStatus);
+        return STATUS_PENDING.equals(approvalStatus);
     }
     
     public boolean isApproved() {
-        return "APPROVED".equals(approvalStatus);
+        return STATUS_APPROVED.equals(approvalStatus);
     }
     
     public boolean isRejected() {
-        return "REJECTED".equals(approvalStatus);
+        return STATUS_REJECTED.equals(approvalStatus);
+    }
+    
+    public boolean isExpired() {
+        return STATUS_EXPIRED.equals(approvalStatus);
+    }
+    
+    /**
+     * Whether the request has been escalated past {@code role}, so users in that role no longer handle it
+     */
+    public boolean isEscalatedAbove(String role) {
+        String escalated = escalatedToRole;
+        return escalated != null && AppConfig.APPROVAL_ESCALATION_LADDER.indexOf(escalated)
+                                    > AppConfig.APPROVAL_ESCALATION_LADDER.indexOf(role);
     }
     
     public void approve(Integer approvedByUserId, String comments) {
-        this.approvalStatus = "APPROVED";
         this.approvedByUserId = approvedByUserId;
         this.approvedDate = LocalDateTime.now();
         this.approvalComments = comments;
+        this.approvalStatus = STATUS_APPROVED;
     }
     
     public void reject(Integer rejectedByUserId, String reason) {
-        this.approvalStatus = "REJECTED";
         this.approvedByUserId = rejectedByUserId;
         this.approvedDate = LocalDateTime.now();
         this.rejectionReason = reason;
+        this.approvalStatus = STATUS_REJECTED;
+    }
+    
+    /**
+     * Closes a request nobody decided in time; it has no approver
+     */
+    public void expire(String reason) {
+        this.approvedByUserId = null;
+        this.approvedDate = LocalDateTime.now();
+        this.rejectionReason = reason;
+        this.approvalStatus = STATUS_EXPIRED;
+    }
+    
+    /**
+     * Undoes an approval whose transaction could not be posted, returning the request to the queue
+     */
+    public void reopen() {
+        this.approvedByUserId = null;
+        this.approvedDate = null;
+        this.approvalComments = null;
+        this.approvalStatus = STATUS_PENDING;
     }
     
     @Override
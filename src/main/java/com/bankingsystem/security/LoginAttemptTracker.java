@@ -1,17 +1,58 @@
 package com.bankingsystem.security;
 
 import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.utils.ExpiringCache;
+import com.bankingsystem.utils.MetricsRegistry;
+import com.bankingsystem.utils.SharedScheduler;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
+/**
+ * Failed login attempts and lockouts per username. Both are held in bounded caches that forget an entry once it
+ * can no longer matter: attempts after the reset window, lockouts once they run out. A sweeper on the
+ * {@link SharedScheduler} removes expired entries. Lockout checks never block.
+ *
+ * <p>A burst of failures against many usernames cannot push out anyone's lockout. When the attempt cache is full
+ * it evicts the oldest attempts that have not led to a lockout, or whose lockout is held in the lockout cache;
+ * lockouts themselves are never evicted, and a full lockout cache refuses new ones. The tracker then fails closed
+ * for the username being written only: a lockout that cannot be stored is still enforced from the attempt that
+ * triggered it, and a username whose failure cannot be counted at all is locked instead while the lockout cache
+ * has room. Other usernames are never locked on its account.
+ */
 public class LoginAttemptTracker {
     private static final Logger LOGGER = Logger.getLogger(LoginAttemptTracker.class.getName());
     
-    private static final ConcurrentMap<String, LoginAttemptInfo> attemptCache = new ConcurrentHashMap<>();
-    private static final ConcurrentMap<String, LocalDateTime> lockoutCache = new ConcurrentHashMap<>();
+    private static final long ATTEMPT_TTL_NANOS = TimeUnit.MINUTES.toNanos(AppConfig.LOGIN_ATTEMPT_RESET_MINUTES);
+    private static final long LOCKOUT_TTL_NANOS = TimeUnit.MINUTES.toNanos(AppConfig.ACCOUNT_LOCKOUT_DURATION_MINUTES);
+    
+    private static final MetricsRegistry.Counter ATTEMPTS_EVICTED = MetricsRegistry.getInstance().counter(
+        "bms_login_attempts_evicted_total", "Failed attempt counts dropped to make room for other usernames");
+    private static final MetricsRegistry.Counter ATTEMPTS_REFUSED = MetricsRegistry.getInstance().counter(
+        "bms_login_attempts_refused_total", "Usernames whose failed attempts were not tracked because the cache was full");
+    private static final MetricsRegistry.Counter LOCKOUTS_REFUSED = MetricsRegistry.getInstance().counter(
+        "bms_login_lockouts_refused_total", "Lockouts not stored because the cache was full");
+    private static final MetricsRegistry.Counter LOCKOUTS = MetricsRegistry.getInstance().counter(
+        "bms_login_lockouts_total", "Accounts locked after too many failed logins");
+    
+    private static final ExpiringCache<String, LocalDateTime> lockoutCache =
+        new ExpiringCache<>(AppConfig.LOGIN_TRACKER_MAX_ENTRIES, null, null, LOCKOUTS_REFUSED);
+    private static final ExpiringCache<String, LoginAttemptInfo> attemptCache =
+        new ExpiringCache<>(AppConfig.LOGIN_TRACKER_MAX_ENTRIES, LoginAttemptTracker::isEvictable,
+                            ATTEMPTS_EVICTED, ATTEMPTS_REFUSED);
+    
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("bms_login_tracker_entries", "Login attempt and lockout entries held",
+                      () -> attemptCache.size() + lockoutCache.size());
+        metrics.gauge("bms_login_lockouts_last_minute", "Accounts locked in the last minute",
+                      LoginAttemptTracker::getLockoutsInLastMinute);
+        SharedScheduler.getInstance().scheduleWithFixedDelay(LoginAttemptTracker.class, "cleanupExpiredEntries",
+            LoginAttemptTracker::cleanupExpiredEntries, AppConfig.LOGIN_TRACKER_SWEEP_SECONDS,
+            AppConfig.LOGIN_TRACKER_SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
     
     public static void recordFailedAttempt(String username) {
         if (username == null || username.trim().isEmpty()) {
@@ -20,26 +61,28 @@ public class LoginAttemptTracker {
         
         String key = username.toLowerCase().trim();
         LocalDateTime now = LocalDateTime.now();
+        boolean locked = lockTime(key, now) != null;
         
-        LoginAttemptInfo info = attemptCache.computeIfAbsent(key, k -> new LoginAttemptInfo());
+        LoginAttemptInfo info = attemptCache.compute(key, (k, current) -> {
+            // Attempts that led to a lockout which has since run out start over
+            int previous = current == null || (!locked && current.getFailedAttempts() >= AppConfig.MAX_LOGIN_ATTEMPTS)
+                ? 0 : current.getFailedAttempts();
+            int failedAttempts = previous + 1;
+            return new LoginAttemptInfo(failedAttempts, now,
+                                        failedAttempts >= AppConfig.MAX_LOGIN_ATTEMPTS ? now : null);
+        }, ATTEMPT_TTL_NANOS);
         
-        synchronized (info) {
-            if (info.getLastAttempt() != null && 
-                ChronoUnit.MINUTES.between(info.getLastAttempt(), now) > AppConfig.LOGIN_ATTEMPT_RESET_MINUTES) {
-                info.reset();
-            }
-            
-            info.incrementFailedAttempts();
-            info.setLastAttempt(now);
-            
-            if (info.getFailedAttempts() >= AppConfig.MAX_LOGIN_ATTEMPTS) {
-                lockAccount(key, now);
-                LOGGER.warning(String.format("Account locked due to %d failed login attempts: %s", 
-                             info.getFailedAttempts(), username));
-            } else {
-                LOGGER.warning(String.format("Failed login attempt %d/%d for user: %s", 
-                             info.getFailedAttempts(), AppConfig.MAX_LOGIN_ATTEMPTS, username));
-            }
+        if (info == null) {
+            // Failures that cannot be counted would allow unlimited guesses, so lock the username instead
+            lockAccount(key, now);
+            LOGGER.warning(String.format("Account locked because login attempt tracking is full: %s", username));
+        } else if (info.getFailedAttempts() >= AppConfig.MAX_LOGIN_ATTEMPTS) {
+            lockAccount(key, now);
+            LOGGER.warning(String.format("Account locked due to %d failed login attempts: %s", 
+                         info.getFailedAttempts(), username));
+        } else {
+            LOGGER.warning(String.format("Failed login attempt %d/%d for user: %s", 
+                         info.getFailedAttempts(), AppConfig.MAX_LOGIN_ATTEMPTS, username));
         }
     }
     
@@ -61,22 +104,7 @@ public class LoginAttemptTracker {
             return false;
         }
         
-        String key = username.toLowerCase().trim();
-        LocalDateTime lockTime = lockoutCache.get(key);
-        
-        if (lockTime == null) {
-            return false;
-        }
-        
-        LocalDateTime unlockTime = lockTime.plusMinutes(AppConfig.ACCOUNT_LOCKOUT_DURATION_MINUTES);
-        LocalDateTime now = LocalDateTime.now();
-        
-        if (now.isAfter(unlockTime)) {
-            unlockAccount(key);
-            return false;
-        }
-        
-        return true;
+        return lockTime(username.toLowerCase().trim(), LocalDateTime.now()) != null;
     }
     
     public static long getLockoutRemainingMinutes(String username) {
@@ -85,14 +113,14 @@ public class LoginAttemptTracker {
         }
         
         String key = username.toLowerCase().trim();
-        LocalDateTime lockTime = lockoutCache.get(key);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockTime = lockTime(key, now);
         
         if (lockTime == null) {
             return 0;
         }
         
         LocalDateTime unlockTime = lockTime.plusMinutes(AppConfig.ACCOUNT_LOCKOUT_DURATION_MINUTES);
-        LocalDateTime now = LocalDateTime.now();
         
         if (now.isAfter(unlockTime)) {
             return 0;
@@ -106,23 +134,8 @@ public class LoginAttemptTracker {
             return 0;
         }
         
-        String key = username.toLowerCase().trim();
-        LoginAttemptInfo info = attemptCache.get(key);
-        
-        if (info == null) {
-            return 0;
-        }
-        
-        synchronized (info) {
-            LocalDateTime now = LocalDateTime.now();
-            if (info.getLastAttempt() != null && 
-                ChronoUnit.MINUTES.between(info.getLastAttempt(), now) > AppConfig.LOGIN_ATTEMPT_RESET_MINUTES) {
-                info.reset();
-                return 0;
-            }
-            
-            return info.getFailedAttempts();
-        }
+        LoginAttemptInfo info = attemptCache.get(username.toLowerCase().trim());
+        return info != null ? info.getFailedAttempts() : 0;
     }
     
     public static long getProgressiveDelaySeconds(String username) {
@@ -158,24 +171,37 @@ public class LoginAttemptTracker {
             return;
         }
         
-        String key = username.toLowerCase().trim();
-        LoginAttemptInfo info = attemptCache.get(key);
-        
-        if (info != null) {
-            synchronized (info) {
-                info.reset();
-            }
-        }
+        attemptCache.remove(username.toLowerCase().trim());
     }
     
     private static void lockAccount(String username, LocalDateTime lockTime) {
-        lockoutCache.put(username, lockTime);
+        if (!lockoutCache.put(username, lockTime, LOCKOUT_TTL_NANOS) && attemptCache.get(username) == null) {
+            LOGGER.severe(String.format("Login tracking is full; lockout of %s could not be recorded", username));
+        }
+        LOCKOUTS.increment();
     }
     
-    private static void unlockAccount(String username) {
-        attemptCache.remove(username);
-        lockoutCache.remove(username);
-        LOGGER.info(String.format("Account automatically unlocked after timeout: %s", username));
+    /**
+     * An attempt count may make room for another username unless it is the only record of a live lockout.
+     */
+    private static boolean isEvictable(String key, LoginAttemptInfo info) {
+        return info.getLockedAt() == null || lockoutCache.get(key) != null;
+    }
+    
+    /**
+     * When the username's current lockout began, or null if it is not locked. A lockout the lockout cache had no
+     * room for is read from the attempt that triggered it.
+     */
+    private static LocalDateTime lockTime(String key, LocalDateTime now) {
+        LocalDateTime lockTime = lockoutCache.get(key);
+        if (lockTime == null) {
+            LoginAttemptInfo info = attemptCache.get(key);
+            lockTime = info != null ? info.getLockedAt() : null;
+        }
+        if (lockTime == null || !lockTime.plusMinutes(AppConfig.ACCOUNT_LOCKOUT_DURATION_MINUTES).isAfter(now)) {
+            return null;
+        }
+        return lockTime;
     }
     
     public static String getLockoutMessage(String username) {
@@ -192,36 +218,35 @@ public class LoginAttemptTracker {
         }
     }
     
+    /**
+     * Removes expired attempts and lockouts; runs periodically on the shared scheduler.
+     */
     public static void cleanupExpiredEntries() {
-        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(AppConfig.LOGIN_ATTEMPT_RESET_MINUTES);
-        
-        attemptCache.entrySet().removeIf(entry -> {
-            LoginAttemptInfo info = entry.getValue();
-            synchronized (info) {
-                return info.getLastAttempt() != null && info.getLastAttempt().isBefore(cutoff);
+        attemptCache.sweep(null);
+        lockoutCache.sweep((username, lockTime) ->
+            LOGGER.info(String.format("Account automatically unlocked after timeout: %s", username)));
+    }
+    
+    static int getLockoutsInLastMinute() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(1);
+        AtomicInteger count = new AtomicInteger();
+        lockoutCache.forEach((username, lockTime) -> {
+            if (lockTime.isAfter(cutoff)) {
+                count.incrementAndGet();
             }
         });
-        
-        LocalDateTime lockoutCutoff = LocalDateTime.now().minusMinutes(AppConfig.ACCOUNT_LOCKOUT_DURATION_MINUTES);
-        lockoutCache.entrySet().removeIf(entry -> entry.getValue().isBefore(lockoutCutoff));
+        return count.get();
     }
     
-    private static class LoginAttemptInfo {
-        private int failedAttempts;
-        private LocalDateTime lastAttempt;
+    private static final class LoginAttemptInfo {
+        private final int failedAttempts;
+        private final LocalDateTime lastAttempt;
+        private final LocalDateTime lockedAt;
         
-        public LoginAttemptInfo() {
-            this.failedAttempts = 0;
-            this.lastAttempt = null;
-        }
-        
-        public void incrementFailedAttempts() {
-            this.failedAttempts++;
-        }
-        
-        public void reset() {
-            this.failedAttempts = 0;
-            this.lastAttempt = null;
+        LoginAttemptInfo(int failedAttempts, LocalDateTime lastAttempt, LocalDateTime lockedAt) {
+            this.failedAttempts = failedAttempts;
+            this.lastAttempt = lastAttempt;
+            this.lockedAt = lockedAt;
         }
         
         public int getFailedAttempts() {
@@ -232,8 +257,8 @@ public class LoginAttemptTracker {
             return lastAttempt;
         }
         
-        public void setLastAttempt(LocalDateTime lastAttempt) {
-            this.lastAttempt = lastAttempt;
+        public LocalDateTime getLockedAt() {
+            return lockedAt;
         }
     }
 }
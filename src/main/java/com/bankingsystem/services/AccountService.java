@@ -2,18 +2,57 @@ package com.bankingsystem.services;
 
 import com.bankingsystem.dao.AccountDAO;
 import com.bankingsystem.dao.CustomerDAO;
+import com.bankingsystem.dao.UnitOfWork;
 import com.bankingsystem.exceptions.InvalidAccountException;
 import com.bankingsystem.models.*;
+import com.bankingsystem.utils.AccountLockManager;
 import com.bankingsystem.utils.EncryptionUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.ValidationUtil;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class AccountService {
     private static final Logger LOGGER = Logger.getLogger(AccountService.class.getName());
+
+    private static final MetricsRegistry.Timer CREATE_ACCOUNT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "createAccount");
+    private static final MetricsRegistry.Timer GET_ACCOUNT_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "getAccountById");
+    private static final MetricsRegistry.Timer GET_ACCOUNT_BY_NUMBER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "getAccountByNumber");
+    private static final MetricsRegistry.Timer GET_ACCOUNTS_BY_CUSTOMER_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "getAccountsByCustomerId");
+    private static final MetricsRegistry.Timer GET_ALL_ACCOUNTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "getAllAccounts");
+    private static final MetricsRegistry.Timer UPDATE_ACCOUNT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "updateAccount");
+    private static final MetricsRegistry.Timer UPDATE_ACCOUNT_STATUS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "updateAccountStatus");
+    private static final MetricsRegistry.Timer CLOSE_ACCOUNT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "closeAccount");
+    private static final MetricsRegistry.Timer GET_ACCOUNT_BALANCE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "getAccountBalance");
+    private static final MetricsRegistry.Timer IS_ACCOUNT_ACTIVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "isAccountActive");
+    private static final MetricsRegistry.Timer CAN_WITHDRAW_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "canWithdraw");
+    private static final MetricsRegistry.Timer CALCULATE_MONTHLY_INTEREST_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "calculateMonthlyInterest");
+    private static final MetricsRegistry.Timer POST_MONTHLY_INTEREST_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "postMonthlyInterest");
+    private static final MetricsRegistry.Timer DELETE_ACCOUNT_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "deleteAccountPermanently");
+    private static final MetricsRegistry.Timer DELETE_ACCOUNTS_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "deleteAccountsPermanently");
+    private static final MetricsRegistry.Timer CAN_DELETE_ACCOUNT_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "canDeleteAccountPermanently");
+    private static final MetricsRegistry.Timer HAS_TRANSACTIONS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, AccountService.class, "hasTransactions");
     private final AccountDAO accountDAO;
     private final CustomerDAO customerDAO;
 
@@ -24,7 +63,12 @@ public class AccountService {
 
     public AbstractAccount createAccount(Integer customerId, String accountType, BigDecimal initialDeposit)
             throws SQLException, InvalidAccountException {
+        return CREATE_ACCOUNT_TIMER.timeSql(this, customerId, accountType, initialDeposit,
+                                            AccountService::doCreateAccount);
+    }
 
+    private AbstractAccount doCreateAccount(Integer customerId, String accountType, BigDecimal initialDeposit)
+            throws SQLException, InvalidAccountException {
         Customer customer = customerDAO.findById(customerId);
         if (customer == null) {
             throw new InvalidAccountException("Customer not found", customerId.toString());
@@ -98,10 +142,18 @@ public class AccountService {
     }
 
     public AbstractAccount getAccountById(Integer accountId) throws SQLException {
+        return GET_ACCOUNT_BY_ID_TIMER.time(this, accountId, AccountService::doGetAccountById);
+    }
+
+    private AbstractAccount doGetAccountById(Integer accountId) throws SQLException {
         return accountDAO.findById(accountId);
     }
 
     public AbstractAccount getAccountByNumber(String accountNumber) throws SQLException, InvalidAccountException {
+        return GET_ACCOUNT_BY_NUMBER_TIMER.timeSql(this, accountNumber, AccountService::doGetAccountByNumber);
+    }
+
+    private AbstractAccount doGetAccountByNumber(String accountNumber) throws SQLException, InvalidAccountException {
         if (!ValidationUtil.isValidAccountNumber(accountNumber)) {
             throw new InvalidAccountException("Invalid account number format", accountNumber);
         }
@@ -115,14 +167,26 @@ public class AccountService {
     }
 
     public List<AbstractAccount> getAccountsByCustomerId(Integer customerId) throws SQLException {
+        return GET_ACCOUNTS_BY_CUSTOMER_ID_TIMER.time(this, customerId, AccountService::doGetAccountsByCustomerId);
+    }
+
+    private List<AbstractAccount> doGetAccountsByCustomerId(Integer customerId) throws SQLException {
         return accountDAO.findByCustomerId(customerId);
     }
 
     public List<AbstractAccount> getAllAccounts() throws SQLException {
+        return GET_ALL_ACCOUNTS_TIMER.time(this, AccountService::doGetAllAccounts);
+    }
+
+    private List<AbstractAccount> doGetAllAccounts() throws SQLException {
         return accountDAO.findAll();
     }
 
     public AbstractAccount updateAccount(AbstractAccount account) throws SQLException {
+        return UPDATE_ACCOUNT_TIMER.time(this, account, AccountService::doUpdateAccount);
+    }
+
+    private AbstractAccount doUpdateAccount(AbstractAccount account) throws SQLException {
         if (account == null || account.getAccountId() == null) {
             throw new IllegalArgumentException("Invalid account data");
         }
@@ -131,6 +195,10 @@ public class AccountService {
     }
 
     public boolean updateAccountStatus(Integer accountId, String newStatus) throws SQLException {
+        return UPDATE_ACCOUNT_STATUS_TIMER.time(this, accountId, newStatus, AccountService::doUpdateAccountStatus);
+    }
+
+    private boolean doUpdateAccountStatus(Integer accountId, String newStatus) throws SQLException {
         AbstractAccount account = accountDAO.findById(accountId);
         if (account == null) {
             return false;
@@ -152,6 +220,10 @@ public class AccountService {
     }
 
     public boolean closeAccount(Integer accountId) throws SQLException {
+        return CLOSE_ACCOUNT_TIMER.time(this, accountId, AccountService::doCloseAccount);
+    }
+
+    private boolean doCloseAccount(Integer accountId) throws SQLException {
         AbstractAccount account = accountDAO.findById(accountId);
         if (account == null) {
             return false;
@@ -165,16 +237,28 @@ public class AccountService {
     }
 
     public BigDecimal getAccountBalance(String accountNumber) throws SQLException, InvalidAccountException {
+        return GET_ACCOUNT_BALANCE_TIMER.timeSql(this, accountNumber, AccountService::doGetAccountBalance);
+    }
+
+    private BigDecimal doGetAccountBalance(String accountNumber) throws SQLException, InvalidAccountException {
         AbstractAccount account = getAccountByNumber(accountNumber);
         return account.getBalance();
     }
 
     public boolean isAccountActive(String accountNumber) throws SQLException, InvalidAccountException {
+        return IS_ACCOUNT_ACTIVE_TIMER.timeSql(this, accountNumber, AccountService::doIsAccountActive);
+    }
+
+    private boolean doIsAccountActive(String accountNumber) throws SQLException, InvalidAccountException {
         AbstractAccount account = getAccountByNumber(accountNumber);
         return "Active".equals(account.getStatus());
     }
 
     public boolean canWithdraw(String accountNumber, BigDecimal amount) throws SQLException, InvalidAccountException {
+        return CAN_WITHDRAW_TIMER.timeSql(this, accountNumber, amount, AccountService::doCanWithdraw);
+    }
+
+    private boolean doCanWithdraw(String accountNumber, BigDecimal amount) throws SQLException, InvalidAccountException {
         AbstractAccount account = getAccountByNumber(accountNumber);
 
         if (!"Active".equals(account.getStatus())) {
@@ -185,6 +269,10 @@ public class AccountService {
     }
 
     public BigDecimal calculateMonthlyInterest(Integer accountId) throws SQLException {
+        return CALCULATE_MONTHLY_INTEREST_TIMER.time(this, accountId, AccountService::doCalculateMonthlyInterest);
+    }
+
+    private BigDecimal doCalculateMonthlyInterest(Integer accountId) throws SQLException {
         AbstractAccount account = accountDAO.findById(accountId);
         if (account == null) {
             return BigDecimal.ZERO;
@@ -194,18 +282,24 @@ public class AccountService {
     }
 
     public void postMonthlyInterest(Integer accountId) throws SQLException {
-        AbstractAccount account = accountDAO.findById(accountId);
-        if (account == null || account.getInterestRate().compareTo(BigDecimal.ZERO) == 0) {
-            return;
-        }
+        POST_MONTHLY_INTEREST_TIMER.time(this, accountId, AccountService::doPostMonthlyInterest);
+    }
 
-        BigDecimal interest = account.calculateInterest();
-        if (interest.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal newBalance = account.getBalance().add(interest);
-            accountDAO.updateBalance(accountId, newBalance);
+    private void doPostMonthlyInterest(Integer accountId) throws SQLException {
+        AccountLockManager.Lease lease = AccountLockManager.getInstance().lock(accountId);
+        try (lease) {
+            AbstractAccount account = accountDAO.findById(accountId);
+            if (account == null || account.getInterestRate().compareTo(BigDecimal.ZERO) == 0) {
+                return;
+            }
+
+            BigDecimal interest = account.calculateInterest();
+            if (interest.compareTo(BigDecimal.ZERO) > 0) {
+                accountDAO.adjustBalance(accountId, interest);
 
-            LOGGER.info(String.format("Monthly interest posted: $%.2f to account %s",
-                                    interest, account.getAccountNumber()));
+                LOGGER.info(String.format("Monthly interest posted: $%.2f to account %s",
+                                        interest, account.getAccountNumber()));
+            }
         }
     }
 
@@ -214,6 +308,11 @@ public class AccountService {
     }
 
     public boolean deleteAccountPermanently(Integer accountId, boolean forceDelete) throws SQLException, InvalidAccountException {
+        return DELETE_ACCOUNT_PERMANENTLY_TIMER.timeSql(this, accountId, forceDelete,
+                                                        AccountService::doDeleteAccountPermanently);
+    }
+
+    private boolean doDeleteAccountPermanently(Integer accountId, boolean forceDelete) throws SQLException, InvalidAccountException {
         AbstractAccount account = accountDAO.findById(accountId);
         if (account == null) {
             throw new InvalidAccountException("Account not found", accountId.toString());
@@ -226,7 +325,34 @@ public class AccountService {
         return accountDAO.deletePermanently(accountId);
     }
 
+    /**
+     * Permanently deletes the accounts and their transactions in one unit of work. Returns the accounts
+     * that were deleted; IDs that no longer exist are skipped.
+     */
+    public List<AbstractAccount> deleteAccountsPermanently(List<Integer> accountIds) throws SQLException {
+        return DELETE_ACCOUNTS_PERMANENTLY_TIMER.time(this, accountIds, AccountService::doDeleteAccountsPermanently);
+    }
+
+    private List<AbstractAccount> doDeleteAccountsPermanently(List<Integer> accountIds) throws SQLException {
+        List<AbstractAccount> deletedAccounts = new ArrayList<>();
+        UnitOfWork work = new UnitOfWork();
+        for (Integer accountId : accountIds) {
+            AbstractAccount account = accountDAO.findById(accountId);
+            if (account != null) {
+                accountDAO.deletePermanently(work, accountId);
+                deletedAccounts.add(account);
+            }
+        }
+        work.commit();
+        return deletedAccounts;
+    }
+
     public boolean canDeleteAccountPermanently(Integer accountId) throws SQLException {
+        return CAN_DELETE_ACCOUNT_PERMANENTLY_TIMER.time(this, accountId,
+                                                         AccountService::doCanDeleteAccountPermanently);
+    }
+
+    private boolean doCanDeleteAccountPermanently(Integer accountId) throws SQLException {
         try {
             return accountDAO.canDeleteAccount(accountId);
         } catch (Exception e) {
@@ -235,6 +361,10 @@ public class AccountService {
     }
 
     public boolean hasTransactions(Integer accountId) throws SQLException {
+        return HAS_TRANSACTIONS_TIMER.time(this, accountId, AccountService::doHasTransactions);
+    }
+
+    private boolean doHasTransactions(Integer accountId) throws SQLException {
         return accountDAO.hasTransactions(accountId);
     }
 }
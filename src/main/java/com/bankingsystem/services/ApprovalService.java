@@ -1,20 +1,56 @@
 package com.bankingsystem.services;
 
+import com.bankingsystem.models.ApprovalBatchResult;
+import com.bankingsystem.models.AuditRecord;
 import com.bankingsystem.models.TransactionApproval;
 import com.bankingsystem.models.User;
 import com.bankingsystem.dao.UserDAO;
+import com.bankingsystem.utils.ApprovalEventBus;
+import com.bankingsystem.utils.AuditTrail;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.MockDatabaseUtil;
 import com.bankingsystem.config.AppConfig;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 
 public class ApprovalService {
     private static final Logger LOGGER = Logger.getLogger(ApprovalService.class.getName());
+
+    private static final MetricsRegistry.Timer REQUIRES_APPROVAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "requiresApproval");
+    private static final MetricsRegistry.Timer CAN_SELF_APPROVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "canSelfApprove");
+    private static final MetricsRegistry.Timer CREATE_APPROVAL_REQUEST_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "createApprovalRequest");
+    private static final MetricsRegistry.Timer APPROVE_REQUEST_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "approveRequest");
+    private static final MetricsRegistry.Timer REJECT_REQUEST_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "rejectRequest");
+    private static final MetricsRegistry.Timer GET_PENDING_APPROVALS_FOR_USER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "getPendingApprovalsForUser");
+    private static final MetricsRegistry.Timer CAN_APPROVE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "canApprove");
+    private static final MetricsRegistry.Timer GET_APPROVAL_REQUESTS_BY_USER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "getApprovalRequestsByUser");
+    private static final MetricsRegistry.Timer GET_APPROVAL_BY_ID_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "getApprovalById");
+    private static final MetricsRegistry.Timer GET_ALL_APPROVAL_REQUESTS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "getAllApprovalRequests");
+    private static final MetricsRegistry.Timer CLAIM_BATCH_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "claimBatch");
+    private static final MetricsRegistry.Timer COMPLETE_BATCH_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "completeBatch");
+    private static final MetricsRegistry.Timer RELEASE_BATCH_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, ApprovalService.class, "releaseBatch");
+    private static final Set<String> BATCH_TYPES = Set.of("Deposit", "Withdrawal", "Transfer");
     private final UserDAO userDAO;
     
     public ApprovalService() {
@@ -25,11 +61,15 @@ public class ApprovalService {
      * Determines if a transaction requires approval based on user role and amount
      */
     public boolean requiresApproval(Integer userId, BigDecimal amount) throws SQLException {
+        return REQUIRES_APPROVAL_TIMER.time(this, userId, amount, ApprovalService::doRequiresApproval);
+    }
+
+    private boolean doRequiresApproval(Integer userId, BigDecimal amount) throws SQLException {
         User user = userDAO.findById(userId);
         if (user == null) {
             return true; // Unknown user requires approval
         }
-        
+
         return user.requiresApproval(amount);
     }
     
@@ -37,23 +77,12 @@ public class ApprovalService {
      * Determines if a user can approve their own transaction
      */
     public boolean canSelfApprove(Integer userId, BigDecimal amount) throws SQLException {
+        return CAN_SELF_APPROVE_TIMER.time(this, userId, amount, ApprovalService::doCanSelfApprove);
+    }
+
+    private boolean doCanSelfApprove(Integer userId, BigDecimal amount) throws SQLException {
         User user = userDAO.findById(userId);
-        if (user == null) {
-            return false;
-        }
-        
-        // Admins can always self-approve
-        if (user.isAdmin()) {
-            return true;
-        }
-        
-        // Managers can self-approve if they have the authority for the amount
-        if (user.isManager()) {
-            return user.canProcessTransactionAmount(amount);
-        }
-        
-        // Tellers cannot self-approve large transactions
-        return false;
+        return user != null && canSelfApprove(user, amount);
     }
     
     /**
@@ -61,21 +90,28 @@ public class ApprovalService {
      */
     public TransactionApproval createApprovalRequest(String transactionType, String accountNumber, 
                                                    BigDecimal amount, String description, Integer userId) throws SQLException {
+        return CREATE_APPROVAL_REQUEST_TIMER.time(this, transactionType, accountNumber, amount, description, userId,
+                                                  ApprovalService::doCreateApprovalRequest);
+    }
+
+    private TransactionApproval doCreateApprovalRequest(String transactionType, String accountNumber, 
+                                                      BigDecimal amount, String description, Integer userId) throws SQLException {
         User user = userDAO.findById(userId);
         if (user == null) {
             throw new IllegalArgumentException("Invalid user ID");
         }
-        
+
         TransactionApproval approval = new TransactionApproval(
             transactionType, accountNumber, amount, description, userId, user.getRole()
         );
-        
+
         // Save to mock database
         approval = MockDatabaseUtil.saveTransactionApproval(approval);
-        
+        ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.REQUESTED, approval);
+
         LOGGER.info(String.format("Approval request created: %s for $%.2f by user %d (%s)", 
                                 transactionType, amount, userId, user.getRole()));
-        
+
         return approval;
     }
     
@@ -83,31 +119,40 @@ public class ApprovalService {
      * Approves a transaction approval request
      */
     public TransactionApproval approveRequest(Integer approvalId, Integer approvingUserId, String comments) throws SQLException {
+        return APPROVE_REQUEST_TIMER.time(this, approvalId, approvingUserId, comments,
+                                          ApprovalService::doApproveRequest);
+    }
+
+    private TransactionApproval doApproveRequest(Integer approvalId, Integer approvingUserId, String comments) throws SQLException {
         TransactionApproval approval = MockDatabaseUtil.findTransactionApprovalById(approvalId);
         if (approval == null) {
             throw new IllegalArgumentException("Approval request not found");
         }
-        
+
         if (!approval.isPending()) {
             throw new IllegalArgumentException("Approval request is not pending");
         }
-        
+
         User approvingUser = userDAO.findById(approvingUserId);
         if (approvingUser == null) {
             throw new IllegalArgumentException("Invalid approving user ID");
         }
-        
+
         // Check if user has authority to approve
         if (!canUserApprove(approvingUser, approval)) {
             throw new IllegalArgumentException("User does not have authority to approve this transaction");
         }
-        
-        approval.approve(approvingUserId, comments);
-        MockDatabaseUtil.saveTransactionApproval(approval);
-        
+
+        if (!MockDatabaseUtil.transitionTransactionApproval(approvalId, TransactionApproval.STATUS_PENDING,
+                                                            pending -> pending.approve(approvingUserId, comments))) {
+            throw new IllegalArgumentException("Approval request is not pending");
+        }
+        auditDecision(approval, approvingUserId);
+        ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.APPROVED, approval);
+
         LOGGER.info(String.format("Transaction approved: ID %d by user %d (%s)", 
                                 approvalId, approvingUserId, approvingUser.getRole()));
-        
+
         return approval;
     }
     
@@ -115,69 +160,191 @@ public class ApprovalService {
      * Rejects a transaction approval request
      */
     public TransactionApproval rejectRequest(Integer approvalId, Integer rejectingUserId, String reason) throws SQLException {
+        return REJECT_REQUEST_TIMER.time(this, approvalId, rejectingUserId, reason, ApprovalService::doRejectRequest);
+    }
+
+    private TransactionApproval doRejectRequest(Integer approvalId, Integer rejectingUserId, String reason) throws SQLException {
         TransactionApproval approval = MockDatabaseUtil.findTransactionApprovalById(approvalId);
         if (approval == null) {
             throw new IllegalArgumentException("Approval request not found");
         }
-        
+
         if (!approval.isPending()) {
             throw new IllegalArgumentException("Approval request is not pending");
         }
-        
+
         User rejectingUser = userDAO.findById(rejectingUserId);
         if (rejectingUser == null) {
             throw new IllegalArgumentException("Invalid rejecting user ID");
         }
-        
+
         // Check if user has authority to reject
         if (!canUserApprove(rejectingUser, approval)) {
             throw new IllegalArgumentException("User does not have authority to reject this transaction");
         }
-        
-        approval.reject(rejectingUserId, reason);
-        MockDatabaseUtil.saveTransactionApproval(approval);
-        
+
+        if (!MockDatabaseUtil.transitionTransactionApproval(approvalId, TransactionApproval.STATUS_PENDING,
+                                                            pending -> pending.reject(rejectingUserId, reason))) {
+            throw new IllegalArgumentException("Approval request is not pending");
+        }
+        auditDecision(approval, rejectingUserId);
+        ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.REJECTED, approval);
+
         LOGGER.info(String.format("Transaction rejected: ID %d by user %d (%s)", 
                                 approvalId, rejectingUserId, rejectingUser.getRole()));
-        
+
         return approval;
     }
     
     /**
-     * Gets all pending approval requests that a user can approve
+     * Gets all pending approval requests that a user can approve: those escalated to the user's role first, then
+     * largest amount first and oldest first within an amount. Requests escalated past the user's role are left out.
      */
     public List<TransactionApproval> getPendingApprovalsForUser(Integer userId) throws SQLException {
+        return GET_PENDING_APPROVALS_FOR_USER_TIMER.time(this, userId, ApprovalService::doGetPendingApprovalsForUser);
+    }
+
+    private List<TransactionApproval> doGetPendingApprovalsForUser(Integer userId) throws SQLException {
         User user = userDAO.findById(userId);
         if (user == null) {
             return new ArrayList<>();
         }
-        
-        List<TransactionApproval> allPending = MockDatabaseUtil.getPendingTransactionApprovals();
-        
-        return allPending.stream()
-            .filter(approval -> canUserApprove(user, approval))
-            .collect(Collectors.toList());
+
+        // Route by role instead of checking every pending approval; mirrors canUserApprove
+        if (user.isAdmin()) {
+            return MockDatabaseUtil.getPendingTransactionApprovals(user.getRole());
+        }
+        if (user.isManager()) {
+            Map<String, BigDecimal> ceilingByRole = new HashMap<>();
+            ceilingByRole.put(AppConfig.ROLE_TELLER, null);
+            ceilingByRole.put(AppConfig.ROLE_MANAGER, AppConfig.MANAGER_TRANSACTION_LIMIT);
+            return MockDatabaseUtil.getPendingTransactionApprovals(ceilingByRole, user.getUserId(),
+                                                                   AppConfig.MANAGER_TRANSACTION_LIMIT, user.getRole());
+        }
+        // Tellers can neither approve others' requests nor self-approve their own
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Checks if a user can approve or reject a specific pending request
+     */
+    public boolean canApprove(Integer userId, TransactionApproval approval) throws SQLException {
+        return CAN_APPROVE_TIMER.time(this, userId, approval, ApprovalService::doCanApprove);
+    }
+
+    private boolean doCanApprove(Integer userId, TransactionApproval approval) throws SQLException {
+        User user = userDAO.findById(userId);
+        return user != null && approval.isPending() && canUserApprove(user, approval);
     }
     
     /**
      * Gets all approval requests made by a specific user
      */
     public List<TransactionApproval> getApprovalRequestsByUser(Integer userId) {
+        return GET_APPROVAL_REQUESTS_BY_USER_TIMER.time(this, userId, ApprovalService::doGetApprovalRequestsByUser);
+    }
+
+    private List<TransactionApproval> doGetApprovalRequestsByUser(Integer userId) {
         return MockDatabaseUtil.getTransactionApprovalsByUser(userId);
     }
     
+    /**
+     * Checks pending requests for bulk approval by one approver, whose record is looked up once, and claims the
+     * approvable ones by moving each from pending to approved atomically, before any money moves. Requests that
+     * are missing, already decided, outside the approver's authority, of an unknown type or decided by someone
+     * else first are recorded as failures in {@code result}; the claimed ones are returned in the order given and
+     * must each be passed on to {@link #completeBatch} once posted or to {@link #releaseBatch} if not.
+     */
+    public List<TransactionApproval> claimBatch(List<Integer> approvalIds, Integer approvingUserId, String comments,
+                                                ApprovalBatchResult result) throws SQLException {
+        return CLAIM_BATCH_TIMER.time(this, approvalIds, approvingUserId, comments, result,
+                                      ApprovalService::doClaimBatch);
+    }
+
+    private List<TransactionApproval> doClaimBatch(List<Integer> approvalIds, Integer approvingUserId, String comments,
+                                                   ApprovalBatchResult result) throws SQLException {
+        User approvingUser = userDAO.findById(approvingUserId);
+        List<TransactionApproval> claimed = new ArrayList<>();
+        for (Integer approvalId : new LinkedHashSet<>(approvalIds)) {
+            TransactionApproval approval = MockDatabaseUtil.findTransactionApprovalById(approvalId);
+            if (approval == null) {
+                result.failed(approvalId, "Approval request not found");
+            } else if (!approval.isPending()) {
+                result.failed(approvalId, "Approval request is not pending");
+            } else if (approvingUser == null) {
+                result.failed(approvalId, "Invalid approving user ID");
+            } else if (!canUserApprove(approvingUser, approval)) {
+                result.failed(approvalId, "User does not have authority to approve this transaction");
+            } else if (!BATCH_TYPES.contains(approval.getTransactionType())) {
+                result.failed(approvalId, "Unsupported transaction type: " + approval.getTransactionType());
+            } else if (!MockDatabaseUtil.transitionTransactionApproval(approvalId, TransactionApproval.STATUS_PENDING,
+                                                                       pending -> pending.approve(approvingUserId, comments))) {
+                result.failed(approvalId, "Approval request is not pending");
+            } else {
+                claimed.add(approval);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Records and announces the approval of requests claimed by {@link #claimBatch} whose transactions have been posted
+     */
+    public void completeBatch(List<TransactionApproval> approvals, Integer approvingUserId) {
+        COMPLETE_BATCH_TIMER.time(this, approvals, approvingUserId, ApprovalService::doCompleteBatch);
+    }
+
+    private void doCompleteBatch(List<TransactionApproval> approvals, Integer approvingUserId) {
+        for (TransactionApproval approval : approvals) {
+            auditDecision(approval, approvingUserId);
+            ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.APPROVED, approval);
+        }
+        LOGGER.info(String.format("Batch approved %d transactions by user %d", approvals.size(), approvingUserId));
+    }
+
+    /**
+     * Returns requests claimed by {@link #claimBatch} whose transactions were not posted to the pending queue, and
+     * announces them again so their deadlines and the approvers' lists pick them up.
+     */
+    public void releaseBatch(Collection<TransactionApproval> approvals) {
+        RELEASE_BATCH_TIMER.time(this, approvals, ApprovalService::doReleaseBatch);
+    }
+
+    private void doReleaseBatch(Collection<TransactionApproval> approvals) {
+        for (TransactionApproval approval : approvals) {
+            if (MockDatabaseUtil.transitionTransactionApproval(approval.getApprovalId(), TransactionApproval.STATUS_APPROVED,
+                                                               TransactionApproval::reopen)) {
+                ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.REQUESTED, approval);
+            }
+        }
+    }
+
+    /**
+     * Records an approve or reject decision on a pending request in the audit trail
+     */
+    private static void auditDecision(TransactionApproval approval, Integer decidedByUserId) {
+        if (AuditTrail.isEnabled()) {
+            String decision = approval.isRejected()
+                ? ";rejection_reason=" + approval.getRejectionReason()
+                : ";approval_comments=" + approval.getApprovalComments();
+            AuditTrail.record(AuditRecord.Operation.UPDATE, AuditRecord.TRANSACTION_APPROVALS, approval.getApprovalId(),
+                              decidedByUserId, "approval_status=PENDING",
+                              "approval_status=" + approval.getApprovalStatus() + decision);
+        }
+    }
+
     /**
      * Checks if a user can approve a specific transaction
      */
     private boolean canUserApprove(User user, TransactionApproval approval) {
+        // Overdue requests escalated past the user's role belong to the roles above
+        if (approval.isEscalatedAbove(user.getRole())) {
+            return false;
+        }
+
         // Users cannot approve their own requests (except self-approval cases)
         if (approval.getRequestedByUserId().equals(user.getUserId())) {
-            try {
-                return canSelfApprove(user.getUserId(), approval.getAmount());
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Error checking self-approval capability", e);
-                return false;
-            }
+            return canSelfApprove(user, approval.getAmount());
         }
         
         // Admins can approve anything
@@ -202,10 +369,29 @@ public class ApprovalService {
         return false;
     }
     
+    private static boolean canSelfApprove(User user, BigDecimal amount) {
+        // Admins can always self-approve
+        if (user.isAdmin()) {
+            return true;
+        }
+
+        // Managers can self-approve if they have the authority for the amount
+        if (user.isManager()) {
+            return user.canProcessTransactionAmount(amount);
+        }
+
+        // Tellers cannot self-approve large transactions
+        return false;
+    }
+
     /**
      * Gets approval request by ID
      */
     public TransactionApproval getApprovalById(Integer approvalId) {
+        return GET_APPROVAL_BY_ID_TIMER.time(this, approvalId, ApprovalService::doGetApprovalById);
+    }
+
+    private TransactionApproval doGetApprovalById(Integer approvalId) {
         return MockDatabaseUtil.findTransactionApprovalById(approvalId);
     }
     
@@ -213,6 +399,10 @@ public class ApprovalService {
      * Gets all approval requests (for admin/reporting purposes)
      */
     public List<TransactionApproval> getAllApprovalRequests() {
+        return GET_ALL_APPROVAL_REQUESTS_TIMER.time(this, ApprovalService::doGetAllApprovalRequests);
+    }
+
+    private List<TransactionApproval> doGetAllApprovalRequests() {
         return MockDatabaseUtil.getAllTransactionApprovals();
     }
 }
@@ -5,6 +5,8 @@ import com.bankingsystem.dao.ReportDAO;
 import com.bankingsystem.models.*;
 import com.bankingsystem.utils.FileUtil;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -92,83 +94,122 @@ public class ReportService {
             throw new SecurityException("User activity report export is only available to Admin users");
         }
 
-        StringBuilder csv = new StringBuilder();
-        csv.append("User ID,Username,Role,Last Login,Login Count,Transaction Count,Accounts Managed,Users Managed,Activity Summary\n");
+        String filename = "user_activity_report_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".csv";
+        Path path = FileUtil.reportFilePath(filename);
+        try (Writer csv = FileUtil.newExportWriter(path, false)) {
+            csv.write("User ID,Username,Role,Last Login,Login Count,Transaction Count,Accounts Managed,Users Managed,Activity Summary\n");
 
-        for (UserActivityReport report : reports) {
-            csv.append(String.format("%d,%s,%s,%s,%d,%d,%d,%d,\"%s\"\n",
-                report.getUserId(),
-                report.getUsername(),
-                report.getRole(),
-                report.getLastLogin() != null ? report.getLastLogin().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "",
-                report.getLoginCount(),
-                report.getTransactionCount(),
-                report.getAccountsManaged(),
-                report.getUsersManaged(),
-                report.getActivitySummary() != null ? report.getActivitySummary() : ""
-            ));
+            StringBuilder row = new StringBuilder(256);
+            for (UserActivityReport report : reports) {
+                csv.append(appendUserActivityRow(row, report));
+            }
         }
-
-        String filename = "user_activity_report_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".csv";
-        String filepath = FileUtil.saveReportToFile(filename, csv.toString());
+        String filepath = path.toAbsolutePath().toString();
 
         LOGGER.info("Exported user activity report to: " + filepath);
         return filepath;
     }
 
     public String exportAccountSummaryReportToCSV(List<AccountSummaryReport> reports) throws IOException {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Account ID,Account Number,Account Type,Customer Name,Current Balance,Total Deposits,Total Withdrawals,Transaction Count,Status,Created Date,Last Activity\n");
-
-        for (AccountSummaryReport report : reports) {
-            csv.append(String.format("%d,%s,%s,%s,%.2f,%.2f,%.2f,%d,%s,%s,%s\n",
-                report.getAccountId(),
-                report.getAccountNumber(),
-                report.getAccountType(),
-                report.getCustomerName(),
-                report.getCurrentBalance(),
-                report.getTotalDeposits(),
-                report.getTotalWithdrawals(),
-                report.getTransactionCount(),
-                report.getStatus(),
-                report.getCreatedDate() != null ? report.getCreatedDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "",
-                report.getLastActivityDate() != null ? report.getLastActivityDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : ""
-            ));
-        }
-
         String filename = "account_summary_report_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".csv";
-        String filepath = FileUtil.saveReportToFile(filename, csv.toString());
+        Path path = FileUtil.reportFilePath(filename);
+        try (Writer csv = FileUtil.newExportWriter(path, false)) {
+            csv.write("Account ID,Account Number,Account Type,Customer Name,Current Balance,Total Deposits,Total Withdrawals,Transaction Count,Status,Created Date,Last Activity\n");
+
+            StringBuilder row = new StringBuilder(256);
+            for (AccountSummaryReport report : reports) {
+                csv.append(appendAccountSummaryRow(row, report));
+            }
+        }
+        String filepath = path.toAbsolutePath().toString();
 
         LOGGER.info("Exported account summary report to: " + filepath);
         return filepath;
     }
 
     public String exportTransactionAnalysisReportToCSV(List<TransactionAnalysisReport> reports) throws IOException {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Transaction Type,Count,Total Amount,Average Amount,Minimum Amount,Maximum Amount,Pending Approvals,Completed Approvals,Cancelled Transactions,Processing Statistics\n");
-
-        for (TransactionAnalysisReport report : reports) {
-            csv.append(String.format("%s,%d,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,\"%s\"\n",
-                report.getTransactionType(),
-                report.getTransactionCount(),
-                report.getTotalAmount(),
-                report.getAverageAmount(),
-                report.getMinimumAmount(),
-                report.getMaximumAmount(),
-                report.getApprovalsPending(),
-                report.getApprovalsCompleted(),
-                report.getTransactionsCancelled(),
-                report.getProcessingStatistics() != null ? report.getProcessingStatistics() : ""
-            ));
-        }
-
         String filename = "transaction_analysis_report_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".csv";
-        String filepath = FileUtil.saveReportToFile(filename, csv.toString());
+        Path path = FileUtil.reportFilePath(filename);
+        try (Writer csv = FileUtil.newExportWriter(path, false)) {
+            csv.write("Transaction Type,Count,Total Amount,Average Amount,Minimum Amount,Maximum Amount,Pending Approvals,Completed Approvals,Cancelled Transactions,Processing Statistics\n");
+
+            StringBuilder row = new StringBuilder(256);
+            for (TransactionAnalysisReport report : reports) {
+                csv.append(appendTransactionAnalysisRow(row, report));
+            }
+        }
+        String filepath = path.toAbsolutePath().toString();
 
         LOGGER.info("Exported transaction analysis report to: " + filepath);
         return filepath;
     }
 
+    /**
+     * Formats one user activity row into {@code row}, reusing its storage, and returns it.
+     */
+    private static StringBuilder appendUserActivityRow(StringBuilder row, UserActivityReport report) {
+        row.setLength(0);
+        row.append(report.getUserId()).append(',')
+           .append(report.getUsername()).append(',')
+           .append(report.getRole()).append(',');
+        if (report.getLastLogin() != null) {
+            row.append(report.getLastLogin().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        row.append(',').append(report.getLoginCount())
+           .append(',').append(report.getTransactionCount())
+           .append(',').append(report.getAccountsManaged())
+           .append(',').append(report.getUsersManaged())
+           .append(",\"");
+        if (report.getActivitySummary() != null) {
+            row.append(report.getActivitySummary());
+        }
+        return row.append("\"\n");
+    }
+
+    /**
+     * Formats one account summary row into {@code row}, reusing its storage, and returns it.
+     */
+    private static StringBuilder appendAccountSummaryRow(StringBuilder row, AccountSummaryReport report) {
+        row.setLength(0);
+        row.append(report.getAccountId()).append(',')
+           .append(report.getAccountNumber()).append(',')
+           .append(report.getAccountType()).append(',')
+           .append(report.getCustomerName()).append(',')
+           .append(FileUtil.formatMoney(report.getCurrentBalance())).append(',')
+           .append(FileUtil.formatMoney(report.getTotalDeposits())).append(',')
+           .append(FileUtil.formatMoney(report.getTotalWithdrawals())).append(',')
+           .append(report.getTransactionCount()).append(',')
+           .append(report.getStatus()).append(',');
+        if (report.getCreatedDate() != null) {
+            row.append(report.getCreatedDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        row.append(',');
+        if (report.getLastActivityDate() != null) {
+            row.append(report.getLastActivityDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        return row.append('\n');
+    }
+
+    /**
+     * Formats one transaction analysis row into {@code row}, reusing its storage, and returns it.
+     */
+    private static StringBuilder appendTransactionAnalysisRow(StringBuilder row, TransactionAnalysisReport report) {
+        row.setLength(0);
+        row.append(report.getTransactionType()).append(',')
+           .append(report.getTransactionCount()).append(',')
+           .append(FileUtil.formatMoney(report.getTotalAmount())).append(',')
+           .append(FileUtil.formatMoney(report.getAverageAmount())).append(',')
+           .append(FileUtil.formatMoney(report.getMinimumAmount())).append(',')
+           .append(FileUtil.formatMoney(report.getMaximumAmount())).append(',')
+           .append(report.getApprovalsPending()).append(',')
+           .append(report.getApprovalsCompleted()).append(',')
+           .append(report.getTransactionsCancelled()).append(",\"");
+        if (report.getProcessingStatistics() != null) {
+            row.append(report.getProcessingStatistics());
+        }
+        return row.append("\"\n");
+    }
+
     private void validateDateRange(LocalDate startDate, LocalDate endDate) {
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Start date and end date are required");
@@ -1,77 +1,116 @@
 package com.bankingsystem.services;
 
+import com.bankingsystem.config.AppConfig;
 import com.bankingsystem.dao.AccountDAO;
+import com.bankingsystem.dao.TransactionCursor;
 import com.bankingsystem.dao.TransactionDAO;
+import com.bankingsystem.dao.UnitOfWork;
 import com.bankingsystem.exceptions.InsufficientFundsException;
 import com.bankingsystem.exceptions.InvalidAccountException;
 import com.bankingsystem.exceptions.TransactionLimitExceededException;
 import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.ApprovalBatchResult;
 import com.bankingsystem.models.Transaction;
 import com.bankingsystem.models.TransactionApproval;
+import com.bankingsystem.utils.AccountLockManager;
+import com.bankingsystem.utils.DatabaseUtil;
 import com.bankingsystem.utils.EncryptionUtil;
+import com.bankingsystem.utils.FileUtil;
+import com.bankingsystem.utils.MetricsRegistry;
+import com.bankingsystem.utils.MockDatabaseUtil;
 import com.bankingsystem.utils.ValidationUtil;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class TransactionService {
     private static final Logger LOGGER = Logger.getLogger(TransactionService.class.getName());
+
+    private static final MetricsRegistry.Timer DEPOSIT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "deposit");
+    private static final MetricsRegistry.Timer WITHDRAW_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "withdraw");
+    private static final MetricsRegistry.Timer TRANSFER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "transfer");
+    private static final MetricsRegistry.Timer GET_TRANSACTION_HISTORY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "getTransactionHistory");
+    private static final MetricsRegistry.Timer GET_TRANSACTION_HISTORY_PAGE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "getTransactionHistoryPage");
+    private static final MetricsRegistry.Timer GET_TRANSACTION_BY_REFERENCE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "getTransactionByReference");
+    private static final MetricsRegistry.Timer GET_ALL_TRANSACTIONS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "getAllTransactions");
+    private static final MetricsRegistry.Timer EXPORT_ALL_TRANSACTIONS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "exportAllTransactions");
+    private static final MetricsRegistry.Timer GET_DAILY_WITHDRAWAL_TOTAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "getDailyWithdrawalTotal");
+    private static final MetricsRegistry.Timer DELETE_TRANSACTION_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "deleteTransactionPermanently");
+    private static final MetricsRegistry.Timer CAN_DELETE_TRANSACTION_PERMANENTLY_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "canDeleteTransactionPermanently");
+    private static final MetricsRegistry.Timer CANCEL_TRANSACTION_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "cancelTransaction");
+    private static final MetricsRegistry.Timer DEPOSIT_WITH_APPROVAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "depositWithApproval");
+    private static final MetricsRegistry.Timer PROCESS_APPROVED_DEPOSIT_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "processApprovedDeposit");
+    private static final MetricsRegistry.Timer PROCESS_APPROVED_WITHDRAWAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "processApprovedWithdrawal");
+    private static final MetricsRegistry.Timer PROCESS_APPROVED_TRANSFER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "processApprovedTransfer");
+    private static final MetricsRegistry.Timer APPROVE_AND_PROCESS_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransactionService.class, "approveAndProcess");
+    private static final MetricsRegistry.Counter CAS_RETRIES = MetricsRegistry.getInstance().counter(
+        "bms_balance_cas_retries_total", "Balance compare-and-set attempts retried because the balance moved");
     private final TransactionDAO transactionDAO;
     private final AccountDAO accountDAO;
     private final AccountService accountService;
     private final ApprovalService approvalService;
+    private final AccountLockManager lockManager;
 
     public TransactionService() {
         this.transactionDAO = new TransactionDAO();
         this.accountDAO = new AccountDAO();
         this.accountService = new AccountService();
         this.approvalService = new ApprovalService();
+        this.lockManager = AccountLockManager.getInstance();
     }
 
     public Transaction deposit(String accountNumber, BigDecimal amount, String description, Integer userId)
             throws SQLException, InvalidAccountException {
+        return DEPOSIT_TIMER.timeSql(this, accountNumber, amount, description, userId, TransactionService::doDeposit);
+    }
 
+    private Transaction doDeposit(String accountNumber, BigDecimal amount, String description, Integer userId)
+            throws SQLException, InvalidAccountException {
         if (!ValidationUtil.isValidAmount(amount)) {
             throw new IllegalArgumentException("Invalid deposit amount");
         }
 
         validateTransactionPermissions(userId, amount, "Deposit");
 
-        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
-
-        if (!"Active".equals(account.getStatus())) {
-            throw new InvalidAccountException("Account is not active", accountNumber);
-        }
-
-        BigDecimal balanceBefore = account.getBalance();
-        BigDecimal balanceAfter = balanceBefore.add(amount);
-        String referenceNumber = EncryptionUtil.generateReferenceNumber();
-
-        Integer transactionTypeId = transactionDAO.getTransactionTypeId("Deposit");
-
-        Transaction transaction = new Transaction(
-            account.getAccountId(),
-            transactionTypeId,
-            amount,
-            balanceBefore,
-            balanceAfter,
-            description != null ? description : "Deposit",
-            referenceNumber,
-            userId
-        );
-
-        transaction.setTransactionTypeName("Deposit");
-
         try {
-            transaction = transactionDAO.save(transaction);
-            accountDAO.updateBalance(account.getAccountId(), balanceAfter);
+            Transaction transaction = postDeposit(accountNumber, amount, description, userId);
 
-            LOGGER.info(String.format("Deposit successful: $%.2f to account %s, ref: %s",
-                                    amount, accountNumber, referenceNumber));
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.info(String.format("Deposit successful: $%.2f to account %s, ref: %s",
+                                        amount, accountNumber, transaction.getReferenceNumber()));
+            }
             return transaction;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Deposit transaction failed", e);
@@ -81,175 +120,220 @@ public class TransactionService {
 
     public Transaction withdraw(String accountNumber, BigDecimal amount, String description, Integer userId)
             throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+        long started = System.nanoTime();
+        try {
+            if (!ValidationUtil.isValidAmount(amount)) {
+                throw new IllegalArgumentException("Invalid withdrawal amount");
+            }
 
-        if (!ValidationUtil.isValidAmount(amount)) {
-            throw new IllegalArgumentException("Invalid withdrawal amount");
-        }
-
-        validateTransactionPermissions(userId, amount, "Withdrawal");
-
-        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
-
-        if (!"Active".equals(account.getStatus())) {
-            throw new InvalidAccountException("Account is not active", accountNumber);
-        }
-
-        BigDecimal dailyLimit = account.getDailyWithdrawalLimit();
-        BigDecimal dailyTotal = transactionDAO.getDailyWithdrawalTotal(account.getAccountId(), LocalDate.now());
-
-        if (dailyTotal.add(amount).compareTo(dailyLimit) > 0) {
-            throw new TransactionLimitExceededException(
-                "Daily withdrawal limit exceeded", amount, dailyLimit, dailyTotal);
-        }
-
-        if (!account.canWithdraw(amount)) {
-            throw new InsufficientFundsException(
-                "Insufficient funds for withdrawal", account.getBalance(), amount);
-        }
-
-        BigDecimal balanceBefore = account.getBalance();
-        BigDecimal balanceAfter = balanceBefore.subtract(amount);
-        String referenceNumber = EncryptionUtil.generateReferenceNumber();
+            validateTransactionPermissions(userId, amount, "Withdrawal");
 
-        Integer transactionTypeId = transactionDAO.getTransactionTypeId("Withdrawal");
+            Integer accountId = accountService.getAccountByNumber(accountNumber).getAccountId();
+            Integer transactionTypeId = transactionDAO.getTransactionTypeId("Withdrawal");
 
-        Transaction transaction = new Transaction(
-            account.getAccountId(),
-            transactionTypeId,
-            amount.negate(),
-            balanceBefore,
-            balanceAfter,
-            description != null ? description : "Withdrawal",
-            referenceNumber,
-            userId
-        );
-
-        transaction.setTransactionTypeName("Withdrawal");
+            AccountLockManager.Lease lease = lockManager.lock(accountId);
+            try (lease) {
+                Transaction transaction = postWithdrawal(accountId, accountNumber, amount, description, userId, transactionTypeId);
 
-        try {
-            transaction = transactionDAO.save(transaction);
-            accountDAO.updateBalance(account.getAccountId(), balanceAfter);
-
-            LOGGER.info(String.format("Withdrawal successful: $%.2f from account %s, ref: %s",
-                                    amount, accountNumber, referenceNumber));
-            return transaction;
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Withdrawal transaction failed", e);
+                if (LOGGER.isLoggable(Level.INFO)) {
+                    LOGGER.info(String.format("Withdrawal successful: $%.2f from account %s, ref: %s",
+                                            amount, accountNumber, transaction.getReferenceNumber()));
+                }
+                return transaction;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Withdrawal transaction failed", e);
+                throw e;
+            }
+        } catch (Exception e) {
+            WITHDRAW_TIMER.recordException();
             throw e;
+        } finally {
+            WITHDRAW_TIMER.record(started);
         }
     }
 
     public List<Transaction> transfer(String fromAccountNumber, String toAccountNumber,
                                     BigDecimal amount, String description, Integer userId)
             throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+        long started = System.nanoTime();
+        try {
+            if (!ValidationUtil.isValidAmount(amount)) {
+                throw new IllegalArgumentException("Invalid transfer amount");
+            }
 
-        if (!ValidationUtil.isValidAmount(amount)) {
-            throw new IllegalArgumentException("Invalid transfer amount");
-        }
-
-        if (fromAccountNumber.equals(toAccountNumber)) {
-            throw new IllegalArgumentException("Cannot transfer to the same account");
-        }
-
-        AbstractAccount fromAccount = accountService.getAccountByNumber(fromAccountNumber);
-        AbstractAccount toAccount = accountService.getAccountByNumber(toAccountNumber);
+            if (fromAccountNumber.equals(toAccountNumber)) {
+                throw new IllegalArgumentException("Cannot transfer to the same account");
+            }
 
-        if (!"Active".equals(fromAccount.getStatus())) {
-            throw new InvalidAccountException("Source account is not active", fromAccountNumber);
-        }
+            Integer fromAccountId = accountService.getAccountByNumber(fromAccountNumber).getAccountId();
+            Integer toAccountId = accountService.getAccountByNumber(toAccountNumber).getAccountId();
 
-        if (!"Active".equals(toAccount.getStatus())) {
-            throw new InvalidAccountException("Destination account is not active", toAccountNumber);
-        }
+            Integer transferTypeId = transactionDAO.getTransactionTypeId("Transfer");
 
-        BigDecimal dailyLimit = fromAccount.getDailyWithdrawalLimit();
-        BigDecimal dailyTotal = transactionDAO.getDailyWithdrawalTotal(fromAccount.getAccountId(), LocalDate.now());
+            AccountLockManager.Lease lease = lockManager.lock(fromAccountId, toAccountId);
+            try (lease) {
+                List<Transaction> legs = postTransfer(fromAccountId, fromAccountNumber, toAccountId, toAccountNumber,
+                                                      amount, description, userId, transferTypeId);
 
-        if (dailyTotal.add(amount).compareTo(dailyLimit) > 0) {
-            throw new TransactionLimitExceededException(
-                "Daily withdrawal limit exceeded", amount, dailyLimit, dailyTotal);
-        }
-
-        if (!fromAccount.canWithdraw(amount)) {
-            throw new InsufficientFundsException(
-                "Insufficient funds for transfer", fromAccount.getBalance(), amount);
+                if (LOGGER.isLoggable(Level.INFO)) {
+                    LOGGER.info(String.format("Transfer successful: $%.2f from %s to %s, ref: %s",
+                                            amount, fromAccountNumber, toAccountNumber, legs.get(0).getReferenceNumber()));
+                }
+                return legs;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Transfer transaction failed", e);
+                throw e;
+            }
+        } catch (Exception e) {
+            TRANSFER_TIMER.recordException();
+            throw e;
+        } finally {
+            TRANSFER_TIMER.record(started);
         }
+    }
 
-        String referenceNumber = EncryptionUtil.generateReferenceNumber();
-        Integer transferTypeId = transactionDAO.getTransactionTypeId("Transfer");
+    public List<Transaction> getTransactionHistory(String accountNumber) throws SQLException, InvalidAccountException {
+        return GET_TRANSACTION_HISTORY_TIMER.timeSql(this, accountNumber, TransactionService::doGetTransactionHistory);
+    }
 
-        BigDecimal fromBalanceBefore = fromAccount.getBalance();
-        BigDecimal fromBalanceAfter = fromBalanceBefore.subtract(amount);
+    private List<Transaction> doGetTransactionHistory(String accountNumber) throws SQLException, InvalidAccountException {
+        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
+        return transactionDAO.findByAccountId(account.getAccountId());
+    }
 
-        BigDecimal toBalanceBefore = toAccount.getBalance();
-        BigDecimal toBalanceAfter = toBalanceBefore.add(amount);
+    public List<Transaction> getTransactionHistory(String accountNumber, LocalDate startDate, LocalDate endDate)
+            throws SQLException, InvalidAccountException {
+        return GET_TRANSACTION_HISTORY_TIMER.timeSql(this, accountNumber, startDate, endDate,
+                                                     TransactionService::doGetTransactionHistory);
+    }
 
-        Transaction debitTransaction = new Transaction(
-            fromAccount.getAccountId(),
-            transferTypeId,
-            amount.negate(),
-            fromBalanceBefore,
-            fromBalanceAfter,
-            description != null ? description : "Transfer to " + toAccountNumber,
-            referenceNumber,
-            userId
-        );
-        debitTransaction.setTransactionTypeName("Transfer");
+    private List<Transaction> doGetTransactionHistory(String accountNumber, LocalDate startDate, LocalDate endDate)
+            throws SQLException, InvalidAccountException {
+        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
+        return transactionDAO.findByAccountIdAndDateRange(account.getAccountId(), startDate, endDate);
+    }
 
-        Transaction creditTransaction = new Transaction(
-            toAccount.getAccountId(),
-            transferTypeId,
-            amount,
-            toBalanceBefore,
-            toBalanceAfter,
-            description != null ? description : "Transfer from " + fromAccountNumber,
-            referenceNumber,
-            userId
-        );
-        creditTransaction.setTransactionTypeName("Transfer");
+    /**
+     * One page of the account's history between the dates, newest first: {@code limit} transactions after
+     * skipping {@code offset}.
+     */
+    public List<Transaction> getTransactionHistoryPage(String accountNumber, LocalDate startDate, LocalDate endDate,
+                                                       int offset, int limit) throws SQLException, InvalidAccountException {
+        return GET_TRANSACTION_HISTORY_PAGE_TIMER.timeSql(this, accountNumber, startDate, endDate, offset, limit,
+                                                          TransactionService::doGetTransactionHistoryPage);
+    }
 
-        try {
-            debitTransaction = transactionDAO.save(debitTransaction);
-            creditTransaction = transactionDAO.save(creditTransaction);
+    private List<Transaction> doGetTransactionHistoryPage(String accountNumber, LocalDate startDate, LocalDate endDate,
+                                                          int offset, int limit) throws SQLException, InvalidAccountException {
+        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
+        return transactionDAO.findByAccountIdAndDateRange(account.getAccountId(), startDate, endDate, offset, limit);
+    }
 
-            accountDAO.updateBalance(fromAccount.getAccountId(), fromBalanceAfter);
-            accountDAO.updateBalance(toAccount.getAccountId(), toBalanceAfter);
+    /**
+     * Keyset page of the account's history, newest first: up to {@code limit} transactions after the one
+     * identified by {@code afterCreatedDate} and {@code afterTransactionId}, or from the newest when both are null.
+     */
+    public List<Transaction> getTransactionHistoryAfter(String accountNumber, LocalDateTime afterCreatedDate,
+                                                        Integer afterTransactionId, int limit)
+            throws SQLException, InvalidAccountException {
+        return GET_TRANSACTION_HISTORY_PAGE_TIMER.timeSql(this, accountNumber, afterCreatedDate, afterTransactionId,
+                                                          limit, TransactionService::doGetTransactionHistoryAfter);
+    }
 
-            LOGGER.info(String.format("Transfer successful: $%.2f from %s to %s, ref: %s",
-                                    amount, fromAccountNumber, toAccountNumber, referenceNumber));
+    private List<Transaction> doGetTransactionHistoryAfter(String accountNumber, LocalDateTime afterCreatedDate,
+                                                           Integer afterTransactionId, int limit)
+            throws SQLException, InvalidAccountException {
+        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
+        return transactionDAO.findByAccountIdAfter(account.getAccountId(), afterCreatedDate, afterTransactionId, limit);
+    }
 
-            return List.of(debitTransaction, creditTransaction);
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Transfer transaction failed", e);
-            throw e;
-        }
+    /**
+     * Keyset page of every account's transactions, newest first, continuing the same way as
+     * {@link #getTransactionHistoryAfter}.
+     */
+    public List<Transaction> getTransactionsAfter(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit)
+            throws SQLException {
+        return GET_ALL_TRANSACTIONS_TIMER.time(this, afterCreatedDate, afterTransactionId, limit,
+                                               TransactionService::doGetTransactionsAfter);
     }
 
-    public List<Transaction> getTransactionHistory(String accountNumber) throws SQLException, InvalidAccountException {
-        AbstractAccount account = accountService.getAccountByNumber(accountNumber);
-        return transactionDAO.findByAccountId(account.getAccountId());
+    private List<Transaction> doGetTransactionsAfter(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit)
+            throws SQLException {
+        return transactionDAO.findChunk(afterCreatedDate, afterTransactionId, limit);
     }
 
-    public List<Transaction> getTransactionHistory(String accountNumber, LocalDate startDate, LocalDate endDate)
-            throws SQLException, InvalidAccountException {
+    /**
+     * Opens a cursor over the account's history between the dates, newest first, for callers that walk it
+     * chunk by chunk rather than loading it whole.
+     */
+    public TransactionCursor openTransactionHistory(String accountNumber, LocalDate startDate, LocalDate endDate,
+                                                    int chunkSize) throws SQLException, InvalidAccountException {
         AbstractAccount account = accountService.getAccountByNumber(accountNumber);
-        return transactionDAO.findByAccountIdAndDateRange(account.getAccountId(), startDate, endDate);
+        return transactionDAO.openCursor(account.getAccountId(), startDate, endDate, chunkSize);
     }
 
     public Transaction getTransactionByReference(String referenceNumber) throws SQLException {
+        return GET_TRANSACTION_BY_REFERENCE_TIMER.time(this, referenceNumber,
+                                                       TransactionService::doGetTransactionByReference);
+    }
+
+    private Transaction doGetTransactionByReference(String referenceNumber) throws SQLException {
         return transactionDAO.findByReferenceNumber(referenceNumber);
     }
 
     public List<Transaction> getAllTransactions() throws SQLException {
+        return GET_ALL_TRANSACTIONS_TIMER.time(this, TransactionService::doGetAllTransactions);
+    }
+
+    private List<Transaction> doGetAllTransactions() throws SQLException {
         return transactionDAO.findAll();
     }
 
+    /**
+     * Streams every transaction, newest first, to a CSV file (gzip-compressed if asked) without loading the
+     * ledger into memory. Returns the number of rows written.
+     */
+    public long exportAllTransactions(Path file, boolean gzip, int chunkSize, FileUtil.ExportProgressListener listener)
+            throws SQLException, IOException {
+        return EXPORT_ALL_TRANSACTIONS_TIMER.timeSql(this, file, gzip, chunkSize, listener,
+                                                     TransactionService::doExportAllTransactions);
+    }
+
+    private long doExportAllTransactions(Path file, boolean gzip, int chunkSize, FileUtil.ExportProgressListener listener)
+            throws SQLException, IOException {
+        long total = transactionDAO.countAll();
+        return FileUtil.exportTransactionsToCSV(transactionDAO.openCursor(chunkSize), file, gzip, total, listener);
+    }
+
+    public long exportAllTransactions(Path file, boolean gzip, FileUtil.ExportProgressListener listener)
+            throws SQLException, IOException {
+        return exportAllTransactions(file, gzip, AppConfig.EXPORT_CHUNK_SIZE, listener);
+    }
+
     public BigDecimal getDailyWithdrawalTotal(String accountNumber, LocalDate date)
             throws SQLException, InvalidAccountException {
+        return GET_DAILY_WITHDRAWAL_TOTAL_TIMER.timeSql(this, accountNumber, date,
+                                                        TransactionService::doGetDailyWithdrawalTotal);
+    }
+
+    private BigDecimal doGetDailyWithdrawalTotal(String accountNumber, LocalDate date)
+            throws SQLException, InvalidAccountException {
         AbstractAccount account = accountService.getAccountByNumber(accountNumber);
         return transactionDAO.getDailyWithdrawalTotal(account.getAccountId(), date);
     }
 
+    /**
+     * Re-reads an account once its lock stripe is held, so balance checks see the latest committed state.
+     */
+    private AbstractAccount lockedAccount(Integer accountId, String accountNumber)
+            throws SQLException, InvalidAccountException {
+        AbstractAccount account = accountDAO.findById(accountId);
+        if (account == null) {
+            throw new InvalidAccountException("Account not found", accountNumber);
+        }
+        return account;
+    }
+
     private void validateTransactionPermissions(Integer userId, BigDecimal amount, String transactionType)
             throws SQLException {
         if (userId == null) {
@@ -305,6 +389,11 @@ public class TransactionService {
     }
 
     public boolean deleteTransactionPermanently(Integer transactionId) throws SQLException {
+        return DELETE_TRANSACTION_PERMANENTLY_TIMER.time(this, transactionId,
+                                                         TransactionService::doDeleteTransactionPermanently);
+    }
+
+    private boolean doDeleteTransactionPermanently(Integer transactionId) throws SQLException {
         try {
             com.bankingsystem.dao.TransactionDAO transactionDAO = new com.bankingsystem.dao.TransactionDAO();
 
@@ -320,6 +409,11 @@ public class TransactionService {
     }
 
     public boolean canDeleteTransactionPermanently(Integer transactionId) throws SQLException {
+        return CAN_DELETE_TRANSACTION_PERMANENTLY_TIMER.time(this, transactionId,
+                                                             TransactionService::doCanDeleteTransactionPermanently);
+    }
+
+    private boolean doCanDeleteTransactionPermanently(Integer transactionId) throws SQLException {
         try {
             com.bankingsystem.dao.TransactionDAO transactionDAO = new com.bankingsystem.dao.TransactionDAO();
             return transactionDAO.canDeleteTransaction(transactionId);
@@ -329,6 +423,10 @@ public class TransactionService {
     }
 
     public boolean cancelTransaction(Integer transactionId) throws SQLException {
+        return CANCEL_TRANSACTION_TIMER.time(this, transactionId, TransactionService::doCancelTransaction);
+    }
+
+    private boolean doCancelTransaction(Integer transactionId) throws SQLException {
         try {
             com.bankingsystem.dao.TransactionDAO transactionDAO = new com.bankingsystem.dao.TransactionDAO();
             return transactionDAO.delete(transactionId);
@@ -345,7 +443,12 @@ public class TransactionService {
      */
     public Object depositWithApproval(String accountNumber, BigDecimal amount, String description, Integer userId)
             throws SQLException, InvalidAccountException {
+        return DEPOSIT_WITH_APPROVAL_TIMER.timeSql(this, accountNumber, amount, description, userId,
+                                                   TransactionService::doDepositWithApproval);
+    }
 
+    private Object doDepositWithApproval(String accountNumber, BigDecimal amount, String description, Integer userId)
+            throws SQLException, InvalidAccountException {
         if (!ValidationUtil.isValidAmount(amount)) {
             throw new IllegalArgumentException("Invalid deposit amount");
         }
@@ -374,7 +477,11 @@ public class TransactionService {
      */
     public Transaction processApprovedDeposit(TransactionApproval approval)
             throws SQLException, InvalidAccountException {
+        return PROCESS_APPROVED_DEPOSIT_TIMER.timeSql(this, approval, TransactionService::doProcessApprovedDeposit);
+    }
 
+    private Transaction doProcessApprovedDeposit(TransactionApproval approval)
+            throws SQLException, InvalidAccountException {
         if (!approval.isApproved()) {
             throw new IllegalArgumentException("Transaction approval is not approved");
         }
@@ -384,6 +491,229 @@ public class TransactionService {
                                       approval.getDescription(), approval.getRequestedByUserId());
     }
 
+    /**
+     * Processes an approved withdrawal
+     */
+    public Transaction processApprovedWithdrawal(TransactionApproval approval)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+        long started = System.nanoTime();
+        try {
+            if (!approval.isApproved()) {
+                throw new IllegalArgumentException("Transaction approval is not approved");
+            }
+
+            String accountNumber = approval.getAccountNumber();
+            Integer accountId = accountService.getAccountByNumber(accountNumber).getAccountId();
+            Integer transactionTypeId = transactionDAO.getTransactionTypeId("Withdrawal");
+
+            AccountLockManager.Lease lease = lockManager.lock(accountId);
+            try (lease) {
+                Transaction transaction = postWithdrawal(accountId, accountNumber, approval.getAmount(),
+                                                         approval.getDescription(), approval.getRequestedByUserId(),
+                                                         transactionTypeId);
+
+                if (LOGGER.isLoggable(Level.INFO)) {
+                    LOGGER.info(String.format("Approved withdrawal successful: $%.2f from account %s, ref: %s",
+                                            approval.getAmount(), accountNumber, transaction.getReferenceNumber()));
+                }
+                return transaction;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Approved withdrawal transaction failed", e);
+                throw e;
+            }
+        } catch (Exception e) {
+            PROCESS_APPROVED_WITHDRAWAL_TIMER.recordException();
+            throw e;
+        } finally {
+            PROCESS_APPROVED_WITHDRAWAL_TIMER.record(started);
+        }
+    }
+
+    /**
+     * Processes an approved transfer; its account number reads "FROM to TO"
+     */
+    public List<Transaction> processApprovedTransfer(TransactionApproval approval)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+        long started = System.nanoTime();
+        try {
+            if (!approval.isApproved()) {
+                throw new IllegalArgumentException("Transaction approval is not approved");
+            }
+
+            String[] accountNumbers = accountNumbersOf(approval);
+            Integer fromAccountId = accountService.getAccountByNumber(accountNumbers[0]).getAccountId();
+            Integer toAccountId = accountService.getAccountByNumber(accountNumbers[1]).getAccountId();
+            Integer transferTypeId = transactionDAO.getTransactionTypeId("Transfer");
+
+            AccountLockManager.Lease lease = lockManager.lock(fromAccountId, toAccountId);
+            try (lease) {
+                List<Transaction> legs = postTransfer(fromAccountId, accountNumbers[0], toAccountId, accountNumbers[1],
+                                                      approval.getAmount(), approval.getDescription(),
+                                                      approval.getRequestedByUserId(), transferTypeId);
+
+                if (LOGGER.isLoggable(Level.INFO)) {
+                    LOGGER.info(String.format("Approved transfer successful: $%.2f from %s to %s, ref: %s",
+                                            approval.getAmount(), accountNumbers[0], accountNumbers[1],
+                                            legs.get(0).getReferenceNumber()));
+                }
+                return legs;
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Approved transfer transaction failed", e);
+                throw e;
+            }
+        } catch (Exception e) {
+            PROCESS_APPROVED_TRANSFER_TIMER.recordException();
+            throw e;
+        } finally {
+            PROCESS_APPROVED_TRANSFER_TIMER.record(started);
+        }
+    }
+
+    /**
+     * Approves a batch of pending requests and posts their transactions. The approver's authority is checked
+     * once for the whole batch and each request is claimed before its money moves, so a request decided or
+     * expired concurrently is reported instead of posted twice; the postings are grouped by the accounts they
+     * touch and each group runs under a single lease of those accounts' locks, and on the durable store the
+     * batch waits for the journal once. A request that fails is reported in the result and returned to
+     * pending; it does not stop the rest.
+     */
+    public ApprovalBatchResult approveAndProcess(List<Integer> approvalIds, Integer approvingUserId, String comments)
+            throws SQLException {
+        return APPROVE_AND_PROCESS_TIMER.time(this, approvalIds, approvingUserId, comments,
+                                              TransactionService::doApproveAndProcess);
+    }
+
+    private ApprovalBatchResult doApproveAndProcess(List<Integer> approvalIds, Integer approvingUserId, String comments)
+            throws SQLException {
+        ApprovalBatchResult result = new ApprovalBatchResult(approvalIds);
+        MockDatabaseUtil.DurabilityScope durability = MockDatabaseUtil.deferDurability();
+        try (durability) {
+            List<TransactionApproval> claimed = approvalService.claimBatch(approvalIds, approvingUserId, comments, result);
+            Set<TransactionApproval> unposted = new LinkedHashSet<>(claimed);
+            try {
+                processClaimed(claimed, unposted, approvingUserId, result);
+            } finally {
+                approvalService.releaseBatch(unposted);
+            }
+        }
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(String.format("Batch approval by user %d: %d processed, %d failed",
+                                    approvingUserId, result.getSuccessCount(), result.getFailureCount()));
+        }
+        return result;
+    }
+
+    /**
+     * Posts the claimed requests of a batch, removing each from {@code unposted} once its transactions are in.
+     */
+    private void processClaimed(List<TransactionApproval> claimed, Set<TransactionApproval> unposted,
+                                Integer approvingUserId, ApprovalBatchResult result) throws SQLException {
+        // Resolve each account once and group the requests by the set of accounts they lock
+        Map<String, Integer> accountIds = new HashMap<>();
+        Map<List<Integer>, List<BatchItem>> groups = new LinkedHashMap<>();
+        for (TransactionApproval approval : claimed) {
+            try {
+                String[] accountNumbers = accountNumbersOf(approval);
+                Integer[] ids = new Integer[accountNumbers.length];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = accountIds.get(accountNumbers[i]);
+                    if (ids[i] == null) {
+                        ids[i] = accountService.getAccountByNumber(accountNumbers[i]).getAccountId();
+                        accountIds.put(accountNumbers[i], ids[i]);
+                    }
+                }
+                List<Integer> lockSet = new ArrayList<>(new TreeSet<>(Arrays.asList(ids)));
+                groups.computeIfAbsent(lockSet, key -> new ArrayList<>())
+                      .add(new BatchItem(approval, accountNumbers, ids));
+            } catch (InvalidAccountException | IllegalArgumentException e) {
+                result.failed(approval.getApprovalId(), e.getMessage());
+            }
+        }
+
+        Map<String, Integer> typeIds = new HashMap<>();
+        for (String type : List.of("Deposit", "Withdrawal", "Transfer")) {
+            typeIds.put(type, transactionDAO.getTransactionTypeId(type));
+        }
+
+        for (Map.Entry<List<Integer>, List<BatchItem>> group : groups.entrySet()) {
+            List<TransactionApproval> posted = new ArrayList<>();
+            AccountLockManager.Lease lease = lockManager.lock(group.getKey().toArray(new Integer[0]));
+            try (lease) {
+                for (BatchItem item : group.getValue()) {
+                    Integer approvalId = item.approval.getApprovalId();
+                    try {
+                        result.succeeded(approvalId, postApproved(item, typeIds));
+                        posted.add(item.approval);
+                        unposted.remove(item.approval);
+                    } catch (InvalidAccountException | InsufficientFundsException
+                             | TransactionLimitExceededException | IllegalArgumentException e) {
+                        result.failed(approvalId, e.getMessage());
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.SEVERE, "Batch approval " + approvalId + " failed", e);
+                        result.failed(approvalId, "Database error: " + e.getMessage());
+                    }
+                }
+                approvalService.completeBatch(posted, approvingUserId);
+            }
+        }
+    }
+
+    /**
+     * Posts one request of a batch; the caller holds the locks of all its accounts.
+     */
+    private List<Transaction> postApproved(BatchItem item, Map<String, Integer> typeIds)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+        TransactionApproval approval = item.approval;
+        String type = approval.getTransactionType();
+        Integer userId = approval.getRequestedByUserId();
+        switch (type) {
+            case "Deposit":
+                AbstractAccount account = lockedAccount(item.accountIds[0], item.accountNumbers[0]);
+                return List.of(postDeposit(account, approval.getAmount(), approval.getDescription(), userId,
+                                           typeIds.get(type)));
+            case "Withdrawal":
+                return List.of(postWithdrawal(item.accountIds[0], item.accountNumbers[0], approval.getAmount(),
+                                              approval.getDescription(), userId, typeIds.get(type)));
+            case "Transfer":
+                return postTransfer(item.accountIds[0], item.accountNumbers[0], item.accountIds[1],
+                                    item.accountNumbers[1], approval.getAmount(), approval.getDescription(),
+                                    userId, typeIds.get(type));
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + type);
+        }
+    }
+
+    /**
+     * Account numbers an approval request touches: one, or the source and destination of a transfer.
+     */
+    private static String[] accountNumbersOf(TransactionApproval approval) {
+        String accountNumber = approval.getAccountNumber();
+        if (!"Transfer".equals(approval.getTransactionType())) {
+            return new String[] { accountNumber };
+        }
+        String[] accountNumbers = accountNumber != null ? accountNumber.split(" to ") : new String[0];
+        if (accountNumbers.length != 2) {
+            throw new IllegalArgumentException("Invalid transfer accounts: " + accountNumber);
+        }
+        if (accountNumbers[0].equals(accountNumbers[1])) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        return accountNumbers;
+    }
+
+    private static final class BatchItem {
+        private final TransactionApproval approval;
+        private final String[] accountNumbers;
+        private final Integer[] accountIds;
+
+        private BatchItem(TransactionApproval approval, String[] accountNumbers, Integer[] accountIds) {
+            this.approval = approval;
+            this.accountNumbers = accountNumbers;
+            this.accountIds = accountIds;
+        }
+    }
+
     /**
      * Internal deposit method without permission validation (for approved transactions)
      */
@@ -391,17 +721,47 @@ public class TransactionService {
                                                String description, Integer userId)
             throws SQLException, InvalidAccountException {
 
+        try {
+            Transaction transaction = postDeposit(accountNumber, amount, description, userId);
+
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.info(String.format("Approved deposit successful: $%.2f to account %s, ref: %s",
+                                        amount, accountNumber, transaction.getReferenceNumber()));
+            }
+            return transaction;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Approved deposit transaction failed", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Credits an account without taking its lock stripe. The balance moves with a compare-and-set
+     * add, and the ledger row records the before/after pair that add produced.
+     */
+    private Transaction postDeposit(String accountNumber, BigDecimal amount, String description, Integer userId)
+            throws SQLException, InvalidAccountException {
+
         AbstractAccount account = accountService.getAccountByNumber(accountNumber);
+        return postDeposit(account, amount, description, userId, transactionDAO.getTransactionTypeId("Deposit"));
+    }
+
+    private Transaction postDeposit(AbstractAccount account, BigDecimal amount, String description, Integer userId,
+                                    Integer transactionTypeId)
+            throws SQLException, InvalidAccountException {
 
+        String accountNumber = account.getAccountNumber();
         if (!"Active".equals(account.getStatus())) {
             throw new InvalidAccountException("Account is not active", accountNumber);
         }
 
-        BigDecimal balanceBefore = account.getBalance();
-        BigDecimal balanceAfter = balanceBefore.add(amount);
         String referenceNumber = EncryptionUtil.generateReferenceNumber();
 
-        Integer transactionTypeId = transactionDAO.getTransactionTypeId("Deposit");
+        BigDecimal balanceAfter = accountDAO.adjustBalance(account.getAccountId(), amount);
+        if (balanceAfter == null) {
+            throw new InvalidAccountException("Account not found", accountNumber);
+        }
+        BigDecimal balanceBefore = balanceAfter.subtract(amount);
 
         Transaction transaction = new Transaction(
             account.getAccountId(),
@@ -417,15 +777,208 @@ public class TransactionService {
         transaction.setTransactionTypeName("Deposit");
 
         try {
-            transaction = transactionDAO.save(transaction);
-            accountDAO.updateBalance(account.getAccountId(), balanceAfter);
+            return transactionDAO.save(transaction);
+        } catch (SQLException e) {
+            accountDAO.adjustBalance(account.getAccountId(), amount.negate());
+            throw e;
+        }
+    }
 
-            LOGGER.info(String.format("Approved deposit successful: $%.2f to account %s, ref: %s",
-                                    amount, accountNumber, referenceNumber));
-            return transaction;
+    /**
+     * Debits an account and records the withdrawal. The caller must hold the account's lock stripe.
+     */
+    private Transaction postWithdrawal(Integer accountId, String accountNumber, BigDecimal amount, String description,
+                                       Integer userId, Integer transactionTypeId)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+
+        String referenceNumber = EncryptionUtil.generateReferenceNumber();
+        BigDecimal[] balances = debitLocked(accountId, accountNumber, amount, "Insufficient funds for withdrawal");
+
+        Transaction transaction = new Transaction(
+            accountId,
+            transactionTypeId,
+            amount.negate(),
+            balances[0],
+            balances[1],
+            description != null ? description : "Withdrawal",
+            referenceNumber,
+            userId
+        );
+
+        transaction.setTransactionTypeName("Withdrawal");
+
+        try {
+            return transactionDAO.save(transaction);
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Approved deposit transaction failed", e);
+            accountDAO.adjustBalance(accountId, amount);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves money between two accounts and records both legs. The caller must hold both lock stripes.
+     */
+    private List<Transaction> postTransfer(Integer fromAccountId, String fromAccountNumber,
+                                           Integer toAccountId, String toAccountNumber, BigDecimal amount,
+                                           String description, Integer userId, Integer transferTypeId)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+
+        String referenceNumber = EncryptionUtil.generateReferenceNumber();
+        if (DatabaseUtil.isSQLiteBackend()) {
+            return transferBatched(fromAccountId, fromAccountNumber, toAccountId, toAccountNumber,
+                                   amount, description, referenceNumber, transferTypeId, userId);
+        }
+
+        AbstractAccount toAccount = lockedAccount(toAccountId, toAccountNumber);
+
+        if (!"Active".equals(toAccount.getStatus())) {
+            throw new InvalidAccountException("Destination account is not active", toAccountNumber);
+        }
+
+        BigDecimal[] fromBalances = debitLocked(fromAccountId, fromAccountNumber, amount, "Insufficient funds for transfer");
+
+        BigDecimal toBalanceAfter = accountDAO.adjustBalance(toAccountId, amount);
+        if (toBalanceAfter == null) {
+            accountDAO.adjustBalance(fromAccountId, amount);
+            throw new InvalidAccountException("Account not found", toAccountNumber);
+        }
+        BigDecimal toBalanceBefore = toBalanceAfter.subtract(amount);
+
+        Transaction debitTransaction = new Transaction(
+            fromAccountId,
+            transferTypeId,
+            amount.negate(),
+            fromBalances[0],
+            fromBalances[1],
+            description != null ? description : "Transfer to " + toAccountNumber,
+            referenceNumber,
+            userId
+        );
+        debitTransaction.setTransactionTypeName("Transfer");
+
+        Transaction creditTransaction = new Transaction(
+            toAccountId,
+            transferTypeId,
+            amount,
+            toBalanceBefore,
+            toBalanceAfter,
+            description != null ? description : "Transfer from " + fromAccountNumber,
+            referenceNumber,
+            userId
+        );
+        creditTransaction.setTransactionTypeName("Transfer");
+
+        try {
+            debitTransaction = transactionDAO.save(debitTransaction);
+            creditTransaction = transactionDAO.save(creditTransaction);
+        } catch (SQLException e) {
+            accountDAO.adjustBalance(fromAccountId, amount);
+            accountDAO.adjustBalance(toAccountId, amount.negate());
             throw e;
         }
+
+        return List.of(debitTransaction, creditTransaction);
+    }
+
+    /**
+     * Checks status, the daily limit and funds, then debits the account with compare-and-set.
+     * The caller must hold the account's lock stripe; the loop only retries when a lock-free
+     * deposit moved the balance between the read and the write. Returns {before, after}.
+     */
+    private BigDecimal[] debitLocked(Integer accountId, String accountNumber, BigDecimal amount, String insufficientMessage)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+
+        while (true) {
+            AbstractAccount account = lockedAccount(accountId, accountNumber);
+            checkDebit(account, accountNumber, amount, insufficientMessage);
+
+            BigDecimal balanceBefore = account.getBalance();
+            BigDecimal balanceAfter = balanceBefore.subtract(amount);
+            if (accountDAO.compareAndSetBalance(accountId, balanceBefore, balanceAfter)) {
+                return new BigDecimal[] { balanceBefore, balanceAfter };
+            }
+            CAS_RETRIES.increment();
+        }
+    }
+
+    private void checkDebit(AbstractAccount account, String accountNumber, BigDecimal amount, String insufficientMessage)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+
+        if (!"Active".equals(account.getStatus())) {
+            throw new InvalidAccountException("Account is not active", accountNumber);
+        }
+
+        BigDecimal dailyLimit = account.getDailyWithdrawalLimit();
+        BigDecimal dailyTotal = transactionDAO.getDailyWithdrawalTotal(account.getAccountId(), LocalDate.now());
+
+        if (dailyTotal.add(amount).compareTo(dailyLimit) > 0) {
+            throw new TransactionLimitExceededException(
+                "Daily withdrawal limit exceeded", amount, dailyLimit, dailyTotal);
+        }
+
+        if (!account.canWithdraw(amount)) {
+            throw new InsufficientFundsException(insufficientMessage, account.getBalance(), amount);
+        }
+    }
+
+    /**
+     * SQLite transfer: both balance updates and both ledger rows go out as two batches under one commit.
+     * The balance updates are compare-and-set, so a concurrent change rolls the unit back and it is retried.
+     */
+    private List<Transaction> transferBatched(Integer fromAccountId, String fromAccountNumber,
+                                              Integer toAccountId, String toAccountNumber, BigDecimal amount,
+                                              String description, String referenceNumber, Integer transferTypeId,
+                                              Integer userId)
+            throws SQLException, InvalidAccountException, InsufficientFundsException, TransactionLimitExceededException {
+
+        while (true) {
+            AbstractAccount toAccount = lockedAccount(toAccountId, toAccountNumber);
+            if (!"Active".equals(toAccount.getStatus())) {
+                throw new InvalidAccountException("Destination account is not active", toAccountNumber);
+            }
+
+            AbstractAccount fromAccount = lockedAccount(fromAccountId, fromAccountNumber);
+            checkDebit(fromAccount, fromAccountNumber, amount, "Insufficient funds for transfer");
+
+            BigDecimal fromBalanceBefore = fromAccount.getBalance();
+            BigDecimal fromBalanceAfter = fromBalanceBefore.subtract(amount);
+            BigDecimal toBalanceBefore = toAccount.getBalance();
+            BigDecimal toBalanceAfter = toBalanceBefore.add(amount);
+
+            Transaction debitTransaction = new Transaction(
+                fromAccountId,
+                transferTypeId,
+                amount.negate(),
+                fromBalanceBefore,
+                fromBalanceAfter,
+                description != null ? description : "Transfer to " + toAccountNumber,
+                referenceNumber,
+                userId
+            );
+            debitTransaction.setTransactionTypeName("Transfer");
+
+            Transaction creditTransaction = new Transaction(
+                toAccountId,
+                transferTypeId,
+                amount,
+                toBalanceBefore,
+                toBalanceAfter,
+                description != null ? description : "Transfer from " + fromAccountNumber,
+                referenceNumber,
+                userId
+            );
+            creditTransaction.setTransactionTypeName("Transfer");
+
+            UnitOfWork work = new UnitOfWork();
+            accountDAO.compareAndSetBalance(work, fromAccountId, fromBalanceBefore, fromBalanceAfter);
+            accountDAO.compareAndSetBalance(work, toAccountId, toBalanceBefore, toBalanceAfter);
+            transactionDAO.save(work, debitTransaction);
+            transactionDAO.save(work, creditTransaction);
+
+            if (work.commit()) {
+                return List.of(debitTransaction, creditTransaction);
+            }
+            CAS_RETRIES.increment();
+        }
     }
 }
@@ -12,6 +12,7 @@ import com.bankingsystem.models.TransferRequest;
 import com.bankingsystem.models.TransferResult;
 import com.bankingsystem.models.User;
 import com.bankingsystem.utils.EncryptionUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.ValidationUtil;
 import com.bankingsystem.config.AppConfig;
 import java.math.BigDecimal;
@@ -24,6 +25,13 @@ import java.util.logging.Level;
 
 public class TransferService {
     private static final Logger LOGGER = Logger.getLogger(TransferService.class.getName());
+
+    private static final MetricsRegistry.Timer PERFORM_TRANSFER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransferService.class, "performTransfer");
+    private static final MetricsRegistry.Timer GET_DAILY_TRANSFER_TOTAL_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransferService.class, "getDailyTransferTotal");
+    private static final MetricsRegistry.Timer CAN_PERFORM_TRANSFER_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, TransferService.class, "canPerformTransfer");
     
     private AccountService accountService;
     private TransactionService transactionService;
@@ -43,23 +51,30 @@ public class TransferService {
     
     public TransferResult performTransfer(TransferRequest request) throws SQLException, InvalidAccountException, 
             InsufficientFundsException, TransferLimitExceededException {
-        
-        validateTransferRequest(request);
-        
-        AbstractAccount fromAccount = accountService.getAccountByNumber(request.getFromAccountNumber());
-        AbstractAccount toAccount = accountService.getAccountByNumber(request.getToAccountNumber());
-        
-        validateTransferAccounts(fromAccount, toAccount, request);
-        validateTransferPermissions(request);
-        validateTransferLimits(fromAccount, request);
-        
-        String referenceNumber = EncryptionUtil.generateReferenceNumber();
-        
-        List<Transaction> transactions = executeTransfer(fromAccount, toAccount, request, referenceNumber);
-        
-        logTransferOperation(request, referenceNumber, transactions);
-        
-        return new TransferResult(true, "Transfer completed successfully", referenceNumber, transactions);
+        long started = System.nanoTime();
+        try {
+            validateTransferRequest(request);
+
+            AbstractAccount fromAccount = accountService.getAccountByNumber(request.getFromAccountNumber());
+            AbstractAccount toAccount = accountService.getAccountByNumber(request.getToAccountNumber());
+
+            validateTransferAccounts(fromAccount, toAccount, request);
+            validateTransferPermissions(request);
+            validateTransferLimits(fromAccount, request);
+
+            String referenceNumber = EncryptionUtil.generateReferenceNumber();
+
+            List<Transaction> transactions = executeTransfer(fromAccount, toAccount, request, referenceNumber);
+
+            logTransferOperation(request, referenceNumber, transactions);
+
+            return new TransferResult(true, "Transfer completed successfully", referenceNumber, transactions);
+        } catch (Exception e) {
+            PERFORM_TRANSFER_TIMER.recordException();
+            throw e;
+        } finally {
+            PERFORM_TRANSFER_TIMER.record(started);
+        }
     }
     
     private void validateTransferRequest(TransferRequest request) {
@@ -183,6 +198,10 @@ public class TransferService {
     }
     
     public BigDecimal getDailyTransferTotal(String accountNumber, LocalDate date) throws SQLException {
+        return GET_DAILY_TRANSFER_TOTAL_TIMER.time(this, accountNumber, date, TransferService::doGetDailyTransferTotal);
+    }
+
+    private BigDecimal doGetDailyTransferTotal(String accountNumber, LocalDate date) throws SQLException {
         try {
             AbstractAccount account = accountService.getAccountByNumber(accountNumber);
             return transactionDAO.getDailyWithdrawalTotal(account.getAccountId(), date);
@@ -193,18 +212,23 @@ public class TransferService {
     }
     
     public boolean canPerformTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount, Integer userId) {
+        return CAN_PERFORM_TRANSFER_TIMER.time(this, fromAccountNumber, toAccountNumber, amount, userId,
+                                               TransferService::doCanPerformTransfer);
+    }
+
+    private boolean doCanPerformTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount, Integer userId) {
         try {
             TransferRequest request = new TransferRequest(fromAccountNumber, toAccountNumber, amount, 
                                                         "Validation check", userId);
             validateTransferRequest(request);
-            
+
             AbstractAccount fromAccount = accountService.getAccountByNumber(fromAccountNumber);
             AbstractAccount toAccount = accountService.getAccountByNumber(toAccountNumber);
-            
+
             validateTransferAccounts(fromAccount, toAccount, request);
             validateTransferPermissions(request);
             validateTransferLimits(fromAccount, request);
-            
+
             return true;
         } catch (Exception e) {
             return false;
@@ -6,7 +6,9 @@ import com.bankingsystem.models.User;
 import com.bankingsystem.security.LoginAttemptTracker;
 import com.bankingsystem.security.PasswordValidator;
 import com.bankingsystem.security.PasswordValidationResult;
+import com.bankingsystem.utils.AuditTrail;
 import com.bankingsystem.utils.EncryptionUtil;
+import com.bankingsystem.utils.MetricsRegistry;
 import com.bankingsystem.utils.ValidationUtil;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -16,6 +18,9 @@ import java.util.logging.Level;
 
 public class UserService {
     private static final Logger LOGGER = Logger.getLogger(UserService.class.getName());
+
+    private static final MetricsRegistry.Timer AUTHENTICATE_TIMER =
+        MetricsRegistry.getInstance().timer(MetricsRegistry.SERVICE, UserService.class, "authenticate");
     private final UserDAO userDAO;
     private User currentUser;
     private LocalDateTime sessionStartTime;
@@ -25,6 +30,10 @@ public class UserService {
     }
 
     public User authenticate(String username, String password) throws SQLException {
+        return AUTHENTICATE_TIMER.time(this, username, password, UserService::doAuthenticate);
+    }
+
+    private User doAuthenticate(String username, String password) throws SQLException {
         if (username == null || password == null || username.trim().isEmpty() || password.trim().isEmpty()) {
             LOGGER.warning("Authentication failed: Empty username or password");
             return null;
@@ -71,6 +80,7 @@ public class UserService {
         userDAO.updateLastLogin(user.getUserId());
         this.currentUser = user;
         this.sessionStartTime = LocalDateTime.now();
+        AuditTrail.setSessionUser(user.getUserId());
 
         LOGGER.info("User authenticated successfully: " + trimmedUsername);
         return user;
@@ -81,6 +91,7 @@ public class UserService {
             LOGGER.info("User logged out: " + currentUser.getUsername());
             this.currentUser = null;
             this.sessionStartTime = null;
+            AuditTrail.setSessionUser(null);
         }
     }
 
@@ -0,0 +1,243 @@
+package com.bankingsystem.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Striped per-account locks guarding balance read-modify-write sequences.
+ * Account IDs hash onto a fixed set of ReentrantLocks; multi-account operations acquire
+ * their stripes in ascending stripe order so concurrent transfers cannot deadlock.
+ */
+public class AccountLockManager {
+    private static final Logger LOGGER = Logger.getLogger(AccountLockManager.class.getName());
+    private static final int DEFAULT_STRIPES = 64;
+
+    private static AccountLockManager instance;
+
+    private final ReentrantLock[] locks;
+    private final StripeStats[] stats;
+    private final int mask;
+
+    private AccountLockManager(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.stats = new StripeStats[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            stats[i] = new StripeStats();
+        }
+        LOGGER.info("Account lock manager initialized with " + size + " stripes");
+    }
+
+    public static synchronized AccountLockManager getInstance() {
+        if (instance == null) {
+            instance = new AccountLockManager(DEFAULT_STRIPES);
+        }
+        return instance;
+    }
+
+    /**
+     * Locks the stripes covering the given accounts, blocking until all are held.
+     * Release the lease with try-with-resources straight after taking it:
+     * <pre>
+     * AccountLockManager.Lease lease = lockManager.lock(fromAccountId, toAccountId);
+     * try (lease) {
+     *     ...
+     * }
+     * </pre>
+     */
+    public Lease lock(Integer... accountIds) {
+        int[] stripeIndexes = Arrays.stream(accountIds)
+            .mapToInt(this::stripeFor)
+            .distinct()
+            .sorted()
+            .toArray();
+
+        long[] acquiredAt = new long[stripeIndexes.length];
+        int held = 0;
+        try {
+            for (int i = 0; i < stripeIndexes.length; i++) {
+                int stripe = stripeIndexes[i];
+                ReentrantLock lock = locks[stripe];
+
+                long waitStart = System.nanoTime();
+                if (!lock.tryLock()) {
+                    stats[stripe].recordContention(lock.getQueueLength() + 1);
+                    lock.lock();
+                }
+                acquiredAt[i] = System.nanoTime();
+                held++;
+                stats[stripe].recordAcquire(acquiredAt[i] - waitStart);
+            }
+        } catch (RuntimeException | Error e) {
+            for (int i = held - 1; i >= 0; i--) {
+                locks[stripeIndexes[i]].unlock();
+            }
+            throw e;
+        }
+        return new Lease(stripeIndexes, acquiredAt);
+    }
+
+    public boolean isHeldByCurrentThread(Integer accountId) {
+        return locks[stripeFor(accountId)].isHeldByCurrentThread();
+    }
+
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Returns a point-in-time view of contention on one stripe.
+     */
+    public StripeMetrics getStripeMetrics(int stripe) {
+        StripeStats s = stats[stripe];
+        return new StripeMetrics(stripe, s.acquisitions.sum(), s.contended.sum(),
+                                 s.waitNanos.sum(), s.holdNanos.sum(), s.maxWaitNanos.get(),
+                                 locks[stripe].getQueueLength(), s.maxQueueLength.get());
+    }
+
+    /**
+     * Returns a point-in-time view of contention summed over all stripes.
+     */
+    public StripeMetrics getTotalMetrics() {
+        long acquisitions = 0, contended = 0, waitNanos = 0, holdNanos = 0, maxWait = 0;
+        int queueLength = 0, maxQueue = 0;
+        for (int i = 0; i < locks.length; i++) {
+            StripeStats s = stats[i];
+            acquisitions += s.acquisitions.sum();
+            contended += s.contended.sum();
+            waitNanos += s.waitNanos.sum();
+            holdNanos += s.holdNanos.sum();
+            maxWait = Math.max(maxWait, s.maxWaitNanos.get());
+            queueLength += locks[i].getQueueLength();
+            maxQueue = Math.max(maxQueue, s.maxQueueLength.get());
+        }
+        return new StripeMetrics(-1, acquisitions, contended, waitNanos, holdNanos, maxWait, queueLength, maxQueue);
+    }
+
+    public void resetMetrics() {
+        for (StripeStats s : stats) {
+            s.reset();
+        }
+    }
+
+    private int stripeFor(Integer accountId) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID is required for locking");
+        }
+        int h = accountId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Held set of stripes; closing releases them in reverse acquisition order.
+     */
+    public final class Lease implements AutoCloseable {
+        private final int[] stripeIndexes;
+        private final long[] acquiredAt;
+        private boolean released;
+
+        private Lease(int[] stripeIndexes, long[] acquiredAt) {
+            this.stripeIndexes = stripeIndexes;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            long now = System.nanoTime();
+            for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                int stripe = stripeIndexes[i];
+                stats[stripe].holdNanos.add(now - acquiredAt[i]);
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    private static final class StripeStats {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder holdNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicInteger maxQueueLength = new AtomicInteger();
+
+        private void recordAcquire(long waited) {
+            acquisitions.increment();
+            waitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+
+        private void recordContention(int queueLength) {
+            contended.increment();
+            maxQueueLength.accumulateAndGet(queueLength, Math::max);
+        }
+
+        private void reset() {
+            acquisitions.reset();
+            contended.reset();
+            waitNanos.reset();
+            holdNanos.reset();
+            maxWaitNanos.set(0);
+            maxQueueLength.set(0);
+        }
+    }
+
+    /**
+     * Immutable contention snapshot. A stripe of -1 denotes the total over all stripes.
+     */
+    public static class StripeMetrics {
+        private final int stripe;
+        private final long acquisitions;
+        private final long contendedAcquisitions;
+        private final long totalWaitNanos;
+        private final long totalHoldNanos;
+        private final long maxWaitNanos;
+        private final int queueLength;
+        private final int maxQueueLength;
+
+        StripeMetrics(int stripe, long acquisitions, long contendedAcquisitions, long totalWaitNanos,
+                      long totalHoldNanos, long maxWaitNanos, int queueLength, int maxQueueLength) {
+            this.stripe = stripe;
+            this.acquisitions = acquisitions;
+            this.contendedAcquisitions = contendedAcquisitions;
+            this.totalWaitNanos = totalWaitNanos;
+            this.totalHoldNanos = totalHoldNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.queueLength = queueLength;
+            this.maxQueueLength = maxQueueLength;
+        }
+
+        public int getStripe() { return stripe; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getContendedAcquisitions() { return contendedAcquisitions; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public long getTotalHoldNanos() { return totalHoldNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+        public int getQueueLength() { return queueLength; }
+        public int getMaxQueueLength() { return maxQueueLength; }
+
+        public double getAverageWaitMicros() {
+            return acquisitions == 0 ? 0 : totalWaitNanos / 1000.0 / acquisitions;
+        }
+
+        public double getAverageHoldMicros() {
+            return acquisitions == 0 ? 0 : totalHoldNanos / 1000.0 / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LockStripe{stripe=%d, acquisitions=%d, contended=%d, avgWait=%.1fus, avgHold=%.1fus, maxWait=%.1fus, queue=%d, maxQueue=%d}",
+                               stripe, acquisitions, contendedAcquisitions, getAverageWaitMicros(),
+                               getAverageHoldMicros(), maxWaitNanos / 1000.0, queueLength, maxQueueLength);
+        }
+    }
+}
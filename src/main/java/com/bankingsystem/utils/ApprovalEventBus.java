@@ -0,0 +1,160 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.TransactionApproval;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * In-process bus for approval lifecycle events. Listeners are called on the publishing thread, so they must be
+ * quick; windows should subscribe with {@link #subscribeOnEdt}, which batches events and hands them over on
+ * the event dispatch thread once publishing has paused for a short debounce interval.
+ */
+public final class ApprovalEventBus {
+    private static final Logger LOGGER = Logger.getLogger(ApprovalEventBus.class.getName());
+    private static final ApprovalEventBus INSTANCE = new ApprovalEventBus();
+    private static final int MAX_DELAY_INTERVALS = 4;
+
+    public enum Kind {
+        REQUESTED, ESCALATED, APPROVED, REJECTED, EXPIRED
+    }
+
+    /**
+     * An approval request that was created, escalated or decided.
+     */
+    public static final class Event {
+        private final Kind kind;
+        private final TransactionApproval approval;
+
+        private Event(Kind kind, TransactionApproval approval) {
+            this.kind = kind;
+            this.approval = approval;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public TransactionApproval getApproval() {
+            return approval;
+        }
+
+        public boolean isDecision() {
+            return kind != Kind.REQUESTED && kind != Kind.ESCALATED;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + approval.getApprovalId();
+        }
+    }
+
+    public interface Listener {
+        void onApprovalEvent(Event event);
+    }
+
+    /**
+     * Stops delivery to a listener; closing twice is harmless.
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final MetricsRegistry.Counter published =
+        MetricsRegistry.getInstance().counter("bms_approval_events_total", "Approval events published");
+
+    private ApprovalEventBus() {
+    }
+
+    public static ApprovalEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    public void publish(Kind kind, TransactionApproval approval) {
+        Event event = new Event(kind, approval);
+        published.increment();
+        for (Listener listener : listeners) {
+            try {
+                listener.onApprovalEvent(event);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Approval listener failed on " + event, e);
+            }
+        }
+    }
+
+    public Subscription subscribe(Listener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Delivers events on the event dispatch thread in batches, in publishing order, once no new event has
+     * arrived for {@code debounceMillis}. A steady stream of events is still flushed at least every few
+     * debounce intervals.
+     */
+    public Subscription subscribeOnEdt(int debounceMillis, Consumer<List<Event>> handler) {
+        EdtBatcher batcher = new EdtBatcher(debounceMillis, handler);
+        Subscription subscription = subscribe(batcher);
+        return () -> {
+            subscription.close();
+            SwingUtilities.invokeLater(batcher::stop);
+        };
+    }
+
+    private static final class EdtBatcher implements Listener {
+        private final Consumer<List<Event>> handler;
+        private final Timer timer;
+        private final long maxDelayNanos;
+        private List<Event> pending = new ArrayList<>();
+        private long firstPendingAt;
+        private boolean stopped;
+
+        private EdtBatcher(int debounceMillis, Consumer<List<Event>> handler) {
+            this.handler = handler;
+            this.timer = new Timer(Math.max(0, debounceMillis), e -> flush());
+            this.timer.setRepeats(false);
+            this.maxDelayNanos = MAX_DELAY_INTERVALS * Math.max(1, debounceMillis) * 1_000_000L;
+        }
+
+        @Override
+        public void onApprovalEvent(Event event) {
+            boolean postpone;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    firstPendingAt = System.nanoTime();
+                }
+                pending.add(event);
+                postpone = System.nanoTime() - firstPendingAt < maxDelayNanos;
+            }
+            // Swing timers may be started from any thread
+            if (postpone) {
+                timer.restart();
+            } else if (!timer.isRunning()) {
+                timer.start();
+            }
+        }
+
+        private void flush() {
+            List<Event> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            if (!stopped && !batch.isEmpty()) {
+                handler.accept(batch);
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            timer.stop();
+        }
+    }
+}
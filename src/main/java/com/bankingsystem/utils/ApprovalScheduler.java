@@ -0,0 +1,263 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.TransactionApproval;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enforces approval SLAs from a {@link DelayQueue} of deadlines counted from each request's filing time. A pending
+ * request escalates one role up the Teller, Manager, Admin ladder for every escalation interval it waits, which
+ * moves it to the front of that role's queue and out of the queues of the roles below, and expires once the
+ * expiry period has passed; a decided one is archived out of the live approval map after the
+ * archive period. Deadlines come from approval events and, on start, from the store. Each one checks the
+ * approval again when it fires, so a deadline that no longer applies is simply dropped.
+ *
+ * Time from filing to decision is recorded per outcome in the {@link MetricsRegistry#APPROVAL_AGE} family.
+ */
+public final class ApprovalScheduler {
+    private static final Logger LOGGER = Logger.getLogger(ApprovalScheduler.class.getName());
+    private static final ApprovalScheduler INSTANCE = new ApprovalScheduler();
+    private static final List<String> ESCALATION_LADDER = AppConfig.APPROVAL_ESCALATION_LADDER;
+
+    private enum Action {
+        ESCALATE, EXPIRE, ARCHIVE, STOP
+    }
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private final Duration escalationInterval = Duration.ofMinutes(AppConfig.APPROVAL_ESCALATION_MINUTES);
+    private final Duration expiryAge = Duration.ofHours(AppConfig.APPROVAL_EXPIRY_HOURS);
+    private final Duration archiveAge = Duration.ofHours(AppConfig.APPROVAL_ARCHIVE_HOURS);
+    private final Map<ApprovalEventBus.Kind, MetricsRegistry.Timer> ageTimers = new EnumMap<>(ApprovalEventBus.Kind.class);
+    private final MetricsRegistry.Counter escalated;
+    private final MetricsRegistry.Counter expired;
+    private final MetricsRegistry.Counter archived;
+    private Thread worker;
+    private ApprovalEventBus.Subscription subscription;
+
+    private ApprovalScheduler() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        ageTimers.put(ApprovalEventBus.Kind.APPROVED,
+                      metrics.timer(MetricsRegistry.APPROVAL_AGE, TransactionApproval.class, "approved"));
+        ageTimers.put(ApprovalEventBus.Kind.REJECTED,
+                      metrics.timer(MetricsRegistry.APPROVAL_AGE, TransactionApproval.class, "rejected"));
+        ageTimers.put(ApprovalEventBus.Kind.EXPIRED,
+                      metrics.timer(MetricsRegistry.APPROVAL_AGE, TransactionApproval.class, "expired"));
+        escalated = metrics.counter("bms_approvals_escalated_total", "Overdue approval requests escalated to the next role");
+        expired = metrics.counter("bms_approvals_expired_total", "Approval requests expired without a decision");
+        archived = metrics.counter("bms_approvals_archived_total", "Decided approval requests moved out of the live map");
+        metrics.gauge("bms_approvals_pending", "Approval requests waiting for a decision",
+                      MockDatabaseUtil::getPendingTransactionApprovalCount);
+        metrics.gauge("bms_approvals_archived", "Decided approval requests in the archive",
+                      MockDatabaseUtil::getArchivedTransactionApprovalCount);
+        metrics.gauge("bms_approval_deadlines_queued", "Approval SLA deadlines waiting to fire", deadlines::size);
+    }
+
+    public static ApprovalScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules deadlines for every approval in the live map and starts firing them. Deadlines already passed,
+     * for example while the application was down, fire straight away.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        subscription = ApprovalEventBus.getInstance().subscribe(this::onApprovalEvent);
+        for (TransactionApproval approval : MockDatabaseUtil.getLiveTransactionApprovals()) {
+            schedule(approval);
+        }
+        worker = new Thread(this::run, "bms-approval-sla");
+        worker.setDaemon(true);
+        worker.start();
+        LOGGER.info(String.format("Approval SLA scheduler started with %d deadlines", deadlines.size()));
+    }
+
+    /**
+     * Drops every deadline and stops the worker once it finishes the action in hand; the worker is not
+     * interrupted, since it may be writing the store journal.
+     */
+    public synchronized void stop() {
+        if (worker == null) {
+            return;
+        }
+        subscription.close();
+        deadlines.clear();
+        deadlines.add(new Deadline(null, Action.STOP, null, System.nanoTime()));
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    public int getQueuedDeadlines() {
+        return deadlines.size();
+    }
+
+    private void onApprovalEvent(ApprovalEventBus.Event event) {
+        TransactionApproval approval = event.getApproval();
+        MetricsRegistry.Timer ageTimer = ageTimers.get(event.getKind());
+        if (ageTimer != null && approval.getRequestedDate() != null && approval.getApprovedDate() != null) {
+            ageTimer.recordNanos(Math.max(0L, Duration.between(approval.getRequestedDate(), approval.getApprovedDate()).toNanos()));
+        }
+        if (event.getKind() != ApprovalEventBus.Kind.ESCALATED) {
+            schedule(approval);
+        }
+    }
+
+    private void schedule(TransactionApproval approval) {
+        if (approval.isPending()) {
+            scheduleEscalation(approval);
+            add(approval, Action.EXPIRE, null, filedAt(approval).plus(expiryAge));
+        } else {
+            LocalDateTime decided = approval.getApprovedDate() != null ? approval.getApprovedDate() : LocalDateTime.now();
+            add(approval, Action.ARCHIVE, null, decided.plus(archiveAge));
+        }
+    }
+
+    /**
+     * Schedules the next step up the ladder, one escalation interval after the previous step was due.
+     */
+    private void scheduleEscalation(TransactionApproval approval) {
+        int requested = ESCALATION_LADDER.indexOf(approval.getRequestedByUserRole());
+        int current = approval.getEscalatedToRole() != null
+            ? ESCALATION_LADDER.indexOf(approval.getEscalatedToRole()) : requested;
+        if (requested < 0 || current < requested || current + 1 >= ESCALATION_LADDER.size()) {
+            return;
+        }
+        int steps = current - requested + 1;
+        add(approval, Action.ESCALATE, ESCALATION_LADDER.get(current + 1),
+            filedAt(approval).plus(escalationInterval.multipliedBy(steps)));
+    }
+
+    private void add(TransactionApproval approval, Action action, String role, LocalDateTime due) {
+        long delayNanos = Duration.between(LocalDateTime.now(), due).toNanos();
+        deadlines.add(new Deadline(approval, action, role, System.nanoTime() + delayNanos));
+    }
+
+    private static LocalDateTime filedAt(TransactionApproval approval) {
+        return approval.getRequestedDate() != null ? approval.getRequestedDate() : LocalDateTime.now();
+    }
+
+    private void run() {
+        while (true) {
+            Deadline deadline;
+            try {
+                deadline = deadlines.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (deadline.action == Action.STOP) {
+                return;
+            }
+            try {
+                fire(deadline);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Approval SLA action failed: " + deadline, e);
+            }
+        }
+    }
+
+    private void fire(Deadline deadline) {
+        TransactionApproval approval = MockDatabaseUtil.findTransactionApprovalById(deadline.approval.getApprovalId());
+        if (approval == null) {
+            return;
+        }
+        if (approval != deadline.approval) {
+            // Replaced in the store, or the ID was reused after a reset; start over from the stored copy
+            schedule(approval);
+            return;
+        }
+        switch (deadline.action) {
+            case ESCALATE:
+                if (approval.isPending()) {
+                    escalate(approval, deadline.role);
+                }
+                break;
+            case EXPIRE:
+                if (approval.isPending()) {
+                    expire(approval);
+                }
+                break;
+            case ARCHIVE:
+                if (!approval.isPending() && MockDatabaseUtil.archiveTransactionApproval(approval.getApprovalId())) {
+                    archived.increment();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void escalate(TransactionApproval approval, String role) {
+        String current = approval.getEscalatedToRole() != null ? approval.getEscalatedToRole() : approval.getRequestedByUserRole();
+        if (ESCALATION_LADDER.indexOf(role) != ESCALATION_LADDER.indexOf(current) + 1) {
+            return;
+        }
+        if (!MockDatabaseUtil.escalateTransactionApproval(approval.getApprovalId(), role)) {
+            return;
+        }
+        escalated.increment();
+        LOGGER.warning(String.format("Approval request %d (%s $%.2f) pending since %s; escalated to %s",
+                                     approval.getApprovalId(), approval.getTransactionType(), approval.getAmount(),
+                                     approval.getRequestedDate(), role));
+        ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.ESCALATED, approval);
+        scheduleEscalation(approval);
+    }
+
+    /**
+     * Expires a request unless an approver decides it first; the status check and the change are one step in the store.
+     */
+    private void expire(TransactionApproval approval) {
+        String reason = String.format("Expired after %d hours without a decision", expiryAge.toHours());
+        if (!MockDatabaseUtil.transitionTransactionApproval(approval.getApprovalId(), TransactionApproval.STATUS_PENDING,
+                                                            pending -> pending.expire(reason))) {
+            return;
+        }
+        expired.increment();
+        LOGGER.warning(String.format("Approval request %d (%s $%.2f) expired", approval.getApprovalId(),
+                                     approval.getTransactionType(), approval.getAmount()));
+        ApprovalEventBus.getInstance().publish(ApprovalEventBus.Kind.EXPIRED, approval);
+    }
+
+    private static final class Deadline implements Delayed {
+        private final TransactionApproval approval;
+        private final Action action;
+        private final String role;
+        private final long dueNanos;
+
+        private Deadline(TransactionApproval approval, Action action, String role, long dueNanos) {
+            this.approval = approval;
+            this.action = action;
+            this.role = role;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Deadline) other).dueNanos);
+        }
+
+        @Override
+        public String toString() {
+            return action + (approval != null ? " " + approval.getApprovalId() : "") + (role != null ? " to " + role : "");
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.config.AppConfig;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only text log fed through a bounded lock-free ring buffer. Callers enqueue an entry and
+ * return immediately; a single writer thread timestamps the entries, writes them to a FileChannel in
+ * batches and forces the channel periodically. When the ring is full the entry is dropped and
+ * counted rather than stalling the caller. A batch whose write fails stays pending and is retried; after
+ * {@link AppConfig#LOG_WRITE_ATTEMPTS} failures in a row it is given up and counted as failed. Files rotate by
+ * size and at midnight, and every writer is drained and forced by a shutdown hook.
+ */
+public final class AsyncLogWriter implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(AsyncLogWriter.class.getName());
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT);
+    private static final DateTimeFormatter ROTATION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private static final Map<Path, AsyncLogWriter> WRITERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogWriter::closeAll, "bms-log-shutdown"));
+    }
+
+    private final Path file;
+    private final long rotateBytes;
+    private final long forceIntervalNanos;
+
+    // Ring buffer: slot i is free for position p when sequences[i] == p, and readable when it is p + 1
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] entries;
+    private final long[] timestamps;
+    private final AtomicLong tail = new AtomicLong();
+    // Ring position through which entries have been written or given up
+    private final AtomicLong settled = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private long head;
+
+    // Writer thread only: the batch taken from the ring, and how much of it is in the file
+    private final List<byte[]> pending = new ArrayList<>();
+    private int pendingWritten;
+    private int failedAttempts;
+
+    private final MetricsRegistry.Counter writtenCounter;
+    private final MetricsRegistry.Counter droppedCounter;
+    private final MetricsRegistry.Counter backpressureCounter;
+    private final MetricsRegistry.Counter failedCounter;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicInteger flushWaiters = new AtomicInteger();
+    private volatile long forcedThrough;
+    private volatile long failedThrough;
+
+    private final Thread writer;
+    private volatile boolean closing;
+    private FileChannel channel;
+    private long fileBytes;
+    private LocalDate fileDate;
+    private long lastForce;
+
+    private AsyncLogWriter(Path file, int capacity, long rotateBytes, long forceIntervalMillis) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.file = file;
+        this.rotateBytes = rotateBytes;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis);
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.entries = new String[size];
+        this.timestamps = new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        String metric = "bms_log_" + file.getFileName().toString().replaceAll("[^A-Za-z0-9]+", "_");
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.writtenCounter = metrics.counter(metric + "_entries_written_total", "Entries written to " + file);
+        this.droppedCounter = metrics.counter(metric + "_entries_dropped_total",
+                                              "Entries dropped because the " + file + " buffer was full");
+        this.backpressureCounter = metrics.counter(metric + "_backpressure_total",
+                                                   "Appends that found the " + file + " buffer over three quarters full");
+        this.failedCounter = metrics.counter(metric + "_entries_failed_total",
+                                             "Entries given up after repeated failures to write " + file);
+
+        openChannel();
+        this.writer = new Thread(this::runWriter, "bms-log-writer-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the shared writer for {@code file}, starting it on first use with the configured capacity,
+     * rotation size and force interval.
+     */
+    public static AsyncLogWriter forFile(Path file) {
+        return WRITERS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+            try {
+                return new AsyncLogWriter(path, AppConfig.LOG_BUFFER_CAPACITY, AppConfig.LOG_ROTATE_BYTES,
+                                          AppConfig.LOG_FORCE_INTERVAL_MILLIS);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open log file " + path, e);
+            }
+        });
+    }
+
+    /**
+     * Queues one entry without blocking. Returns false, counting the drop, if the buffer is full.
+     */
+    public boolean append(String entry) {
+        if (closing) {
+            return drop();
+        }
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return drop();
+            } else {
+                position = tail.get();
+            }
+        }
+        entries[slot] = entry;
+        timestamps[slot] = System.currentTimeMillis();
+        sequences.set(slot, position + 1);
+
+        // Past three quarters full, wake the writer now instead of at its next batch interval
+        if (position - settled.get() > (mask + 1) * 3L / 4) {
+            backpressureCounter.increment();
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    private boolean drop() {
+        dropped.incrementAndGet();
+        droppedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Blocks until every entry queued before this call is written and forced to disk, or the timeout passes.
+     * Returns false straight away if the writer gives up entries while this waits.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = tail.get();
+        long failedBefore = failedThrough;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        flushWaiters.incrementAndGet();
+        try {
+            while (forcedThrough < target) {
+                if (System.nanoTime() > deadline || !writer.isAlive() || failedThrough != failedBefore) {
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            return true;
+        } finally {
+            flushWaiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting entries, drains what is queued, forces and closes the file.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        WRITERS.remove(file, this);
+    }
+
+    public static void closeAll() {
+        WRITERS.values().forEach(AsyncLogWriter::close);
+    }
+
+    /**
+     * Flushes every open writer; returns false if any of them timed out.
+     */
+    public static boolean flushAll(long timeout, TimeUnit unit) {
+        boolean flushed = true;
+        for (AsyncLogWriter writer : WRITERS.values()) {
+            flushed &= writer.flush(timeout, unit);
+        }
+        return flushed;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getQueuedCount() {
+        return (int) Math.max(0, tail.get() - settled.get());
+    }
+
+    private void runWriter() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        StringBuilder line = new StringBuilder(256);
+        long batchNanos = TimeUnit.MILLISECONDS.toNanos(AppConfig.LOG_BATCH_INTERVAL_MILLIS);
+        while (true) {
+            boolean stopping = closing;
+            try {
+                int drained = drain(buffer, line);
+                failedAttempts = 0;
+                long now = System.nanoTime();
+                long through = settled.get();
+                if (through > forcedThrough
+                        && (now - lastForce >= forceIntervalNanos || flushWaiters.get() > 0 || stopping)) {
+                    // Still closed if reopening it failed, in which case the entries since were given up
+                    if (channel.isOpen()) {
+                        channel.force(false);
+                    }
+                    lastForce = now;
+                    forcedThrough = through;
+                }
+                if (stopping && drained == 0) {
+                    break;
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(this, batchNanos);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to write log file " + file, e);
+                buffer.clear();
+                if (++failedAttempts >= AppConfig.LOG_WRITE_ATTEMPTS) {
+                    giveUpPending();
+                    if (stopping) {
+                        take(line);
+                        giveUpPending();
+                        break;
+                    }
+                }
+                if (!stopping) {
+                    LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+                }
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close log file " + file, e);
+        }
+    }
+
+    /**
+     * Writes the pending batch to the file, first taking every readable entry from the ring if nothing is
+     * pending. Returns how many entries this call wrote. If a write fails, the entries not yet written stay
+     * pending for the next call.
+     */
+    private int drain(ByteBuffer buffer, StringBuilder line) throws IOException {
+        if (pending.isEmpty()) {
+            take(line);
+            if (pending.isEmpty()) {
+                return 0;
+            }
+        }
+        if (!channel.isOpen()) {
+            openChannel();
+        }
+        int from = pendingWritten;
+        for (int i = pendingWritten; i < pending.size(); i++) {
+            byte[] bytes = pending.get(i);
+            if (buffer.remaining() < bytes.length + LINE_SEPARATOR.length) {
+                flushBuffer(buffer);
+                advance(i);
+            }
+            if (buffer.remaining() < bytes.length + LINE_SEPARATOR.length) {
+                writeFully(ByteBuffer.wrap(bytes));
+                writeFully(ByteBuffer.wrap(LINE_SEPARATOR));
+                advance(i + 1);
+            } else {
+                buffer.put(bytes).put(LINE_SEPARATOR);
+            }
+        }
+        flushBuffer(buffer);
+        advance(pending.size());
+        int count = pending.size() - from;
+        pending.clear();
+        pendingWritten = 0;
+        return count;
+    }
+
+    /**
+     * Moves every readable entry out of the ring into the pending batch, timestamped and encoded.
+     */
+    private void take(StringBuilder line) {
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            String entry = entries[slot];
+            long timestamp = timestamps[slot];
+            entries[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+
+            line.setLength(0);
+            line.append('[');
+            TIMESTAMP.formatTo(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()), line);
+            line.append("] ").append(entry);
+            pending.add(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Marks the pending entries before {@code index} as written.
+     */
+    private void advance(int index) {
+        int count = index - pendingWritten;
+        if (count > 0) {
+            pendingWritten = index;
+            written.addAndGet(count);
+            writtenCounter.add(count);
+            settled.addAndGet(count);
+        }
+    }
+
+    private void giveUpPending() {
+        int count = pending.size() - pendingWritten;
+        pending.clear();
+        pendingWritten = 0;
+        failedAttempts = 0;
+        if (count > 0) {
+            failed.addAndGet(count);
+            failedCounter.add(count);
+            failedThrough = settled.addAndGet(count);
+            LOGGER.severe("Gave up " + count + " entries for " + file + " after repeated write failures");
+        }
+    }
+
+    private void flushBuffer(ByteBuffer buffer) throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        if (fileBytes > 0 && (!LocalDate.now().equals(fileDate)
+                              || (rotateBytes > 0 && fileBytes + buffer.remaining() > rotateBytes))) {
+            rotate();
+        }
+        while (buffer.hasRemaining()) {
+            fileBytes += channel.write(buffer);
+        }
+    }
+
+    private void openChannel() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        fileDate = fileBytes > 0
+            ? LocalDate.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault())
+            : LocalDate.now();
+        lastForce = System.nanoTime();
+    }
+
+    /**
+     * Renames the current file with a timestamp suffix and starts a new one.
+     */
+    private void rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+        String suffix = LocalDateTime.now().format(ROTATION_SUFFIX);
+        Path target = file.resolveSibling(file.getFileName() + "." + suffix);
+        for (int i = 1; Files.exists(target); i++) {
+            target = file.resolveSibling(file.getFileName() + "." + suffix + "-" + i);
+        }
+        Files.move(file, target);
+        LOGGER.info("Rotated " + file + " to " + target.getFileName());
+        openChannel();
+    }
+}
@@ -0,0 +1,889 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.AuditRecord;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary audit trail of DAO mutations, one {@link AuditRecord} per change.
+ *
+ * Records have a fixed 34-byte header (length, log id, timestamp, user, operation, table, record id and
+ * the lengths of the old and new values), the UTF-8 values, and a CRC. They are appended to numbered
+ * segment files; when a segment is sealed an index file is written next to it, holding every record
+ * sorted by (table, record id, time) plus a sparse time index, so "changes to account X between T1 and T2"
+ * is a binary search per overlapping segment instead of a scan. The open segment is indexed in memory, with
+ * each record's changes chained newest first.
+ */
+public final class AuditTrail implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(AuditTrail.class.getName());
+
+    private static final int SEGMENT_MAGIC = 0x424D5341; // "BMSA"
+    private static final int INDEX_MAGIC = 0x424D5349; // "BMSI"
+    private static final short FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 4 + 2 + 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 8 + 8 + 4 + 1 + 1 + 4 + 2 + 2;
+    private static final int RECORD_OVERHEAD_BYTES = RECORD_HEADER_BYTES + 4;
+    private static final int MAX_VALUE_BYTES = Short.MAX_VALUE;
+    private static final int INDEX_HEADER_BYTES = 4 + 2 + 8 + 8 + 8 + 8 + 8 + 4 + 4;
+    private static final int KEY_ENTRY_BYTES = 8 + 8 + 4;
+    private static final int TIME_ENTRY_BYTES = 8 + 4;
+    private static final int TIME_INDEX_STRIDE = 64;
+    private static final int NO_USER = -1;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{12})\\.seg");
+
+    private static final String[] TABLES = {
+        AuditRecord.USERS, AuditRecord.CUSTOMERS, AuditRecord.ACCOUNTS, AuditRecord.TRANSACTIONS,
+        AuditRecord.TRANSACTION_APPROVALS
+    };
+    private static final AuditRecord.Operation[] OPERATIONS = AuditRecord.Operation.values();
+
+    private static final MetricsRegistry.Counter RECORDS_APPENDED = MetricsRegistry.getInstance().counter(
+        "bms_audit_records_total", "Records appended to the binary audit trail");
+
+    private static volatile AuditTrail active;
+    private static volatile Integer sessionUserId;
+
+    private final Path directory;
+    private final long segmentLimitBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<SealedSegment> sealed = new CopyOnWriteArrayList<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    private ScheduledExecutorService flusher;
+
+    private long segment;
+    private FileChannel channel;
+    private long segmentBytes;
+    private boolean dirty;
+    private boolean closed;
+    private long nextLogId = 1;
+    private long lastTimestamp;
+    private final SegmentEntries activeEntries = new SegmentEntries();
+
+    private AuditTrail(Path directory, long segmentLimitBytes) {
+        this.directory = directory;
+        this.segmentLimitBytes = segmentLimitBytes;
+    }
+
+    /**
+     * Opens (recovering if necessary) the audit trail in {@code directory} and starts recording DAO mutations into it.
+     */
+    public static synchronized AuditTrail open(Path directory) throws IOException {
+        if (active != null) {
+            throw new IllegalStateException("Audit trail is already open in " + active.directory);
+        }
+        AuditTrail trail = new AuditTrail(directory, AppConfig.AUDIT_SEGMENT_BYTES);
+        trail.recover();
+        trail.startFlusher(AppConfig.AUDIT_FLUSH_INTERVAL_MILLIS);
+        active = trail;
+        return trail;
+    }
+
+    /**
+     * The open trail, or null when auditing is off.
+     */
+    public static AuditTrail getActive() {
+        return active;
+    }
+
+    public static boolean isEnabled() {
+        return active != null;
+    }
+
+    public static synchronized void closeActive() {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+    }
+
+    /**
+     * Sets the user recorded against changes whose DAO call does not carry one, normally the logged-in user.
+     */
+    public static void setSessionUser(Integer userId) {
+        sessionUserId = userId;
+    }
+
+    /**
+     * Records one mutation if the trail is open. A failure to audit is logged; the change itself has already happened.
+     */
+    public static void record(AuditRecord.Operation operation, String tableName, Integer recordId, Integer userId,
+                              String oldValues, String newValues) {
+        AuditTrail trail = active;
+        if (trail == null) {
+            return;
+        }
+        try {
+            trail.append(operation, tableName, recordId, userId != null ? userId : sessionUserId, oldValues, newValues);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Failed to append audit record for " + tableName + " " + recordId, e);
+        }
+    }
+
+    void append(AuditRecord.Operation operation, String tableName, Integer recordId, Integer userId,
+                String oldValues, String newValues) throws IOException {
+        int table = tableCode(tableName);
+        byte[] oldBytes = encode(oldValues);
+        byte[] newBytes = encode(newValues);
+        int length = RECORD_OVERHEAD_BYTES + oldBytes.length + newBytes.length;
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Audit trail is closed");
+            }
+            if (segmentBytes + length > segmentLimitBytes && activeEntries.count > 0) {
+                seal();
+                openSegment(segment + 1);
+            }
+            if (writeBuffer.remaining() < length) {
+                flushBuffer();
+            }
+            ByteBuffer target = length <= writeBuffer.capacity() ? writeBuffer : ByteBuffer.allocate(length);
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            long logId = nextLogId;
+            int start = target.position();
+
+            target.putInt(length)
+                  .putLong(logId)
+                  .putLong(timestamp)
+                  .putInt(userId != null ? userId : NO_USER)
+                  .put((byte) operation.ordinal())
+                  .put((byte) table)
+                  .putInt(recordId != null ? recordId : 0)
+                  .putShort((short) oldBytes.length)
+                  .putShort((short) newBytes.length)
+                  .put(oldBytes)
+                  .put(newBytes);
+            crc.reset();
+            crc.update(target.array(), target.arrayOffset() + start + 4, length - 8);
+            target.putInt((int) crc.getValue());
+            if (target != writeBuffer) {
+                target.flip();
+                writeFully(target);
+            }
+
+            activeEntries.add(key(table, recordId != null ? recordId : 0), timestamp, (int) segmentBytes, logId);
+            segmentBytes += length;
+            nextLogId++;
+            lastTimestamp = timestamp;
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+        RECORDS_APPENDED.increment();
+    }
+
+    /**
+     * Every change to one record of one table between the two times, inclusive, oldest first.
+     */
+    public List<AuditRecord> findChanges(String tableName, int recordId, LocalDateTime from, LocalDateTime to)
+            throws IOException {
+        long key = key(tableCode(tableName), recordId);
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        List<AuditRecord> records = new ArrayList<>();
+
+        for (SealedSegment sealedSegment : sealed) {
+            if (sealedSegment.overlaps(fromMillis, toMillis)) {
+                sealedSegment.findByKey(key, fromMillis, toMillis, records);
+            }
+        }
+
+        lock.lock();
+        try {
+            if (channel != null && activeEntries.count > 0) {
+                flushBuffer();
+                // Walk the key's chain newest first, then put the matches back in time order
+                SegmentEntries entries = activeEntries;
+                int first = records.size();
+                for (int i = entries.latest(key); i >= 0 && entries.times[i] >= fromMillis; i = entries.previous[i]) {
+                    if (entries.times[i] <= toMillis) {
+                        records.add(readRecord(channel, entries.offsets[i]));
+                    }
+                }
+                Collections.reverse(records.subList(first, records.size()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return records;
+    }
+
+    /**
+     * The values of the fields named in {@code currentValues} as last recorded for one record, rebuilt from its
+     * newest changes back; null if the trail holds none of them or auditing is off. A failure to read is logged.
+     */
+    public static String previousValues(String tableName, Integer recordId, String currentValues) {
+        AuditTrail trail = active;
+        if (trail == null || recordId == null) {
+            return null;
+        }
+        try {
+            return trail.findPreviousValues(tableName, recordId, currentValues);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to read audit history for " + tableName + " " + recordId, e);
+            return null;
+        }
+    }
+
+    String findPreviousValues(String tableName, int recordId, String currentValues) throws IOException {
+        long key = key(tableCode(tableName), recordId);
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String field : currentValues.split(";")) {
+            int separator = field.indexOf('=');
+            fields.put(separator < 0 ? field : field.substring(0, separator), null);
+        }
+        int missing = fields.size();
+
+        lock.lock();
+        try {
+            if (channel != null && activeEntries.count > 0) {
+                flushBuffer();
+                for (int i = activeEntries.latest(key); i >= 0 && missing > 0; i = activeEntries.previous[i]) {
+                    missing = merge(readRecord(channel, activeEntries.offsets[i]), fields, missing);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (int s = sealed.size() - 1; s >= 0 && missing > 0; s--) {
+            List<AuditRecord> changes = new ArrayList<>();
+            sealed.get(s).findByKey(key, Long.MIN_VALUE, Long.MAX_VALUE, changes);
+            for (int i = changes.size() - 1; i >= 0 && missing > 0; i--) {
+                missing = merge(changes.get(i), fields, missing);
+            }
+        }
+        if (missing == fields.size()) {
+            return null;
+        }
+        StringBuilder values = new StringBuilder();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getValue() != null) {
+                if (values.length() > 0) {
+                    values.append(';');
+                }
+                values.append(field.getKey()).append('=').append(field.getValue());
+            }
+        }
+        return values.toString();
+    }
+
+    /**
+     * Fills the fields still unknown from one record's new values and returns how many remain unknown.
+     */
+    private static int merge(AuditRecord record, Map<String, String> fields, int missing) {
+        if (record.getNewValues() == null) {
+            return missing;
+        }
+        for (String field : record.getNewValues().split(";")) {
+            int separator = field.indexOf('=');
+            if (separator > 0) {
+                String name = field.substring(0, separator);
+                if (fields.containsKey(name) && fields.get(name) == null) {
+                    fields.put(name, field.substring(separator + 1));
+                    missing--;
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Every change to any record between the two times, inclusive, oldest first.
+     */
+    public List<AuditRecord> findChanges(LocalDateTime from, LocalDateTime to) throws IOException {
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        List<AuditRecord> records = new ArrayList<>();
+
+        for (SealedSegment sealedSegment : sealed) {
+            if (sealedSegment.overlaps(fromMillis, toMillis)) {
+                sealedSegment.findByTime(fromMillis, toMillis, records);
+            }
+        }
+
+        lock.lock();
+        try {
+            if (channel != null && activeEntries.count > 0) {
+                flushBuffer();
+                SegmentEntries entries = activeEntries;
+                int first = lowerBound(entries.times, entries.count, fromMillis);
+                for (int i = first; i < entries.count && entries.times[i] <= toMillis; i++) {
+                    records.add(readRecord(channel, entries.offsets[i]));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return records;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes buffered records to the segment and forces them to disk.
+     */
+    public void sync() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null && dirty) {
+                flushBuffer();
+                channel.force(false);
+                dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seals the open segment so its index is on disk, and stops accepting records.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            // Let a flush in progress finish; interrupting it would close the channel under us
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            seal();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to seal audit segment " + segment, e);
+        } finally {
+            lock.unlock();
+        }
+        sealed.clear();
+    }
+
+    private void startFlusher(long intervalMillis) {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bms-audit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Background audit flush failed", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the index of every segment, rebuilding any that is missing or damaged (which also trims a torn
+     * tail left by a crash), then starts a fresh segment.
+     */
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        long lastSegment = 0;
+        for (long number : listSegments()) {
+            lastSegment = Math.max(lastSegment, number);
+            SealedSegment loaded = SealedSegment.load(segmentPath(number), indexPath(number));
+            if (loaded == null) {
+                SegmentEntries entries = scanSegment(segmentPath(number));
+                if (entries.count == 0) {
+                    Files.deleteIfExists(segmentPath(number));
+                    Files.deleteIfExists(indexPath(number));
+                    continue;
+                }
+                writeIndex(number, entries);
+                loaded = SealedSegment.load(segmentPath(number), indexPath(number));
+                if (loaded == null) {
+                    throw new IOException("Cannot rebuild audit index for segment " + number);
+                }
+                LOGGER.warning("Rebuilt audit index for segment " + number + " (" + entries.count + " records)");
+            }
+            sealed.add(loaded);
+            nextLogId = Math.max(nextLogId, loaded.lastLogId + 1);
+            lastTimestamp = Math.max(lastTimestamp, loaded.lastTimestamp);
+        }
+        openSegment(lastSegment + 1);
+        LOGGER.info(String.format("Audit trail opened in %s: %d sealed segments, next log id %d",
+                                directory, sealed.size(), nextLogId));
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                                   StandardOpenOption.READ);
+        writeBuffer.clear();
+        writeBuffer.putInt(SEGMENT_MAGIC).putShort(FORMAT_VERSION).putLong(number);
+        segmentBytes = SEGMENT_HEADER_BYTES;
+        activeEntries.clear();
+        dirty = true;
+    }
+
+    /**
+     * Flushes and closes the open segment and writes its index; an empty segment is removed instead.
+     */
+    private void seal() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        flushBuffer();
+        channel.force(false);
+        channel.close();
+        channel = null;
+        if (activeEntries.count == 0) {
+            Files.deleteIfExists(segmentPath(segment));
+            return;
+        }
+        writeIndex(segment, activeEntries);
+        SealedSegment loaded = SealedSegment.load(segmentPath(segment), indexPath(segment));
+        if (loaded == null) {
+            throw new IOException("Audit index for segment " + segment + " failed verification");
+        }
+        sealed.add(loaded);
+        activeEntries.clear();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, channel.size());
+        }
+    }
+
+    /**
+     * Writes the key index (entries sorted by key, then time) and the sparse time index for one segment.
+     * The file is written beside the segment and renamed into place, so a crash leaves no half index.
+     */
+    private void writeIndex(long number, SegmentEntries entries) throws IOException {
+        int count = entries.count;
+        if (count >= 1 << 24) {
+            throw new IOException("Audit segment " + number + " has too many records to index");
+        }
+        // Entries are in time order, so a stable sort by key leaves each key's entries in time order
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (entries.keys[i] << 24) | i;
+        }
+        Arrays.sort(order);
+
+        int timeCount = (count + TIME_INDEX_STRIDE - 1) / TIME_INDEX_STRIDE;
+        ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER_BYTES + count * KEY_ENTRY_BYTES + timeCount * TIME_ENTRY_BYTES + 4);
+        index.putInt(INDEX_MAGIC).putShort(FORMAT_VERSION).putLong(number)
+             .putLong(entries.times[0]).putLong(entries.times[count - 1])
+             .putLong(entries.logIds[0]).putLong(entries.logIds[count - 1])
+             .putInt(count).putInt(timeCount);
+        for (long packed : order) {
+            int i = (int) (packed & 0xFFFFFF);
+            index.putLong(entries.keys[i]).putLong(entries.times[i]).putInt(entries.offsets[i]);
+        }
+        for (int i = 0; i < count; i += TIME_INDEX_STRIDE) {
+            index.putLong(entries.times[i]).putInt(entries.offsets[i]);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(index.array(), 0, index.position());
+        index.putInt((int) checksum.getValue());
+        index.flip();
+
+        Path target = indexPath(number);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) {
+                out.write(index);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a segment front to back, collecting its index entries. A record with a bad length or CRC marks
+     * the end of the valid data and the file is truncated there.
+     */
+    private static SegmentEntries scanSegment(Path path) throws IOException {
+        SegmentEntries entries = new SegmentEntries();
+        long validBytes = SEGMENT_HEADER_BYTES;
+        long fileSize = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (fileSize < SEGMENT_HEADER_BYTES || in.readInt() != SEGMENT_MAGIC || in.readShort() != FORMAT_VERSION) {
+                LOGGER.warning("Ignoring audit segment with an invalid header: " + path);
+                return entries;
+            }
+            in.readLong();
+            CRC32 checksum = new CRC32();
+            while (validBytes + RECORD_OVERHEAD_BYTES <= fileSize) {
+                int length = in.readInt();
+                if (length < RECORD_OVERHEAD_BYTES || validBytes + length > fileSize) {
+                    break;
+                }
+                byte[] body = new byte[length - 4];
+                in.readFully(body);
+                checksum.reset();
+                checksum.update(body, 0, body.length - 4);
+                ByteBuffer record = ByteBuffer.wrap(body);
+                if (record.getInt(body.length - 4) != (int) checksum.getValue()) {
+                    break;
+                }
+                long logId = record.getLong(0);
+                long timestamp = record.getLong(8);
+                int table = record.get(21);
+                int recordId = record.getInt(22);
+                entries.add(key(table, recordId), timestamp, (int) validBytes, logId);
+                validBytes += length;
+            }
+        } catch (EOFException e) {
+            // Torn final record; everything before validBytes is intact
+        }
+        if (validBytes < fileSize) {
+            try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncate.truncate(validBytes);
+            }
+            LOGGER.warning(String.format("Truncated audit segment %s from %d to %d bytes", path, fileSize, validBytes));
+        }
+        return entries;
+    }
+
+    private static AuditRecord readRecord(FileChannel source, long offset) throws IOException {
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(source, lengthBuffer, offset);
+        int length = lengthBuffer.getInt(0);
+        if (length < RECORD_OVERHEAD_BYTES) {
+            throw new IOException("Corrupt audit record at offset " + offset);
+        }
+        ByteBuffer body = ByteBuffer.allocate(length - 4);
+        readFully(source, body, offset + 4);
+        return decode(body.array());
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Audit record truncated at offset " + offset);
+            }
+        }
+    }
+
+    /**
+     * Decodes a record body: everything after the length prefix, including the trailing CRC.
+     */
+    private static AuditRecord decode(byte[] body) {
+        ByteBuffer record = ByteBuffer.wrap(body);
+        long logId = record.getLong();
+        long timestamp = record.getLong();
+        int userId = record.getInt();
+        AuditRecord.Operation operation = OPERATIONS[record.get()];
+        String tableName = TABLES[record.get()];
+        int recordId = record.getInt();
+        int oldLength = record.getShort();
+        int newLength = record.getShort();
+        int position = record.position();
+        String oldValues = oldLength == 0 ? null : new String(body, position, oldLength, StandardCharsets.UTF_8);
+        String newValues = newLength == 0 ? null : new String(body, position + oldLength, newLength, StandardCharsets.UTF_8);
+        return new AuditRecord(logId, userId == NO_USER ? null : userId, operation, tableName, recordId,
+                               oldValues, newValues,
+                               LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+    }
+
+    private static byte[] encode(String values) {
+        if (values == null || values.isEmpty()) {
+            return new byte[0];
+        }
+        byte[] bytes = values.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_VALUE_BYTES ? bytes : Arrays.copyOf(bytes, MAX_VALUE_BYTES);
+    }
+
+    private static int tableCode(String tableName) {
+        for (int i = 0; i < TABLES.length; i++) {
+            if (TABLES[i].equals(tableName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Table is not audited: " + tableName);
+    }
+
+    private static long key(int table, int recordId) {
+        return ((long) table << 32) | (recordId & 0xFFFFFFFFL);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * First index in the sorted prefix of {@code values} whose value is at least {@code target}.
+     */
+    private static int lowerBound(long[] values, int count, long target) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(Comparator.naturalOrder());
+        return numbers;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("audit-%012d.seg", number));
+    }
+
+    private Path indexPath(long number) {
+        return directory.resolve(String.format("audit-%012d.idx", number));
+    }
+
+    /**
+     * Index entries of one segment in append (and therefore time) order. Each entry also links to the previous
+     * entry for the same key, so one record's changes are found without scanning the segment.
+     */
+    private static final class SegmentEntries {
+        long[] keys = new long[1024];
+        long[] times = new long[1024];
+        long[] logIds = new long[1024];
+        int[] offsets = new int[1024];
+        int[] previous = new int[1024];
+        final Map<Long, Integer> latestByKey = new HashMap<>();
+        int count;
+
+        void add(long key, long time, int offset, long logId) {
+            if (count == keys.length) {
+                int capacity = count * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                times = Arrays.copyOf(times, capacity);
+                logIds = Arrays.copyOf(logIds, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                previous = Arrays.copyOf(previous, capacity);
+            }
+            keys[count] = key;
+            times[count] = time;
+            logIds[count] = logId;
+            offsets[count] = offset;
+            Integer last = latestByKey.put(key, count);
+            previous[count] = last != null ? last : -1;
+            count++;
+        }
+
+        /**
+         * The newest entry for {@code key}, or -1.
+         */
+        int latest(long key) {
+            Integer last = latestByKey.get(key);
+            return last != null ? last : -1;
+        }
+
+        void clear() {
+            count = 0;
+            latestByKey.clear();
+        }
+    }
+
+    /**
+     * A sealed segment and its memory-mapped index.
+     */
+    private static final class SealedSegment {
+        private final Path segmentPath;
+        private final MappedByteBuffer index;
+        private final long firstTimestamp;
+        private final long lastTimestamp;
+        private final long lastLogId;
+        private final int count;
+        private final int timeCount;
+
+        private SealedSegment(Path segmentPath, MappedByteBuffer index) {
+            this.segmentPath = segmentPath;
+            this.index = index;
+            this.firstTimestamp = index.getLong(14);
+            this.lastTimestamp = index.getLong(22);
+            this.lastLogId = index.getLong(38);
+            this.count = index.getInt(46);
+            this.timeCount = index.getInt(50);
+        }
+
+        /**
+         * Maps and verifies an index; returns null if it is missing, stale or corrupt so it can be rebuilt.
+         */
+        static SealedSegment load(Path segmentPath, Path indexPath) throws IOException {
+            if (!Files.exists(indexPath) || !Files.exists(segmentPath)) {
+                return null;
+            }
+            MappedByteBuffer index;
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                if (channel.size() < INDEX_HEADER_BYTES + 4) {
+                    return null;
+                }
+                index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            int size = index.capacity();
+            if (index.getInt(0) != INDEX_MAGIC || index.getShort(4) != FORMAT_VERSION) {
+                return null;
+            }
+            long entryBytes = (long) index.getInt(46) * KEY_ENTRY_BYTES + (long) index.getInt(50) * TIME_ENTRY_BYTES;
+            if (INDEX_HEADER_BYTES + entryBytes + 4 != size) {
+                return null;
+            }
+            CRC32 checksum = new CRC32();
+            ByteBuffer content = index.duplicate();
+            content.limit(size - 4);
+            checksum.update(content);
+            if (index.getInt(size - 4) != (int) checksum.getValue()) {
+                return null;
+            }
+            return new SealedSegment(segmentPath, index);
+        }
+
+        boolean overlaps(long fromMillis, long toMillis) {
+            return lastTimestamp >= fromMillis && firstTimestamp <= toMillis;
+        }
+
+        void findByKey(long key, long fromMillis, long toMillis, List<AuditRecord> records) throws IOException {
+            // Lower bound on (key, time) over the sorted key entries
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                long entryKey = keyAt(mid);
+                if (entryKey < key || (entryKey == key && timeAt(mid) < fromMillis)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == count || keyAt(low) != key || timeAt(low) > toMillis) {
+                return;
+            }
+            try (FileChannel segment = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+                for (int i = low; i < count && keyAt(i) == key && timeAt(i) <= toMillis; i++) {
+                    records.add(readRecord(segment, offsetAt(i)));
+                }
+            }
+        }
+
+        void findByTime(long fromMillis, long toMillis, List<AuditRecord> records) throws IOException {
+            // Start at the last sampled record before the range, then read forward
+            int low = 0;
+            int high = timeCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sampleTimeAt(mid) < fromMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            long start = low == 0 ? SEGMENT_HEADER_BYTES : sampleOffsetAt(low - 1);
+            try (FileChannel segment = FileChannel.open(segmentPath, StandardOpenOption.READ);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(
+                     Channels.newInputStream(segment.position(start)), 64 * 1024))) {
+                long position = start;
+                long size = segment.size();
+                while (position < size) {
+                    int length = in.readInt();
+                    byte[] body = new byte[length - 4];
+                    in.readFully(body);
+                    position += length;
+                    long timestamp = ByteBuffer.wrap(body).getLong(8);
+                    if (timestamp > toMillis) {
+                        break;
+                    }
+                    if (timestamp >= fromMillis) {
+                        records.add(decode(body));
+                    }
+                }
+            }
+        }
+
+        private int keyEntry(int i) {
+            return INDEX_HEADER_BYTES + i * KEY_ENTRY_BYTES;
+        }
+
+        private long keyAt(int i) {
+            return index.getLong(keyEntry(i));
+        }
+
+        private long timeAt(int i) {
+            return index.getLong(keyEntry(i) + 8);
+        }
+
+        private int offsetAt(int i) {
+            return index.getInt(keyEntry(i) + 16);
+        }
+
+        private int sampleEntry(int i) {
+            return INDEX_HEADER_BYTES + count * KEY_ENTRY_BYTES + i * TIME_ENTRY_BYTES;
+        }
+
+        private long sampleTimeAt(int i) {
+            return index.getLong(sampleEntry(i));
+        }
+
+        private int sampleOffsetAt(int i) {
+            return index.getInt(sampleEntry(i) + 8);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.config.AppConfig;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shared pool for GUI background work. Tasks run off the event dispatch thread and report their result or
+ * failure back on it.
+ *
+ * A task submitted with {@link #submit} is keyed by its owner and name, and the newest submission for a key
+ * wins: an older one still queued is dropped without running, and one already running finishes but its
+ * result is discarded. Running tasks are not interrupted, since an interrupt closes any file channel the
+ * task happens to touch. Tasks started with {@link #execute} are never superseded.
+ *
+ * Queue depth, busy threads and per-task queue wait and run time are published through {@link MetricsRegistry}.
+ */
+public final class BackgroundExecutor {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundExecutor.class.getName());
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int FINISHED = 2;
+    private static final int DELIVERED = 3;
+    private static final int CANCELLED = 4;
+
+    private static final BackgroundExecutor INSTANCE = new BackgroundExecutor();
+
+    /**
+     * Work to run off the event dispatch thread.
+     */
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final Map<TaskKey, Task<?>> latest = new ConcurrentHashMap<>();
+    private final MetricsRegistry.Counter superseded;
+
+    private BackgroundExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, AppConfig.BACKGROUND_THREADS);
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "bms-background-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("bms_background_queue_depth", "Background tasks waiting for a thread", () -> pool.getQueue().size());
+        metrics.gauge("bms_background_active_threads", "Background threads running a task", pool::getActiveCount);
+        superseded = metrics.counter("bms_background_tasks_superseded_total",
+                                     "Background tasks dropped or discarded because a newer one with the same key was submitted");
+    }
+
+    public static BackgroundExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs {@code work} in the background, superseding any earlier task submitted by the same owner under the
+     * same name. Exactly one of the callbacks runs on the event dispatch thread, unless the task is superseded
+     * or cancelled first.
+     */
+    public <T> Task<T> submit(Object owner, String name, Work<T> work, Consumer<? super T> onSuccess,
+                              Consumer<? super Exception> onFailure) {
+        TaskKey key = new TaskKey(owner, name);
+        Task<T> task = new Task<>(key, work, onSuccess, onFailure);
+        Task<?> previous = latest.put(key, task);
+        if (previous != null && previous.cancel()) {
+            superseded.increment();
+        }
+        pool.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs {@code work} in the background without superseding anything; the owner and name label its metrics.
+     */
+    public <T> Task<T> execute(Object owner, String name, Work<T> work, Consumer<? super T> onSuccess,
+                               Consumer<? super Exception> onFailure) {
+        Task<T> task = new Task<>(new TaskKey(owner, name), work, onSuccess, onFailure);
+        pool.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancels the latest task submitted by the owner under the name, if it has not delivered its result yet.
+     */
+    public void cancel(Object owner, String name) {
+        Task<?> task = latest.get(new TaskKey(owner, name));
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public final class Task<T> implements Runnable {
+        private final TaskKey key;
+        private final Work<T> work;
+        private final Consumer<? super T> onSuccess;
+        private final Consumer<? super Exception> onFailure;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final long queuedAt = System.nanoTime();
+        private final MetricsRegistry.Timer runTimer;
+        private final MetricsRegistry.Timer waitTimer;
+
+        private Task(TaskKey key, Work<T> work, Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+            this.key = key;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+            MetricsRegistry metrics = MetricsRegistry.getInstance();
+            this.runTimer = metrics.timer(MetricsRegistry.BACKGROUND, key.owner.getClass(), key.name);
+            this.waitTimer = metrics.timer(MetricsRegistry.BACKGROUND_WAIT, key.owner.getClass(), key.name);
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                return;
+            }
+            long started = System.nanoTime();
+            waitTimer.recordNanos(started - queuedAt);
+            T result = null;
+            Exception failure = null;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                runTimer.recordException();
+                failure = e;
+            } catch (Error e) {
+                runTimer.recordException();
+                state.set(CANCELLED);
+                latest.remove(key, this);
+                throw e;
+            } finally {
+                runTimer.record(started);
+            }
+            if (state.compareAndSet(RUNNING, FINISHED)) {
+                T delivered = result;
+                Exception failed = failure;
+                SwingUtilities.invokeLater(() -> deliver(delivered, failed));
+            }
+        }
+
+        private void deliver(T result, Exception failure) {
+            if (!state.compareAndSet(FINISHED, DELIVERED)) {
+                return;
+            }
+            latest.remove(key, this);
+            if (failure == null) {
+                if (onSuccess != null) {
+                    onSuccess.accept(result);
+                }
+            } else if (onFailure != null) {
+                onFailure.accept(failure);
+            } else {
+                LOGGER.log(Level.WARNING, "Background task " + key + " failed", failure);
+            }
+        }
+
+        /**
+         * Stops the task from running, or from reporting its result if it is already running or finished.
+         * Returns false if it was already cancelled or has reported its result.
+         */
+        public boolean cancel() {
+            while (true) {
+                int current = state.get();
+                if (current == CANCELLED || current == DELIVERED) {
+                    return false;
+                }
+                if (state.compareAndSet(current, CANCELLED)) {
+                    if (current == QUEUED) {
+                        pool.remove(this);
+                    }
+                    latest.remove(key, this);
+                    return true;
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+
+    /**
+     * Owner, compared by identity, and task name.
+     */
+    private static final class TaskKey {
+        private final Object owner;
+        private final String name;
+
+        private TaskKey(Object owner, String name) {
+            this.owner = Objects.requireNonNull(owner, "owner");
+            this.name = Objects.requireNonNull(name, "name");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TaskKey)) return false;
+            TaskKey that = (TaskKey) o;
+            return owner == that.owner && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return owner.getClass().getSimpleName() + "." + name;
+        }
+    }
+}
@@ -2,17 +2,55 @@ package com.bankingsystem.utils;
 
 import com.bankingsystem.config.DatabaseConfig;
 import com.bankingsystem.exceptions.DatabaseConnectionException;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class DatabaseUtil {
     private static final Logger LOGGER = Logger.getLogger(DatabaseUtil.class.getName());
 
+    private static volatile String backend = DatabaseConfig.BACKEND_MEMORY;
+    private static volatile HikariDataSource dataSource;
+
+    /**
+     * Chooses the storage backend ("memory" or "sqlite"). Must be called before initializeDatabase.
+     */
+    public static void selectBackend(String backendName) {
+        if (dataSource != null) {
+            throw new IllegalStateException("Storage backend is already initialized");
+        }
+        String normalized = backendName == null ? "" : backendName.trim().toLowerCase();
+        if (!DatabaseConfig.BACKEND_MEMORY.equals(normalized) && !DatabaseConfig.BACKEND_SQLITE.equals(normalized)) {
+            throw new IllegalArgumentException("Unknown storage backend: " + backendName);
+        }
+        backend = normalized;
+    }
+
+    public static String getBackend() {
+        return backend;
+    }
+
+    public static boolean isSQLiteBackend() {
+        return DatabaseConfig.BACKEND_SQLITE.equals(backend);
+    }
+
     public static Connection getConnection() throws SQLException {
+        HikariDataSource pool = dataSource;
+        if (pool != null) {
+            return pool.getConnection();
+        }
         try {
             Class.forName("org.sqlite.JDBC");
             return DriverManager.getConnection(DatabaseConfig.DATABASE_URL);
@@ -22,6 +60,18 @@ public class DatabaseUtil {
         }
     }
 
+    /**
+     * Returns a prepared statement cached on the connection's pooled physical connection, which closes it when
+     * the pool retires the connection. Closing the returned statement resets it for reuse rather than releasing it.
+     */
+    public static PreparedStatement prepareCached(Connection connection, String sql) throws SQLException {
+        return StatementCache.prepare(connection, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public static PreparedStatement prepareCached(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        return StatementCache.prepare(connection, sql, autoGeneratedKeys);
+    }
+
     public static boolean isSQLiteDriverAvailable() {
         try {
             Class.forName("org.sqlite.JDBC");
@@ -32,17 +82,85 @@ public class DatabaseUtil {
     }
 
     public static void initializeDatabase() throws SQLException {
-        try {
+        if (!isSQLiteBackend()) {
             LOGGER.info("Using mock database - no initialization required");
+            return;
+        }
+
+        try {
+            dataSource = createDataSource();
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute(DatabaseConfig.CREATE_CUSTOMERS_TABLE);
+                statement.execute(DatabaseConfig.CREATE_ACCOUNT_TYPES_TABLE);
+                statement.execute(DatabaseConfig.CREATE_ACCOUNTS_TABLE);
+                statement.execute(DatabaseConfig.CREATE_TRANSACTION_TYPES_TABLE);
+                statement.execute(DatabaseConfig.CREATE_TRANSACTIONS_TABLE);
+                statement.execute(DatabaseConfig.CREATE_USERS_TABLE);
+                statement.execute(DatabaseConfig.CREATE_AUDIT_LOG_TABLE);
+                statement.execute(DatabaseConfig.CREATE_TRANSACTIONS_ACCOUNT_DATE_INDEX);
+                statement.execute(DatabaseConfig.CREATE_TRANSACTIONS_CREATED_INDEX);
+                statement.execute(DatabaseConfig.CREATE_TRANSACTIONS_REFERENCE_INDEX);
+                statement.execute(DatabaseConfig.CREATE_ACCOUNTS_CUSTOMER_INDEX);
+                statement.execute(DatabaseConfig.SEED_ACCOUNT_TYPES);
+                statement.execute(DatabaseConfig.SEED_TRANSACTION_TYPES);
+            }
+            LOGGER.info("SQLite database initialized: " + DatabaseConfig.DATABASE_URL);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to initialize database", e);
-            throw new SQLException("Database initialization failed", e);
+            closeDataSource();
+            throw new SQLException("Database initialization failed",
+                new DatabaseConnectionException("Could not open SQLite database.", DatabaseConfig.DATABASE_URL, e));
         }
     }
 
+    private static HikariDataSource createDataSource() throws ClassNotFoundException {
+        Class.forName(DatabaseConfig.DRIVER_CLASS);
 
+        // Passed to the SQLite driver, which applies them as pragmas on every new connection
+        Properties pragmas = new Properties();
+        pragmas.setProperty("journal_mode", DatabaseConfig.SQLITE_JOURNAL_MODE);
+        pragmas.setProperty("synchronous", DatabaseConfig.SQLITE_SYNCHRONOUS);
+        pragmas.setProperty("cache_size", String.valueOf(-DatabaseConfig.SQLITE_CACHE_SIZE_KB));
+        pragmas.setProperty("busy_timeout", String.valueOf(DatabaseConfig.SQLITE_BUSY_TIMEOUT_MS));
+        pragmas.setProperty("temp_store", "MEMORY");
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("banking-sqlite");
+        config.setDataSource(StatementCache.dataSource(DatabaseConfig.DATABASE_URL, pragmas,
+                                                       DatabaseConfig.STATEMENT_CACHE_SIZE));
+        config.setMaximumPoolSize(DatabaseConfig.MAX_POOL_SIZE);
+        config.setMinimumIdle(DatabaseConfig.MIN_IDLE);
+        config.setConnectionTimeout(DatabaseConfig.CONNECTION_TIMEOUT);
+        config.setIdleTimeout(DatabaseConfig.IDLE_TIMEOUT);
+        config.setMaxLifetime(DatabaseConfig.MAX_LIFETIME);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Reads a DECIMAL(15,2) column as a two-decimal amount; SQLite hands these back as floating point.
+     */
+    public static BigDecimal getMoney(ResultSet resultSet, String column) throws SQLException {
+        BigDecimal value = resultSet.getBigDecimal(column);
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    public static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    public static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
 
     public static void closeDataSource() {
-        LOGGER.info("Database connections will be closed automatically");
+        HikariDataSource pool = dataSource;
+        dataSource = null;
+        if (pool != null) {
+            pool.close();
+            LOGGER.info("Database connection pool closed");
+        } else {
+            LOGGER.info("Database connections will be closed automatically");
+        }
     }
 }
@@ -0,0 +1,233 @@
+package com.bankingsystem.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Bounded map whose entries expire a fixed time after they were last written. Keys are spread over shards; each
+ * shard serves reads from a concurrent map without locking and serializes its writes, which also keep the
+ * shard's entries in write order. A new key written to a shard already at its share of the capacity first makes
+ * room by dropping that shard's expired entries, then by evicting its least recently written entry that the
+ * cache's eviction policy allows; if there is none the write is refused and the entries already held are kept.
+ * Expired entries read as absent straight away and are removed by {@link #sweep}.
+ */
+public final class ExpiringCache<K, V> {
+    private static final int SHARDS = 16;
+
+    private final Shard<K, V>[] shards;
+    private final int shardCapacity;
+    private final BiPredicate<? super K, ? super V> evictable;
+    private final MetricsRegistry.Counter evictions;
+    private final MetricsRegistry.Counter refusals;
+
+    /**
+     * @param evictable which live entries may be evicted to make room for a new key; null for none. Called under
+     *                  a shard's write lock, so it must not write to this cache.
+     * @param evictions counted whenever a live entry is evicted; may be null
+     * @param refusals counted whenever a new key is refused to stay within {@code maxEntries}; may be null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ExpiringCache(int maxEntries, BiPredicate<? super K, ? super V> evictable,
+                         MetricsRegistry.Counter evictions, MetricsRegistry.Counter refusals) {
+        this.shards = new Shard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.shardCapacity = Math.max(1, (maxEntries + SHARDS - 1) / SHARDS);
+        this.evictable = evictable;
+        this.evictions = evictions;
+        this.refusals = refusals;
+    }
+
+    /**
+     * Returns the live value for the key, or null; never blocks.
+     */
+    public V get(K key) {
+        Node<V> node = shard(key).live.get(key);
+        return node != null && !node.isExpired(System.nanoTime()) ? node.value : null;
+    }
+
+    /**
+     * Returns false, storing nothing, when the key is new and its shard is full of live entries none of which
+     * may be evicted.
+     */
+    public boolean put(K key, V value, long ttlNanos) {
+        return compute(key, (k, current) -> value, ttlNanos) != null;
+    }
+
+    /**
+     * Replaces the key's live value, or null if it has none, with the function's result, which then expires
+     * {@code ttlNanos} from now. A null result removes the key. The function runs under the shard's write lock.
+     * Returns the value stored, or null when the key was removed or, being new to a shard full of live entries
+     * none of which may be evicted, refused; a refused key is left absent.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function, long ttlNanos) {
+        Shard<K, V> shard = shard(key);
+        synchronized (shard) {
+            long now = System.nanoTime();
+            Node<V> current = shard.order.get(key);
+            V value = function.apply(key, current != null && !current.isExpired(now) ? current.value : null);
+            if (value == null) {
+                shard.remove(key);
+                return null;
+            }
+            if (current == null && shard.order.size() >= shardCapacity
+                    && !shard.removeEldestExpired(now) && !evictEldest(shard)) {
+                if (refusals != null) {
+                    refusals.increment();
+                }
+                return null;
+            }
+            Node<V> node = new Node<>(value, now + ttlNanos);
+            shard.order.remove(key);
+            shard.order.put(key, node);
+            shard.live.put(key, node);
+            return value;
+        }
+    }
+
+    public V remove(K key) {
+        Shard<K, V> shard = shard(key);
+        synchronized (shard) {
+            Node<V> node = shard.remove(key);
+            return node != null && !node.isExpired(System.nanoTime()) ? node.value : null;
+        }
+    }
+
+    /**
+     * Removes every expired entry, passing each one to {@code onExpired} if it is not null, and returns how
+     * many were removed. Each shard is locked only while it is swept.
+     */
+    public int sweep(BiConsumer<? super K, ? super V> onExpired) {
+        int removed = 0;
+        for (Shard<K, V> shard : shards) {
+            synchronized (shard) {
+                long now = System.nanoTime();
+                Iterator<Map.Entry<K, Node<V>>> entries = shard.order.entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<K, Node<V>> entry = entries.next();
+                    if (entry.getValue().isExpired(now)) {
+                        entries.remove();
+                        shard.live.remove(entry.getKey());
+                        removed++;
+                        if (onExpired != null) {
+                            onExpired.accept(entry.getKey(), entry.getValue().value);
+                        }
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Visits the live entries without locking; entries written during the visit may or may not be seen.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        long now = System.nanoTime();
+        for (Shard<K, V> shard : shards) {
+            shard.live.forEach((key, node) -> {
+                if (!node.isExpired(now)) {
+                    action.accept(key, node.value);
+                }
+            });
+        }
+    }
+
+    /**
+     * Entries held, expired ones not yet swept included.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard<K, V> shard : shards) {
+            size += shard.live.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Shard<K, V> shard : shards) {
+            synchronized (shard) {
+                shard.order.clear();
+                shard.live.clear();
+            }
+        }
+    }
+
+    /**
+     * Evicts the shard's least recently written entry the policy allows. Called with the shard locked; returns
+     * whether one was evicted.
+     */
+    private boolean evictEldest(Shard<K, V> shard) {
+        if (evictable == null) {
+            return false;
+        }
+        Iterator<Map.Entry<K, Node<V>>> eldest = shard.order.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Map.Entry<K, Node<V>> entry = eldest.next();
+            if (evictable.test(entry.getKey(), entry.getValue().value)) {
+                eldest.remove();
+                shard.live.remove(entry.getKey());
+                if (evictions != null) {
+                    evictions.increment();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Shard<K, V> shard(K key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+
+    private static final class Shard<K, V> {
+        // Guarded by the shard; iterates from least to most recently written
+        private final LinkedHashMap<K, Node<V>> order = new LinkedHashMap<>();
+        private final ConcurrentHashMap<K, Node<V>> live = new ConcurrentHashMap<>();
+
+        private Node<V> remove(K key) {
+            live.remove(key);
+            return order.remove(key);
+        }
+
+        /**
+         * Drops expired entries from the least recently written end, stopping at the first live one; with one
+         * time-to-live per cache that is every expired entry. Returns whether any were dropped.
+         */
+        private boolean removeEldestExpired(long now) {
+            boolean removed = false;
+            Iterator<Map.Entry<K, Node<V>>> eldest = order.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Map.Entry<K, Node<V>> entry = eldest.next();
+                if (!entry.getValue().isExpired(now)) {
+                    break;
+                }
+                eldest.remove();
+                live.remove(entry.getKey());
+                removed = true;
+            }
+            return removed;
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Node(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
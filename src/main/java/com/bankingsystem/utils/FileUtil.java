@@ -1,21 +1,38 @@
 package com.bankingsystem.utils;
 
 import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.dao.TransactionCursor;
 import com.bankingsystem.models.Transaction;
 import com.bankingsystem.models.AbstractAccount;
 import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class FileUtil {
     private static final Logger LOGGER = Logger.getLogger(FileUtil.class.getName());
 
+    private static final String TRANSACTION_CSV_HEADER =
+        "Transaction ID,Account ID,Type,Amount,Balance Before,Balance After,Description,Reference,Date";
+
+    /**
+     * Receives export progress after each chunk; {@code totalRows} is -1 when the total is not known.
+     */
+    @FunctionalInterface
+    public interface ExportProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
     public static void createDirectories() {
         try {
             Files.createDirectories(Paths.get(AppConfig.BACKUP_DIRECTORY));
@@ -31,27 +48,85 @@ public class FileUtil {
         createDirectories();
         Path filePath = Paths.get(AppConfig.EXPORT_DIRECTORY, filename);
 
-        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(filePath))) {
-            writer.println("Transaction ID,Account ID,Type,Amount,Balance Before,Balance After,Description,Reference,Date");
-
+        try (Writer writer = newExportWriter(filePath, false)) {
+            StringBuilder row = new StringBuilder(256);
+            writer.write(TRANSACTION_CSV_HEADER);
+            writer.write(System.lineSeparator());
             for (Transaction transaction : transactions) {
-                writer.printf("%d,%d,%s,%.2f,%.2f,%.2f,\"%s\",%s,%s%n",
-                    transaction.getTransactionId(),
-                    transaction.getAccountId(),
-                    transaction.getTransactionType(),
-                    transaction.getAmount(),
-                    transaction.getBalanceBefore(),
-                    transaction.getBalanceAfter(),
-                    escapeCSV(transaction.getDescription()),
-                    transaction.getReferenceNumber(),
-                    transaction.getCreatedDate() != null ? transaction.getCreatedDate().toString() : ""
-                );
+                writer.append(appendTransactionRow(row, transaction));
             }
         }
 
         LOGGER.info("Transactions exported to CSV: " + filePath);
     }
 
+    /**
+     * Streams every transaction the cursor yields to {@code filePath}, one chunk at a time, so memory use
+     * does not grow with the number of rows. Returns the number of rows written.
+     */
+    public static long exportTransactionsToCSV(TransactionCursor cursor, Path filePath, boolean gzip, long totalRows,
+                                               ExportProgressListener listener) throws IOException, SQLException {
+        Path parent = filePath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long rows = 0;
+        try (Writer writer = newExportWriter(filePath, gzip)) {
+            StringBuilder row = new StringBuilder(256);
+            writer.write(TRANSACTION_CSV_HEADER);
+            writer.write(System.lineSeparator());
+            for (List<Transaction> chunk = cursor.nextChunk(); !chunk.isEmpty(); chunk = cursor.nextChunk()) {
+                for (Transaction transaction : chunk) {
+                    writer.append(appendTransactionRow(row, transaction));
+                }
+                rows += chunk.size();
+                if (listener != null) {
+                    listener.onProgress(rows, totalRows);
+                }
+            }
+        }
+
+        LOGGER.info("Exported " + rows + " transactions to CSV: " + filePath);
+        return rows;
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer for an export file, gzip-compressed when {@code gzip} is set.
+     */
+    public static Writer newExportWriter(Path filePath, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(filePath);
+        if (gzip) {
+            out = new GZIPOutputStream(out, AppConfig.EXPORT_BUFFER_BYTES);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), AppConfig.EXPORT_BUFFER_BYTES);
+    }
+
+    /**
+     * Formats one transaction row into {@code row}, reusing its storage, and returns it.
+     */
+    private static StringBuilder appendTransactionRow(StringBuilder row, Transaction transaction) {
+        row.setLength(0);
+        row.append(transaction.getTransactionId()).append(',')
+           .append(transaction.getAccountId()).append(',')
+           .append(transaction.getTransactionType()).append(',')
+           .append(formatMoney(transaction.getAmount())).append(',')
+           .append(formatMoney(transaction.getBalanceBefore())).append(',')
+           .append(formatMoney(transaction.getBalanceAfter())).append(",\"")
+           .append(escapeCSV(transaction.getDescription())).append("\",")
+           .append(transaction.getReferenceNumber()).append(',');
+        if (transaction.getCreatedDate() != null) {
+            row.append(transaction.getCreatedDate());
+        }
+        return row.append(System.lineSeparator());
+    }
+
+    /**
+     * Same text as {@code %.2f}, without the formatter.
+     */
+    public static String formatMoney(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "null";
+    }
+
     public static void exportAccountsToCSV(List<AbstractAccount> accounts, String filename) throws IOException {
         createDirectories();
         Path filePath = Paths.get(AppConfig.EXPORT_DIRECTORY, filename);
@@ -128,39 +203,28 @@ public class FileUtil {
         LOGGER.info("Account statement generated: " + filePath);
     }
 
+    /**
+     * Queues an entry for the error log; the file is written by a background thread.
+     */
     public static void writeErrorLog(String message, Exception exception) {
-        try {
-            Path logPath = Paths.get(AppConfig.ERROR_LOG_FILE_NAME);
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT));
-            String logEntry = String.format("[%s] ERROR: %s%n", timestamp, message);
-
-            if (exception != null) {
-                logEntry += String.format("Exception: %s%n", exception.getMessage());
-                logEntry += String.format("Stack trace: %s%n", getStackTrace(exception));
-            }
-
-            logEntry += "-----------------------------------" + System.lineSeparator();
+        StringBuilder logEntry = new StringBuilder("ERROR: ").append(message);
+        if (exception != null) {
+            logEntry.append(System.lineSeparator()).append("Exception: ").append(exception.getMessage());
+            logEntry.append(System.lineSeparator()).append("Stack trace: ").append(getStackTrace(exception));
+        }
+        logEntry.append(System.lineSeparator()).append("-----------------------------------");
 
-            Files.write(logPath, logEntry.getBytes(),
-                       java.nio.file.StandardOpenOption.CREATE,
-                       java.nio.file.StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to write error log", e);
+        if (!AsyncLogWriter.forFile(Paths.get(AppConfig.ERROR_LOG_FILE_NAME)).append(logEntry.toString())) {
+            LOGGER.warning("Error log buffer full, entry dropped: " + message);
         }
     }
 
+    /**
+     * Queues an entry for the audit log without blocking; the file is written by a background thread.
+     * Entries that arrive while the buffer is full are dropped and counted.
+     */
     public static void writeAuditLog(String operation, String details) {
-        try {
-            Path logPath = Paths.get("audit.log");
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT));
-            String logEntry = String.format("[%s] %s: %s%n", timestamp, operation, details);
-
-            Files.write(logPath, logEntry.getBytes(),
-                       java.nio.file.StandardOpenOption.CREATE,
-                       java.nio.file.StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            LOGGER.log(Level.WARNING, "Failed to write audit log", e);
-        }
+        AsyncLogWriter.forFile(Paths.get(AppConfig.AUDIT_LOG_FILE_NAME)).append(operation + ": " + details);
     }
 
     private static String escapeCSV(String value) {
@@ -206,6 +270,15 @@ public class FileUtil {
         return "";
     }
 
+    /**
+     * Resolves {@code filename} in the reports directory, creating the directory if needed.
+     */
+    public static Path reportFilePath(String filename) throws IOException {
+        Path reportsDir = Paths.get(AppConfig.REPORTS_DIRECTORY);
+        Files.createDirectories(reportsDir);
+        return reportsDir.resolve(filename);
+    }
+
     public static String saveReportToFile(String filename, String content) throws IOException {
         try {
             createDirectories();
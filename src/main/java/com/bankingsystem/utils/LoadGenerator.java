@@ -0,0 +1,284 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.dao.TransactionDAO;
+import com.bankingsystem.dao.UserDAO;
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Customer;
+import com.bankingsystem.models.Transaction;
+import com.bankingsystem.models.TransactionApproval;
+import com.bankingsystem.models.TransferRequest;
+import com.bankingsystem.services.AccountService;
+import com.bankingsystem.services.ApprovalService;
+import com.bankingsystem.services.CustomerService;
+import com.bankingsystem.services.TransactionService;
+import com.bankingsystem.services.TransferService;
+import com.bankingsystem.services.UserService;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Drives a {@link LoadWorkload} through the real service layer from a thread pool. Operations are
+ * released open-loop at their scheduled offsets, and latency is measured from the scheduled start,
+ * so a backed-up pool shows up as latency instead of silently lowering the offered rate.
+ */
+public class LoadGenerator {
+    private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+
+    private final LoadWorkload workload;
+    private final int threads;
+
+    private final CustomerService customerService = new CustomerService();
+    private final AccountService accountService = new AccountService();
+    private final TransactionService transactionService = new TransactionService();
+    private final TransferService transferService =
+        new TransferService(accountService, transactionService, new UserService());
+    private final ApprovalService approvalService = new ApprovalService();
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+
+    private String[] accountNumbers;
+    private Integer[] accountIds;
+    private Integer tellerId;
+    private Integer managerId;
+
+    private final AtomicLong netCents = new AtomicLong();
+    private final Map<LoadWorkload.OperationType, LongAdder> completed = new EnumMap<>(LoadWorkload.OperationType.class);
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+
+    public LoadGenerator(LoadWorkload workload, int threads) {
+        this.workload = workload;
+        this.threads = threads;
+        for (LoadWorkload.OperationType type : LoadWorkload.OperationType.values()) {
+            completed.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Creates the workload's customers and accounts, then runs its operations and checks the balances.
+     */
+    public Result run() throws Exception {
+        setUp();
+        // Report service and DAO latencies for the measured operations only, not the setup
+        MetricsRegistry.getInstance().reset();
+
+        List<LoadWorkload.Operation> operations = workload.getOperations();
+        long[] latencies = new long[operations.size()];
+        CountDownLatch finished = new CountDownLatch(operations.size());
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bms-load-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < operations.size(); i++) {
+                LoadWorkload.Operation operation = operations.get(i);
+                long scheduled = start + operation.offsetNanos;
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int index = i;
+                pool.execute(() -> {
+                    execute(operation);
+                    latencies[index] = System.nanoTime() - scheduled;
+                    finished.countDown();
+                });
+            }
+            finished.await();
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result(operations.size(), elapsed, latencies);
+        checkInvariants(result);
+        return result;
+    }
+
+    private void setUp() throws Exception {
+        UserDAO userDAO = new UserDAO();
+        tellerId = userDAO.findByUsername("teller").getUserId();
+        managerId = userDAO.findByUsername("manager").getUserId();
+
+        // Stamp identities so repeated runs against a persistent store do not collide on unique columns
+        String runTag = Long.toString(System.currentTimeMillis(), 36);
+        Integer[] customerIds = new Integer[workload.getCustomerCount()];
+        for (int i = 0; i < customerIds.length; i++) {
+            Customer customer = customerService.createCustomer("Load", "Customer" + i,
+                "load-" + runTag + "-" + i + "@bank.test", "555-0100", "1 Load Street",
+                LocalDate.of(1980, 1, 1).plusDays(i % 10_000), "LD-" + runTag + "-" + i);
+            customerIds[i] = customer.getCustomerId();
+        }
+
+        List<LoadWorkload.AccountSpec> specs = workload.getAccounts();
+        accountNumbers = new String[specs.size()];
+        accountIds = new Integer[specs.size()];
+        for (int i = 0; i < specs.size(); i++) {
+            LoadWorkload.AccountSpec spec = specs.get(i);
+            AbstractAccount account = accountService.createAccount(customerIds[spec.customerIndex], spec.accountType,
+                                                                   BigDecimal.valueOf(spec.openingCents, 2));
+            accountNumbers[i] = account.getAccountNumber();
+            accountIds[i] = account.getAccountId();
+        }
+        LOGGER.info(String.format("Load setup complete: %d customers, %d accounts", customerIds.length, specs.size()));
+    }
+
+    private void execute(LoadWorkload.Operation operation) {
+        BigDecimal amount = BigDecimal.valueOf(operation.amountCents, 2);
+        String accountNumber = accountNumbers[operation.account];
+        try {
+            switch (operation.type) {
+                case DEPOSIT:
+                    transactionService.deposit(accountNumber, amount, "Load deposit", tellerId);
+                    netCents.addAndGet(operation.amountCents);
+                    break;
+                case WITHDRAWAL:
+                    transactionService.withdraw(accountNumber, amount, "Load withdrawal", tellerId);
+                    netCents.addAndGet(-operation.amountCents);
+                    break;
+                case TRANSFER:
+                    transferService.performTransfer(new TransferRequest(accountNumber, accountNumbers[operation.target],
+                                                                        amount, "Load transfer", tellerId));
+                    break;
+                case APPROVAL:
+                    depositThroughApproval(accountNumber, amount);
+                    netCents.addAndGet(operation.amountCents);
+                    break;
+            }
+            completed.get(operation.type).increment();
+        } catch (Exception e) {
+            rejected.computeIfAbsent(rejectionName(e), name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * A teller deposit above the approval threshold: the teller raises the request, a manager approves it,
+     * and the approved deposit is posted.
+     */
+    private void depositThroughApproval(String accountNumber, BigDecimal amount) throws Exception {
+        Object outcome = transactionService.depositWithApproval(accountNumber, amount, "Load approval deposit", tellerId);
+        if (outcome instanceof TransactionApproval) {
+            TransactionApproval approval = approvalService.approveRequest(
+                ((TransactionApproval) outcome).getApprovalId(), managerId, "Load approval");
+            transactionService.processApprovedDeposit(approval);
+        }
+    }
+
+    /**
+     * Services wrap business exceptions in SQLException on some paths; report the underlying type.
+     */
+    private static String rejectionName(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof SQLException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    private void checkInvariants(Result result) throws SQLException {
+        long openingCents = workload.getAccounts().stream().mapToLong(spec -> spec.openingCents).sum();
+        long actualCents = 0;
+        int ledgerMismatches = 0;
+        int limitBreaches = 0;
+
+        for (int i = 0; i < accountIds.length; i++) {
+            AbstractAccount account = accountService.getAccountById(accountIds[i]);
+            long balanceCents = AbstractAccount.toCents(account.getBalance());
+            actualCents += balanceCents;
+
+            long ledgerCents = workload.getAccounts().get(i).openingCents;
+            for (Transaction transaction : transactionDAO.findByAccountId(accountIds[i])) {
+                ledgerCents += AbstractAccount.toCents(transaction.getAmount());
+            }
+            if (ledgerCents != balanceCents) {
+                ledgerMismatches++;
+            }
+            if (balanceCents < -AbstractAccount.toCents(account.getOverdraftLimit())) {
+                limitBreaches++;
+            }
+        }
+
+        result.expectedTotalCents = openingCents + netCents.get();
+        result.actualTotalCents = actualCents;
+        result.ledgerMismatches = ledgerMismatches;
+        result.limitBreaches = limitBreaches;
+    }
+
+    public final class Result {
+        private final int operations;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+        private long expectedTotalCents;
+        private long actualTotalCents;
+        private int ledgerMismatches;
+        private int limitBreaches;
+
+        private Result(int operations, long elapsedNanos, long[] latencies) {
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+        }
+
+        public double getThroughput() {
+            return operations / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        /**
+         * Latency at the given quantile (0.5, 0.99, ...) in milliseconds.
+         */
+        public double getLatencyMillis(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length - 1))] / 1_000_000.0;
+        }
+
+        public Map<String, Long> getRejections() {
+            Map<String, Long> counts = new TreeMap<>();
+            rejected.forEach((name, count) -> counts.put(name, count.sum()));
+            return counts;
+        }
+
+        public boolean invariantsHold() {
+            return expectedTotalCents == actualTotalCents && ledgerMismatches == 0 && limitBreaches == 0;
+        }
+
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Operations: %d in %.2f s, throughput %.1f ops/s%n",
+                operations, elapsedNanos / 1_000_000_000.0, getThroughput()));
+            report.append(String.format("Latency (ms): p50 %.3f, p99 %.3f, p999 %.3f, max %.3f%n",
+                getLatencyMillis(0.50), getLatencyMillis(0.99), getLatencyMillis(0.999), getLatencyMillis(1.0)));
+            completed.forEach((type, count) -> report.append(String.format("  %-10s completed %d%n", type, count.sum())));
+            report.append("Rejected:").append(getRejections().isEmpty() ? " none" : "").append(System.lineSeparator());
+            getRejections().forEach((name, count) -> report.append(String.format("  %-36s %d%n", name, count)));
+            report.append(String.format("Total balance: expected %s, actual %s%n",
+                BigDecimal.valueOf(expectedTotalCents, 2), BigDecimal.valueOf(actualTotalCents, 2)));
+            report.append(String.format("Accounts whose ledger disagrees with balance: %d%n", ledgerMismatches));
+            report.append(String.format("Accounts beyond overdraft limit: %d%n", limitBreaches));
+            report.append("Invariants: ").append(invariantsHold() ? "OK" : "VIOLATED");
+            return report.toString();
+        }
+    }
+}
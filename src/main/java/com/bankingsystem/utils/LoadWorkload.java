@@ -0,0 +1,229 @@
+package com.bankingsystem.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A synthetic teller workload: the accounts to open and a timed sequence of operations against them.
+ * Accounts are referred to by index, so a recorded workload replays identically against a fresh store
+ * even though account numbers are generated randomly.
+ *
+ * File format, one record per line:
+ * <pre>
+ * # bms-workload 1
+ * C,&lt;customerCount&gt;
+ * A,&lt;customerIndex&gt;,&lt;Savings|Checking|Business&gt;,&lt;openingCents&gt;
+ * O,&lt;offsetNanos&gt;,&lt;type&gt;,&lt;account&gt;,&lt;target&gt;,&lt;amountCents&gt;
+ * </pre>
+ */
+public class LoadWorkload {
+    private static final String HEADER = "# bms-workload 1";
+    private static final String[] ACCOUNT_TYPES = {"Savings", "Checking", "Business"};
+
+    public enum OperationType {
+        DEPOSIT, WITHDRAWAL, TRANSFER, APPROVAL
+    }
+
+    public static final class AccountSpec {
+        public final int customerIndex;
+        public final String accountType;
+        public final long openingCents;
+
+        AccountSpec(int customerIndex, String accountType, long openingCents) {
+            this.customerIndex = customerIndex;
+            this.accountType = accountType;
+            this.openingCents = openingCents;
+        }
+    }
+
+    public static final class Operation {
+        public final long offsetNanos;
+        public final OperationType type;
+        public final int account;
+        public final int target;
+        public final long amountCents;
+
+        Operation(long offsetNanos, OperationType type, int account, int target, long amountCents) {
+            this.offsetNanos = offsetNanos;
+            this.type = type;
+            this.account = account;
+            this.target = target;
+            this.amountCents = amountCents;
+        }
+    }
+
+    private final int customerCount;
+    private final List<AccountSpec> accounts;
+    private final List<Operation> operations;
+
+    private LoadWorkload(int customerCount, List<AccountSpec> accounts, List<Operation> operations) {
+        this.customerCount = customerCount;
+        this.accounts = Collections.unmodifiableList(accounts);
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public List<AccountSpec> getAccounts() {
+        return accounts;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Builds a workload with Poisson arrivals at {@code ratePerSecond} and the given operation mix
+     * (relative weights). Amounts are chosen so a realistic share of withdrawals and transfers is
+     * rejected for funds or daily limits, and approval deposits exceed the teller threshold.
+     */
+    public static LoadWorkload generate(int customerCount, int accountCount, int operationCount, double ratePerSecond,
+                                        Map<OperationType, Integer> mix, long seed) {
+        if (customerCount < 1 || accountCount < 2) {
+            throw new IllegalArgumentException("Need at least one customer and two accounts");
+        }
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        Random random = new Random(seed);
+
+        List<AccountSpec> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(new AccountSpec(i % customerCount, ACCOUNT_TYPES[i % ACCOUNT_TYPES.length],
+                                         cents(random, 1_000, 5_000)));
+        }
+
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive weight");
+        }
+
+        List<Operation> operations = new ArrayList<>(operationCount);
+        double meanGapNanos = 1_000_000_000.0 / ratePerSecond;
+        double offset = 0;
+        for (int i = 0; i < operationCount; i++) {
+            offset += -Math.log(1.0 - random.nextDouble()) * meanGapNanos;
+            OperationType type = pick(random, mix, totalWeight);
+            int account = random.nextInt(accountCount);
+            int target = (account + 1 + random.nextInt(accountCount - 1)) % accountCount;
+            long amount;
+            switch (type) {
+                case DEPOSIT:
+                    amount = cents(random, 1, 500);
+                    break;
+                case WITHDRAWAL:
+                    amount = cents(random, 1, 300);
+                    break;
+                case TRANSFER:
+                    amount = cents(random, 1, 250);
+                    break;
+                default:
+                    amount = cents(random, 1_001, 1_900);
+                    break;
+            }
+            operations.add(new Operation((long) offset, type, account,
+                                         type == OperationType.TRANSFER ? target : -1, amount));
+        }
+        return new LoadWorkload(customerCount, accounts, operations);
+    }
+
+    private static long cents(Random random, int minDollars, int maxDollars) {
+        return minDollars * 100L + (long) (random.nextDouble() * (maxDollars - minDollars) * 100);
+    }
+
+    private static OperationType pick(Random random, Map<OperationType, Integer> mix, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<OperationType, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * Parses a mix such as "deposit:40,withdrawal:30,transfer:25,approval:5".
+     */
+    public static Map<OperationType, Integer> parseMix(String mix) {
+        Map<OperationType, Integer> weights = new EnumMap<>(OperationType.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            weights.put(OperationType.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    public void save(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.write("C," + customerCount);
+            writer.newLine();
+            for (AccountSpec account : accounts) {
+                writer.write("A," + account.customerIndex + "," + account.accountType + "," + account.openingCents);
+                writer.newLine();
+            }
+            for (Operation operation : operations) {
+                writer.write("O," + operation.offsetNanos + "," + operation.type + "," + operation.account + ","
+                             + operation.target + "," + operation.amountCents);
+                writer.newLine();
+            }
+        }
+    }
+
+    public static LoadWorkload load(Path file) throws IOException {
+        int customerCount = 0;
+        List<AccountSpec> accounts = new ArrayList<>();
+        List<Operation> operations = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!HEADER.equals(header)) {
+                throw new IOException("Not a workload file: " + file);
+            }
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    switch (fields[0]) {
+                        case "C":
+                            customerCount = Integer.parseInt(fields[1]);
+                            break;
+                        case "A":
+                            accounts.add(new AccountSpec(Integer.parseInt(fields[1]), fields[2], Long.parseLong(fields[3])));
+                            break;
+                        case "O":
+                            operations.add(new Operation(Long.parseLong(fields[1]), OperationType.valueOf(fields[2]),
+                                Integer.parseInt(fields[3]), Integer.parseInt(fields[4]), Long.parseLong(fields[5])));
+                            break;
+                        default:
+                            throw new IOException("Unknown record type '" + fields[0] + "' at line " + lineNumber);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException("Malformed workload record at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        return new LoadWorkload(customerCount, accounts, operations);
+    }
+}
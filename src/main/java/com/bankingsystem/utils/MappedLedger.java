@@ -0,0 +1,574 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Transaction;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped file of transaction versions. Every save appends one fixed-width record to a
+ * mapped segment file, with the variable-length strings (type name, description, reference, status) in a
+ * mapped side heap; a delete appends a tombstone. The first record of each transaction links to the previous
+ * first record of the same account, so an account's chain lists its transactions in the order they were
+ * created and its history is read by walking the chain straight from mapped pages, decoding only each
+ * transaction's newest version. Later versions and tombstones stay out of the chain; they accumulate until
+ * the owning store compacts the ledger by rebuilding it from its live transactions.
+ *
+ * The write-ahead log stays the source of truth. The ledger is derived state: it is forced and marked clean
+ * on close, and a ledger that was not closed cleanly is rebuilt from the recovered store. Mutations are
+ * expected to be serialized by the owning store; reads are lock-free.
+ */
+final class MappedLedger implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MappedLedger.class.getName());
+
+    static final int RECORD_BYTES = 80;
+    private static final String CLEAN_MARKER = "ledger.clean";
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final byte FLAG_PUT = 1;
+    private static final byte FLAG_DELETE = 2;
+    private static final int END_OF_CHAIN = -1;
+    private static final int UNLINKED = -2;
+
+    // Record layout
+    private static final int TRANSACTION_ID = 0;
+    private static final int ACCOUNT_ID = 4;
+    private static final int TYPE_ID = 8;
+    private static final int CREATED_BY = 12;
+    private static final int AMOUNT = 16;
+    private static final int BALANCE_BEFORE = 24;
+    private static final int BALANCE_AFTER = 32;
+    private static final int CREATED_SECONDS = 40;
+    private static final int CREATED_NANOS = 48;
+    private static final int FLAGS = 52;
+    private static final int PREVIOUS = 56;
+    private static final int STRINGS_OFFSET = 60;
+    private static final int STRINGS_LENGTH = 68;
+    private static final int CRC = 72;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int heapSegmentBytes;
+    private final boolean clean;
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile MappedByteBuffer[] heaps = new MappedByteBuffer[0];
+    private volatile int recordCount;
+    private long heapPosition;
+
+    // Transaction ID to its newest record + 1 and to its record in the account chain + 1, and each account's
+    // newest chain record
+    private volatile int[] latestRecord = new int[1024];
+    private volatile int[] chainRecord = new int[1024];
+    private final Map<Integer, Integer> accountHeads = new ConcurrentHashMap<>();
+    // Accounts with a transaction created out of order, or re-dated, since the ledger was last rebuilt
+    private final Set<Integer> unordered = ConcurrentHashMap.newKeySet();
+    private int liveCount;
+
+    private MappedLedger(Path directory, int recordsPerSegment, int heapSegmentBytes, boolean clean) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.heapSegmentBytes = heapSegmentBytes;
+        this.clean = clean;
+    }
+
+    /**
+     * Maps the ledger in {@code directory}, indexing its records and cutting off a torn tail.
+     */
+    static MappedLedger open(Path directory, int recordsPerSegment, int heapSegmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        boolean clean = Files.deleteIfExists(directory.resolve(CLEAN_MARKER));
+        MappedLedger ledger = new MappedLedger(directory, recordsPerSegment, heapSegmentBytes, clean);
+        ledger.load();
+        return ledger;
+    }
+
+    /**
+     * Whether the ledger was forced and closed cleanly last time, so it matches the recovered store.
+     */
+    boolean isClean() {
+        return clean;
+    }
+
+    int size() {
+        return liveCount;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Whether superseded versions and tombstones make up enough of the ledger to be worth rebuilding it.
+     */
+    boolean needsCompaction() {
+        return recordCount - liveCount > Math.max(liveCount / 4, 1024);
+    }
+
+    void append(Transaction transaction) throws IOException {
+        byte[] strings = encodeStrings(transaction);
+        long stringsOffset = reserveHeap(strings.length);
+        MappedByteBuffer heap = heaps[(int) (stringsOffset / heapSegmentBytes)];
+        write(heap, (int) (stringsOffset % heapSegmentBytes), strings);
+
+        int record = recordCount;
+        MappedByteBuffer segment = segmentFor(record);
+        int base = (record % recordsPerSegment) * RECORD_BYTES;
+        int accountKey = orNull(transaction.getAccountId());
+        LocalDateTime created = transaction.getCreatedDate();
+        segment.putInt(base + TRANSACTION_ID, transaction.getTransactionId());
+        segment.putInt(base + ACCOUNT_ID, accountKey);
+        segment.putInt(base + TYPE_ID, orNull(transaction.getTransactionTypeId()));
+        segment.putInt(base + CREATED_BY, orNull(transaction.getCreatedBy()));
+        segment.putLong(base + AMOUNT, cents(transaction.getAmount()));
+        segment.putLong(base + BALANCE_BEFORE, cents(transaction.getBalanceBefore()));
+        segment.putLong(base + BALANCE_AFTER, cents(transaction.getBalanceAfter()));
+        segment.putLong(base + CREATED_SECONDS, created != null ? created.toEpochSecond(ZoneOffset.UTC) : NULL_LONG);
+        segment.putInt(base + CREATED_NANOS, created != null ? created.getNano() : 0);
+        segment.putLong(base + STRINGS_OFFSET, stringsOffset);
+        segment.putInt(base + STRINGS_LENGTH, strings.length);
+        int transactionId = transaction.getTransactionId();
+        int chained = chainedRecord(transactionId);
+        boolean link = chained < 0 || accountOf(chained) != accountKey;
+        if (!link && (createdSeconds(chained) != segment.getLong(base + CREATED_SECONDS)
+                      || createdNanos(chained) != segment.getInt(base + CREATED_NANOS))) {
+            unordered.add(accountKey);
+        }
+        seal(segment, base, FLAG_PUT, link ? accountHeads.getOrDefault(accountKey, END_OF_CHAIN) : UNLINKED, strings);
+        publish(record, transactionId, accountKey, true);
+    }
+
+    /**
+     * Appends a tombstone for the transaction, if the ledger holds it.
+     */
+    void appendDeletion(int transactionId) throws IOException {
+        int[] latest = latestRecord;
+        if (transactionId < 0 || transactionId >= latest.length || latest[transactionId] == 0) {
+            return;
+        }
+        int accountKey = accountOf(latest[transactionId] - 1);
+
+        int record = recordCount;
+        MappedByteBuffer segment = segmentFor(record);
+        int base = (record % recordsPerSegment) * RECORD_BYTES;
+        segment.putInt(base + TRANSACTION_ID, transactionId);
+        segment.putInt(base + ACCOUNT_ID, accountKey);
+        segment.putLong(base + STRINGS_OFFSET, 0L);
+        segment.putInt(base + STRINGS_LENGTH, 0);
+        seal(segment, base, FLAG_DELETE, UNLINKED, new byte[0]);
+        publish(record, transactionId, accountKey, false);
+    }
+
+    /**
+     * Returns the account's live transactions, newest first, decoded from the mapped records. The chain is
+     * already in that order unless a transaction was created out of order since the last rebuild.
+     */
+    List<Transaction> findByAccount(Integer accountId) {
+        int accountKey = orNull(accountId);
+        Integer head = accountHeads.get(accountKey);
+        if (head == null) {
+            return new ArrayList<>();
+        }
+        MappedByteBuffer[] mapped = segments;
+        int[] latest = latestRecord;
+        int[] chained = chainRecord;
+
+        List<Transaction> history = new ArrayList<>();
+        for (int record = head; record >= 0; ) {
+            MappedByteBuffer segment = mapped[record / recordsPerSegment];
+            int base = (record % recordsPerSegment) * RECORD_BYTES;
+            int transactionId = segment.getInt(base + TRANSACTION_ID);
+            if (transactionId < chained.length && chained[transactionId] == record + 1
+                    && transactionId < latest.length && latest[transactionId] != 0) {
+                int newest = latest[transactionId] - 1;
+                MappedByteBuffer newestSegment = mapped[newest / recordsPerSegment];
+                int newestBase = (newest % recordsPerSegment) * RECORD_BYTES;
+                if (newestSegment.getLong(newestBase + CREATED_SECONDS) != NULL_LONG) {
+                    history.add(decode(newestSegment, newestBase));
+                }
+            }
+            record = segment.getInt(base + PREVIOUS);
+        }
+        if (unordered.contains(accountKey)) {
+            history.sort(Comparator.comparing(Transaction::getCreatedDate).reversed()
+                .thenComparing(Comparator.comparing(Transaction::getTransactionId).reversed()));
+        }
+        return history;
+    }
+
+    /**
+     * Discards every record and starts an empty ledger.
+     */
+    void reset() throws IOException {
+        segments = new MappedByteBuffer[0];
+        heaps = new MappedByteBuffer[0];
+        deleteFiles();
+        recordCount = 0;
+        heapPosition = 0;
+        latestRecord = new int[1024];
+        chainRecord = new int[1024];
+        accountHeads.clear();
+        unordered.clear();
+        liveCount = 0;
+    }
+
+    /**
+     * Replaces the ledger's contents with the given transactions, appended oldest first, which drops every
+     * superseded version and tombstone and puts each account's chain back in created order. Readers that
+     * started before keep reading the old mapped pages.
+     */
+    void rebuild(List<Transaction> newestFirst) throws IOException {
+        reset();
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            append(newestFirst.get(i));
+        }
+    }
+
+    /**
+     * Forces every mapped page to disk and marks the ledger clean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        for (MappedByteBuffer heap : heaps) {
+            heap.force();
+        }
+        Files.write(directory.resolve(CLEAN_MARKER), Integer.toString(recordCount).getBytes(StandardCharsets.UTF_8));
+        segments = new MappedByteBuffer[0];
+        heaps = new MappedByteBuffer[0];
+    }
+
+    private void load() throws IOException {
+        int segmentCount = 0;
+        while (Files.exists(segmentPath(segmentCount))) {
+            segmentCount++;
+        }
+        int heapCount = 0;
+        while (Files.exists(heapPath(heapCount))) {
+            heapCount++;
+        }
+        for (int i = 0; i < heapCount; i++) {
+            heaps = append(heaps, map(heapPath(i), heapSegmentBytes));
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            segments = append(segments, map(segmentPath(i), (long) recordsPerSegment * RECORD_BYTES));
+        }
+
+        int record = 0;
+        while (record / recordsPerSegment < segments.length) {
+            MappedByteBuffer segment = segments[record / recordsPerSegment];
+            int base = (record % recordsPerSegment) * RECORD_BYTES;
+            byte flags = segment.get(base + FLAGS);
+            if ((flags != FLAG_PUT && flags != FLAG_DELETE) || !verify(segment, base)) {
+                break;
+            }
+            long stringsEnd = segment.getLong(base + STRINGS_OFFSET) + segment.getInt(base + STRINGS_LENGTH);
+            heapPosition = Math.max(heapPosition, stringsEnd);
+            int transactionId = segment.getInt(base + TRANSACTION_ID);
+            int accountKey = segment.getInt(base + ACCOUNT_ID);
+            if (segment.getInt(base + PREVIOUS) == UNLINKED) {
+                int chained = chainedRecord(transactionId);
+                if (flags == FLAG_PUT && chained >= 0 && (createdSeconds(chained) != segment.getLong(base + CREATED_SECONDS)
+                                                          || createdNanos(chained) != segment.getInt(base + CREATED_NANOS))) {
+                    unordered.add(accountKey);
+                }
+            }
+            publish(record, transactionId, accountKey, flags == FLAG_PUT);
+            record++;
+        }
+        truncateAfter(record);
+        if (!clean && record > 0) {
+            LOGGER.warning("Ledger in " + directory + " was not closed cleanly; " + record + " records indexed");
+        }
+    }
+
+    /**
+     * Clears anything after the last valid record so a later append cannot run into stale records.
+     */
+    private void truncateAfter(int record) throws IOException {
+        int keepSegments = (record + recordsPerSegment - 1) / recordsPerSegment;
+        if (keepSegments < segments.length) {
+            for (int i = keepSegments; i < segments.length; i++) {
+                Files.deleteIfExists(segmentPath(i));
+            }
+            segments = Arrays.copyOf(segments, keepSegments);
+        }
+        if (record % recordsPerSegment != 0) {
+            MappedByteBuffer segment = segments[record / recordsPerSegment];
+            for (int i = record % recordsPerSegment; i < recordsPerSegment; i++) {
+                segment.put(i * RECORD_BYTES + FLAGS, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Makes a sealed record visible to readers; a record linked into its account's chain becomes the chain's
+     * head, and the account is marked unordered if it was created before the head it replaces.
+     */
+    private void publish(int record, int transactionId, int accountKey, boolean live) {
+        int[] latest = latestRecord;
+        if (transactionId >= latest.length) {
+            latest = Arrays.copyOf(latest, Math.max(latest.length * 2, transactionId + 1));
+        }
+        boolean wasLive = latest[transactionId] != 0;
+        latest[transactionId] = live ? record + 1 : 0;
+        liveCount += (live ? 1 : 0) - (wasLive ? 1 : 0);
+        latestRecord = latest;
+
+        if (recordAt(record).getInt(baseOf(record) + PREVIOUS) != UNLINKED) {
+            Integer head = accountHeads.get(accountKey);
+            if (head != null && createdBefore(record, head)) {
+                unordered.add(accountKey);
+            }
+            int[] chained = chainRecord;
+            if (transactionId >= chained.length) {
+                chained = Arrays.copyOf(chained, Math.max(chained.length * 2, transactionId + 1));
+            }
+            chained[transactionId] = record + 1;
+            chainRecord = chained;
+            accountHeads.put(accountKey, record);
+        }
+        recordCount = record + 1;
+    }
+
+    /**
+     * Writes the record's chain link, then its checksum and flags last.
+     */
+    private void seal(MappedByteBuffer segment, int base, byte flags, int previous, byte[] strings) {
+        segment.putInt(base + PREVIOUS, previous);
+        segment.put(base + FLAGS, flags);
+        segment.putInt(base + CRC, checksum(segment, base, strings));
+    }
+
+    /**
+     * The transaction's record in its account chain, or -1 if it has none.
+     */
+    private int chainedRecord(int transactionId) {
+        int[] chained = chainRecord;
+        return transactionId >= 0 && transactionId < chained.length ? chained[transactionId] - 1 : -1;
+    }
+
+    /**
+     * Whether the first record sorts after the second in newest-first order, that is, was created earlier.
+     */
+    private boolean createdBefore(int record, int other) {
+        int bySeconds = Long.compare(createdSeconds(record), createdSeconds(other));
+        if (bySeconds != 0) {
+            return bySeconds < 0;
+        }
+        int byNanos = Integer.compare(createdNanos(record), createdNanos(other));
+        if (byNanos != 0) {
+            return byNanos < 0;
+        }
+        return recordAt(record).getInt(baseOf(record) + TRANSACTION_ID) < recordAt(other).getInt(baseOf(other) + TRANSACTION_ID);
+    }
+
+    private int accountOf(int record) {
+        return recordAt(record).getInt(baseOf(record) + ACCOUNT_ID);
+    }
+
+    private long createdSeconds(int record) {
+        return recordAt(record).getLong(baseOf(record) + CREATED_SECONDS);
+    }
+
+    private int createdNanos(int record) {
+        return recordAt(record).getInt(baseOf(record) + CREATED_NANOS);
+    }
+
+    private MappedByteBuffer recordAt(int record) {
+        return segments[record / recordsPerSegment];
+    }
+
+    private int baseOf(int record) {
+        return (record % recordsPerSegment) * RECORD_BYTES;
+    }
+
+    private boolean verify(MappedByteBuffer segment, int base) {
+        int length = segment.getInt(base + STRINGS_LENGTH);
+        long offset = segment.getLong(base + STRINGS_OFFSET);
+        byte[] strings = new byte[Math.max(0, length)];
+        if (length > 0) {
+            int heap = (int) (offset / heapSegmentBytes);
+            if (length > heapSegmentBytes || heap >= heaps.length) {
+                return false;
+            }
+            read(heaps[heap], (int) (offset % heapSegmentBytes), strings);
+        }
+        return segment.getInt(base + CRC) == checksum(segment, base, strings);
+    }
+
+    private static int checksum(MappedByteBuffer segment, int base, byte[] strings) {
+        CRC32 crc = new CRC32();
+        byte[] fields = new byte[CRC];
+        read(segment, base, fields);
+        crc.update(fields);
+        crc.update(strings);
+        return (int) crc.getValue();
+    }
+
+    private Transaction decode(MappedByteBuffer segment, int base) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(segment.getInt(base + TRANSACTION_ID));
+        transaction.setAccountId(nullable(segment.getInt(base + ACCOUNT_ID)));
+        transaction.setTransactionTypeId(nullable(segment.getInt(base + TYPE_ID)));
+        transaction.setCreatedBy(nullable(segment.getInt(base + CREATED_BY)));
+        transaction.setAmount(money(segment.getLong(base + AMOUNT)));
+        transaction.setBalanceBefore(money(segment.getLong(base + BALANCE_BEFORE)));
+        transaction.setBalanceAfter(money(segment.getLong(base + BALANCE_AFTER)));
+        long seconds = segment.getLong(base + CREATED_SECONDS);
+        if (seconds != NULL_LONG) {
+            transaction.setCreatedDate(LocalDateTime.ofEpochSecond(seconds, segment.getInt(base + CREATED_NANOS), ZoneOffset.UTC));
+        }
+
+        long offset = segment.getLong(base + STRINGS_OFFSET);
+        byte[] strings = new byte[segment.getInt(base + STRINGS_LENGTH)];
+        read(heaps[(int) (offset / heapSegmentBytes)], (int) (offset % heapSegmentBytes), strings);
+        int[] position = {0};
+        transaction.setTransactionTypeName(readString(strings, position));
+        transaction.setDescription(readString(strings, position));
+        transaction.setReferenceNumber(readString(strings, position));
+        transaction.setStatus(readString(strings, position));
+        return transaction;
+    }
+
+    private static byte[] encodeStrings(Transaction transaction) {
+        String[] values = {transaction.getTransactionTypeName(), transaction.getDescription(),
+                           transaction.getReferenceNumber(), transaction.getStatus()};
+        byte[][] encoded = new byte[values.length][];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i] != null ? values[i].getBytes(StandardCharsets.UTF_8) : null;
+            length += 4 + (encoded[i] != null ? encoded[i].length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] value : encoded) {
+            buffer.putInt(value != null ? value.length : -1);
+            if (value != null) {
+                buffer.put(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static String readString(byte[] strings, int[] position) {
+        int length = ByteBuffer.wrap(strings, position[0], 4).getInt();
+        position[0] += 4;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(strings, position[0], length, StandardCharsets.UTF_8);
+        position[0] += length;
+        return value;
+    }
+
+    /**
+     * Reserves space for a strings blob, starting a new heap file when it does not fit in the current one.
+     */
+    private long reserveHeap(int length) throws IOException {
+        if (length > heapSegmentBytes) {
+            throw new IOException("Transaction strings too large for the ledger heap: " + length + " bytes");
+        }
+        if (heapPosition % heapSegmentBytes + length > heapSegmentBytes) {
+            heapPosition = (heapPosition / heapSegmentBytes + 1) * heapSegmentBytes;
+        }
+        int heap = (int) (heapPosition / heapSegmentBytes);
+        while (heap >= heaps.length) {
+            heaps = append(heaps, map(heapPath(heaps.length), heapSegmentBytes));
+        }
+        long offset = heapPosition;
+        heapPosition += length;
+        return offset;
+    }
+
+    private MappedByteBuffer segmentFor(int record) throws IOException {
+        int segment = record / recordsPerSegment;
+        while (segment >= segments.length) {
+            segments = append(segments, map(segmentPath(segments.length), (long) recordsPerSegment * RECORD_BYTES));
+        }
+        return segments[segment];
+    }
+
+    private static void read(ByteBuffer buffer, int index, byte[] bytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(index);
+        view.get(bytes);
+    }
+
+    private static void write(ByteBuffer buffer, int index, byte[] bytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(index);
+        view.put(bytes);
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private static MappedByteBuffer[] append(MappedByteBuffer[] buffers, MappedByteBuffer buffer) {
+        MappedByteBuffer[] grown = Arrays.copyOf(buffers, buffers.length + 1);
+        grown[buffers.length] = buffer;
+        return grown;
+    }
+
+    private void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("records-") || name.startsWith("strings-")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("records-%06d.dat", segment));
+    }
+
+    private Path heapPath(int heap) {
+        return directory.resolve(String.format("strings-%06d.dat", heap));
+    }
+
+    private static int orNull(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static Integer nullable(int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? AbstractAccount.toCents(amount) : NULL_LONG;
+    }
+
+    private static BigDecimal money(long cents) {
+        return cents != NULL_LONG ? BigDecimal.valueOf(cents, 2) : null;
+    }
+}
@@ -0,0 +1,652 @@
+package com.bankingsystem.utils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Process-wide counters, gauges and latency timers. Timers are looked up once into static fields and then
+ * recorded from the hot path without locks or allocation; a timed method hands its body to its timer as a
+ * method reference:
+ * <pre>
+ * public Account findById(Integer id) throws SQLException {
+ *     return FIND_BY_ID_TIMER.time(this, id, AccountDAO::doFindById);
+ * }
+ *
+ * private Account doFindById(Integer id) throws SQLException {
+ *     ...
+ * }
+ * </pre>
+ * Metrics can be written periodically to a file in the Prometheus text format and browsed over JMX
+ * under the {@code com.bankingsystem} domain.
+ */
+public final class MetricsRegistry {
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+
+    /** Public methods of the account, approval, transaction and transfer services, and user login. */
+    public static final String SERVICE = "bms_service_call";
+    /** DAO methods, whichever backend serves them. */
+    public static final String DAO = "bms_dao_call";
+    /** Tasks run by the background executor, from start to finish. */
+    public static final String BACKGROUND = "bms_background_task";
+    /** Time background tasks spent queued before a thread picked them up. */
+    public static final String BACKGROUND_WAIT = "bms_background_queue_wait";
+    /** Time approval requests waited from filing until they were approved, rejected or expired. */
+    public static final String APPROVAL_AGE = "bms_approval_queue_age";
+
+    private static final String JMX_DOMAIN = "com.bankingsystem";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+    private boolean jmxEnabled;
+    private ScheduledExecutorService exporter;
+    private Path exportFile;
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the timer for one method of a component, creating it on first use.
+     */
+    public Timer timer(String family, Class<?> component, String method) {
+        String key = family + '|' + component.getSimpleName() + '|' + method;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            synchronized (this) {
+                timer = timers.computeIfAbsent(key, k -> new Timer(family, component.getSimpleName(), method));
+                if (jmxEnabled) {
+                    register(timer.objectName(), timer, TimerMBean.class);
+                }
+            }
+        }
+        return timer;
+    }
+
+    public Counter counter(String name, String help) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            synchronized (this) {
+                counter = counters.computeIfAbsent(name, k -> new Counter(name, help));
+                if (jmxEnabled) {
+                    register(counter.objectName(), counter, CounterMBean.class);
+                }
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Registers a gauge read from {@code value} whenever metrics are exported. A later registration under the
+     * same name is ignored.
+     */
+    public Gauge gauge(String name, String help, LongSupplier value) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            synchronized (this) {
+                gauge = gauges.computeIfAbsent(name, k -> new Gauge(name, help, value));
+                if (jmxEnabled) {
+                    register(gauge.objectName(), gauge, GaugeMBean.class);
+                }
+            }
+        }
+        return gauge;
+    }
+
+    /**
+     * Publishes every existing and future metric as a platform MBean.
+     */
+    public synchronized void enableJmx() {
+        if (jmxEnabled) {
+            return;
+        }
+        jmxEnabled = true;
+        timers.values().forEach(timer -> register(timer.objectName(), timer, TimerMBean.class));
+        counters.values().forEach(counter -> register(counter.objectName(), counter, CounterMBean.class));
+        gauges.values().forEach(gauge -> register(gauge.objectName(), gauge, GaugeMBean.class));
+        LOGGER.info("Metrics published over JMX under " + JMX_DOMAIN);
+    }
+
+    private static <T> void register(String objectName, T metric, Class<T> type) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(metric, type), name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register MBean " + objectName, e);
+        }
+    }
+
+    /**
+     * Rewrites {@code file} every {@code intervalSeconds} with a fresh snapshot until
+     * {@link #stopExporter()} is called.
+     */
+    public synchronized void startExporter(Path file, long intervalSeconds) {
+        if (exporter != null) {
+            throw new IllegalStateException("Metrics exporter is already running");
+        }
+        exportFile = file;
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bms-metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(this::exportQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        LOGGER.info("Exporting metrics to " + file + " every " + intervalSeconds + "s");
+    }
+
+    /**
+     * Stops the periodic exporter and writes one last snapshot.
+     */
+    public synchronized void stopExporter() {
+        if (exporter == null) {
+            return;
+        }
+        exporter.shutdownNow();
+        exporter = null;
+        exportQuietly();
+    }
+
+    private void exportQuietly() {
+        try {
+            writePrometheusFile(exportFile);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to export metrics to " + exportFile, e);
+        }
+    }
+
+    /**
+     * Writes through a temporary file and renames it, so a scraper never reads a partial snapshot.
+     */
+    public void writePrometheusFile(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temporary, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        String family = null;
+        StringBuilder exceptions = new StringBuilder();
+        StringBuilder maxima = new StringBuilder();
+        for (Timer timer : timers.values()) {
+            if (!timer.family.equals(family)) {
+                appendTimerTail(text, family, exceptions, maxima);
+                family = timer.family;
+                text.append("# HELP ").append(family).append("_seconds Latency of ").append(describe(family)).append('\n');
+                text.append("# TYPE ").append(family).append("_seconds summary\n");
+            }
+            LatencyHistogram.Snapshot snapshot = timer.histogram.snapshot();
+            String labels = "component=\"" + timer.component + "\",method=\"" + timer.method + "\"";
+            for (double quantile : QUANTILES) {
+                text.append(family).append("_seconds{").append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(snapshot.getValueAtQuantile(quantile))).append('\n');
+            }
+            text.append(family).append("_seconds_sum{").append(labels).append("} ")
+                .append(seconds(snapshot.getTotalNanos())).append('\n');
+            text.append(family).append("_seconds_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+            exceptions.append(family).append("_exceptions_total{").append(labels).append("} ")
+                .append(timer.exceptions.sum()).append('\n');
+            maxima.append(family).append("_max_seconds{").append(labels).append("} ")
+                .append(seconds(snapshot.getMaxNanos())).append('\n');
+        }
+        appendTimerTail(text, family, exceptions, maxima);
+
+        for (Counter counter : counters.values()) {
+            text.append("# HELP ").append(counter.name).append(' ').append(counter.help).append('\n');
+            text.append("# TYPE ").append(counter.name).append(" counter\n");
+            text.append(counter.name).append(' ').append(counter.getCount()).append('\n');
+        }
+        for (Gauge gauge : gauges.values()) {
+            text.append("# HELP ").append(gauge.name).append(' ').append(gauge.help).append('\n');
+            text.append("# TYPE ").append(gauge.name).append(" gauge\n");
+            text.append(gauge.name).append(' ').append(gauge.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendTimerTail(StringBuilder text, String family, StringBuilder exceptions, StringBuilder maxima) {
+        if (family == null) {
+            return;
+        }
+        text.append("# HELP ").append(family).append("_exceptions_total Calls to ").append(describe(family))
+            .append(" that ended in an exception\n");
+        text.append("# TYPE ").append(family).append("_exceptions_total counter\n").append(exceptions);
+        text.append("# HELP ").append(family).append("_max_seconds Slowest call to ").append(describe(family)).append('\n');
+        text.append("# TYPE ").append(family).append("_max_seconds gauge\n").append(maxima);
+        exceptions.setLength(0);
+        maxima.setLength(0);
+    }
+
+    private static String describe(String family) {
+        switch (family) {
+            case SERVICE: return "service methods";
+            case DAO: return "DAO methods";
+            case BACKGROUND: return "background tasks";
+            case BACKGROUND_WAIT: return "background task queueing";
+            case APPROVAL_AGE: return "approval requests from filing to decision";
+            default: return family;
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    /**
+     * Resets every metric, for example between load-test phases.
+     */
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+        counters.values().forEach(counter -> counter.count.reset());
+    }
+
+    public interface TimerMBean {
+        long getCount();
+        long getExceptionCount();
+        double getMeanMillis();
+        double getMedianMillis();
+        double get99thPercentileMillis();
+        double get999thPercentileMillis();
+        double getMaxMillis();
+    }
+
+    public interface CounterMBean {
+        long getCount();
+    }
+
+    public interface GaugeMBean {
+        long getValue();
+    }
+
+    /**
+     * The body of a timed method, called on {@code target} with the method's arguments; written as a method
+     * reference such as {@code AccountDAO::doFindById} so that timing a call captures nothing and allocates nothing.
+     */
+    @FunctionalInterface
+    public interface Call0<T, R, E extends Exception> {
+        R call(T target) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call1<T, A1, R, E extends Exception> {
+        R call(T target, A1 a1) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call2<T, A1, A2, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call3<T, A1, A2, A3, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call4<T, A1, A2, A3, A4, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3, A4 a4) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call5<T, A1, A2, A3, A4, A5, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Call7<T, A1, A2, A3, A4, A5, A6, A7, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5, A6 a6, A7 a7) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Run1<T, A1, E extends Exception> {
+        void run(T target, A1 a1) throws E;
+    }
+
+    @FunctionalInterface
+    public interface Run2<T, A1, A2, E extends Exception> {
+        void run(T target, A1 a1, A2 a2) throws E;
+    }
+
+    /**
+     * A timed method body that throws {@link SQLException} and one other checked exception. Java infers a single
+     * type for the exceptions a method reference throws, so a body throwing two checked types needs the first
+     * spelled out here; one throwing more keeps the try/catch around its own body.
+     */
+    @FunctionalInterface
+    public interface SqlCall1<T, A1, R, E extends Exception> {
+        R call(T target, A1 a1) throws SQLException, E;
+    }
+
+    @FunctionalInterface
+    public interface SqlCall2<T, A1, A2, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2) throws SQLException, E;
+    }
+
+    @FunctionalInterface
+    public interface SqlCall3<T, A1, A2, A3, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3) throws SQLException, E;
+    }
+
+    @FunctionalInterface
+    public interface SqlCall4<T, A1, A2, A3, A4, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3, A4 a4) throws SQLException, E;
+    }
+
+    @FunctionalInterface
+    public interface SqlCall5<T, A1, A2, A3, A4, A5, R, E extends Exception> {
+        R call(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5) throws SQLException, E;
+    }
+
+    public static final class Timer implements TimerMBean {
+        private final String family;
+        private final String component;
+        private final String method;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder exceptions = new LongAdder();
+
+        private Timer(String family, String component, String method) {
+            this.family = family;
+            this.component = component;
+            this.method = method;
+        }
+
+        /**
+         * Calls {@code body} on {@code target}, recording its latency and, if it throws, the exception.
+         */
+        public <T, R, E extends Exception> R time(T target, Call0<T, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, R, E extends Exception> R time(T target, A1 a1, Call1<T, A1, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, R, E extends Exception> R time(T target, A1 a1, A2 a2, Call2<T, A1, A2, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, R, E extends Exception> R time(T target, A1 a1, A2 a2, A3 a3, Call3<T, A1, A2, A3, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, A4, R, E extends Exception> R time(T target, A1 a1, A2 a2, A3 a3, A4 a4, Call4<T, A1, A2, A3, A4, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3, a4);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, A4, A5, R, E extends Exception> R time(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5, Call5<T, A1, A2, A3, A4, A5, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3, a4, a5);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, A4, A5, A6, A7, R, E extends Exception> R time(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5, A6 a6, A7 a7, Call7<T, A1, A2, A3, A4, A5, A6, A7, R, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3, a4, a5, a6, a7);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, E extends Exception> void time(T target, A1 a1, Run1<T, A1, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                body.run(target, a1);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, E extends Exception> void time(T target, A1 a1, A2 a2, Run2<T, A1, A2, E> body) throws E {
+            long started = System.nanoTime();
+            try {
+                body.run(target, a1, a2);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        /**
+         * Like {@link #time(Object, Object, Call1)}, for a body that throws {@link SQLException} and one other
+         * checked exception.
+         */
+        public <T, A1, R, E extends Exception> R timeSql(T target, A1 a1, SqlCall1<T, A1, R, E> body) throws SQLException, E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, R, E extends Exception> R timeSql(T target, A1 a1, A2 a2, SqlCall2<T, A1, A2, R, E> body) throws SQLException, E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, R, E extends Exception> R timeSql(T target, A1 a1, A2 a2, A3 a3, SqlCall3<T, A1, A2, A3, R, E> body) throws SQLException, E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, A4, R, E extends Exception> R timeSql(T target, A1 a1, A2 a2, A3 a3, A4 a4, SqlCall4<T, A1, A2, A3, A4, R, E> body) throws SQLException, E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3, a4);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        public <T, A1, A2, A3, A4, A5, R, E extends Exception> R timeSql(T target, A1 a1, A2 a2, A3 a3, A4 a4, A5 a5, SqlCall5<T, A1, A2, A3, A4, A5, R, E> body) throws SQLException, E {
+            long started = System.nanoTime();
+            try {
+                return body.call(target, a1, a2, a3, a4, a5);
+            } catch (Exception e) {
+                exceptions.increment();
+                throw e;
+            } finally {
+                record(started);
+            }
+        }
+
+        /**
+         * Records one call that began at {@code startNanos}, a {@link System#nanoTime()} reading.
+         */
+        public void record(long startNanos) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+
+        public void recordNanos(long elapsedNanos) {
+            histogram.record(elapsedNanos);
+        }
+
+        /**
+         * Marks the call being timed as having thrown; it is still recorded by {@link #record(long)}.
+         */
+        public void recordException() {
+            exceptions.increment();
+        }
+
+        public LatencyHistogram.Snapshot snapshot() {
+            return histogram.snapshot();
+        }
+
+        private void reset() {
+            histogram.reset();
+            exceptions.reset();
+        }
+
+        private String objectName() {
+            return JMX_DOMAIN + ":type=Timer,family=" + family + ",component=" + component + ",method=" + method;
+        }
+
+        @Override public long getCount() { return histogram.snapshot().getCount(); }
+        @Override public long getExceptionCount() { return exceptions.sum(); }
+        @Override public double getMeanMillis() { return histogram.snapshot().getMeanNanos() / 1_000_000.0; }
+        @Override public double getMedianMillis() { return millis(0.5); }
+        @Override public double get99thPercentileMillis() { return millis(0.99); }
+        @Override public double get999thPercentileMillis() { return millis(0.999); }
+        @Override public double getMaxMillis() { return histogram.snapshot().getMaxNanos() / 1_000_000.0; }
+
+        private double millis(double quantile) {
+            return histogram.snapshot().getValueAtQuantile(quantile) / 1_000_000.0;
+        }
+    }
+
+    public static final class Counter implements CounterMBean {
+        private final String name;
+        private final String help;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        private String objectName() {
+            return JMX_DOMAIN + ":type=Counter,name=" + name;
+        }
+    }
+
+    public static final class Gauge implements GaugeMBean {
+        private final String name;
+        private final String help;
+        private final LongSupplier value;
+
+        private Gauge(String name, String help, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+
+        private String objectName() {
+            return JMX_DOMAIN + ":type=Gauge,name=" + name;
+        }
+    }
+}
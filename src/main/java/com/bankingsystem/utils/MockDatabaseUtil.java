@@ -1,12 +1,20 @@
 package com.bankingsystem.utils;
 
+import com.bankingsystem.config.AppConfig;
 import com.bankingsystem.models.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -20,6 +28,17 @@ public class MockDatabaseUtil {
     private static final Map<Integer, Transaction> transactions = new ConcurrentHashMap<>();
     private static final Map<String, AbstractAccount> accountsByNumber = new ConcurrentHashMap<>();
     private static final Map<Integer, TransactionApproval> transactionApprovals = new ConcurrentHashMap<>();
+    // Decided approvals moved out of the live map; the move is journaled and snapshots list the archived IDs
+    private static final Map<Integer, TransactionApproval> archivedApprovals = new ConcurrentHashMap<>();
+
+    // Secondary indexes, maintained under writeLock together with the primary maps
+    private static final Object writeLock = new Object();
+    private static final TransactionIndex transactionIndex = new TransactionIndex();
+    private static final PendingApprovalQueue pendingApprovals = new PendingApprovalQueue();
+    private static final Map<String, Set<Integer>> userIdsByUsername = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> indexedUsernames = new ConcurrentHashMap<>();
+    private static final Map<Integer, NavigableSet<Integer>> accountIdsByCustomer = new ConcurrentHashMap<>();
+    private static final Map<Integer, Integer> indexedCustomerIds = new ConcurrentHashMap<>();
 
     private static final AtomicInteger userIdCounter = new AtomicInteger(1);
     private static final AtomicInteger customerIdCounter = new AtomicInteger(1);
@@ -27,7 +46,26 @@ public class MockDatabaseUtil {
     private static final AtomicInteger transactionIdCounter = new AtomicInteger(1);
     private static final AtomicInteger approvalIdCounter = new AtomicInteger(1);
 
-    private static boolean dataInitialized = false;
+    // Optional write-ahead log; null keeps the store purely in memory
+    private static volatile StoreJournal journal;
+    // Mapped, append-only copy of transaction history, kept only while durability is enabled
+    private static volatile MappedLedger ledger;
+    // Balance deltas are logged under the read side so a snapshot can pause them with the write side
+    private static final StampedLock balanceGate = new StampedLock();
+    private static final Object checkpointLock = new Object();
+
+    // Highest log sequence number written by this thread while its durability waits are deferred
+    private static final ThreadLocal<long[]> deferredLsn = new ThreadLocal<>();
+
+    private static volatile boolean dataInitialized = false;
+
+    /**
+     * Ends a {@link #deferDurability()} scope.
+     */
+    public interface DurabilityScope extends AutoCloseable {
+        @Override
+        void close();
+    }
 
     static {
         // Only initialize data if explicitly requested or on first access
@@ -53,48 +91,48 @@ public class MockDatabaseUtil {
     }
 
     private static void loadSystemUsers() {
-        User admin = new User("admin", "OReq3vmOSzED0rYGoV3ca9eDcw/4ReCnrOSrZ6hPi5s=", "Admin", "System", "Administrator", "admin@bank.com");
-        admin.setUserId(userIdCounter.getAndIncrement());
-        users.put(admin.getUserId(), admin);
+        for (User user : createSystemUsers()) {
+            user.setUserId(userIdCounter.getAndIncrement());
+            putUser(user);
+        }
 
-        User manager = new User("manager", "OReq3vmOSzED0rYGoV3ca9eDcw/4ReCnrOSrZ6hPi5s=", "Manager", "Bank", "Manager", "manager@bank.com");
-        manager.setUserId(userIdCounter.getAndIncrement());
-        users.put(manager.getUserId(), manager);
+        LOGGER.info("System users loaded for authentication");
+    }
 
+    /**
+     * Builds the built-in admin, manager and teller logins, without IDs
+     */
+    public static List<User> createSystemUsers() {
+        User admin = new User("admin", "OReq3vmOSzED0rYGoV3ca9eDcw/4ReCnrOSrZ6hPi5s=", "Admin", "System", "Administrator", "admin@bank.com");
+        User manager = new User("manager", "OReq3vmOSzED0rYGoV3ca9eDcw/4ReCnrOSrZ6hPi5s=", "Manager", "Bank", "Manager", "manager@bank.com");
         User teller = new User("teller", "OReq3vmOSzED0rYGoV3ca9eDcw/4ReCnrOSrZ6hPi5s=", "Teller", "Bank", "Teller", "teller@bank.com");
-        teller.setUserId(userIdCounter.getAndIncrement());
-        users.put(teller.getUserId(), teller);
-
-        LOGGER.info("System users loaded for authentication");
+        return List.of(admin, manager, teller);
     }
 
     private static void loadSampleCustomersAndAccounts() {
 
         Customer customer1 = new Customer("John", "Smith", "john.smith@email.com", "(555) 123-4567", "123 Main St", LocalDate.of(1985, 3, 15), "123-45-6789");
         customer1.setCustomerId(customerIdCounter.getAndIncrement());
-        customers.put(customer1.getCustomerId(), customer1);
+        putCustomer(customer1);
 
         Customer customer2 = new Customer("Jane", "Johnson", "jane.johnson@email.com", "(555) 234-5678", "456 Oak Ave", LocalDate.of(1990, 7, 22), "234-56-7890");
         customer2.setCustomerId(customerIdCounter.getAndIncrement());
-        customers.put(customer2.getCustomerId(), customer2);
+        putCustomer(customer2);
 
         SavingsAccount account1 = new SavingsAccount("1234567890", customer1.getCustomerId(), 1);
         account1.setAccountId(accountIdCounter.getAndIncrement());
         account1.setBalance(new BigDecimal("2500.00"));
-        accounts.put(account1.getAccountId(), account1);
-        accountsByNumber.put(account1.getAccountNumber(), account1);
+        putAccount(account1);
 
         CheckingAccount account2 = new CheckingAccount("2345678901", customer1.getCustomerId(), 2);
         account2.setAccountId(accountIdCounter.getAndIncrement());
         account2.setBalance(new BigDecimal("1200.50"));
-        accounts.put(account2.getAccountId(), account2);
-        accountsByNumber.put(account2.getAccountNumber(), account2);
+        putAccount(account2);
 
         SavingsAccount account3 = new SavingsAccount("3456789012", customer2.getCustomerId(), 1);
         account3.setAccountId(accountIdCounter.getAndIncrement());
         account3.setBalance(new BigDecimal("5000.00"));
-        accounts.put(account3.getAccountId(), account3);
-        accountsByNumber.put(account3.getAccountNumber(), account3);
+        putAccount(account3);
 
         LOGGER.info("Sample customers and accounts loaded");
     }
@@ -103,12 +141,12 @@ public class MockDatabaseUtil {
      * Clears all data from the mock database
      */
     public static void clearAllData() {
-        users.clear();
-        customers.clear();
-        accounts.clear();
-        transactions.clear();
-        accountsByNumber.clear();
-        transactionApprovals.clear();
+        long lsn;
+        synchronized (writeLock) {
+            lsn = journal(StoreJournal.OP_CLEAR, out -> { });
+            clearMaps();
+        }
+        awaitDurable(lsn);
 
         // Reset counters
         userIdCounter.set(1);
@@ -121,6 +159,26 @@ public class MockDatabaseUtil {
         LOGGER.info("Mock database cleared - all data removed");
     }
 
+    private static void clearMaps() {
+        synchronized (writeLock) {
+            users.clear();
+            customers.clear();
+            accounts.clear();
+            transactions.clear();
+            accountsByNumber.clear();
+            transactionApprovals.clear();
+            archivedApprovals.clear();
+
+            transactionIndex.clear();
+            pendingApprovals.clear();
+            resetLedger();
+            userIdsByUsername.clear();
+            indexedUsernames.clear();
+            accountIdsByCustomer.clear();
+            indexedCustomerIds.clear();
+        }
+    }
+
     /**
      * Resets the database to initial state with sample data
      */
@@ -163,10 +221,17 @@ public class MockDatabaseUtil {
 
     public static User findUserByUsername(String username) {
         ensureInitialized();
-        return users.values().stream()
-            .filter(user -> user.getUsername().equals(username) && user.isActive())
-            .findFirst()
-            .orElse(null);
+        Set<Integer> userIds = username != null ? userIdsByUsername.get(username) : null;
+        if (userIds == null) {
+            return null;
+        }
+        for (Integer userId : userIds) {
+            User user = users.get(userId);
+            if (user != null && user.isActive() && username.equals(user.getUsername())) {
+                return user;
+            }
+        }
+        return null;
     }
 
     public static User findUserById(Integer userId) {
@@ -184,10 +249,37 @@ public class MockDatabaseUtil {
         if (user.getUserId() == null) {
             user.setUserId(userIdCounter.getAndIncrement());
         }
-        users.put(user.getUserId(), user);
+        awaitDurable(putUser(user));
         return user;
     }
 
+    private static long putUser(User user) {
+        synchronized (writeLock) {
+            long lsn = journal(StoreJournal.OP_PUT_USER, out -> StoreCodec.writeUser(out, user));
+            users.put(user.getUserId(), user);
+            unindexUser(user.getUserId());
+            if (user.getUsername() != null) {
+                userIdsByUsername.computeIfAbsent(user.getUsername(), name -> new ConcurrentSkipListSet<>())
+                    .add(user.getUserId());
+                indexedUsernames.put(user.getUserId(), user.getUsername());
+            }
+            return lsn;
+        }
+    }
+
+    private static void unindexUser(Integer userId) {
+        String username = indexedUsernames.remove(userId);
+        if (username != null) {
+            Set<Integer> userIds = userIdsByUsername.get(username);
+            if (userIds != null) {
+                userIds.remove(userId);
+                if (userIds.isEmpty()) {
+                    userIdsByUsername.remove(username, userIds);
+                }
+            }
+        }
+    }
+
     public static Customer findCustomerById(Integer customerId) {
         ensureInitialized();
         return customers.get(customerId);
@@ -203,10 +295,40 @@ public class MockDatabaseUtil {
         if (customer.getCustomerId() == null) {
             customer.setCustomerId(customerIdCounter.getAndIncrement());
         }
-        customers.put(customer.getCustomerId(), customer);
+        awaitDurable(putCustomer(customer));
         return customer;
     }
 
+    private static long putCustomer(Customer customer) {
+        synchronized (writeLock) {
+            long lsn = journal(StoreJournal.OP_PUT_CUSTOMER, out -> StoreCodec.writeCustomer(out, customer));
+            customers.put(customer.getCustomerId(), customer);
+            return lsn;
+        }
+    }
+
+    public static boolean deleteCustomerPermanently(Integer customerId) {
+        try {
+            Customer customer;
+            long lsn = 0L;
+            synchronized (writeLock) {
+                if (customers.containsKey(customerId)) {
+                    lsn = journal(StoreJournal.OP_DELETE_CUSTOMER, out -> out.writeInt(customerId));
+                }
+                customer = customers.remove(customerId);
+            }
+            awaitDurable(lsn);
+            if (customer != null) {
+                LOGGER.warning("Customer permanently deleted from database: " + customer.getFullName() + " (ID: " + customerId + ")");
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to permanently delete customer: " + customerId, e);
+            return false;
+        }
+    }
+
     public static AbstractAccount findAccountById(Integer accountId) {
         ensureInitialized();
         return accounts.get(accountId);
@@ -224,9 +346,18 @@ public class MockDatabaseUtil {
 
     public static List<AbstractAccount> getAccountsByCustomerId(Integer customerId) {
         ensureInitialized();
-        return accounts.values().stream()
-            .filter(account -> account.getCustomerId().equals(customerId))
-            .toList();
+        NavigableSet<Integer> accountIds = customerId != null ? accountIdsByCustomer.get(customerId) : null;
+        if (accountIds == null) {
+            return List.of();
+        }
+        List<AbstractAccount> customerAccounts = new ArrayList<>(accountIds.size());
+        for (Integer accountId : accountIds) {
+            AbstractAccount account = accounts.get(accountId);
+            if (account != null) {
+                customerAccounts.add(account);
+            }
+        }
+        return Collections.unmodifiableList(customerAccounts);
     }
 
     public static AbstractAccount saveAccount(AbstractAccount account) {
@@ -234,20 +365,107 @@ public class MockDatabaseUtil {
         if (account.getAccountId() == null) {
             account.setAccountId(accountIdCounter.getAndIncrement());
         }
-        accounts.put(account.getAccountId(), account);
-        accountsByNumber.put(account.getAccountNumber(), account);
+        awaitDurable(putAccount(account));
         return account;
     }
 
+    private static long putAccount(AbstractAccount account) {
+        synchronized (writeLock) {
+            // Re-saving the live object keeps its balance, which is journaled separately as deltas
+            boolean replaceBalance = accounts.get(account.getAccountId()) != account;
+            long lsn = journal(StoreJournal.OP_PUT_ACCOUNT, out -> {
+                out.writeBoolean(replaceBalance);
+                StoreCodec.writeAccount(out, account, account.getBalanceCents());
+            });
+            accounts.put(account.getAccountId(), account);
+            accountsByNumber.put(account.getAccountNumber(), account);
+            unindexAccountCustomer(account.getAccountId());
+            if (account.getCustomerId() != null) {
+                accountIdsByCustomer.computeIfAbsent(account.getCustomerId(), id -> new ConcurrentSkipListSet<>())
+                    .add(account.getAccountId());
+                indexedCustomerIds.put(account.getAccountId(), account.getCustomerId());
+            }
+            return lsn;
+        }
+    }
+
+    private static void unindexAccountCustomer(Integer accountId) {
+        Integer customerId = indexedCustomerIds.remove(accountId);
+        if (customerId != null) {
+            NavigableSet<Integer> accountIds = accountIdsByCustomer.get(customerId);
+            if (accountIds != null) {
+                accountIds.remove(accountId);
+                if (accountIds.isEmpty()) {
+                    accountIdsByCustomer.remove(customerId, accountIds);
+                }
+            }
+        }
+    }
+
     public static boolean updateAccountBalance(Integer accountId, BigDecimal newBalance) {
         ensureInitialized();
         AbstractAccount account = accounts.get(accountId);
-        if (account != null) {
-            account.setBalance(newBalance);
-            account.setUpdatedDate(LocalDateTime.now());
-            return true;
+        if (account == null) {
+            return false;
+        }
+        long lsn;
+        long stamp = enterBalanceGate();
+        try {
+            BigDecimal previous = account.getAndSetBalance(newBalance);
+            lsn = journalBalanceDelta(account, AbstractAccount.toCents(newBalance) - AbstractAccount.toCents(previous));
+        } finally {
+            exitBalanceGate(stamp);
+        }
+        account.setUpdatedDate(LocalDateTime.now());
+        awaitDurable(lsn);
+        return true;
+    }
+
+    /**
+     * Sets the balance only if it has not moved since the caller read the expected value.
+     */
+    public static boolean compareAndSetAccountBalance(Integer accountId, BigDecimal expectedBalance, BigDecimal newBalance) {
+        ensureInitialized();
+        AbstractAccount account = accounts.get(accountId);
+        if (account == null) {
+            return false;
         }
-        return false;
+        long lsn;
+        long stamp = enterBalanceGate();
+        try {
+            if (!account.compareAndSetBalance(expectedBalance, newBalance)) {
+                return false;
+            }
+            lsn = journalBalanceDelta(account, AbstractAccount.toCents(newBalance) - AbstractAccount.toCents(expectedBalance));
+        } finally {
+            exitBalanceGate(stamp);
+        }
+        account.setUpdatedDate(LocalDateTime.now());
+        awaitDurable(lsn);
+        return true;
+    }
+
+    /**
+     * Adds the delta to the balance with a compare-and-set retry loop; returns the new balance, or null if the account is missing.
+     */
+    public static BigDecimal adjustAccountBalance(Integer accountId, BigDecimal delta) {
+        ensureInitialized();
+        AbstractAccount account = accounts.get(accountId);
+        if (account == null) {
+            return null;
+        }
+        BigDecimal newBalance;
+        long lsn;
+        long stamp = enterBalanceGate();
+        try {
+            newBalance = account.addToBalance(delta);
+            lsn = journalBalanceDelta(account, AbstractAccount.toCents(delta));
+        } finally {
+            exitBalanceGate(stamp);
+        }
+        account.setUpdatedDate(LocalDateTime.now());
+        awaitDurable(lsn);
+        return newBalance;
     }
 
     public static Transaction saveTransaction(Transaction transaction) {
@@ -255,38 +473,111 @@ public class MockDatabaseUtil {
         if (transaction.getTransactionId() == null) {
             transaction.setTransactionId(transactionIdCounter.getAndIncrement());
         }
-        transaction.setCreatedDate(LocalDateTime.now());
-        transactions.put(transaction.getTransactionId(), transaction);
+        long lsn;
+        synchronized (writeLock) {
+            transaction.setCreatedDate(LocalDateTime.now());
+            lsn = putTransaction(transaction);
+        }
+        awaitDurable(lsn);
         return transaction;
     }
 
+    private static long putTransaction(Transaction transaction) {
+        synchronized (writeLock) {
+            long lsn = journal(StoreJournal.OP_PUT_TRANSACTION, out -> StoreCodec.writeTransaction(out, transaction));
+            transactions.put(transaction.getTransactionId(), transaction);
+            transactionIndex.add(transaction);
+            MappedLedger current = ledger;
+            if (current != null) {
+                try {
+                    current.append(transaction);
+                } catch (IOException e) {
+                    detachLedger(e);
+                }
+            }
+            return lsn;
+        }
+    }
+
+    /**
+     * The account's transactions, newest first. With durability enabled they are read from the mapped ledger
+     * as detached copies.
+     */
     public static List<Transaction> getTransactionsByAccountId(Integer accountId) {
-        return transactions.values().stream()
-            .filter(transaction -> transaction.getAccountId().equals(accountId))
-            .sorted((t1, t2) -> t2.getCreatedDate().compareTo(t1.getCreatedDate()))
-            .toList();
+        MappedLedger current = ledger;
+        return current != null ? current.findByAccount(accountId) : transactionIndex.findByAccount(accountId);
+    }
+
+    /**
+     * The account's transactions created on or between the dates, newest first.
+     */
+    public static List<Transaction> getTransactionsByAccountIdAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate) {
+        return transactionIndex.findByAccountAndDateRange(accountId, startDate, endDate);
+    }
+
+    /**
+     * One page of {@link #getTransactionsByAccountIdAndDateRange} order, where either date may be null for an
+     * open end, resuming just after the transaction identified by {@code afterCreatedDate} and
+     * {@code afterTransactionId} when both are given, then skipping {@code offset} transactions and returning
+     * up to {@code limit}.
+     */
+    public static List<Transaction> getTransactionsPage(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                                        LocalDateTime afterCreatedDate, Integer afterTransactionId,
+                                                        int offset, int limit) {
+        TransactionIndex.LedgerKey after = afterCreatedDate != null && afterTransactionId != null
+            ? TransactionIndex.LedgerKey.of(afterCreatedDate, afterTransactionId) : null;
+        return transactionIndex.findByAccountPage(accountId, startDate, endDate, after, offset, limit);
+    }
+
+    public static boolean hasTransactions(Integer accountId) {
+        return transactionIndex.hasTransactions(accountId);
     }
 
     public static List<Transaction> getAllTransactions() {
-        return transactions.values().stream()
-            .sorted((t1, t2) -> t2.getCreatedDate().compareTo(t1.getCreatedDate()))
-            .toList();
+        return transactionIndex.findAll();
+    }
+
+    /**
+     * One chunk of the newest-first transaction order, resuming after the transaction identified by
+     * {@code afterCreatedDate} and {@code afterTransactionId}, or from the newest when both are null.
+     */
+    public static List<Transaction> getTransactionsChunk(LocalDateTime afterCreatedDate, Integer afterTransactionId, int limit) {
+        TransactionIndex.LedgerKey after = afterCreatedDate != null && afterTransactionId != null
+            ? TransactionIndex.LedgerKey.of(afterCreatedDate, afterTransactionId) : null;
+        return transactionIndex.findChunk(after, limit);
+    }
+
+    public static int getTransactionCount() {
+        return transactions.size();
+    }
+
+    /**
+     * Report figures for transactions created from {@code startDate} to {@code endDate}, summed from the
+     * per-day rollups rather than by scanning the ledger.
+     */
+    public static ReportRollups.Totals getReportTotals(LocalDate startDate, LocalDate endDate) {
+        ensureInitialized();
+        return transactionIndex.getRollups().totals(startDate, endDate);
+    }
+
+    /**
+     * The off-heap columnar copy of the ledger, for report checks that scan every transaction.
+     */
+    static TransactionColumns getTransactionColumns() {
+        ensureInitialized();
+        return transactionIndex.getColumns();
     }
 
     public static Transaction findTransactionByReference(String referenceNumber) {
-        return transactions.values().stream()
-            .filter(transaction -> transaction.getReferenceNumber().equals(referenceNumber))
-            .findFirst()
-            .orElse(null);
+        if (referenceNumber == null) {
+            return null;
+        }
+        Integer transactionId = transactionIndex.findIdByReference(referenceNumber);
+        return transactionId != null ? transactions.get(transactionId) : null;
     }
 
     public static BigDecimal getDailyWithdrawalTotal(Integer accountId, LocalDate date) {
-        return transactions.values().stream()
-            .filter(transaction -> transaction.getAccountId().equals(accountId))
-            .filter(transaction -> transaction.getCreatedDate().toLocalDate().equals(date))
-            .filter(transaction -> "Withdrawal".equals(transaction.getTransactionType()))
-            .map(transaction -> transaction.getAmount().abs())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(transactionIndex.dailyWithdrawalCents(accountId, date), 2);
     }
 
     public static Integer getTransactionTypeId(String typeName) {
@@ -303,7 +594,16 @@ public class MockDatabaseUtil {
 
     public static boolean deleteUserPermanently(Integer userId) {
         try {
-            User user = users.remove(userId);
+            User user;
+            long lsn = 0L;
+            synchronized (writeLock) {
+                if (users.containsKey(userId)) {
+                    lsn = journal(StoreJournal.OP_DELETE_USER, out -> out.writeInt(userId));
+                }
+                user = users.remove(userId);
+                unindexUser(userId);
+            }
+            awaitDurable(lsn);
             if (user != null) {
                 LOGGER.warning("User permanently deleted from database: " + user.getUsername() + " (ID: " + userId + ")");
                 return true;
@@ -317,20 +617,30 @@ public class MockDatabaseUtil {
 
     public static boolean deleteAccountPermanently(Integer accountId) {
         try {
-            AbstractAccount account = accounts.remove(accountId);
-            if (account != null) {
+            AbstractAccount account;
+            List<Transaction> accountTransactions;
+            long lsn;
+            synchronized (writeLock) {
+                if (!accounts.containsKey(accountId)) {
+                    return false;
+                }
+                lsn = journal(StoreJournal.OP_DELETE_ACCOUNT, out -> out.writeInt(accountId));
+                account = accounts.remove(accountId);
                 accountsByNumber.remove(account.getAccountNumber());
+                unindexAccountCustomer(accountId);
 
-                List<Transaction> accountTransactions = getTransactionsByAccountId(accountId);
+                accountTransactions = transactionIndex.findByAccount(accountId);
                 for (Transaction transaction : accountTransactions) {
                     transactions.remove(transaction.getTransactionId());
+                    transactionIndex.remove(transaction.getTransactionId());
+                    appendLedgerDeletion(transaction.getTransactionId());
                 }
-
-                LOGGER.warning("Account and " + accountTransactions.size() + " related transactions permanently deleted: " +
-                             account.getAccountNumber() + " (ID: " + accountId + ")");
-                return true;
             }
-            return false;
+            awaitDurable(lsn);
+
+            LOGGER.warning("Account and " + accountTransactions.size() + " related transactions permanently deleted: " +
+                         account.getAccountNumber() + " (ID: " + accountId + ")");
+            return true;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to permanently delete account: " + accountId, e);
             return false;
@@ -339,7 +649,19 @@ public class MockDatabaseUtil {
 
     public static boolean deleteTransactionPermanently(Integer transactionId) {
         try {
-            Transaction transaction = transactions.remove(transactionId);
+            Transaction transaction;
+            long lsn = 0L;
+            synchronized (writeLock) {
+                if (transactions.containsKey(transactionId)) {
+                    lsn = journal(StoreJournal.OP_DELETE_TRANSACTION, out -> out.writeInt(transactionId));
+                }
+                transaction = transactions.remove(transactionId);
+                transactionIndex.remove(transactionId);
+                if (transaction != null) {
+                    appendLedgerDeletion(transactionId);
+                }
+            }
+            awaitDurable(lsn);
             if (transaction != null) {
                 LOGGER.warning("Transaction permanently deleted from database: " +
                              transaction.getReferenceNumber() + " (ID: " + transactionId + ")");
@@ -391,7 +713,8 @@ public class MockDatabaseUtil {
     public static String getDatabaseStats() {
         ensureInitialized();
         return String.format("Users: %d, Customers: %d, Accounts: %d, Transactions: %d, Approvals: %d",
-                           users.size(), customers.size(), accounts.size(), transactions.size(), transactionApprovals.size());
+                           users.size(), customers.size(), accounts.size(), transactions.size(),
+                           transactionApprovals.size() + archivedApprovals.size());
     }
 
     // Transaction Approval Methods
@@ -401,37 +724,188 @@ public class MockDatabaseUtil {
         if (approval.getApprovalId() == null) {
             approval.setApprovalId(approvalIdCounter.getAndIncrement());
         }
-        transactionApprovals.put(approval.getApprovalId(), approval);
+        awaitDurable(putApproval(approval));
         return approval;
     }
 
+    /**
+     * Applies {@code transition} to the stored approval and saves it, provided its status is still
+     * {@code expectedStatus}. The check, the change and the journal record all happen under the write lock, so
+     * when several callers race to move an approval out of a status exactly one succeeds. Returns false, changing
+     * nothing, if the approval is unknown, archived or no longer in that status.
+     */
+    public static boolean transitionTransactionApproval(Integer approvalId, String expectedStatus,
+                                                        Consumer<TransactionApproval> transition) {
+        ensureInitialized();
+        long lsn;
+        synchronized (writeLock) {
+            TransactionApproval approval = transactionApprovals.get(approvalId);
+            if (approval == null || !expectedStatus.equals(approval.getApprovalStatus())) {
+                return false;
+            }
+            Integer decidedBy = approval.getApprovedByUserId();
+            LocalDateTime decidedAt = approval.getApprovedDate();
+            String comments = approval.getApprovalComments();
+            String reason = approval.getRejectionReason();
+            transition.accept(approval);
+            try {
+                lsn = putApproval(approval);
+            } catch (RuntimeException e) {
+                // Not journaled, so not applied: restore what readers saw before
+                approval.setApprovedByUserId(decidedBy);
+                approval.setApprovedDate(decidedAt);
+                approval.setApprovalComments(comments);
+                approval.setRejectionReason(reason);
+                approval.setApprovalStatus(expectedStatus);
+                throw e;
+            }
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    private static long putApproval(TransactionApproval approval) {
+        synchronized (writeLock) {
+            long lsn = journal(StoreJournal.OP_PUT_APPROVAL, out -> StoreCodec.writeApproval(out, approval));
+            transactionApprovals.put(approval.getApprovalId(), approval);
+            archivedApprovals.remove(approval.getApprovalId());
+            pendingApprovals.put(approval);
+            return lsn;
+        }
+    }
+
     public static TransactionApproval findTransactionApprovalById(Integer approvalId) {
         ensureInitialized();
-        return transactionApprovals.get(approvalId);
+        TransactionApproval approval = transactionApprovals.get(approvalId);
+        return approval != null ? approval : archivedApprovals.get(approvalId);
     }
 
+    /**
+     * Every approval, archived ones included.
+     */
     public static List<TransactionApproval> getAllTransactionApprovals() {
+        ensureInitialized();
+        return allApprovals();
+    }
+
+    /**
+     * Approvals still in the live map: every pending one plus those decided but not yet archived.
+     */
+    public static List<TransactionApproval> getLiveTransactionApprovals() {
         ensureInitialized();
         return new ArrayList<>(transactionApprovals.values());
     }
 
+    public static int getPendingTransactionApprovalCount() {
+        return pendingApprovals.size();
+    }
+
+    public static int getArchivedTransactionApprovalCount() {
+        return archivedApprovals.size();
+    }
+
+    /**
+     * Moves a decided approval out of the live map. The archived copy is still found by ID, listed with all
+     * approvals and written to snapshots. Returns false if the approval is unknown, already archived or pending.
+     */
+    public static boolean archiveTransactionApproval(Integer approvalId) {
+        long lsn;
+        synchronized (writeLock) {
+            TransactionApproval approval = transactionApprovals.get(approvalId);
+            if (approval == null || approval.isPending()) {
+                return false;
+            }
+            lsn = journal(StoreJournal.OP_ARCHIVE_APPROVAL, out -> out.writeInt(approvalId));
+            moveToArchive(approvalId);
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    private static void moveToArchive(Integer approvalId) {
+        synchronized (writeLock) {
+            TransactionApproval approval = transactionApprovals.remove(approvalId);
+            if (approval != null) {
+                archivedApprovals.put(approvalId, approval);
+                pendingApprovals.remove(approvalId);
+            }
+        }
+    }
+
+    private static List<TransactionApproval> allApprovals() {
+        List<TransactionApproval> approvals = new ArrayList<>(transactionApprovals.size() + archivedApprovals.size());
+        approvals.addAll(transactionApprovals.values());
+        approvals.addAll(archivedApprovals.values());
+        return approvals;
+    }
+
+    /**
+     * Every pending approval, largest amount first and oldest first within an amount.
+     */
     public static List<TransactionApproval> getPendingTransactionApprovals() {
         ensureInitialized();
-        return transactionApprovals.values().stream()
-            .filter(TransactionApproval::isPending)
-            .collect(Collectors.toList());
+        return pendingApprovals.findAll();
+    }
+
+    /**
+     * Pending approvals requested by users in the given roles, each role up to its ceiling on the amount (null
+     * for none), plus the requester's own pending approvals up to {@code requesterCeiling}, routed to the
+     * approver's role like {@link #getPendingTransactionApprovals(String)}.
+     */
+    public static List<TransactionApproval> getPendingTransactionApprovals(Map<String, BigDecimal> ceilingByRole,
+                                                                           Integer requesterId, BigDecimal requesterCeiling,
+                                                                           String approverRole) {
+        ensureInitialized();
+        return pendingApprovals.find(ceilingByRole, requesterId, requesterCeiling, approverRole);
+    }
+
+    /**
+     * Every pending approval an approver in the given role handles: those escalated to the role first, then the
+     * rest in queue order, leaving out those escalated past it.
+     */
+    public static List<TransactionApproval> getPendingTransactionApprovals(String approverRole) {
+        ensureInitialized();
+        return pendingApprovals.findAll(approverRole);
+    }
+
+    /**
+     * Escalates a pending approval to the given role. Escalation is worked out again from the filing time on every
+     * start, so it is not journaled. Returns false if the approval is unknown or no longer pending.
+     */
+    public static boolean escalateTransactionApproval(Integer approvalId, String role) {
+        ensureInitialized();
+        synchronized (writeLock) {
+            TransactionApproval approval = transactionApprovals.get(approvalId);
+            if (approval == null || !approval.isPending()) {
+                return false;
+            }
+            approval.setEscalatedToRole(role);
+            return true;
+        }
     }
 
     public static List<TransactionApproval> getTransactionApprovalsByUser(Integer userId) {
         ensureInitialized();
-        return transactionApprovals.values().stream()
+        return allApprovals().stream()
             .filter(approval -> approval.getRequestedByUserId().equals(userId))
             .collect(Collectors.toList());
     }
 
     public static boolean deleteTransactionApprovalPermanently(Integer approvalId) {
         try {
-            TransactionApproval approval = transactionApprovals.remove(approvalId);
+            TransactionApproval approval;
+            long lsn = 0L;
+            synchronized (writeLock) {
+                if (transactionApprovals.containsKey(approvalId) || archivedApprovals.containsKey(approvalId)) {
+                    lsn = journal(StoreJournal.OP_DELETE_APPROVAL, out -> out.writeInt(approvalId));
+                }
+                approval = transactionApprovals.remove(approvalId);
+                if (approval == null) {
+                    approval = archivedApprovals.remove(approvalId);
+                }
+                pendingApprovals.remove(approvalId);
+            }
+            awaitDurable(lsn);
             if (approval != null) {
                 LOGGER.warning("Transaction approval permanently deleted: ID " + approvalId);
                 return true;
@@ -446,7 +920,7 @@ public class MockDatabaseUtil {
     // Additional methods for backup functionality
     public static List<TransactionApproval> getAllApprovals() {
         ensureInitialized();
-        return new ArrayList<>(transactionApprovals.values());
+        return allApprovals();
     }
 
     public static TransactionApproval saveApproval(TransactionApproval approval) {
@@ -454,10 +928,386 @@ public class MockDatabaseUtil {
         if (approval.getApprovalId() == null) {
             approval.setApprovalId(approvalIdCounter.getAndIncrement());
         }
-        transactionApprovals.put(approval.getApprovalId(), approval);
+        awaitDurable(putApproval(approval));
         return approval;
     }
 
+    // Durability
+
+    /**
+     * Backs the store with a write-ahead log and snapshots in the given directory, first recovering any state found there.
+     * Call once at startup, before the store is used. Returns true if existing data was recovered.
+     */
+    public static boolean enableDurability(Path directory, StoreJournal.FsyncPolicy fsyncPolicy) throws IOException {
+        boolean recovered;
+        synchronized (checkpointLock) {
+            if (journal != null) {
+                throw new IllegalStateException("Durability is already enabled");
+            }
+            StoreJournal recovering = new StoreJournal(directory, fsyncPolicy);
+            clearMaps();
+            recovered = recovering.recover(new JournalReplay());
+            restoreCounters();
+            dataInitialized = recovered;
+            ledger = openLedger(directory.resolve(AppConfig.LEDGER_DIRECTORY));
+            journal = recovering;
+            recovering.start(MockDatabaseUtil::checkpoint,
+                             AppConfig.WAL_FLUSH_INTERVAL_MILLIS,
+                             TimeUnit.MINUTES.toMillis(AppConfig.SNAPSHOT_INTERVAL_MINUTES),
+                             AppConfig.WAL_SNAPSHOT_THRESHOLD_BYTES);
+        }
+        LOGGER.info(String.format("Durable store enabled in %s (fsync %s): %d users, %d customers, %d accounts, %d transactions recovered",
+                                directory, fsyncPolicy, users.size(), customers.size(), accounts.size(), transactions.size()));
+        if (recovered) {
+            checkpoint();
+        }
+        return recovered;
+    }
+
+    public static boolean isDurable() {
+        return journal != null;
+    }
+
+    /**
+     * Lets writes made by the calling thread return without waiting for the journal to reach disk; closing the
+     * scope then waits once for the last of them. A scope opened inside another is folded into the outer one.
+     * <pre>
+     * MockDatabaseUtil.DurabilityScope durability = MockDatabaseUtil.deferDurability();
+     * try (durability) {
+     *     ...
+     * }
+     * </pre>
+     */
+    public static DurabilityScope deferDurability() {
+        if (deferredLsn.get() != null) {
+            return () -> { };
+        }
+        long[] latest = new long[1];
+        deferredLsn.set(latest);
+        return () -> {
+            if (deferredLsn.get() == latest) {
+                deferredLsn.remove();
+                awaitDurable(latest[0]);
+            }
+        };
+    }
+
+    /**
+     * Writes a snapshot of the whole store and discards the log segments it covers.
+     * Writers are paused only while the log is rotated and the entity lists are copied.
+     */
+    public static void checkpoint() {
+        synchronized (checkpointLock) {
+            StoreJournal current = journal;
+            if (current == null) {
+                return;
+            }
+            try {
+                StoreJournal.Snapshot snapshot;
+                synchronized (writeLock) {
+                    long stamp = balanceGate.writeLock();
+                    try {
+                        long segment = current.rotate();
+                        List<AbstractAccount> accountList = new ArrayList<>(accounts.values());
+                        long[] balanceCents = new long[accountList.size()];
+                        for (int i = 0; i < balanceCents.length; i++) {
+                            balanceCents[i] = accountList.get(i).getBalanceCents();
+                        }
+                        snapshot = new StoreJournal.Snapshot(segment,
+                            new ArrayList<>(users.values()), new ArrayList<>(customers.values()),
+                            accountList, balanceCents,
+                            new ArrayList<>(transactions.values()), allApprovals(),
+                            new ArrayList<>(archivedApprovals.keySet()));
+                    } finally {
+                        balanceGate.unlockWrite(stamp);
+                    }
+                }
+                current.writeSnapshot(snapshot);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to write store snapshot", e);
+            }
+            compactLedger();
+        }
+    }
+
+    /**
+     * Flushes and closes the write-ahead log; the store keeps running in memory only.
+     */
+    public static void shutdownDurability() {
+        StoreJournal closing;
+        synchronized (checkpointLock) {
+            closing = journal;
+            if (closing == null) {
+                return;
+            }
+            synchronized (writeLock) {
+                long stamp = balanceGate.writeLock();
+                try {
+                    journal = null;
+                } finally {
+                    balanceGate.unlockWrite(stamp);
+                }
+                closeLedger();
+            }
+        }
+        try {
+            closing.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to close store journal", e);
+        }
+    }
+
+    /**
+     * Maps the transaction ledger, rebuilding it from the recovered store unless it was closed cleanly and
+     * matches. Returns null, leaving history reads on the heap index, if the ledger cannot be opened.
+     */
+    private static MappedLedger openLedger(Path directory) {
+        MappedLedger opened = null;
+        try {
+            opened = MappedLedger.open(directory, AppConfig.LEDGER_SEGMENT_RECORDS, AppConfig.LEDGER_HEAP_SEGMENT_BYTES);
+            synchronized (writeLock) {
+                if (!opened.isClean() || opened.size() != transactions.size()) {
+                    LOGGER.info("Rebuilding transaction ledger in " + directory + " from " + transactions.size() + " transactions");
+                    opened.rebuild(transactionIndex.findAll());
+                }
+            }
+            return opened;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to open transaction ledger in " + directory + "; history is served from memory", e);
+            if (opened != null) {
+                try {
+                    opened.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rebuilds the ledger from the live transactions once superseded versions and tombstones have piled up.
+     * Writers wait while it is rebuilt; history readers fall back to the heap index meanwhile.
+     */
+    private static void compactLedger() {
+        synchronized (writeLock) {
+            MappedLedger current = ledger;
+            if (current == null || !current.needsCompaction()) {
+                return;
+            }
+            int records = current.getRecordCount();
+            ledger = null;
+            try {
+                current.rebuild(transactionIndex.findAll());
+                ledger = current;
+                LOGGER.info(String.format("Transaction ledger compacted from %d to %d records", records, current.getRecordCount()));
+            } catch (IOException e) {
+                detachLedger(e);
+            }
+        }
+    }
+
+    private static void appendLedgerDeletion(Integer transactionId) {
+        MappedLedger current = ledger;
+        if (current != null) {
+            try {
+                current.appendDeletion(transactionId);
+            } catch (IOException e) {
+                detachLedger(e);
+            }
+        }
+    }
+
+    private static void resetLedger() {
+        MappedLedger current = ledger;
+        if (current != null) {
+            try {
+                current.reset();
+            } catch (IOException e) {
+                detachLedger(e);
+            }
+        }
+    }
+
+    /**
+     * Stops using a ledger that failed to write. It is derived from the journal, so the write itself stands
+     * and the ledger is rebuilt the next time durability is enabled.
+     */
+    private static void detachLedger(IOException cause) {
+        LOGGER.log(Level.SEVERE, "Transaction ledger write failed; history is served from memory until restart", cause);
+        ledger = null;
+    }
+
+    private static void closeLedger() {
+        MappedLedger closing = ledger;
+        ledger = null;
+        if (closing != null) {
+            try {
+                closing.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to close transaction ledger", e);
+            }
+        }
+    }
+
+    private static long journal(byte op, StoreJournal.RecordWriter writer) {
+        StoreJournal current = journal;
+        if (current == null) {
+            return 0L;
+        }
+        try {
+            return current.append(op, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write store journal", e);
+        }
+    }
+
+    private static void awaitDurable(long lsn) {
+        StoreJournal current = journal;
+        if (current == null || lsn <= 0L) {
+            return;
+        }
+        long[] deferred = deferredLsn.get();
+        if (deferred != null) {
+            deferred[0] = Math.max(deferred[0], lsn);
+            return;
+        }
+        try {
+            current.awaitDurable(lsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync store journal", e);
+        }
+    }
+
+    /**
+     * Logs a balance change as a delta so concurrent lock-free updates replay in any order.
+     * If the record cannot be written the in-memory change is undone.
+     */
+    private static long journalBalanceDelta(AbstractAccount account, long deltaCents) {
+        if (deltaCents == 0L) {
+            return 0L;
+        }
+        try {
+            return journal(StoreJournal.OP_BALANCE_DELTA, out -> {
+                out.writeInt(account.getAccountId());
+                out.writeLong(deltaCents);
+            });
+        } catch (UncheckedIOException e) {
+            account.addToBalance(BigDecimal.valueOf(-deltaCents, 2));
+            throw e;
+        }
+    }
+
+    private static long enterBalanceGate() {
+        return journal != null ? balanceGate.readLock() : 0L;
+    }
+
+    private static void exitBalanceGate(long stamp) {
+        if (stamp != 0L) {
+            balanceGate.unlockRead(stamp);
+        }
+    }
+
+    private static void restoreCounters() {
+        userIdCounter.set(users.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+        customerIdCounter.set(customers.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+        accountIdCounter.set(accounts.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+        transactionIdCounter.set(transactions.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+        approvalIdCounter.set(allApprovals().stream().mapToInt(TransactionApproval::getApprovalId).max().orElse(0) + 1);
+    }
+
+    /**
+     * Applies recovered records directly to the maps; the journal is not attached yet, so nothing is re-logged.
+     */
+    private static final class JournalReplay implements StoreJournal.ReplayTarget {
+        @Override
+        public void clear() {
+            clearMaps();
+        }
+
+        @Override
+        public void putUser(User user) {
+            MockDatabaseUtil.putUser(user);
+        }
+
+        @Override
+        public void putCustomer(Customer customer) {
+            MockDatabaseUtil.putCustomer(customer);
+        }
+
+        @Override
+        public void putAccount(AbstractAccount account, boolean replaceBalance) {
+            AbstractAccount existing = accounts.get(account.getAccountId());
+            if (!replaceBalance && existing != null) {
+                account.setBalance(existing.getBalance());
+            }
+            if (existing != null && !existing.getAccountNumber().equals(account.getAccountNumber())) {
+                accountsByNumber.remove(existing.getAccountNumber(), existing);
+            }
+            MockDatabaseUtil.putAccount(account);
+        }
+
+        @Override
+        public void adjustBalance(Integer accountId, long deltaCents) {
+            AbstractAccount account = accounts.get(accountId);
+            if (account != null) {
+                account.addToBalance(BigDecimal.valueOf(deltaCents, 2));
+            }
+        }
+
+        @Override
+        public void putTransaction(Transaction transaction) {
+            MockDatabaseUtil.putTransaction(transaction);
+        }
+
+        @Override
+        public void putApproval(TransactionApproval approval) {
+            MockDatabaseUtil.putApproval(approval);
+        }
+
+        @Override
+        public void deleteUser(Integer userId) {
+            users.remove(userId);
+            unindexUser(userId);
+        }
+
+        @Override
+        public void deleteCustomer(Integer customerId) {
+            customers.remove(customerId);
+        }
+
+        @Override
+        public void deleteAccount(Integer accountId) {
+            AbstractAccount account = accounts.remove(accountId);
+            if (account != null) {
+                accountsByNumber.remove(account.getAccountNumber(), account);
+                unindexAccountCustomer(accountId);
+                for (Transaction transaction : transactionIndex.findByAccount(accountId)) {
+                    transactions.remove(transaction.getTransactionId());
+                    transactionIndex.remove(transaction.getTransactionId());
+                }
+            }
+        }
+
+        @Override
+        public void deleteTransaction(Integer transactionId) {
+            transactions.remove(transactionId);
+            transactionIndex.remove(transactionId);
+        }
+
+        @Override
+        public void deleteApproval(Integer approvalId) {
+            transactionApprovals.remove(approvalId);
+            archivedApprovals.remove(approvalId);
+            pendingApprovals.remove(approvalId);
+        }
+
+        @Override
+        public void archiveApproval(Integer approvalId) {
+            moveToArchive(approvalId);
+        }
+    }
+
     /**
      * Refresh data for reporting - ensures all collections are up to date
      */
@@ -0,0 +1,208 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.TransactionApproval;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Pending transaction approvals, queued per requester role and per requester, largest amount first and oldest
+ * first within an amount. Approvals leave the queues as soon as they are saved approved or rejected, so
+ * lookups only touch pending work, and a ceiling on the amount skips straight to the approvals under it.
+ * Lookups for an approver's role list the approvals escalated to that role first and leave out those
+ * escalated past it. Mutations are expected to be serialized by the owning store; reads are lock-free.
+ */
+class PendingApprovalQueue {
+    private final ConcurrentSkipListMap<QueueKey, TransactionApproval> all = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<QueueKey, TransactionApproval>> byRole = new ConcurrentHashMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<QueueKey, TransactionApproval>> byRequester = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Files the approval if it is pending, replacing wherever it was filed before.
+     */
+    void put(TransactionApproval approval) {
+        remove(approval.getApprovalId());
+        if (!approval.isPending()) {
+            return;
+        }
+        Entry entry = new Entry(approval);
+        all.put(entry.key, approval);
+        if (entry.role != null) {
+            byRole.computeIfAbsent(entry.role, role -> new ConcurrentSkipListMap<>()).put(entry.key, approval);
+        }
+        if (entry.requesterId != null) {
+            byRequester.computeIfAbsent(entry.requesterId, id -> new ConcurrentSkipListMap<>()).put(entry.key, approval);
+        }
+        entries.put(approval.getApprovalId(), entry);
+    }
+
+    void remove(Integer approvalId) {
+        Entry entry = entries.remove(approvalId);
+        if (entry == null) {
+            return;
+        }
+        all.remove(entry.key);
+        if (entry.role != null) {
+            unfile(byRole, entry.role, entry.key);
+        }
+        if (entry.requesterId != null) {
+            unfile(byRequester, entry.requesterId, entry.key);
+        }
+    }
+
+    void clear() {
+        all.clear();
+        byRole.clear();
+        byRequester.clear();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    List<TransactionApproval> findAll() {
+        return routedTo(null, all.values());
+    }
+
+    /**
+     * Every pending approval an approver in the given role handles.
+     */
+    List<TransactionApproval> findAll(String approverRole) {
+        return routedTo(approverRole, all.values());
+    }
+
+    /**
+     * Pending approvals requested by users in the given roles, each role up to its own ceiling on the amount
+     * (null for none), plus the requester's own pending approvals up to {@code requesterCeiling}. The
+     * requester's approvals are judged by that ceiling alone, whatever role they were filed under. Routed to
+     * {@code approverRole} like {@link #findAll(String)}.
+     */
+    List<TransactionApproval> find(Map<String, BigDecimal> ceilingByRole, Integer requesterId, BigDecimal requesterCeiling,
+                                   String approverRole) {
+        NavigableMap<QueueKey, TransactionApproval> found = new TreeMap<>();
+        for (Map.Entry<String, BigDecimal> role : ceilingByRole.entrySet()) {
+            for (Map.Entry<QueueKey, TransactionApproval> queued : upTo(byRole.get(role.getKey()), role.getValue()).entrySet()) {
+                if (requesterId == null || !requesterId.equals(queued.getValue().getRequestedByUserId())) {
+                    found.put(queued.getKey(), queued.getValue());
+                }
+            }
+        }
+        if (requesterId != null) {
+            found.putAll(upTo(byRequester.get(requesterId), requesterCeiling));
+        }
+        return routedTo(approverRole, found.values());
+    }
+
+    private static NavigableMap<QueueKey, TransactionApproval> upTo(ConcurrentSkipListMap<QueueKey, TransactionApproval> queue,
+                                                                    BigDecimal ceiling) {
+        if (queue == null) {
+            return Collections.emptyNavigableMap();
+        }
+        return ceiling != null ? queue.tailMap(QueueKey.bound(ceiling), true) : queue;
+    }
+
+    /**
+     * Copies out the approvals still pending; one approved or rejected in place is skipped until it is saved.
+     * Given an approver's role, those escalated to it come first and those escalated past it are skipped.
+     */
+    private static List<TransactionApproval> routedTo(String approverRole, Iterable<TransactionApproval> approvals) {
+        List<TransactionApproval> pending = new ArrayList<>();
+        List<TransactionApproval> rest = new ArrayList<>();
+        for (TransactionApproval approval : approvals) {
+            if (!approval.isPending()) {
+                continue;
+            }
+            if (approverRole == null) {
+                pending.add(approval);
+            } else if (approverRole.equals(approval.getEscalatedToRole())) {
+                pending.add(approval);
+            } else if (!approval.isEscalatedAbove(approverRole)) {
+                rest.add(approval);
+            }
+        }
+        pending.addAll(rest);
+        return pending;
+    }
+
+    private static <K> void unfile(Map<K, ConcurrentSkipListMap<QueueKey, TransactionApproval>> queues, K owner, QueueKey key) {
+        ConcurrentSkipListMap<QueueKey, TransactionApproval> queue = queues.get(owner);
+        if (queue != null) {
+            queue.remove(key);
+            if (queue.isEmpty()) {
+                queues.remove(owner, queue);
+            }
+        }
+    }
+
+    /**
+     * Where an approval was filed, captured when it was filed so it can be found again after the approval changes.
+     */
+    private static final class Entry {
+        private final QueueKey key;
+        private final String role;
+        private final Integer requesterId;
+
+        private Entry(TransactionApproval approval) {
+            this.key = new QueueKey(approval.getAmount() != null ? approval.getAmount() : BigDecimal.ZERO,
+                                    approval.getRequestedDate() != null ? approval.getRequestedDate() : LocalDateTime.MIN,
+                                    approval.getApprovalId());
+            this.role = approval.getRequestedByUserRole();
+            this.requesterId = approval.getRequestedByUserId();
+        }
+    }
+
+    /**
+     * Queue order: largest amount first, then oldest request, then lowest ID.
+     */
+    private static final class QueueKey implements Comparable<QueueKey> {
+        private final BigDecimal amount;
+        private final LocalDateTime requestedDate;
+        private final int approvalId;
+
+        private QueueKey(BigDecimal amount, LocalDateTime requestedDate, int approvalId) {
+            this.amount = amount;
+            this.requestedDate = requestedDate;
+            this.approvalId = approvalId;
+        }
+
+        /**
+         * Key that sorts before every approval of the given amount.
+         */
+        private static QueueKey bound(BigDecimal amount) {
+            return new QueueKey(amount, LocalDateTime.MIN, Integer.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(QueueKey other) {
+            int byAmount = other.amount.compareTo(amount);
+            if (byAmount != 0) {
+                return byAmount;
+            }
+            int byDate = requestedDate.compareTo(other.requestedDate);
+            return byDate != 0 ? byDate : Integer.compare(approvalId, other.approvalId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QueueKey)) return false;
+            QueueKey that = (QueueKey) o;
+            return approvalId == that.approvalId && amount.compareTo(that.amount) == 0
+                && requestedDate.equals(that.requestedDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * amount.stripTrailingZeros().hashCode() + requestedDate.hashCode()) + approvalId;
+        }
+    }
+}
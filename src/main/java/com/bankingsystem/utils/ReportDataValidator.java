@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -74,29 +75,22 @@ public class ReportDataValidator {
         boolean allValid = true;
         
         try {
-            // Get all transactions in the date range
-            List<Transaction> allTransactions = MockDatabaseUtil.getAllTransactions().stream()
-                .filter(t -> !t.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                           !t.getCreatedDate().toLocalDate().isAfter(endDate))
-                .toList();
+            // Count and total per type straight from the ledger columns, independently of the report rollups
+            Map<String, long[]> typeSummaries = MockDatabaseUtil.getTransactionColumns().summarizeTypes(startDate, endDate);
             
             for (TransactionAnalysisReport report : reports) {
-                // Filter transactions by type
-                List<Transaction> typeTransactions = allTransactions.stream()
-                    .filter(t -> t.getTransactionType().equals(report.getTransactionType()))
-                    .toList();
+                long[] typeSummary = typeSummaries.getOrDefault(report.getTransactionType(), new long[2]);
+                long typeCount = typeSummary[0];
                 
                 // Validate transaction count
-                if (report.getTransactionCount() != typeTransactions.size()) {
+                if (report.getTransactionCount() != typeCount) {
                     LOGGER.warning(String.format("Transaction count mismatch for type %s: Report=%d, Actual=%d",
-                        report.getTransactionType(), report.getTransactionCount(), typeTransactions.size()));
+                        report.getTransactionType(), report.getTransactionCount(), typeCount));
                     allValid = false;
                 }
                 
                 // Validate total amount
-                BigDecimal actualTotal = typeTransactions.stream()
-                    .map(t -> t.getAmount().abs())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal actualTotal = BigDecimal.valueOf(typeSummary[1], 2);
                 
                 if (report.getTotalAmount().compareTo(actualTotal) != 0) {
                     LOGGER.warning(String.format("Total amount mismatch for type %s: Report=%.2f, Actual=%.2f",
@@ -105,8 +99,8 @@ public class ReportDataValidator {
                 }
                 
                 // Validate average amount
-                if (typeTransactions.size() > 0) {
-                    BigDecimal expectedAverage = actualTotal.divide(BigDecimal.valueOf(typeTransactions.size()), 2, BigDecimal.ROUND_HALF_UP);
+                if (typeCount > 0) {
+                    BigDecimal expectedAverage = actualTotal.divide(BigDecimal.valueOf(typeCount), 2, BigDecimal.ROUND_HALF_UP);
                     if (report.getAverageAmount().compareTo(expectedAverage) != 0) {
                         LOGGER.warning(String.format("Average amount mismatch for type %s: Report=%.2f, Actual=%.2f",
                             report.getTransactionType(), report.getAverageAmount(), expectedAverage));
@@ -131,10 +125,7 @@ public class ReportDataValidator {
         boolean allValid = true;
         
         try {
-            List<Transaction> allTransactions = MockDatabaseUtil.getAllTransactions().stream()
-                .filter(t -> !t.getCreatedDate().toLocalDate().isBefore(startDate) &&
-                           !t.getCreatedDate().toLocalDate().isAfter(endDate))
-                .toList();
+            int[] transactionsByUser = MockDatabaseUtil.getTransactionColumns().countByCreator(startDate, endDate);
             
             for (UserActivityReport report : reports) {
                 // Get actual user from database
@@ -160,9 +151,9 @@ public class ReportDataValidator {
                 }
                 
                 // Validate transaction count
-                long actualTransactionCount = allTransactions.stream()
-                    .filter(t -> report.getUserId().equals(t.getCreatedBy()))
-                    .count();
+                int userId = report.getUserId();
+                long actualTransactionCount = userId >= 0 && userId < transactionsByUser.length
+                    ? transactionsByUser[userId] : 0;
                 
                 if (report.getTransactionCount() != actualTransactionCount) {
                     LOGGER.warning(String.format("Transaction count mismatch for user %d: Report=%d, Actual=%d",
@@ -191,11 +182,11 @@ public class ReportDataValidator {
             
             // Validate data integrity
             List<AbstractAccount> accounts = MockDatabaseUtil.getAllAccounts();
-            List<Transaction> transactions = MockDatabaseUtil.getAllTransactions();
+            int transactionCount = MockDatabaseUtil.getTransactionColumns().size();
             List<User> users = MockDatabaseUtil.getAllUsers();
             
             LOGGER.info(String.format("Data synchronization complete: %d accounts, %d transactions, %d users",
-                accounts.size(), transactions.size(), users.size()));
+                accounts.size(), transactionCount, users.size()));
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error during report data synchronization", e);
@@ -208,13 +199,11 @@ public class ReportDataValidator {
     public static boolean needsRefresh(LocalDateTime lastReportGeneration) {
         try {
             // Check if any transactions were created after last report generation
-            List<Transaction> recentTransactions = MockDatabaseUtil.getAllTransactions().stream()
-                .filter(t -> t.getCreatedDate().isAfter(lastReportGeneration))
-                .toList();
+            int recentTransactions = MockDatabaseUtil.getTransactionColumns().countCreatedAfter(lastReportGeneration);
             
-            if (!recentTransactions.isEmpty()) {
+            if (recentTransactions > 0) {
                 LOGGER.info(String.format("Found %d transactions created after last report generation", 
-                    recentTransactions.size()));
+                    recentTransactions));
                 return true;
             }
             
@@ -242,17 +231,15 @@ public class ReportDataValidator {
      */
     public static String getDataFreshnessStatus() {
         try {
-            List<Transaction> allTransactions = MockDatabaseUtil.getAllTransactions();
+            TransactionColumns transactions = MockDatabaseUtil.getTransactionColumns();
+            int transactionCount = transactions.size();
             List<AbstractAccount> allAccounts = MockDatabaseUtil.getAllAccounts();
             
-            if (allTransactions.isEmpty() && allAccounts.isEmpty()) {
+            if (transactionCount == 0 && allAccounts.isEmpty()) {
                 return "No data available - Load sample data or create accounts/transactions";
             }
             
-            LocalDateTime latestTransaction = allTransactions.stream()
-                .map(Transaction::getCreatedDate)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+            LocalDateTime latestTransaction = transactions.latestCreated();
             
             LocalDateTime latestAccount = allAccounts.stream()
                 .map(AbstractAccount::getCreatedDate)
@@ -271,7 +258,7 @@ public class ReportDataValidator {
             
             if (latestActivity != null) {
                 return String.format("Data current as of: %s (%d transactions, %d accounts)",
-                    latestActivity.toString(), allTransactions.size(), allAccounts.size());
+                    latestActivity.toString(), transactionCount, allAccounts.size());
             } else {
                 return "Data status unknown";
             }
@@ -0,0 +1,551 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.config.AppConfig;
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Per-day report aggregates over the transaction ledger: per account deposits, withdrawals, count and last
+ * activity, per user transaction count, and per transaction type amount totals and status counts.
+ * The owning index applies every save, status change and delete as it happens, so a date-range report is
+ * a sum over day buckets rather than a rescan of the ledger.
+ *
+ * Mutations are expected to be serialized by the owning store; queries may run concurrently and lock one
+ * day bucket at a time. Backends without rollups aggregate a transaction list instead, split into ranges
+ * on a shared fork/join pool whose partial totals are combined at the end.
+ */
+public final class ReportRollups {
+    static final int STATUS_PENDING = 0;
+    static final int STATUS_COMPLETED = 1;
+    static final int STATUS_CANCELLED = 2;
+
+    private static int parallelism = Math.max(1, AppConfig.REPORT_PARALLELISM);
+    private static ForkJoinPool pool;
+
+    private final ConcurrentSkipListMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+    private final Function<LocalDate, Collection<Transaction>> ledgerDay;
+    private final BiFunction<Integer, LocalDate, LocalDateTime> lastActivity;
+
+    /**
+     * @param ledgerDay the transactions created on a date, used to re-derive a type's minimum and maximum
+     *                  after the transaction holding one of them is removed
+     * @param lastActivity the newest creation time of an account's transactions on a date, or null
+     */
+    ReportRollups(Function<LocalDate, Collection<Transaction>> ledgerDay,
+                  BiFunction<Integer, LocalDate, LocalDateTime> lastActivity) {
+        this.ledgerDay = ledgerDay;
+        this.lastActivity = lastActivity;
+    }
+
+    void add(Contribution contribution) {
+        if (contribution == null) {
+            return;
+        }
+        Day day = days.computeIfAbsent(contribution.day, Day::new);
+        synchronized (day) {
+            day.add(contribution);
+        }
+    }
+
+    void remove(Contribution contribution) {
+        if (contribution == null) {
+            return;
+        }
+        Day day = days.get(contribution.day);
+        if (day == null) {
+            return;
+        }
+        synchronized (day) {
+            day.remove(contribution, lastActivity);
+            if (day.isEmpty()) {
+                days.remove(contribution.day, day);
+            }
+        }
+    }
+
+    /**
+     * Moves a re-saved transaction from its previous contribution to its current one. A change that only
+     * touches the status, such as a cancellation, just shifts one status counter.
+     */
+    void replace(Contribution previous, Contribution current) {
+        if (previous != null && current != null && previous.sameFigures(current)) {
+            if (previous.status != current.status) {
+                Day day = days.get(current.day);
+                synchronized (day) {
+                    day.shiftStatus(current.type, previous.status, current.status);
+                }
+            }
+            return;
+        }
+        remove(previous);
+        add(current);
+    }
+
+    void clear() {
+        days.clear();
+    }
+
+    /**
+     * Sums the day buckets from {@code startDate} to {@code endDate}, both inclusive.
+     */
+    public Totals totals(LocalDate startDate, LocalDate endDate) {
+        Totals totals = new Totals();
+        if (startDate.isAfter(endDate)) {
+            return totals;
+        }
+        for (Day day : days.subMap(startDate, true, endDate, true).values()) {
+            synchronized (day) {
+                day.refreshMinMax(ledgerDay);
+                day.addTo(totals);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Aggregates a list of transactions the same way the day buckets do, for backends that keep no rollups.
+     * Lists longer than the split threshold are divided into ranges aggregated in parallel.
+     */
+    public static Totals totalsOf(List<Transaction> transactions, LocalDate startDate, LocalDate endDate) {
+        ForkJoinPool workers = pool();
+        if (workers == null || transactions.size() <= AppConfig.REPORT_SPLIT_THRESHOLD) {
+            return scan(transactions, 0, transactions.size(), startDate, endDate);
+        }
+        return workers.invoke(new ScanTask(transactions, 0, transactions.size(), startDate, endDate));
+    }
+
+    private static Totals scan(List<Transaction> transactions, int from, int to, LocalDate startDate, LocalDate endDate) {
+        Totals totals = new Totals();
+        for (int i = from; i < to; i++) {
+            Contribution contribution = Contribution.of(transactions.get(i));
+            if (contribution != null && !contribution.day.isBefore(startDate) && !contribution.day.isAfter(endDate)) {
+                totals.add(contribution);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Sets how many threads aggregate a transaction list; 1 aggregates on the calling thread.
+     */
+    public static synchronized void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Report parallelism must be at least 1");
+        }
+        if (threads != parallelism && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        parallelism = threads;
+    }
+
+    public static synchronized int getParallelism() {
+        return parallelism;
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if (parallelism == 1) {
+            return null;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism, workerPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(workerPool);
+                thread.setName("bms-report-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * Halves its range until it is under the split threshold, then combines the two halves' totals.
+     */
+    private static final class ScanTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Transaction> transactions;
+        private final int from;
+        private final int to;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        private ScanTask(List<Transaction> transactions, int from, int to, LocalDate startDate, LocalDate endDate) {
+            this.transactions = transactions;
+            this.from = from;
+            this.to = to;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= AppConfig.REPORT_SPLIT_THRESHOLD) {
+                return scan(transactions, from, to, startDate, endDate);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(transactions, from, middle, startDate, endDate);
+            left.fork();
+            Totals right = new ScanTask(transactions, middle, to, startDate, endDate).compute();
+            return left.join().combine(right);
+        }
+    }
+
+    int getDayCount() {
+        return days.size();
+    }
+
+    static boolean isDeposit(String type) {
+        return "Deposit".equals(type) || "Transfer In".equals(type);
+    }
+
+    static boolean isWithdrawal(String type) {
+        return "Withdrawal".equals(type) || "Transfer Out".equals(type);
+    }
+
+    static int statusOf(String status) {
+        if ("Cancelled".equals(status)) {
+            return STATUS_CANCELLED;
+        }
+        return "Completed".equals(status) ? STATUS_COMPLETED : STATUS_PENDING;
+    }
+
+    /**
+     * The figures one transaction adds to its day, captured when it is filed so that exactly the same
+     * figures can be taken back out after the transaction is mutated in place.
+     */
+    static final class Contribution {
+        private final LocalDate day;
+        private final LocalDateTime createdDate;
+        private final Integer accountId;
+        private final Integer createdBy;
+        private final String type;
+        private final int status;
+        private final long amountCents;
+
+        private Contribution(Transaction transaction) {
+            this.createdDate = transaction.getCreatedDate();
+            this.day = createdDate.toLocalDate();
+            this.accountId = transaction.getAccountId();
+            this.createdBy = transaction.getCreatedBy();
+            this.type = transaction.getTransactionType();
+            this.status = statusOf(transaction.getStatus());
+            this.amountCents = amountCents(transaction);
+        }
+
+        static Contribution of(Transaction transaction) {
+            return transaction.getCreatedDate() != null ? new Contribution(transaction) : null;
+        }
+
+        private boolean sameFigures(Contribution other) {
+            return createdDate.equals(other.createdDate)
+                && amountCents == other.amountCents
+                && type.equals(other.type)
+                && Objects.equals(accountId, other.accountId)
+                && Objects.equals(createdBy, other.createdBy);
+        }
+    }
+
+    private static long amountCents(Transaction transaction) {
+        return transaction.getAmount() != null ? AbstractAccount.toCents(transaction.getAmount().abs()) : 0L;
+    }
+
+    /**
+     * One calendar day of aggregates. Guarded by its own monitor.
+     */
+    private static final class Day {
+        private final LocalDate date;
+        private final Map<Integer, AccountTotals> accounts = new HashMap<>();
+        private final Map<Integer, int[]> users = new HashMap<>();
+        private final Map<String, TypeTotals> types = new HashMap<>();
+
+        private Day(LocalDate date) {
+            this.date = date;
+        }
+
+        private void add(Contribution contribution) {
+            if (contribution.accountId != null) {
+                accounts.computeIfAbsent(contribution.accountId, id -> new AccountTotals()).add(contribution);
+            }
+            if (contribution.createdBy != null) {
+                users.computeIfAbsent(contribution.createdBy, id -> new int[1])[0]++;
+            }
+            types.computeIfAbsent(contribution.type, TypeTotals::new).add(contribution);
+        }
+
+        private void remove(Contribution contribution, BiFunction<Integer, LocalDate, LocalDateTime> lastActivity) {
+            if (contribution.accountId != null) {
+                AccountTotals account = accounts.get(contribution.accountId);
+                if (account != null && account.subtract(contribution)) {
+                    accounts.remove(contribution.accountId);
+                } else if (account != null && contribution.createdDate.equals(account.lastActivity)) {
+                    account.lastActivity = lastActivity.apply(contribution.accountId, date);
+                }
+            }
+            if (contribution.createdBy != null) {
+                int[] count = users.get(contribution.createdBy);
+                if (count != null && --count[0] <= 0) {
+                    users.remove(contribution.createdBy);
+                }
+            }
+            TypeTotals type = types.get(contribution.type);
+            if (type != null && type.subtract(contribution)) {
+                types.remove(contribution.type);
+            }
+        }
+
+        private void shiftStatus(String type, int from, int to) {
+            TypeTotals totals = types.get(type);
+            if (totals != null) {
+                totals.statusCounts[from]--;
+                totals.statusCounts[to]++;
+            }
+        }
+
+        /**
+         * Re-derives the minimum and maximum of any type that lost the transaction holding one of them.
+         * A transaction filed while this runs may be seen twice, which min and max tolerate.
+         */
+        private void refreshMinMax(Function<LocalDate, Collection<Transaction>> ledgerDay) {
+            boolean stale = false;
+            for (TypeTotals type : types.values()) {
+                stale |= type.minMaxStale;
+            }
+            if (!stale) {
+                return;
+            }
+            Map<String, long[]> bounds = new HashMap<>();
+            for (Transaction transaction : ledgerDay.apply(date)) {
+                long cents = amountCents(transaction);
+                long[] range = bounds.computeIfAbsent(transaction.getTransactionType(), t -> new long[] {cents, cents});
+                range[0] = Math.min(range[0], cents);
+                range[1] = Math.max(range[1], cents);
+            }
+            for (TypeTotals type : types.values()) {
+                long[] range = bounds.get(type.type);
+                if (type.minMaxStale && range != null) {
+                    type.minCents = range[0];
+                    type.maxCents = range[1];
+                }
+                type.minMaxStale = false;
+            }
+        }
+
+        private void addTo(Totals totals) {
+            accounts.forEach((id, account) -> totals.accounts.computeIfAbsent(id, key -> new AccountTotals()).merge(account));
+            users.forEach((id, count) -> totals.userCounts.merge(id, count[0], Integer::sum));
+            types.forEach((name, type) -> totals.types.computeIfAbsent(name, TypeTotals::new).merge(type));
+        }
+
+        private boolean isEmpty() {
+            return accounts.isEmpty() && users.isEmpty() && types.isEmpty();
+        }
+    }
+
+    /**
+     * Report figures for a date range, keyed by account ID, user ID and transaction type.
+     */
+    public static final class Totals {
+        private final Map<Integer, AccountTotals> accounts = new HashMap<>();
+        private final Map<Integer, Integer> userCounts = new HashMap<>();
+        private final Map<String, TypeTotals> types = new HashMap<>();
+
+        private void add(Contribution contribution) {
+            if (contribution.accountId != null) {
+                accounts.computeIfAbsent(contribution.accountId, id -> new AccountTotals()).add(contribution);
+            }
+            if (contribution.createdBy != null) {
+                userCounts.merge(contribution.createdBy, 1, Integer::sum);
+            }
+            types.computeIfAbsent(contribution.type, TypeTotals::new).add(contribution);
+        }
+
+        /**
+         * Folds {@code other} into these totals and returns them. Associative and commutative, so partial
+         * totals over disjoint ranges may be combined in any grouping.
+         */
+        public Totals combine(Totals other) {
+            other.accounts.forEach((id, account) -> accounts.computeIfAbsent(id, key -> new AccountTotals()).merge(account));
+            other.userCounts.forEach((id, count) -> userCounts.merge(id, count, Integer::sum));
+            other.types.forEach((name, type) -> types.computeIfAbsent(name, TypeTotals::new).merge(type));
+            return this;
+        }
+
+        /**
+         * The account's figures, or null if it has no transactions in the range.
+         */
+        public AccountTotals getAccount(Integer accountId) {
+            return accounts.get(accountId);
+        }
+
+        public int getUserTransactionCount(Integer userId) {
+            return userCounts.getOrDefault(userId, 0);
+        }
+
+        public Collection<TypeTotals> getTypes() {
+            return types.values();
+        }
+    }
+
+    public static final class AccountTotals {
+        private long depositCents;
+        private long withdrawalCents;
+        private int count;
+        private LocalDateTime lastActivity;
+
+        private void add(Contribution contribution) {
+            if (isDeposit(contribution.type)) {
+                depositCents += contribution.amountCents;
+            } else if (isWithdrawal(contribution.type)) {
+                withdrawalCents += contribution.amountCents;
+            }
+            count++;
+            if (lastActivity == null || contribution.createdDate.isAfter(lastActivity)) {
+                lastActivity = contribution.createdDate;
+            }
+        }
+
+        /**
+         * Takes a contribution back out; returns true once nothing is left.
+         */
+        private boolean subtract(Contribution contribution) {
+            if (isDeposit(contribution.type)) {
+                depositCents -= contribution.amountCents;
+            } else if (isWithdrawal(contribution.type)) {
+                withdrawalCents -= contribution.amountCents;
+            }
+            return --count <= 0;
+        }
+
+        private void merge(AccountTotals other) {
+            depositCents += other.depositCents;
+            withdrawalCents += other.withdrawalCents;
+            count += other.count;
+            if (lastActivity == null || (other.lastActivity != null && other.lastActivity.isAfter(lastActivity))) {
+                lastActivity = other.lastActivity;
+            }
+        }
+
+        public BigDecimal getTotalDeposits() {
+            return BigDecimal.valueOf(depositCents, 2);
+        }
+
+        public BigDecimal getTotalWithdrawals() {
+            return BigDecimal.valueOf(withdrawalCents, 2);
+        }
+
+        public int getTransactionCount() {
+            return count;
+        }
+
+        public LocalDateTime getLastActivity() {
+            return lastActivity;
+        }
+    }
+
+    public static final class TypeTotals {
+        private final String type;
+        private int count;
+        private long totalCents;
+        private long minCents;
+        private long maxCents;
+        private boolean minMaxStale;
+        private final int[] statusCounts = new int[3];
+
+        private TypeTotals(String type) {
+            this.type = type;
+        }
+
+        private void add(Contribution contribution) {
+            long cents = contribution.amountCents;
+            if (count == 0) {
+                minCents = cents;
+                maxCents = cents;
+            } else {
+                minCents = Math.min(minCents, cents);
+                maxCents = Math.max(maxCents, cents);
+            }
+            count++;
+            totalCents += cents;
+            statusCounts[contribution.status]++;
+        }
+
+        /**
+         * Takes a contribution back out; returns true once nothing is left. Removing the current minimum
+         * or maximum marks both for re-derivation from the ledger on the next query.
+         */
+        private boolean subtract(Contribution contribution) {
+            count--;
+            totalCents -= contribution.amountCents;
+            statusCounts[contribution.status]--;
+            if (contribution.amountCents == minCents || contribution.amountCents == maxCents) {
+                minMaxStale = true;
+            }
+            return count <= 0;
+        }
+
+        private void merge(TypeTotals other) {
+            if (other.count == 0) {
+                return;
+            }
+            if (count == 0) {
+                minCents = other.minCents;
+                maxCents = other.maxCents;
+            } else {
+                minCents = Math.min(minCents, other.minCents);
+                maxCents = Math.max(maxCents, other.maxCents);
+            }
+            count += other.count;
+            totalCents += other.totalCents;
+            for (int i = 0; i < statusCounts.length; i++) {
+                statusCounts[i] += other.statusCounts[i];
+            }
+        }
+
+        public String getTransactionType() {
+            return type;
+        }
+
+        public int getTransactionCount() {
+            return count;
+        }
+
+        public BigDecimal getTotalAmount() {
+            return BigDecimal.valueOf(totalCents, 2);
+        }
+
+        public BigDecimal getMinimumAmount() {
+            return BigDecimal.valueOf(minCents, 2);
+        }
+
+        public BigDecimal getMaximumAmount() {
+            return BigDecimal.valueOf(maxCents, 2);
+        }
+
+        public int getPendingCount() {
+            return statusCounts[STATUS_PENDING];
+        }
+
+        public int getCompletedCount() {
+            return statusCounts[STATUS_COMPLETED];
+        }
+
+        public int getCancelledCount() {
+            return statusCounts[STATUS_CANCELLED];
+        }
+    }
+}
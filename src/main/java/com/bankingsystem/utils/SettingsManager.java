@@ -120,6 +120,9 @@ public class SettingsManager {
         return properties.getProperty("currencyFormat", DEFAULT_CURRENCY_FORMAT);
     }
     
+    /**
+     * Rows fetched per page by the transaction history tables, which load further pages on scroll.
+     */
     public int getMaxTransactionHistory() {
         try {
             return Integer.parseInt(properties.getProperty("maxTransactionHistory", String.valueOf(DEFAULT_MAX_TRANSACTION_HISTORY)));
@@ -0,0 +1,47 @@
+package com.bankingsystem.utils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One daemon thread for short periodic housekeeping, such as sweeping expired cache entries. Tasks must not
+ * block. A task that throws is logged and runs again at its next period rather than being cancelled, and each
+ * run is timed in the {@link MetricsRegistry#BACKGROUND} family under the owner and task name.
+ */
+public final class SharedScheduler {
+    private static final Logger LOGGER = Logger.getLogger(SharedScheduler.class.getName());
+    private static final SharedScheduler INSTANCE = new SharedScheduler();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bms-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SharedScheduler() {
+    }
+
+    public static SharedScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(Class<?> owner, String name, Runnable task,
+                                                     long initialDelay, long delay, TimeUnit unit) {
+        MetricsRegistry.Timer timer = MetricsRegistry.getInstance().timer(MetricsRegistry.BACKGROUND, owner, name);
+        return scheduler.scheduleWithFixedDelay(() -> {
+            long started = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                timer.recordException();
+                LOGGER.log(Level.WARNING, "Scheduled task " + owner.getSimpleName() + "." + name + " failed", e);
+            } finally {
+                timer.record(started);
+            }
+        }, initialDelay, delay, unit);
+    }
+}
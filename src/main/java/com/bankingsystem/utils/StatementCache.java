@@ -0,0 +1,226 @@
+package com.bankingsystem.utils;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Per-connection LRU cache of prepared statements. The SQLite driver has no statement cache of its own, so the
+ * pool opens its physical connections through {@link #dataSource}, and each of those connections owns a cache of
+ * the statements prepared on it. The cache lives and dies with its connection: when the pool retires the
+ * connection, its statements are closed with it. Statements handed to callers reset on close instead of
+ * finalizing; each cached statement has one such handle, made when it is first prepared.
+ */
+final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private StatementCache() {
+    }
+
+    /**
+     * Returns a data source for the pool whose connections cache up to {@code maxPerConnection} statements.
+     */
+    static DataSource dataSource(String url, Properties properties, int maxPerConnection) {
+        return new CachingDataSource(url, properties, maxPerConnection);
+    }
+
+    /**
+     * Prepares {@code sql} on the connection's cache, or uncached if the connection did not come from
+     * {@link #dataSource}, in which case closing the statement releases it as usual.
+     */
+    static PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        if (!connection.isWrapperFor(CachingConnection.class)) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return connection.unwrap(CachingConnection.class).prepareCached(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Implemented by the pool's physical connections alongside {@link Connection}.
+     */
+    interface CachingConnection {
+        PreparedStatement prepareCached(String sql, int autoGeneratedKeys) throws SQLException;
+    }
+
+    private static final class CachingDataSource implements DataSource {
+        private final String url;
+        private final Properties properties;
+        private final int maxPerConnection;
+        private PrintWriter logWriter;
+        private int loginTimeout;
+
+        private CachingDataSource(String url, Properties properties, int maxPerConnection) {
+            this.url = url;
+            this.properties = properties;
+            this.maxPerConnection = maxPerConnection;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection physical = DriverManager.getConnection(url, properties);
+            return (Connection) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                new Class<?>[] {Connection.class, CachingConnection.class},
+                new ConnectionHandler(physical, maxPerConnection));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return logWriter;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+            this.logWriter = out;
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+            this.loginTimeout = seconds;
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return loginTimeout;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) {
+                return iface.cast(this);
+            }
+            throw new SQLException("Not a wrapper for " + iface.getName());
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return iface.isInstance(this);
+        }
+    }
+
+    /**
+     * Backs one physical connection. A pooled connection is used by one thread at a time, so the cache needs
+     * no locking.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final Map<String, Entry> statements;
+
+        private ConnectionHandler(Connection physical, int maxPerConnection) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() <= maxPerConnection) {
+                        return false;
+                    }
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareCached":
+                    return prepareCached((String) args[0], (Integer) args[1]);
+                case "close":
+                    closeStatements();
+                    physical.close();
+                    return null;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : physical.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || physical.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return delegate(physical, method, args);
+            }
+        }
+
+        private PreparedStatement prepareCached(String sql, int autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys + ":" + sql;
+            Entry entry = statements.get(key);
+            if (entry == null || entry.statement.isClosed()) {
+                entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+                statements.put(key, entry);
+            }
+            return entry.handle;
+        }
+
+        private void closeStatements() {
+            for (Iterator<Entry> entries = statements.values().iterator(); entries.hasNext(); ) {
+                closeQuietly(entries.next().statement);
+                entries.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private final PreparedStatement handle;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+            this.handle = reusable(statement);
+        }
+    }
+
+    private static PreparedStatement reusable(PreparedStatement statement) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                if (!statement.isClosed()) {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                }
+                return null;
+            }
+            return delegate(statement, method, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+            StatementCache.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, handler);
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Failed to close cached statement", e);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of the store's entities, shared by the write-ahead log and snapshots.
+ * Nullable fields carry a one-byte presence flag; timestamps are stored as UTC epoch seconds plus nanos.
+ */
+final class StoreCodec {
+    static final byte ACCOUNT_SAVINGS = 1;
+    static final byte ACCOUNT_CHECKING = 2;
+    static final byte ACCOUNT_BUSINESS = 3;
+
+    private StoreCodec() {
+    }
+
+    static void writeUser(DataOutput out, User user) throws IOException {
+        writeInteger(out, user.getUserId());
+        writeString(out, user.getUsername());
+        writeString(out, user.getPasswordHash());
+        writeString(out, user.getRole());
+        writeString(out, user.getFirstName());
+        writeString(out, user.getLastName());
+        writeString(out, user.getEmail());
+        out.writeBoolean(user.isActive());
+        writeDateTime(out, user.getLastLogin());
+        writeDateTime(out, user.getCreatedDate());
+        writeDateTime(out, user.getUpdatedDate());
+        writeDateTime(out, user.getPasswordExpiryDate());
+        writeDateTime(out, user.getLastPasswordChange());
+        out.writeInt(user.getFailedLoginAttempts());
+        writeDateTime(out, user.getLockedUntil());
+        out.writeBoolean(user.isMfaEnabled());
+        writeString(out, user.getPasswordHistory());
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        User user = new User();
+        user.setUserId(readInteger(in));
+        user.setUsername(readString(in));
+        user.setPasswordHash(readString(in));
+        user.setRole(readString(in));
+        user.setFirstName(readString(in));
+        user.setLastName(readString(in));
+        user.setEmail(readString(in));
+        user.setActive(in.readBoolean());
+        user.setLastLogin(readDateTime(in));
+        user.setCreatedDate(readDateTime(in));
+        user.setUpdatedDate(readDateTime(in));
+        user.setPasswordExpiryDate(readDateTime(in));
+        user.setLastPasswordChange(readDateTime(in));
+        user.setFailedLoginAttempts(in.readInt());
+        user.setLockedUntil(readDateTime(in));
+        user.setMfaEnabled(in.readBoolean());
+        user.setPasswordHistory(readString(in));
+        return user;
+    }
+
+    static void writeCustomer(DataOutput out, Customer customer) throws IOException {
+        writeInteger(out, customer.getCustomerId());
+        writeString(out, customer.getFirstName());
+        writeString(out, customer.getLastName());
+        writeString(out, customer.getEmail());
+        writeString(out, customer.getPhone());
+        writeString(out, customer.getAddress());
+        writeDate(out, customer.getDateOfBirth());
+        writeString(out, customer.getSsn());
+        writeDateTime(out, customer.getCreatedDate());
+        writeDateTime(out, customer.getUpdatedDate());
+    }
+
+    static Customer readCustomer(DataInput in) throws IOException {
+        Customer customer = new Customer();
+        customer.setCustomerId(readInteger(in));
+        customer.setFirstName(readString(in));
+        customer.setLastName(readString(in));
+        customer.setEmail(readString(in));
+        customer.setPhone(readString(in));
+        customer.setAddress(readString(in));
+        customer.setDateOfBirth(readDate(in));
+        customer.setSsn(readString(in));
+        customer.setCreatedDate(readDateTime(in));
+        customer.setUpdatedDate(readDateTime(in));
+        return customer;
+    }
+
+    /**
+     * Writes an account; the balance is passed separately so snapshots can record a value captured under the balance gate.
+     */
+    static void writeAccount(DataOutput out, AbstractAccount account, long balanceCents) throws IOException {
+        out.writeByte(accountTag(account));
+        writeInteger(out, account.getAccountId());
+        writeString(out, account.getAccountNumber());
+        writeInteger(out, account.getCustomerId());
+        writeInteger(out, account.getAccountTypeId());
+        out.writeLong(balanceCents);
+        writeString(out, account.getStatus());
+        writeDateTime(out, account.getCreatedDate());
+        writeDateTime(out, account.getUpdatedDate());
+    }
+
+    static AbstractAccount readAccount(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        AbstractAccount account;
+        switch (tag) {
+            case ACCOUNT_SAVINGS: account = new SavingsAccount(); break;
+            case ACCOUNT_CHECKING: account = new CheckingAccount(); break;
+            case ACCOUNT_BUSINESS: account = new BusinessAccount(); break;
+            default: throw new IOException("Unknown account type tag: " + tag);
+        }
+        account.setAccountId(readInteger(in));
+        account.setAccountNumber(readString(in));
+        account.setCustomerId(readInteger(in));
+        account.setAccountTypeId(readInteger(in));
+        account.setBalance(BigDecimal.valueOf(in.readLong(), 2));
+        account.setStatus(readString(in));
+        account.setCreatedDate(readDateTime(in));
+        account.setUpdatedDate(readDateTime(in));
+        return account;
+    }
+
+    static void writeTransaction(DataOutput out, Transaction transaction) throws IOException {
+        writeInteger(out, transaction.getTransactionId());
+        writeInteger(out, transaction.getAccountId());
+        writeInteger(out, transaction.getTransactionTypeId());
+        writeString(out, transaction.getTransactionTypeName());
+        writeDecimal(out, transaction.getAmount());
+        writeDecimal(out, transaction.getBalanceBefore());
+        writeDecimal(out, transaction.getBalanceAfter());
+        writeString(out, transaction.getDescription());
+        writeString(out, transaction.getReferenceNumber());
+        writeString(out, transaction.getStatus());
+        writeDateTime(out, transaction.getCreatedDate());
+        writeInteger(out, transaction.getCreatedBy());
+    }
+
+    static Transaction readTransaction(DataInput in) throws IOException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(readInteger(in));
+        transaction.setAccountId(readInteger(in));
+        transaction.setTransactionTypeId(readInteger(in));
+        transaction.setTransactionTypeName(readString(in));
+        transaction.setAmount(readDecimal(in));
+        transaction.setBalanceBefore(readDecimal(in));
+        transaction.setBalanceAfter(readDecimal(in));
+        transaction.setDescription(readString(in));
+        transaction.setReferenceNumber(readString(in));
+        transaction.setStatus(readString(in));
+        transaction.setCreatedDate(readDateTime(in));
+        transaction.setCreatedBy(readInteger(in));
+        return transaction;
+    }
+
+    static void writeApproval(DataOutput out, TransactionApproval approval) throws IOException {
+        writeInteger(out, approval.getApprovalId());
+        writeString(out, approval.getTransactionType());
+        writeString(out, approval.getAccountNumber());
+        writeDecimal(out, approval.getAmount());
+        writeString(out, approval.getDescription());
+        writeInteger(out, approval.getRequestedByUserId());
+        writeString(out, approval.getRequestedByUserRole());
+        writeInteger(out, approval.getApprovedByUserId());
+        writeString(out, approval.getApprovalStatus());
+        writeDateTime(out, approval.getRequestedDate());
+        writeDateTime(out, approval.getApprovedDate());
+        writeString(out, approval.getApprovalComments());
+        writeString(out, approval.getRejectionReason());
+    }
+
+    static TransactionApproval readApproval(DataInput in) throws IOException {
+        TransactionApproval approval = new TransactionApproval();
+        approval.setApprovalId(readInteger(in));
+        approval.setTransactionType(readString(in));
+        approval.setAccountNumber(readString(in));
+        approval.setAmount(readDecimal(in));
+        approval.setDescription(readString(in));
+        approval.setRequestedByUserId(readInteger(in));
+        approval.setRequestedByUserRole(readString(in));
+        approval.setApprovedByUserId(readInteger(in));
+        approval.setApprovalStatus(readString(in));
+        approval.setRequestedDate(readDateTime(in));
+        approval.setApprovedDate(readDateTime(in));
+        approval.setApprovalComments(readString(in));
+        approval.setRejectionReason(readString(in));
+        return approval;
+    }
+
+    private static byte accountTag(AbstractAccount account) throws IOException {
+        if (account instanceof SavingsAccount) return ACCOUNT_SAVINGS;
+        if (account instanceof CheckingAccount) return ACCOUNT_CHECKING;
+        if (account instanceof BusinessAccount) return ACCOUNT_BUSINESS;
+        throw new IOException("Unsupported account class: " + account.getClass().getName());
+    }
+
+    static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            out.writeByte(value.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    static BigDecimal readDecimal(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    static void writeDate(DataOutput out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochDay());
+        }
+    }
+
+    static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+}
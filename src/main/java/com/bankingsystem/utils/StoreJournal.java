@@ -0,0 +1,709 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable backing for the in-memory store: a segmented binary write-ahead log plus periodic snapshots.
+ * Each mutation is appended as a CRC-protected record. Snapshot N holds the full store state as of the
+ * start of log segment N, so recovery loads the newest valid snapshot and replays segments N onwards.
+ */
+public class StoreJournal implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(StoreJournal.class.getName());
+
+    public enum FsyncPolicy {
+        /** Every mutation waits for an fsync; concurrent writers share one fsync (group commit). */
+        ALWAYS,
+        /** Records are flushed and fsynced by a background thread every flush interval. */
+        INTERVAL,
+        /** Records are flushed to the OS every flush interval but never explicitly fsynced. */
+        NONE;
+
+        public static FsyncPolicy fromString(String value) {
+            for (FsyncPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(value)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown fsync policy: " + value);
+        }
+    }
+
+    static final byte OP_PUT_USER = 1;
+    static final byte OP_PUT_CUSTOMER = 2;
+    static final byte OP_PUT_ACCOUNT = 3;
+    static final byte OP_BALANCE_DELTA = 4;
+    static final byte OP_PUT_TRANSACTION = 5;
+    static final byte OP_PUT_APPROVAL = 6;
+    static final byte OP_DELETE_USER = 7;
+    static final byte OP_DELETE_ACCOUNT = 8;
+    static final byte OP_DELETE_TRANSACTION = 9;
+    static final byte OP_DELETE_APPROVAL = 10;
+    static final byte OP_CLEAR = 11;
+    static final byte OP_DELETE_CUSTOMER = 12;
+    static final byte OP_ARCHIVE_APPROVAL = 13;
+
+    private static final int SEGMENT_MAGIC = 0x424D5357; // "BMSW"
+    private static final int SNAPSHOT_MAGIC = 0x424D5353; // "BMSS"
+    // Version 2 added OP_ARCHIVE_APPROVAL and the archived approval IDs at the end of a snapshot; version 1 still loads
+    private static final short FORMAT_VERSION = 2;
+    private static final short OLDEST_FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 4 + 2 + 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{12})\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{12})\\.bin");
+
+    /**
+     * Writes one record payload (after the op code).
+     */
+    interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Receives recovered state. Implemented by the store, which applies each call without re-logging it.
+     */
+    interface ReplayTarget {
+        void clear();
+        void putUser(User user);
+        void putCustomer(Customer customer);
+        void putAccount(AbstractAccount account, boolean replaceBalance);
+        void adjustBalance(Integer accountId, long deltaCents);
+        void putTransaction(Transaction transaction);
+        void putApproval(TransactionApproval approval);
+        void deleteUser(Integer userId);
+        void deleteCustomer(Integer customerId);
+        void deleteAccount(Integer accountId);
+        void deleteTransaction(Integer transactionId);
+        void deleteApproval(Integer approvalId);
+        void archiveApproval(Integer approvalId);
+    }
+
+    /**
+     * Point-in-time copy of the store taken while writers are paused; serialized afterwards without locks.
+     */
+    static final class Snapshot {
+        final long segment;
+        final List<User> users;
+        final List<Customer> customers;
+        final List<AbstractAccount> accounts;
+        final long[] balanceCents;
+        final List<Transaction> transactions;
+        final List<TransactionApproval> approvals;
+        final List<Integer> archivedApprovalIds;
+
+        Snapshot(long segment, List<User> users, List<Customer> customers, List<AbstractAccount> accounts,
+                 long[] balanceCents, List<Transaction> transactions, List<TransactionApproval> approvals,
+                 List<Integer> archivedApprovalIds) {
+            this.segment = segment;
+            this.users = users;
+            this.customers = customers;
+            this.accounts = accounts;
+            this.balanceCents = balanceCents;
+            this.transactions = transactions;
+            this.approvals = approvals;
+            this.archivedApprovalIds = archivedApprovalIds;
+        }
+    }
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object syncMonitor = new Object();
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(512);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(256 * 1024);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private long segment;
+    private long segmentBytes;
+    private long appendedLsn;
+    private long writtenLsn;
+    private long durableLsn;
+    private boolean syncInProgress;
+    // Set by the first failed fsync; the OS may have dropped the unsynced pages, so nothing later counts as durable
+    private IOException syncFailure;
+    private boolean closed;
+
+    private ScheduledExecutorService flusher;
+    private ScheduledExecutorService checkpointer;
+    private long lastSnapshotMillis = System.currentTimeMillis();
+
+    StoreJournal(Path directory, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads the newest valid snapshot, replays the log tail into the target, and opens a fresh segment for appends.
+     * Returns true if any state was recovered. Damage in any segment but the newest fails recovery, since the
+     * records after it would be applied to the wrong state.
+     */
+    boolean recover(ReplayTarget target) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotSegment = loadLatestSnapshot(target);
+        boolean recovered = snapshotSegment >= 0;
+
+        List<Long> segments = listSequences(SEGMENT_NAME);
+        long lastSegment = Math.max(snapshotSegment, 0);
+        long newestSegment = segments.isEmpty() ? -1 : segments.get(segments.size() - 1);
+        for (long seq : segments) {
+            if (seq < snapshotSegment) {
+                continue;
+            }
+            int applied = replaySegment(segmentPath(seq), target, seq == newestSegment);
+            recovered |= applied > 0;
+            lastSegment = Math.max(lastSegment, seq);
+        }
+
+        openSegment(lastSegment + 1);
+        LOGGER.info(String.format("Store journal recovered from %s (snapshot segment %d, resuming at segment %d, fsync %s)",
+                                directory, snapshotSegment, segment, fsyncPolicy));
+        return recovered;
+    }
+
+    /**
+     * Starts the background flusher and the periodic snapshot task.
+     */
+    void start(Runnable checkpointTask, long flushIntervalMillis, long snapshotIntervalMillis, long snapshotThresholdBytes) {
+        flusher = Executors.newSingleThreadScheduledExecutor(daemon("bms-wal-flusher"));
+        checkpointer = Executors.newSingleThreadScheduledExecutor(daemon("bms-wal-checkpoint"));
+
+        if (fsyncPolicy != FsyncPolicy.ALWAYS) {
+            flusher.scheduleWithFixedDelay(() -> {
+                try {
+                    if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                        sync(currentLsn());
+                    } else {
+                        flush();
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Background write-ahead log flush failed", e);
+                }
+            }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        checkpointer.scheduleWithFixedDelay(() -> {
+            boolean due = System.currentTimeMillis() - lastSnapshotMillis >= snapshotIntervalMillis
+                       || currentSegmentBytes() >= snapshotThresholdBytes;
+            if (due) {
+                try {
+                    checkpointTask.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Periodic snapshot failed", e);
+                }
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Appends a record and returns its log sequence number. Callers that need durability pass it to {@link #awaitDurable}.
+     */
+    long append(byte op, RecordWriter writer) throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Store journal is closed");
+            }
+            recordBytes.reset();
+            recordOut.writeByte(op);
+            writer.write(recordOut);
+            byte[] payload = recordBytes.toByteArray();
+
+            crc.reset();
+            crc.update(payload, 0, payload.length);
+
+            int recordSize = 8 + payload.length;
+            if (writeBuffer.remaining() < recordSize) {
+                drainBuffer();
+            }
+            if (recordSize > writeBuffer.capacity()) {
+                ByteBuffer large = ByteBuffer.allocate(recordSize);
+                large.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                while (large.hasRemaining()) {
+                    channel.write(large);
+                }
+            } else {
+                writeBuffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            }
+            segmentBytes += recordSize;
+            return ++appendedLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record is durable under the configured policy. Under ALWAYS the first waiter
+     * becomes the leader and fsyncs everything appended so far on behalf of all waiters. Throws if that
+     * fsync, or any earlier one, failed.
+     */
+    void awaitDurable(long lsn) throws IOException {
+        if (lsn <= 0 || fsyncPolicy != FsyncPolicy.ALWAYS) {
+            return;
+        }
+        sync(lsn);
+    }
+
+    private void sync(long lsn) throws IOException {
+        synchronized (syncMonitor) {
+            while (durableLsn < lsn) {
+                if (syncFailure != null) {
+                    throw new IOException("Write-ahead log sync failed; records are no longer durable", syncFailure);
+                }
+                if (!syncInProgress) {
+                    syncInProgress = true;
+                    break;
+                }
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for write-ahead log sync");
+                }
+            }
+            if (durableLsn >= lsn) {
+                return;
+            }
+        }
+
+        long forcedLsn = -1;
+        try {
+            FileChannel syncChannel;
+            long target;
+            appendLock.lock();
+            try {
+                drainBuffer();
+                target = appendedLsn;
+                syncChannel = channel;
+            } finally {
+                appendLock.unlock();
+            }
+            syncChannel.force(false);
+            forcedLsn = target;
+        } catch (IOException e) {
+            failSync(e);
+            throw e;
+        } finally {
+            finishSync(forcedLsn);
+        }
+    }
+
+    private void failSync(IOException e) {
+        synchronized (syncMonitor) {
+            if (syncFailure == null) {
+                syncFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Ends the running sync, advancing the durable mark only if its fsync completed and none failed before it,
+     * and wakes the waiters.
+     */
+    private void finishSync(long forcedLsn) {
+        synchronized (syncMonitor) {
+            if (forcedLsn >= 0 && syncFailure == null) {
+                durableLsn = Math.max(durableLsn, forcedLsn);
+            }
+            syncInProgress = false;
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void flush() throws IOException {
+        appendLock.lock();
+        try {
+            drainBuffer();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+        writtenLsn = appendedLsn;
+    }
+
+    /**
+     * Seals the current segment and starts the next one. Callers must have paused all writers;
+     * the returned segment number is the one a snapshot taken now should carry.
+     */
+    long rotate() throws IOException {
+        synchronized (syncMonitor) {
+            while (syncInProgress) {
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting to rotate write-ahead log");
+                }
+            }
+            syncInProgress = true;
+        }
+        long forcedLsn = -1;
+        try {
+            appendLock.lock();
+            try {
+                drainBuffer();
+                channel.force(false);
+                forcedLsn = appendedLsn;
+                channel.close();
+                openSegment(segment + 1);
+                return segment;
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            if (forcedLsn < 0) {
+                failSync(e);
+            }
+            throw e;
+        } finally {
+            finishSync(forcedLsn);
+        }
+    }
+
+    /**
+     * Writes the snapshot atomically, then deletes the snapshots and segments it supersedes.
+     */
+    void writeSnapshot(Snapshot snapshot) throws IOException {
+        Path target = snapshotPath(snapshot.segment);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), new CRC32());
+             DataOutputStream out = new DataOutputStream(checked)) {
+
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(snapshot.segment);
+
+            out.writeInt(snapshot.users.size());
+            for (User user : snapshot.users) {
+                StoreCodec.writeUser(out, user);
+            }
+            out.writeInt(snapshot.customers.size());
+            for (Customer customer : snapshot.customers) {
+                StoreCodec.writeCustomer(out, customer);
+            }
+            out.writeInt(snapshot.accounts.size());
+            for (int i = 0; i < snapshot.accounts.size(); i++) {
+                StoreCodec.writeAccount(out, snapshot.accounts.get(i), snapshot.balanceCents[i]);
+            }
+            out.writeInt(snapshot.transactions.size());
+            for (Transaction transaction : snapshot.transactions) {
+                StoreCodec.writeTransaction(out, transaction);
+            }
+            out.writeInt(snapshot.approvals.size());
+            for (TransactionApproval approval : snapshot.approvals) {
+                StoreCodec.writeApproval(out, approval);
+            }
+            out.writeInt(snapshot.archivedApprovalIds.size());
+            for (Integer approvalId : snapshot.archivedApprovalIds) {
+                out.writeInt(approvalId);
+            }
+
+            out.flush();
+            long checksum = checked.getChecksum().getValue();
+            out.writeLong(checksum);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastSnapshotMillis = System.currentTimeMillis();
+
+        for (long seq : listSequences(SNAPSHOT_NAME)) {
+            if (seq < snapshot.segment) {
+                Files.deleteIfExists(snapshotPath(seq));
+            }
+        }
+        for (long seq : listSequences(SEGMENT_NAME)) {
+            if (seq < snapshot.segment) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        }
+
+        LOGGER.info(String.format("Snapshot written: %s (%d users, %d customers, %d accounts, %d transactions, %d approvals)",
+                                target.getFileName(), snapshot.users.size(), snapshot.customers.size(),
+                                snapshot.accounts.size(), snapshot.transactions.size(), snapshot.approvals.size()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+        }
+        try {
+            sync(currentLsn());
+        } finally {
+            appendLock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    channel.close();
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+        LOGGER.info("Store journal closed");
+    }
+
+    private long currentLsn() {
+        appendLock.lock();
+        try {
+            return appendedLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private long currentSegmentBytes() {
+        appendLock.lock();
+        try {
+            return segmentBytes;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        Path path = segmentPath(seq);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(SEGMENT_MAGIC).putShort(FORMAT_VERSION).putLong(seq).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        segment = seq;
+        segmentBytes = SEGMENT_HEADER_BYTES;
+    }
+
+    private long loadLatestSnapshot(ReplayTarget target) throws IOException {
+        List<Long> snapshots = listSequences(SNAPSHOT_NAME);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            long seq = snapshots.get(i);
+            try {
+                Snapshot snapshot = readSnapshot(snapshotPath(seq));
+                target.clear();
+                snapshot.users.forEach(target::putUser);
+                snapshot.customers.forEach(target::putCustomer);
+                snapshot.accounts.forEach(account -> target.putAccount(account, true));
+                snapshot.transactions.forEach(target::putTransaction);
+                snapshot.approvals.forEach(target::putApproval);
+                snapshot.archivedApprovalIds.forEach(target::archiveApproval);
+                return seq;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Skipping unreadable snapshot " + snapshotPath(seq), e);
+            }
+        }
+        return -1;
+    }
+
+    private Snapshot readSnapshot(Path path) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), new CRC32());
+             DataInputStream in = new DataInputStream(checked)) {
+
+            int magic = in.readInt();
+            short version = in.readShort();
+            if (magic != SNAPSHOT_MAGIC || !isReadable(version)) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            long seq = in.readLong();
+
+            List<User> users = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                users.add(StoreCodec.readUser(in));
+            }
+            List<Customer> customers = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                customers.add(StoreCodec.readCustomer(in));
+            }
+            List<AbstractAccount> accounts = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                accounts.add(StoreCodec.readAccount(in));
+            }
+            List<Transaction> transactions = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                transactions.add(StoreCodec.readTransaction(in));
+            }
+            List<TransactionApproval> approvals = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                approvals.add(StoreCodec.readApproval(in));
+            }
+            List<Integer> archivedApprovalIds = new ArrayList<>();
+            for (int n = version >= 2 ? in.readInt() : 0; n > 0; n--) {
+                archivedApprovalIds.add(in.readInt());
+            }
+
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + path);
+            }
+            return new Snapshot(seq, users, customers, accounts, null, transactions, approvals, archivedApprovalIds);
+        }
+    }
+
+    /**
+     * Applies every intact record in the segment. In the newest segment a torn or corrupt tail is what a crash
+     * mid-append leaves behind, and it is truncated so the next append starts clean. Any earlier segment was
+     * complete when the log moved past it, so damage there is reported as an IOException and the file is left
+     * untouched for inspection.
+     */
+    private int replaySegment(Path path, ReplayTarget target, boolean newest) throws IOException {
+        int applied = 0;
+        long validBytes = SEGMENT_HEADER_BYTES;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SEGMENT_MAGIC || !isReadable(in.readShort())) {
+                if (!newest) {
+                    throw new IOException("Write-ahead log segment has a bad header and later segments depend on it: " + path);
+                }
+                LOGGER.warning("Ignoring write-ahead log segment with bad header: " + path);
+                return 0;
+            }
+            in.readLong();
+
+            CRC32 checksum = new CRC32();
+            while (true) {
+                int length;
+                int storedCrc;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    storedCrc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        throw new IOException("Invalid record length " + length);
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                checksum.reset();
+                checksum.update(payload, 0, payload.length);
+                if ((int) checksum.getValue() != storedCrc) {
+                    throw new IOException("Record checksum mismatch at offset " + validBytes);
+                }
+
+                applyRecord(new DataInputStream(new ByteArrayInputStream(payload)), target);
+                validBytes += 8 + length;
+                applied++;
+            }
+        } catch (IOException e) {
+            if (!newest) {
+                throw new IOException(String.format("Write-ahead log %s damaged after %d records at offset %d; "
+                                                    + "later segments depend on it", path, applied, validBytes), e);
+            }
+            LOGGER.log(Level.WARNING, String.format("Write-ahead log %s damaged after %d records; truncating to %d bytes",
+                                                   path.getFileName(), applied, validBytes), e);
+        }
+
+        if (Files.size(path) > validBytes) {
+            if (!newest) {
+                throw new IOException(String.format("Write-ahead log %s ends in an incomplete record at offset %d; "
+                                                    + "later segments depend on it", path, validBytes));
+            }
+            LOGGER.warning(String.format("Discarding %d bytes of incomplete records at the end of %s",
+                                         Files.size(path) - validBytes, path.getFileName()));
+            try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncate.truncate(validBytes);
+                truncate.force(true);
+            }
+        }
+        return applied;
+    }
+
+    private void applyRecord(DataInputStream in, ReplayTarget target) throws IOException {
+        byte op = in.readByte();
+        switch (op) {
+            case OP_PUT_USER: target.putUser(StoreCodec.readUser(in)); break;
+            case OP_PUT_CUSTOMER: target.putCustomer(StoreCodec.readCustomer(in)); break;
+            case OP_PUT_ACCOUNT:
+                boolean replaceBalance = in.readBoolean();
+                target.putAccount(StoreCodec.readAccount(in), replaceBalance);
+                break;
+            case OP_BALANCE_DELTA: target.adjustBalance(in.readInt(), in.readLong()); break;
+            case OP_PUT_TRANSACTION: target.putTransaction(StoreCodec.readTransaction(in)); break;
+            case OP_PUT_APPROVAL: target.putApproval(StoreCodec.readApproval(in)); break;
+            case OP_DELETE_USER: target.deleteUser(in.readInt()); break;
+            case OP_DELETE_ACCOUNT: target.deleteAccount(in.readInt()); break;
+            case OP_DELETE_TRANSACTION: target.deleteTransaction(in.readInt()); break;
+            case OP_DELETE_APPROVAL: target.deleteApproval(in.readInt()); break;
+            case OP_CLEAR: target.clear(); break;
+            case OP_DELETE_CUSTOMER: target.deleteCustomer(in.readInt()); break;
+            case OP_ARCHIVE_APPROVAL: target.archiveApproval(in.readInt()); break;
+            default: throw new IOException("Unknown write-ahead log op: " + op);
+        }
+    }
+
+    private static boolean isReadable(short version) {
+        return version >= OLDEST_FORMAT_VERSION && version <= FORMAT_VERSION;
+    }
+
+    private List<Long> listSequences(Pattern pattern) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    sequences.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("wal-%012d.log", seq));
+    }
+
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("snapshot-%012d.bin", seq));
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
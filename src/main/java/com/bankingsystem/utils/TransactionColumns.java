@@ -0,0 +1,296 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Transaction;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap, columnar copy of the transaction ledger for analytic scans. Each transaction is one row across
+ * primitive columns held in direct buffers: account ID, creator, amount in cents, creation time in epoch
+ * millis, and dictionary-encoded type and status. Scans walk the columns without creating
+ * objects, so validating a report over millions of rows costs neither heap nor GC time.
+ *
+ * A transaction keeps its row when it is re-saved; a deleted transaction's row is freed and reused by the
+ * next insert. Mutations are expected to be serialized by the owning store, and scans hold a read lock.
+ */
+final class TransactionColumns {
+    private static final int INITIAL_ROWS = 4096;
+    private static final int NULL_ID = Integer.MIN_VALUE;
+    private static final byte FREE_ROW = -1;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ByteBuffer accountIds;
+    private ByteBuffer creators;
+    private ByteBuffer amounts;
+    private ByteBuffer createdMillis;
+    private ByteBuffer types;
+    private ByteBuffer statuses;
+    private int capacity;
+    private int rows;
+    private int liveRows;
+
+    // Transaction ID to row + 1, and rows freed by deletes
+    private int[] rowOf = new int[INITIAL_ROWS];
+    private int[] freeRows = new int[64];
+    private int freeCount;
+    private int maxCreator;
+
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Byte> typeCodes = new HashMap<>();
+    private final List<String> statusNames = new ArrayList<>();
+    private final Map<String, Byte> statusCodes = new HashMap<>();
+
+    TransactionColumns() {
+        allocate(INITIAL_ROWS);
+    }
+
+    void put(Transaction transaction) {
+        Integer transactionId = transaction.getTransactionId();
+        if (transactionId == null || transactionId < 0 || transaction.getCreatedDate() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int row = rowFor(transactionId);
+            int creator = transaction.getCreatedBy() != null ? transaction.getCreatedBy() : NULL_ID;
+            accountIds.putInt(row * 4, transaction.getAccountId() != null ? transaction.getAccountId() : NULL_ID);
+            creators.putInt(row * 4, creator);
+            amounts.putLong(row * 8, transaction.getAmount() != null ? AbstractAccount.toCents(transaction.getAmount()) : 0L);
+            createdMillis.putLong(row * 8, transaction.getCreatedDate().atZone(zone).toInstant().toEpochMilli());
+            types.put(row, encode(transaction.getTransactionType(), typeNames, typeCodes));
+            statuses.put(row, encode(String.valueOf(transaction.getStatus()), statusNames, statusCodes));
+            maxCreator = Math.max(maxCreator, creator);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Integer transactionId) {
+        if (transactionId == null || transactionId < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (transactionId >= rowOf.length || rowOf[transactionId] == 0) {
+                return;
+            }
+            int row = rowOf[transactionId] - 1;
+            rowOf[transactionId] = 0;
+            statuses.put(row, FREE_ROW);
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+            }
+            freeRows[freeCount++] = row;
+            liveRows--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            allocate(INITIAL_ROWS);
+            rows = 0;
+            liveRows = 0;
+            rowOf = new int[INITIAL_ROWS];
+            freeCount = 0;
+            maxCreator = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Per transaction type, the number of transactions created on or between the dates and the sum of
+     * their absolute amounts in cents, as {count, cents}.
+     */
+    Map<String, long[]> summarizeTypes(LocalDate startDate, LocalDate endDate) {
+        long from = startOfDay(startDate);
+        long to = startOfDay(endDate.plusDays(1));
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[typeNames.size()];
+            long[] cents = new long[typeNames.size()];
+            for (int row = 0; row < rows; row++) {
+                long created = createdMillis.getLong(row * 8);
+                if (created >= from && created < to && statuses.get(row) != FREE_ROW) {
+                    int type = types.get(row);
+                    counts[type]++;
+                    cents[type] += Math.abs(amounts.getLong(row * 8));
+                }
+            }
+            Map<String, long[]> summary = new LinkedHashMap<>();
+            for (int type = 0; type < counts.length; type++) {
+                if (counts[type] > 0) {
+                    summary.put(typeNames.get(type), new long[] {counts[type], cents[type]});
+                }
+            }
+            return summary;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of transactions each user created on or between the dates, indexed by user ID.
+     * Users beyond the end of the array created none.
+     */
+    int[] countByCreator(LocalDate startDate, LocalDate endDate) {
+        long from = startOfDay(startDate);
+        long to = startOfDay(endDate.plusDays(1));
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[maxCreator + 1];
+            for (int row = 0; row < rows; row++) {
+                long created = createdMillis.getLong(row * 8);
+                if (created >= from && created < to && statuses.get(row) != FREE_ROW) {
+                    int creator = creators.getInt(row * 4);
+                    if (creator >= 0) {
+                        counts[creator]++;
+                    }
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int countCreatedAfter(LocalDateTime instant) {
+        long after = instant.atZone(zone).toInstant().toEpochMilli();
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int row = 0; row < rows; row++) {
+                if (createdMillis.getLong(row * 8) > after && statuses.get(row) != FREE_ROW) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creation time of the newest transaction, or null when there are none.
+     */
+    LocalDateTime latestCreated() {
+        lock.readLock().lock();
+        try {
+            long latest = Long.MIN_VALUE;
+            for (int row = 0; row < rows; row++) {
+                if (statuses.get(row) != FREE_ROW) {
+                    latest = Math.max(latest, createdMillis.getLong(row * 8));
+                }
+            }
+            return latest == Long.MIN_VALUE ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(latest), zone);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Direct memory held by the columns.
+     */
+    long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) capacity * (4 + 4 + 8 + 8 + 1 + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long startOfDay(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * The transaction's existing row, or a free or new one.
+     */
+    private int rowFor(int transactionId) {
+        if (transactionId >= rowOf.length) {
+            rowOf = Arrays.copyOf(rowOf, Math.max(rowOf.length * 2, transactionId + 1));
+        }
+        if (rowOf[transactionId] != 0) {
+            return rowOf[transactionId] - 1;
+        }
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        } else {
+            if (rows == capacity) {
+                grow();
+            }
+            row = rows++;
+        }
+        rowOf[transactionId] = row + 1;
+        liveRows++;
+        return row;
+    }
+
+    private static byte encode(String value, List<String> names, Map<String, Byte> codes) {
+        Byte code = codes.get(value);
+        if (code == null) {
+            if (names.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values for a byte column: " + value);
+            }
+            code = (byte) names.size();
+            names.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private void allocate(int rowCapacity) {
+        capacity = rowCapacity;
+        accountIds = column(rowCapacity * 4);
+        creators = column(rowCapacity * 4);
+        amounts = column(rowCapacity * 8);
+        createdMillis = column(rowCapacity * 8);
+        types = column(rowCapacity);
+        statuses = column(rowCapacity);
+    }
+
+    private void grow() {
+        ByteBuffer[] old = {accountIds, creators, amounts, createdMillis, types, statuses};
+        allocate(capacity * 2);
+        ByteBuffer[] grown = {accountIds, creators, amounts, createdMillis, types, statuses};
+        for (int i = 0; i < old.length; i++) {
+            ByteBuffer source = old[i].duplicate();
+            source.clear();
+            grown[i].put(source);
+            grown[i].clear();
+        }
+    }
+
+    private static ByteBuffer column(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,361 @@
+package com.bankingsystem.utils;
+
+import com.bankingsystem.models.AbstractAccount;
+import com.bankingsystem.models.Transaction;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over the in-memory transaction ledger.
+ * Keeps every transaction and each account's transactions ordered newest first, maps reference numbers to transaction IDs,
+ * keeps a running per-account total of today's withdrawals and transfer debits, and feeds the per-day report rollups
+ * and the off-heap ledger columns.
+ * Mutations are expected to be serialized by the owning store; reads are lock-free.
+ */
+class TransactionIndex {
+    private final ConcurrentSkipListMap<LedgerKey, Transaction> byDate = new ConcurrentSkipListMap<>();
+    private final Map<Integer, ConcurrentSkipListMap<LedgerKey, Transaction>> byAccount = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Integer>> byReference = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Integer, DayTotal> dailyWithdrawals = new ConcurrentHashMap<>();
+    private final ReportRollups rollups = new ReportRollups(this::findByDay, this::lastActivity);
+    private final TransactionColumns columns = new TransactionColumns();
+
+    void add(Transaction transaction) {
+        Entry previous = unfile(transaction.getTransactionId());
+        Entry entry = new Entry(transaction);
+        if (entry.key != null) {
+            byDate.put(entry.key, transaction);
+        }
+        if (entry.accountId != null && entry.key != null) {
+            byAccount.computeIfAbsent(entry.accountId, id -> new ConcurrentSkipListMap<>())
+                .put(entry.key, transaction);
+        }
+        if (entry.referenceNumber != null) {
+            byReference.computeIfAbsent(entry.referenceNumber, ref -> new ConcurrentSkipListSet<>())
+                .add(transaction.getTransactionId());
+        }
+        if (entry.withdrawalCents != 0) {
+            dailyWithdrawals.compute(entry.accountId, (id, total) -> DayTotal.plus(total, entry.key.getCreatedDate().toLocalDate(), entry.withdrawalCents));
+        }
+        entries.put(transaction.getTransactionId(), entry);
+        rollups.replace(previous != null ? previous.rollup : null, entry.rollup);
+        columns.put(transaction);
+    }
+
+    void remove(Integer transactionId) {
+        Entry entry = unfile(transactionId);
+        if (entry != null) {
+            rollups.remove(entry.rollup);
+            columns.remove(transactionId);
+        }
+    }
+
+    private Entry unfile(Integer transactionId) {
+        Entry entry = entries.remove(transactionId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.key != null) {
+            byDate.remove(entry.key);
+        }
+        if (entry.accountId != null && entry.key != null) {
+            ConcurrentSkipListMap<LedgerKey, Transaction> ledger = byAccount.get(entry.accountId);
+            if (ledger != null) {
+                ledger.remove(entry.key);
+                if (ledger.isEmpty()) {
+                    byAccount.remove(entry.accountId, ledger);
+                }
+            }
+        }
+        if (entry.referenceNumber != null) {
+            NavigableSet<Integer> ids = byReference.get(entry.referenceNumber);
+            if (ids != null) {
+                ids.remove(transactionId);
+                if (ids.isEmpty()) {
+                    byReference.remove(entry.referenceNumber, ids);
+                }
+            }
+        }
+        if (entry.withdrawalCents != 0) {
+            dailyWithdrawals.computeIfPresent(entry.accountId, (id, total) -> DayTotal.plus(total, entry.key.getCreatedDate().toLocalDate(), -entry.withdrawalCents));
+        }
+        return entry;
+    }
+
+    void clear() {
+        entries.clear();
+        rollups.clear();
+        columns.clear();
+        dailyWithdrawals.clear();
+        byDate.clear();
+        byAccount.clear();
+        byReference.clear();
+    }
+
+    /**
+     * Returns every transaction, newest first.
+     */
+    List<Transaction> findAll() {
+        return Collections.unmodifiableList(new ArrayList<>(byDate.values()));
+    }
+
+    ReportRollups getRollups() {
+        return rollups;
+    }
+
+    TransactionColumns getColumns() {
+        return columns;
+    }
+
+    private Collection<Transaction> findByDay(LocalDate date) {
+        return byDate.subMap(LedgerKey.bound(date.plusDays(1).atStartOfDay()), false,
+                             LedgerKey.bound(date.atStartOfDay()), true).values();
+    }
+
+    private LocalDateTime lastActivity(Integer accountId, LocalDate date) {
+        Map.Entry<LedgerKey, Transaction> newest = slice(accountId, date, date).firstEntry();
+        return newest != null ? newest.getKey().getCreatedDate() : null;
+    }
+
+    /**
+     * Returns up to {@code limit} transactions, newest first, starting just after {@code after},
+     * or from the newest transaction when {@code after} is null.
+     */
+    List<Transaction> findChunk(LedgerKey after, int limit) {
+        NavigableMap<LedgerKey, Transaction> remaining = after != null ? byDate.tailMap(after, false) : byDate;
+        List<Transaction> chunk = new ArrayList<>(Math.min(limit, 1024));
+        for (Transaction transaction : remaining.values()) {
+            if (chunk.size() == limit) {
+                break;
+            }
+            chunk.add(transaction);
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the account's transactions, newest first.
+     */
+    List<Transaction> findByAccount(Integer accountId) {
+        ConcurrentSkipListMap<LedgerKey, Transaction> ledger = byAccount.get(accountId);
+        if (ledger == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(ledger.values()));
+    }
+
+    /**
+     * Returns the account's transactions created on or between the given dates, newest first.
+     */
+    List<Transaction> findByAccountAndDateRange(Integer accountId, LocalDate startDate, LocalDate endDate) {
+        return Collections.unmodifiableList(new ArrayList<>(slice(accountId, startDate, endDate).values()));
+    }
+
+    /**
+     * One page of {@link #findByAccountAndDateRange} order, where either date may be null for an open end:
+     * resumes just after {@code after} when it is given, then skips {@code offset} transactions and returns up
+     * to {@code limit}. Seeking costs O(log n) and the page O(offset + limit), whatever the size of the
+     * account's history.
+     */
+    List<Transaction> findByAccountPage(Integer accountId, LocalDate startDate, LocalDate endDate,
+                                        LedgerKey after, int offset, int limit) {
+        ConcurrentSkipListMap<LedgerKey, Transaction> ledger = byAccount.get(accountId);
+        if (ledger == null || (startDate != null && endDate != null && startDate.isAfter(endDate))) {
+            return Collections.emptyList();
+        }
+        LedgerKey from = endDate != null ? LedgerKey.bound(endDate.plusDays(1).atStartOfDay()) : null;
+        if (after != null && (from == null || after.compareTo(from) > 0)) {
+            from = after;
+        }
+        LedgerKey to = startDate != null ? LedgerKey.bound(startDate.atStartOfDay()) : null;
+        NavigableMap<LedgerKey, Transaction> range;
+        if (from != null && to != null) {
+            if (from.compareTo(to) >= 0) {
+                return Collections.emptyList();
+            }
+            range = ledger.subMap(from, false, to, true);
+        } else if (from != null) {
+            range = ledger.tailMap(from, false);
+        } else {
+            range = to != null ? ledger.headMap(to, true) : ledger;
+        }
+        List<Transaction> page = new ArrayList<>(Math.min(limit, 1024));
+        int skipped = 0;
+        for (Transaction transaction : range.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(transaction);
+            }
+        }
+        return page;
+    }
+
+    NavigableMap<LedgerKey, Transaction> slice(Integer accountId, LocalDate startDate, LocalDate endDate) {
+        ConcurrentSkipListMap<LedgerKey, Transaction> ledger = byAccount.get(accountId);
+        if (ledger == null || startDate.isAfter(endDate)) {
+            return Collections.emptyNavigableMap();
+        }
+        LocalDateTime upper = endDate.plusDays(1).atStartOfDay();
+        LocalDateTime lower = startDate.atStartOfDay();
+        return ledger.subMap(LedgerKey.bound(upper), false, LedgerKey.bound(lower), true);
+    }
+
+    /**
+     * Returns the account's withdrawal and transfer-debit total for the date, in cents.
+     * The current day is answered from the running total; earlier days fall back to a slice of the ledger.
+     */
+    long dailyWithdrawalCents(Integer accountId, LocalDate date) {
+        DayTotal total = dailyWithdrawals.get(accountId);
+        if (total == null || total.date.isBefore(date)) {
+            return 0L;
+        }
+        if (total.date.equals(date)) {
+            return total.cents;
+        }
+        long cents = 0L;
+        for (Transaction transaction : slice(accountId, date, date).values()) {
+            cents += withdrawalCents(transaction);
+        }
+        return cents;
+    }
+
+    /**
+     * Amount a transaction counts against its account's daily withdrawal limit, in cents.
+     */
+    static long withdrawalCents(Transaction transaction) {
+        if (transaction.getAmount() == null
+                || "Cancelled".equals(transaction.getStatus())
+                || "Deleted".equals(transaction.getStatus())) {
+            return 0L;
+        }
+        String type = transaction.getTransactionType();
+        if ("Withdrawal".equals(type)
+                || ("Transfer".equals(type) && transaction.getAmount().signum() < 0)) {
+            return AbstractAccount.toCents(transaction.getAmount().abs());
+        }
+        return 0L;
+    }
+
+    boolean hasTransactions(Integer accountId) {
+        ConcurrentSkipListMap<LedgerKey, Transaction> ledger = byAccount.get(accountId);
+        return ledger != null && !ledger.isEmpty();
+    }
+
+    Integer findIdByReference(String referenceNumber) {
+        NavigableSet<Integer> ids = byReference.get(referenceNumber);
+        return ids != null ? ids.ceiling(Integer.MIN_VALUE) : null;
+    }
+
+    /**
+     * The keys a transaction was filed under, so it can be unfiled after its fields are mutated in place.
+     */
+    private static final class Entry {
+        private final Integer accountId;
+        private final LedgerKey key;
+        private final String referenceNumber;
+        private final long withdrawalCents;
+        private final ReportRollups.Contribution rollup;
+
+        private Entry(Transaction transaction) {
+            this.accountId = transaction.getAccountId();
+            this.key = transaction.getCreatedDate() != null ? LedgerKey.of(transaction) : null;
+            this.referenceNumber = transaction.getReferenceNumber();
+            this.withdrawalCents = accountId != null && key != null ? withdrawalCents(transaction) : 0L;
+            this.rollup = ReportRollups.Contribution.of(transaction);
+        }
+    }
+
+    /**
+     * Running withdrawal total for one account on its most recent active day.
+     * A contribution for a later day rolls the total over; one for an earlier day leaves it untouched.
+     */
+    private static final class DayTotal {
+        private final LocalDate date;
+        private final long cents;
+
+        private DayTotal(LocalDate date, long cents) {
+            this.date = date;
+            this.cents = cents;
+        }
+
+        private static DayTotal plus(DayTotal total, LocalDate date, long cents) {
+            if (total == null || total.date.isBefore(date)) {
+                return cents > 0 ? new DayTotal(date, cents) : total;
+            }
+            if (total.date.equals(date)) {
+                return new DayTotal(date, total.cents + cents);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Sort key for an account ledger: newest transaction first, ties broken by descending ID.
+     */
+    static final class LedgerKey implements Comparable<LedgerKey> {
+        private final LocalDateTime createdDate;
+        private final int transactionId;
+
+        private LedgerKey(LocalDateTime createdDate, int transactionId) {
+            this.createdDate = createdDate;
+            this.transactionId = transactionId;
+        }
+
+        static LedgerKey of(Transaction transaction) {
+            return new LedgerKey(transaction.getCreatedDate(), transaction.getTransactionId());
+        }
+
+        static LedgerKey of(LocalDateTime createdDate, int transactionId) {
+            return new LedgerKey(createdDate, transactionId);
+        }
+
+        /**
+         * Key that sorts after every real transaction created at the given instant.
+         */
+        static LedgerKey bound(LocalDateTime instant) {
+            return new LedgerKey(instant, Integer.MIN_VALUE);
+        }
+
+        LocalDateTime getCreatedDate() {
+            return createdDate;
+        }
+
+        int getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public int compareTo(LedgerKey other) {
+            int byDate = other.createdDate.compareTo(createdDate);
+            return byDate != 0 ? byDate : Integer.compare(other.transactionId, transactionId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LedgerKey)) return false;
+            LedgerKey that = (LedgerKey) o;
+            return transactionId == that.transactionId && createdDate.equals(that.createdDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * createdDate.hashCode() + transactionId;
+        }
+    }
+}
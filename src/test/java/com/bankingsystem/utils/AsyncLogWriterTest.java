@@ -0,0 +1,87 @@
+package com.bankingsystem.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncLogWriterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private AsyncLogWriter writer;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("test.log");
+        writer = AsyncLogWriter.forFile(file);
+    }
+
+    @After
+    public void tearDown() {
+        writer.close();
+    }
+
+    @Test
+    public void writesEveryEntryInOrderBeforeFlushReturns() throws Exception {
+        int entries = 10_000;
+        for (int i = 0; i < entries; i++) {
+            assertTrue(writer.append("entry " + i));
+        }
+
+        assertTrue(writer.flush(10, TimeUnit.SECONDS));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(entries, lines.size());
+        for (int i = 0; i < entries; i++) {
+            assertTrue(lines.get(i), lines.get(i).endsWith("] entry " + i));
+        }
+        assertEquals(entries, writer.getWrittenCount());
+        assertEquals(0, writer.getQueuedCount());
+    }
+
+    @Test
+    public void givesUpFailingBatchAndRecoversOnceFileIsWritable() throws Exception {
+        assertTrue(writer.append("before"));
+        assertTrue(writer.flush(10, TimeUnit.SECONDS));
+
+        // Close the writer's channel and put a directory where the file was, so reopening it keeps failing
+        channel().close();
+        Files.delete(file);
+        Files.createDirectory(file);
+        for (int i = 0; i < 10; i++) {
+            writer.append("lost " + i);
+        }
+
+        long started = System.nanoTime();
+        assertFalse(writer.flush(30, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(20));
+        assertEquals(10, writer.getFailedCount());
+        assertEquals(0, writer.getQueuedCount());
+
+        Files.delete(file);
+        assertTrue(writer.append("after"));
+        assertTrue(writer.flush(10, TimeUnit.SECONDS));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("] after"));
+    }
+
+    private FileChannel channel() throws ReflectiveOperationException {
+        Field field = AsyncLogWriter.class.getDeclaredField("channel");
+        field.setAccessible(true);
+        return (FileChannel) field.get(writer);
+    }
+}
@@ -0,0 +1,73 @@
+package com.bankingsystem.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.bankingsystem.models.AuditRecord;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AuditTrailTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AuditTrail trail;
+
+    @Before
+    public void setUp() throws Exception {
+        trail = AuditTrail.open(folder.getRoot().toPath());
+    }
+
+    @After
+    public void tearDown() {
+        AuditTrail.closeActive();
+    }
+
+    @Test
+    public void findsOneRecordsChangesInTimeOrderAmongOthers() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            trail.append(AuditRecord.Operation.UPDATE, AuditRecord.ACCOUNTS, i % 10, null, null, "balance=" + i);
+        }
+
+        List<AuditRecord> changes = trail.findChanges(AuditRecord.ACCOUNTS, 3, LocalDateTime.now().minusMinutes(1),
+                                                      LocalDateTime.now().plusMinutes(1));
+        assertEquals(10, changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals("balance=" + (i * 10 + 3), changes.get(i).getNewValues());
+        }
+        assertEquals(0, trail.findChanges(AuditRecord.CUSTOMERS, 3, LocalDateTime.now().minusMinutes(1),
+                                          LocalDateTime.now().plusMinutes(1)).size());
+    }
+
+    @Test
+    public void findsChangesAcrossSealedAndActiveSegments() throws Exception {
+        trail.append(AuditRecord.Operation.INSERT, AuditRecord.USERS, 7, null, null, "username=old;role=Teller");
+        AuditTrail.closeActive();
+        trail = AuditTrail.open(folder.getRoot().toPath());
+        trail.append(AuditRecord.Operation.UPDATE, AuditRecord.USERS, 7, null, null, "role=Manager");
+
+        List<AuditRecord> changes = trail.findChanges(AuditRecord.USERS, 7, LocalDateTime.now().minusMinutes(1),
+                                                      LocalDateTime.now().plusMinutes(1));
+        assertEquals(2, changes.size());
+        assertEquals(AuditRecord.Operation.INSERT, changes.get(0).getOperationType());
+        assertEquals("role=Manager", changes.get(1).getNewValues());
+    }
+
+    @Test
+    public void rebuildsPreviousValuesFromNewestChangesBack() throws Exception {
+        trail.append(AuditRecord.Operation.INSERT, AuditRecord.USERS, 1, null, null, "username=alice;role=Teller;is_active=true");
+        trail.append(AuditRecord.Operation.UPDATE, AuditRecord.USERS, 2, null, null, "username=bob;role=Admin;is_active=true");
+        AuditTrail.closeActive();
+        trail = AuditTrail.open(folder.getRoot().toPath());
+        trail.append(AuditRecord.Operation.UPDATE, AuditRecord.USERS, 1, null, null, "role=Manager");
+
+        assertEquals("username=alice;role=Manager;is_active=true",
+                     AuditTrail.previousValues(AuditRecord.USERS, 1, "username=alice;role=Admin;is_active=false"));
+        assertNull(AuditTrail.previousValues(AuditRecord.USERS, 3, "username=carol"));
+    }
+}